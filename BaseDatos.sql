@@ -2,44 +2,38 @@ CREATE DATABASE db_banco;
 use db_banco;
 
 -- /* CREACION DE TABLAS*/
--- TABLA PERSONA
-CREATE TABLE IF NOT EXISTS PERSONA  (
-    PersonaId BIGINT AUTO_INCREMENT PRIMARY KEY,
-    Identificacion VARCHAR(50) NOT NULL UNIQUE,
-    Nombre VARCHAR(100),
-    Genero VARCHAR(20),
-    Edad INT,
-    Direccion VARCHAR(200),
-    Telefono VARCHAR(20)
-);
+-- Las tablas las crea y versiona Flyway al iniciar cada microservicio:
+--   ms-banco-cliente/src/main/resources/db/migration (PERSONA, CLIENTE)       -> historial flyway_historial_cliente
+--   ms-banco-cuenta/src/main/resources/db/migration  (CUENTA, MOVIMIENTO, ...) -> historial flyway_historial_cuenta
+-- En una base nueva cada servicio inicia su historial y aplica todas sus migraciones, en cualquier orden.
+--
+-- Una base creada con versiones anteriores de este script (tablas sin historial de Flyway) hace fallar el
+-- arranque hasta marcarla una sola vez como versión 1 de cada servicio; después recibe las migraciones
+-- siguientes. Antes del baseline debe tener las columnas de abajo. Con la CLI de Flyway:
+--   flyway -url=jdbc:mysql://localhost:3306/db_banco -user=root -password=... \
+--          -table=flyway_historial_cliente -baselineVersion=1 baseline
+--   flyway -url=jdbc:mysql://localhost:3306/db_banco -user=root -password=... \
+--          -table=flyway_historial_cuenta -baselineVersion=1 baseline
+-- No activar spring.flyway.baseline-on-migrate: en una base nueva el servicio que arranca segundo ve las
+-- tablas del otro, se marcaría como versión 1 y saltaría su V1__esquema_inicial.sql.
 
--- TABLA CLIENTE
-CREATE TABLE IF NOT EXISTS CLIENTE (
-    ClienteId BIGINT AUTO_INCREMENT PRIMARY KEY,
-    Contrasena VARCHAR(100) NOT NULL,
-    Estado VARCHAR(20),
-    PersonaId BIGINT NOT NULL,
-    FOREIGN KEY (personaId) REFERENCES Persona(personaId)
-);
+-- /* ACTUALIZACION DE ESQUEMAS EXISTENTES */
+-- Saldo materializado en CUENTA. Luego de agregar las columnas ejecutar ms-banco-cuenta
+-- una vez con banco.saldo.backfill.enabled=true para poblarlas desde MOVIMIENTO.
+-- ALTER TABLE Cuenta ADD COLUMN SaldoActual DECIMAL(15,2) NOT NULL DEFAULT 0.00 AFTER SaldoInicial;
+-- ALTER TABLE Cuenta ADD COLUMN UltimoMovimientoId BIGINT AFTER SaldoActual;
 
--- TABLA CUENTA
-CREATE TABLE IF NOT EXISTS Cuenta (
-    CuentaId BIGINT AUTO_INCREMENT PRIMARY KEY,
-    NumeroCuenta VARCHAR(30) NOT NULL UNIQUE,
-    TipoCuenta VARCHAR(30) NOT NULL,
-    SaldoInicial DECIMAL(15,2) NOT NULL DEFAULT 0.00,
-    Estado VARCHAR(20),
-    ClienteId BIGINT NOT NULL,
-    FOREIGN KEY (ClienteId) REFERENCES Cliente(clienteId)
-);
+-- IDs de Cuenta y Movimiento generados por ID_GENERADOR en lugar de AUTO_INCREMENT.
+-- Crear la tabla ID_GENERADOR (ver V1__esquema_inicial.sql de ms-banco-cuenta) y sembrarla a partir de los IDs existentes:
+-- INSERT INTO ID_GENERADOR (Entidad, Valor) SELECT 'CUENTA', COALESCE(MAX(CuentaId), 0) + 1 FROM Cuenta;
+-- INSERT INTO ID_GENERADOR (Entidad, Valor) SELECT 'MOVIMIENTO', COALESCE(MAX(MovimientoId), 0) + 1 FROM Movimiento;
+-- SET FOREIGN_KEY_CHECKS = 0;
+-- ALTER TABLE Cuenta MODIFY CuentaId BIGINT NOT NULL;
+-- ALTER TABLE Movimiento MODIFY MovimientoId BIGINT NOT NULL;
+-- SET FOREIGN_KEY_CHECKS = 1;
 
--- TABLA MOVIMIENTO
-CREATE TABLE IF NOT EXISTS Movimiento (
-    MovimientoId BIGINT AUTO_INCREMENT PRIMARY KEY,
-    Fecha DATETIME NOT NULL,
-    TipoMovimiento VARCHAR(30) NOT NULL,
-    Valor DECIMAL(15,2) NOT NULL,
-    Saldo DECIMAL(15,2) NOT NULL,
-    CuentaId BIGINT NOT NULL,
-    FOREIGN KEY (cuentaId) REFERENCES Cuenta(CuentaId)
-);
\ No newline at end of file
+-- Transferencias: débito y crédito enlazados por TransferenciaId
+-- ALTER TABLE Movimiento ADD COLUMN TransferenciaId VARCHAR(36) AFTER CuentaId;
+-- CREATE INDEX IX_MOVIMIENTO_TRANSFERENCIA ON Movimiento (TransferenciaId);
+
+-- Idempotency-Key: crear IDEMPOTENCIA_MOVIMIENTO y su índice (ver V1__esquema_inicial.sql de ms-banco-cuenta)
@@ -0,0 +1,58 @@
+package banco.jontuna.ms_banco_cliente.config;
+
+import org.flywaydb.core.Flyway;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+// db_banco es compartida con ms-banco-cuenta y Flyway no migra un esquema con tablas ajenas si falta su
+// historial. Sin historial y sin ninguna tabla de este servicio la base es nueva para él: el historial se
+// inicia en la versión 0 y se aplican todas las migraciones. Una base creada con BaseDatos.sql (tablas propias
+// sin historial) se rechaza hasta hacer el baseline a mano (ver BaseDatos.sql); baseline-on-migrate queda apagado.
+@Configuration
+public class FlywayConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlywayConfig.class);
+
+    // Tablas de V1__esquema_inicial.sql
+    static final List<String> TABLAS_PROPIAS = List.of("PERSONA", "CLIENTE");
+
+    @Bean
+    public FlywayMigrationStrategy migracionEsquemaCompartido() {
+        return flyway -> migrar(flyway, TABLAS_PROPIAS);
+    }
+
+    static void migrar(Flyway flyway, List<String> tablasPropias) {
+        DataSource dataSource = flyway.getConfiguration().getDataSource();
+        String historial = flyway.getConfiguration().getTable();
+        if (!existeAlguna(dataSource, List.of(historial)) && !existeAlguna(dataSource, tablasPropias)) {
+            logger.info("Esquema sin tablas de este servicio: se inicia {} en la versión 0", historial);
+            Flyway.configure().configuration(flyway.getConfiguration()).baselineVersion("0").load().baseline();
+        }
+        flyway.migrate();
+    }
+
+    // Sin distinguir mayúsculas: las bases creadas con BaseDatos.sql usan Persona, Cliente
+    private static boolean existeAlguna(DataSource dataSource, List<String> tablas) {
+        try (Connection conexion = dataSource.getConnection();
+             ResultSet existentes = conexion.getMetaData().getTables(conexion.getCatalog(), conexion.getSchema(), "%", null)) {
+            while (existentes.next()) {
+                String nombre = existentes.getString("TABLE_NAME");
+                if (tablas.stream().anyMatch(nombre::equalsIgnoreCase)) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (SQLException e) {
+            throw new RuntimeException("No se pudieron leer las tablas del esquema", e);
+        }
+    }
+}
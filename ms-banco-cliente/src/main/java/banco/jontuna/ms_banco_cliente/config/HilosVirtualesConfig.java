@@ -0,0 +1,33 @@
+package banco.jontuna.ms_banco_cliente.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+// Perfil "virtual": Tomcat, los listeners de RabbitMQ y @Async corren sobre hilos virtuales
+// (spring.threads.virtual.enabled) y el acceso a conexiones se acota con SemaforoDataSource.
+@Configuration
+@ConditionalOnProperty(name = "banco.datasource.semaforo.enabled", havingValue = "true")
+public class HilosVirtualesConfig {
+
+    @Bean
+    public static BeanPostProcessor semaforoDataSourcePostProcessor(Environment environment) {
+        int maximoConexiones = environment.getProperty("banco.datasource.semaforo.permisos", Integer.class,
+                environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+        long timeoutMs = environment.getProperty("banco.datasource.semaforo.timeout-ms", Long.class, 30000L);
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof SemaforoDataSource)) {
+                    return new SemaforoDataSource(dataSource, maximoConexiones, timeoutMs);
+                }
+                return bean;
+            }
+        };
+    }
+}
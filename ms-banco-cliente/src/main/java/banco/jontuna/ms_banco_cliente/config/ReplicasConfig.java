@@ -0,0 +1,98 @@
+package banco.jontuna.ms_banco_cliente.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+// Réplicas de lectura: las transacciones @Transactional(readOnly = true) leen de las réplicas y el resto
+// (escrituras, Flyway) usa la primaria. LazyConnectionDataSourceProxy retrasa la
+// conexión real hasta la primera sentencia, cuando ya se sabe si la transacción es de solo lectura.
+@Configuration
+@ConditionalOnProperty(name = "banco.datasource.replicas.enabled", havingValue = "true")
+public class ReplicasConfig {
+
+    @Bean
+    public static BeanPostProcessor replicasDataSourcePostProcessor(Environment environment) {
+        return new ReplicasPostProcessor(environment);
+    }
+
+    // Se aplica antes que otros envoltorios (p. ej. SemaforoDataSource) para que estos cuenten también
+    // las conexiones a réplicas
+    private static class ReplicasPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final Environment environment;
+
+        ReplicasPostProcessor(Environment environment) {
+            this.environment = environment;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource primaria && !(bean instanceof LecturaEnReplicasDataSource)) {
+                return new LecturaEnReplicasDataSource(primaria, crearReplicas(primaria));
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+
+        private ReplicasDataSource crearReplicas(DataSource primaria) {
+            String[] urls = environment.getProperty("banco.datasource.replicas.urls", String[].class, new String[0]);
+            List<DataSource> replicas = new ArrayList<>();
+            for (int i = 0; i < urls.length; i++) {
+                HikariDataSource replica = new HikariDataSource();
+                replica.setPoolName("replica-" + i);
+                replica.setJdbcUrl(urls[i].trim());
+                replica.setDriverClassName(environment.getProperty("spring.datasource.driver-class-name"));
+                replica.setUsername(environment.getProperty("banco.datasource.replicas.username",
+                        environment.getProperty("spring.datasource.username")));
+                replica.setPassword(environment.getProperty("banco.datasource.replicas.password",
+                        environment.getProperty("spring.datasource.password")));
+                replica.setMaximumPoolSize(environment.getProperty("banco.datasource.replicas.maximum-pool-size", Integer.class, 10));
+                // Mismo auto-commit que la primaria: Hibernate decide si lo desactiva según esa configuración
+                replica.setAutoCommit(environment.getProperty("spring.datasource.hikari.auto-commit", Boolean.class, true));
+                replica.setReadOnly(true);
+                // Una réplica caída al arrancar no impide levantar el servicio: queda fuera de la rotación
+                replica.setInitializationFailTimeout(-1);
+                replica.setConnectionTimeout(environment.getProperty("banco.datasource.replicas.connection-timeout-ms", Long.class, 2000L));
+                replicas.add(replica);
+            }
+
+            return new ReplicasDataSource(primaria, replicas,
+                    environment.getProperty("banco.datasource.replicas.verificacion.intervalo-ms", Long.class, 5000L),
+                    environment.getProperty("banco.datasource.replicas.verificacion.timeout-segundos", Integer.class, 2));
+        }
+    }
+
+    // Al cerrar el contexto cierra la primaria y los pools de réplicas (el proxy reemplaza al bean de Hikari)
+    static class LecturaEnReplicasDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+        private final ReplicasDataSource replicas;
+
+        LecturaEnReplicasDataSource(DataSource primaria, ReplicasDataSource replicas) {
+            super(primaria);
+            this.replicas = replicas;
+            setReadOnlyDataSource(replicas);
+        }
+
+        @Override
+        public void close() throws Exception {
+            replicas.close();
+            if (getTargetDataSource() instanceof AutoCloseable primaria) {
+                primaria.close();
+            }
+        }
+    }
+}
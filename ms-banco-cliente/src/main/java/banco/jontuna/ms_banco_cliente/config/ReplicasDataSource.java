@@ -0,0 +1,139 @@
+package banco.jontuna.ms_banco_cliente.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Conexiones de solo lectura repartidas en round-robin entre las réplicas disponibles. Una réplica que
+// falla al entregar conexión (o en la verificación periódica con isValid) queda fuera hasta que vuelva a
+// responder; sin réplicas disponibles la lectura va a la primaria, marcada como solo lectura.
+public class ReplicasDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicasDataSource.class);
+
+    private final DataSource primaria;
+    private final List<DataSource> replicas;
+    private final int timeoutValidacionSegundos;
+    // 1 = disponible, 0 = caída (AtomicLongArray para publicar el estado entre hilos sin locks)
+    private final AtomicLongArray disponibles;
+    private final AtomicInteger siguiente = new AtomicInteger();
+    private final AtomicLong lecturasEnPrimaria = new AtomicLong();
+    private final ScheduledExecutorService verificador;
+
+    public ReplicasDataSource(DataSource primaria, List<DataSource> replicas, long intervaloVerificacionMs,
+                              int timeoutValidacionSegundos) {
+        this.primaria = primaria;
+        this.replicas = List.copyOf(replicas);
+        this.timeoutValidacionSegundos = timeoutValidacionSegundos;
+        this.disponibles = new AtomicLongArray(this.replicas.size());
+        for (int i = 0; i < this.replicas.size(); i++) {
+            disponibles.set(i, 1);
+        }
+
+        this.verificador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "verificador-replicas");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        if (intervaloVerificacionMs > 0) {
+            verificador.scheduleWithFixedDelay(this::verificarReplicas, 0, intervaloVerificacionMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        int cantidad = replicas.size();
+        int inicio = Math.floorMod(siguiente.getAndIncrement(), Math.max(cantidad, 1));
+        for (int i = 0; i < cantidad; i++) {
+            int indice = (inicio + i) % cantidad;
+            if (disponibles.get(indice) == 0) {
+                continue;
+            }
+            try {
+                return replicas.get(indice).getConnection();
+            } catch (SQLException e) {
+                marcar(indice, false, e);
+            }
+        }
+
+        lecturasEnPrimaria.incrementAndGet();
+        Connection conexion = primaria.getConnection();
+        try {
+            conexion.setReadOnly(true);
+            return conexion;
+        } catch (SQLException e) {
+            conexion.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new UnsupportedOperationException("Las réplicas usan las credenciales de su pool");
+    }
+
+    // Pide una conexión a cada réplica y la valida; las que vuelven a responder entran otra vez en la rotación
+    public void verificarReplicas() {
+        for (int i = 0; i < replicas.size(); i++) {
+            try (Connection conexion = replicas.get(i).getConnection()) {
+                if (conexion.isValid(timeoutValidacionSegundos)) {
+                    marcar(i, true, null);
+                } else {
+                    marcar(i, false, null);
+                }
+            } catch (SQLException | RuntimeException e) {
+                marcar(i, false, e);
+            }
+        }
+    }
+
+    public int getReplicasDisponibles() {
+        int total = 0;
+        for (int i = 0; i < replicas.size(); i++) {
+            total += (int) disponibles.get(i);
+        }
+        return total;
+    }
+
+    public int getCantidadReplicas() {
+        return replicas.size();
+    }
+
+    public long getLecturasEnPrimaria() {
+        return lecturasEnPrimaria.get();
+    }
+
+    @Override
+    public void close() {
+        verificador.shutdownNow();
+        for (DataSource replica : replicas) {
+            if (replica instanceof AutoCloseable cerrable) {
+                try {
+                    cerrable.close();
+                } catch (Exception e) {
+                    logger.warn("Error al cerrar el pool de una réplica", e);
+                }
+            }
+        }
+    }
+
+    private void marcar(int indice, boolean disponible, Exception causa) {
+        long anterior = disponibles.getAndSet(indice, disponible ? 1 : 0);
+        if (anterior == 1 && !disponible) {
+            logger.warn("Réplica {} fuera de la rotación de lecturas", indice, causa);
+        } else if (anterior == 0 && disponible) {
+            logger.info("Réplica {} disponible otra vez para lecturas", indice);
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package banco.jontuna.ms_banco_cliente.controller;
 
-import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -11,11 +10,15 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import banco.jontuna.ms_banco_cliente.dto.ClientePaginaDTO;
 import banco.jontuna.ms_banco_cliente.dto.ClienteRequestDTO;
 import banco.jontuna.ms_banco_cliente.dto.ClienteResponseDTO;
+import banco.jontuna.ms_banco_cliente.dto.FiltroIdentificacionDTO;
 import banco.jontuna.ms_banco_cliente.service.ClienteService;
+import banco.jontuna.ms_banco_cliente.service.FiltroIdentificacionService;
 import jakarta.validation.Valid;
 
 @RestController
@@ -26,15 +29,23 @@ public class ClienteController {
     @Autowired
     private ClienteService clienteService;
 
+    @Autowired(required = false)
+    private FiltroIdentificacionService filtroIdentificacionService;
+
     @PostMapping
     public ResponseEntity<ClienteResponseDTO> crearCliente(@Valid @RequestBody ClienteRequestDTO clienteRequest) {
         ClienteResponseDTO clienteCreado = clienteService.crearCliente(clienteRequest);
         return ResponseEntity.ok(clienteCreado);
     }
 
+    // GET /api/clientes?page=0&size=50&sort=nombre,desc&estado=ACTIVO
     @GetMapping
-    public ResponseEntity<List<ClienteResponseDTO>> obtenerTodosLosClientes() {
-        List<ClienteResponseDTO> clientes = clienteService.obtenerTodosLosClientes();
+    public ResponseEntity<ClientePaginaDTO> obtenerClientes(
+            @RequestParam(value = "page", required = false) Integer pagina,
+            @RequestParam(value = "size", required = false) Integer tamano,
+            @RequestParam(value = "sort", required = false) String orden,
+            @RequestParam(value = "estado", required = false) String estado) {
+        ClientePaginaDTO clientes = clienteService.obtenerClientes(estado, pagina, tamano, orden);
         return ResponseEntity.ok(clientes);
     }
 
@@ -65,4 +76,13 @@ public class ClienteController {
         clienteService.desactivarCliente(id);
         return ResponseEntity.ok().build();
     }
-}
\ No newline at end of file
+
+    // Recarga el filtro de identificaciones desde PERSONA (p. ej. después de una carga masiva fuera del servicio)
+    @PostMapping("/filtro-identificacion/reconstruir")
+    public ResponseEntity<FiltroIdentificacionDTO> reconstruirFiltroIdentificacion() {
+        if (filtroIdentificacionService == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(filtroIdentificacionService.reconstruir());
+    }
+}
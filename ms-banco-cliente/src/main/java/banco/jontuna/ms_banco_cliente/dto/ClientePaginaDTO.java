@@ -0,0 +1,23 @@
+package banco.jontuna.ms_banco_cliente.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ClientePaginaDTO {
+    private List<ClienteResponseDTO> clientes;
+    private int pagina;
+    private int tamano;
+    // Sin total de registros: la página se resuelve con una sola consulta (sin COUNT)
+    private boolean haySiguiente;
+
+    public ClientePaginaDTO() {}
+
+    public ClientePaginaDTO(List<ClienteResponseDTO> clientes, int pagina, int tamano, boolean haySiguiente) {
+        this.clientes = clientes;
+        this.pagina = pagina;
+        this.tamano = tamano;
+        this.haySiguiente = haySiguiente;
+    }
+}
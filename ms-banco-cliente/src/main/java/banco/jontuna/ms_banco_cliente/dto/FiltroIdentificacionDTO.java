@@ -0,0 +1,20 @@
+package banco.jontuna.ms_banco_cliente.dto;
+
+import lombok.Data;
+
+@Data
+public class FiltroIdentificacionDTO {
+    private long elementos;
+    private long bits;
+    private int funcionesHash;
+    private double probabilidadFalsoPositivo;
+
+    public FiltroIdentificacionDTO() {}
+
+    public FiltroIdentificacionDTO(long elementos, long bits, int funcionesHash, double probabilidadFalsoPositivo) {
+        this.elementos = elementos;
+        this.bits = bits;
+        this.funcionesHash = funcionesHash;
+        this.probabilidadFalsoPositivo = probabilidadFalsoPositivo;
+    }
+}
@@ -1,8 +1,9 @@
 package banco.jontuna.ms_banco_cliente.repository;
 
-import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -16,8 +17,13 @@ public interface ClienteRepository extends JpaRepository<Cliente, Long> {
     @Query("SELECT c FROM Cliente c WHERE c.persona.identificacion = :identificacion")
     Optional<Cliente> findByPersonaIdentificacion(@Param("identificacion") String identificacion);
     
-    @Query("SELECT c FROM Cliente c WHERE c.estado = :estado")
-    List<Cliente> findByEstado(@Param("estado") String estado);
+    // Listado paginado: Persona llega en el mismo SELECT (JOIN FETCH) y Slice pide tamaño + 1 filas en lugar
+    // de un COUNT, así que cada página es una sola consulta
+    @Query("SELECT c FROM Cliente c JOIN FETCH c.persona")
+    Slice<Cliente> findPagina(Pageable pageable);
+
+    @Query("SELECT c FROM Cliente c JOIN FETCH c.persona WHERE c.estado = :estado")
+    Slice<Cliente> findByEstado(@Param("estado") String estado, Pageable pageable);
     
     @Query("SELECT COUNT(c) > 0 FROM Cliente c WHERE c.persona.identificacion = :identificacion")
     boolean existsByPersonaIdentificacion(@Param("identificacion") String identificacion);
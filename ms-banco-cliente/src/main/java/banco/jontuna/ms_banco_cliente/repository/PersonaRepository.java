@@ -1,7 +1,9 @@
 package banco.jontuna.ms_banco_cliente.repository;
 
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -17,4 +19,8 @@ public interface PersonaRepository extends JpaRepository<Persona, Long> {
     
     @Query("SELECT COUNT(p) > 0 FROM Persona p WHERE p.identificacion = :identificacion")
     boolean existsByIdentificacion(@Param("identificacion") String identificacion);
+
+    // Página de (personaId, identificacion) después de personaId, para cargar el filtro de identificaciones
+    @Query("SELECT p.personaId, p.identificacion FROM Persona p WHERE p.personaId > :personaId ORDER BY p.personaId")
+    List<Object[]> findIdentificacionesDesde(@Param("personaId") Long personaId, Limit limit);
 }
@@ -1,15 +1,24 @@
 package banco.jontuna.ms_banco_cliente.service;
 
+import java.sql.SQLException;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import banco.jontuna.ms_banco_cliente.dto.ClientePaginaDTO;
 import banco.jontuna.ms_banco_cliente.dto.ClienteRequestDTO;
 import banco.jontuna.ms_banco_cliente.dto.ClienteResponseDTO;
 import banco.jontuna.ms_banco_cliente.model.Cliente;
@@ -27,6 +36,13 @@ public class ClienteService {
 
     private static final Logger logger = LoggerFactory.getLogger(ClienteService.class);
 
+    // Parámetro sort de GET /api/clientes -> propiedad de la entidad
+    private static final Map<String, String> CAMPOS_ORDEN = Map.of(
+            "clienteId", "clienteId",
+            "estado", "estado",
+            "nombre", "persona.nombre",
+            "identificacion", "persona.identificacion");
+
     @Autowired
     private ClienteRepository clienteRepository;
 
@@ -39,12 +55,29 @@ public class ClienteService {
     @Autowired
     private ClienteEventPublisher clienteEventPublisher; // Inyectamos el publisher
 
+    @Autowired(required = false)
+    private FiltroIdentificacionService filtroIdentificacion;
+
+    @Value("${banco.clientes.paginacion.tamano-defecto:50}")
+    private int tamanoPaginaDefecto;
+
+    @Value("${banco.clientes.paginacion.tamano-maximo:500}")
+    private int tamanoPaginaMaximo;
+
     public ClienteResponseDTO crearCliente(ClienteRequestDTO clienteRequest) {
         logger.info("Iniciando creación de cliente: {}", clienteRequest.getPersona().getNombre());
 
         try {
-            if (personaRepository.existsByIdentificacion(clienteRequest.getPersona().getIdentificacion())) {
-                throw new PersonaAlreadyExistsException("identificación", clienteRequest.getPersona().getIdentificacion());
+            String identificacion = clienteRequest.getPersona().getIdentificacion();
+            // El COUNT solo corre si el filtro no descarta la identificación (o si el filtro está desactivado)
+            if (filtroIdentificacion == null || filtroIdentificacion.puedeExistir(identificacion)) {
+                boolean existe = personaRepository.existsByIdentificacion(identificacion);
+                if (filtroIdentificacion != null) {
+                    filtroIdentificacion.confirmar(existe);
+                }
+                if (existe) {
+                    throw new PersonaAlreadyExistsException("identificación", identificacion);
+                }
             }
 
             if (clienteRequest.getContrasena() == null || clienteRequest.getContrasena().trim().isEmpty()) {
@@ -57,8 +90,20 @@ public class ClienteService {
 
             Cliente cliente = clienteMapper.toEntity(clienteRequest);
 
-            Cliente clienteGuardado = clienteRepository.save(cliente);
+            Cliente clienteGuardado;
+            try {
+                clienteGuardado = clienteRepository.save(cliente);
+            } catch (DataIntegrityViolationException e) {
+                // Alta concurrente de la misma identificación: la rechaza el índice único
+                if (violaIdentificacionUnica(e)) {
+                    throw new PersonaAlreadyExistsException("identificación", identificacion);
+                }
+                throw e;
+            }
             logger.info("Cliente guardado con ID: {}", clienteGuardado.getClienteId());
+            if (filtroIdentificacion != null) {
+                filtroIdentificacion.registrar(identificacion);
+            }
 
             // Publicar evento asíncrono - Con manejo de excepciones integrado
             clienteEventPublisher.publicarClienteCreado(
@@ -90,6 +135,31 @@ public class ClienteService {
         }
     }
 
+    // Una página de clientes con su persona en una sola consulta. orden: "campo" o "campo,asc|desc"; clienteId
+    // desempata para que las páginas no repitan ni salten filas
+    @Transactional(readOnly = true)
+    public ClientePaginaDTO obtenerClientes(String estado, Integer pagina, Integer tamano, String orden) {
+        try {
+            int numeroPagina = pagina != null ? pagina : 0;
+            if (numeroPagina < 0) {
+                throw new ValidationException("El número de página no puede ser negativo");
+            }
+            int tamanoPagina = resolverTamanoPagina(tamano);
+            Pageable pageable = PageRequest.of(numeroPagina, tamanoPagina, resolverOrden(orden));
+
+            Slice<Cliente> clientes = estado != null
+                    ? clienteRepository.findByEstado(estado, pageable)
+                    : clienteRepository.findPagina(pageable);
+            return new ClientePaginaDTO(clientes.map(clienteMapper::toResponseDTO).getContent(),
+                    numeroPagina, tamanoPagina, clientes.hasNext());
+        } catch (ValidationException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error al obtener la página {} de clientes", pagina, e);
+            throw new RuntimeException("Error al obtener la lista de clientes");
+        }
+    }
+
     @Transactional(readOnly = true)
     public Optional<ClienteResponseDTO> obtenerClientePorId(Long id) {
         try {
@@ -196,4 +266,43 @@ public class ClienteService {
             throw new RuntimeException("Error al verificar la existencia del cliente");
         }
     }
+
+    // Identificacion es la única clave única del alta. Se reconoce por código y no por nombre: en las bases
+    // creadas con BaseDatos.sql el índice se llama Identificacion y no UK_PERSONA_IDENTIFICACION
+    private boolean violaIdentificacionUnica(DataIntegrityViolationException e) {
+        for (Throwable causa = e; causa != null; causa = causa.getCause()) {
+            if (causa instanceof SQLException sqlException) {
+                // MySQL: error 1062 (SQLState 23000, compartido con otras restricciones); H2: SQLState 23505
+                return sqlException.getErrorCode() == 1062 || "23505".equals(sqlException.getSQLState());
+            }
+        }
+        return false;
+    }
+
+    private int resolverTamanoPagina(Integer tamano) {
+        if (tamano == null) {
+            return tamanoPaginaDefecto;
+        }
+        if (tamano < 1) {
+            throw new ValidationException("El tamaño de página debe ser mayor a cero");
+        }
+        return Math.min(tamano, tamanoPaginaMaximo);
+    }
+
+    private Sort resolverOrden(String orden) {
+        if (orden == null || orden.isBlank()) {
+            return Sort.by("clienteId");
+        }
+        String[] partes = orden.split(",");
+        String propiedad = CAMPOS_ORDEN.get(partes[0].trim());
+        if (propiedad == null || partes.length > 2) {
+            throw new ValidationException("Orden no soportado: " + orden + ". Campos: " + CAMPOS_ORDEN.keySet());
+        }
+        Sort.Direction direccion = partes.length == 2
+                ? Sort.Direction.fromOptionalString(partes[1].trim())
+                        .orElseThrow(() -> new ValidationException("Dirección de orden inválida: " + partes[1]))
+                : Sort.Direction.ASC;
+        Sort sort = Sort.by(direccion, propiedad);
+        return propiedad.equals("clienteId") ? sort : sort.and(Sort.by("clienteId"));
+    }
 }
@@ -0,0 +1,164 @@
+package banco.jontuna.ms_banco_cliente.service;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import banco.jontuna.ms_banco_cliente.dto.FiltroIdentificacionDTO;
+import banco.jontuna.ms_banco_cliente.repository.PersonaRepository;
+import banco.jontuna.ms_banco_cliente.util.filtro.FiltroBloom;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Filtro de Bloom con las identificaciones de PERSONA. Si el filtro descarta una identificación, crearCliente
+// no ejecuta el COUNT previo; si dice que puede existir, se consulta la base. Un falso negativo no es
+// posible salvo en la ventana de una reconstrucción, y ahí el índice único UK_PERSONA_IDENTIFICACION
+// sigue rechazando el duplicado.
+@Service
+@ConditionalOnProperty(name = "banco.clientes.filtro-identificacion.enabled", havingValue = "true")
+public class FiltroIdentificacionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FiltroIdentificacionService.class);
+
+    private final PersonaRepository personaRepository;
+    private final long capacidad;
+    private final double probabilidadFalsoPositivo;
+    private final int tamanoLote;
+
+    private volatile FiltroBloom filtro;
+    // Filtro que se está reconstruyendo: las altas de ese momento se agregan también aquí
+    private volatile FiltroBloom enConstruccion;
+    // Hasta la primera carga completa todas las identificaciones se verifican en la base
+    private volatile boolean listo;
+
+    private final Counter consultasNuevas;
+    private final Counter consultasPosibles;
+    private final Counter duplicadosConfirmados;
+    private final Counter falsosPositivos;
+
+    public FiltroIdentificacionService(PersonaRepository personaRepository, MeterRegistry meterRegistry,
+                                       @Value("${banco.clientes.filtro-identificacion.capacidad:1000000}") long capacidad,
+                                       @Value("${banco.clientes.filtro-identificacion.probabilidad-falso-positivo:0.01}") double probabilidadFalsoPositivo,
+                                       @Value("${banco.clientes.filtro-identificacion.tamano-lote:1000}") int tamanoLote) {
+        this.personaRepository = personaRepository;
+        this.capacidad = capacidad;
+        this.probabilidadFalsoPositivo = probabilidadFalsoPositivo;
+        this.tamanoLote = tamanoLote;
+        this.filtro = FiltroBloom.paraCapacidad(capacidad, probabilidadFalsoPositivo);
+
+        this.consultasNuevas = Counter.builder("banco.clientes.filtro-identificacion.consultas")
+                .tag("resultado", "nuevo")
+                .description("Identificaciones descartadas por el filtro (sin consulta a la base)")
+                .register(meterRegistry);
+        this.consultasPosibles = Counter.builder("banco.clientes.filtro-identificacion.consultas")
+                .tag("resultado", "posible")
+                .description("Identificaciones que el filtro no pudo descartar")
+                .register(meterRegistry);
+        this.duplicadosConfirmados = Counter.builder("banco.clientes.filtro-identificacion.verificaciones")
+                .tag("resultado", "duplicado")
+                .register(meterRegistry);
+        this.falsosPositivos = Counter.builder("banco.clientes.filtro-identificacion.verificaciones")
+                .tag("resultado", "falso-positivo")
+                .register(meterRegistry);
+        Gauge.builder("banco.clientes.filtro-identificacion.tasa-falsos-positivos", this, FiltroIdentificacionService::tasaFalsosPositivos)
+                .description("Falsos positivos sobre el total de identificaciones nuevas consultadas")
+                .register(meterRegistry);
+        Gauge.builder("banco.clientes.filtro-identificacion.fpp-estimada", this, servicio -> servicio.filtro.probabilidadFalsoPositivo())
+                .description("Probabilidad de falso positivo según la ocupación del filtro")
+                .register(meterRegistry);
+        Gauge.builder("banco.clientes.filtro-identificacion.elementos", this, servicio -> servicio.filtro.getElementos())
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void precargar() {
+        try {
+            reconstruir();
+        } catch (Exception e) {
+            logger.error("No se pudo cargar el filtro de identificaciones; se verificarán en la base", e);
+        }
+    }
+
+    // false: la identificación no está registrada. true: hay que verificarla en la base
+    public boolean puedeExistir(String identificacion) {
+        if (!listo) {
+            return true;
+        }
+        if (filtro.puedeContener(identificacion)) {
+            consultasPosibles.increment();
+            return true;
+        }
+        consultasNuevas.increment();
+        return false;
+    }
+
+    // Resultado de la consulta a la base para una identificación que el filtro no descartó
+    public void confirmar(boolean existe) {
+        if (!listo) {
+            return;
+        }
+        if (existe) {
+            duplicadosConfirmados.increment();
+        } else {
+            falsosPositivos.increment();
+        }
+    }
+
+    // Se llama al insertar la persona, antes del commit: si la transacción se revierte solo queda un falso positivo
+    public void registrar(String identificacion) {
+        FiltroBloom nuevo = enConstruccion;
+        if (nuevo != null) {
+            nuevo.agregar(identificacion);
+        }
+        filtro.agregar(identificacion);
+    }
+
+    // Carga las identificaciones por páginas en un filtro nuevo, dimensionado para el doble de las existentes
+    // (o la capacidad configurada), y lo publica al terminar. Mientras tanto se sigue usando el anterior.
+    public synchronized FiltroIdentificacionDTO reconstruir() {
+        long inicio = System.nanoTime();
+        long existentes = personaRepository.count();
+        FiltroBloom nuevo = FiltroBloom.paraCapacidad(Math.max(capacidad, existentes * 2), probabilidadFalsoPositivo);
+        enConstruccion = nuevo;
+        try {
+            long ultimoId = 0;
+            List<Object[]> lote;
+            do {
+                lote = personaRepository.findIdentificacionesDesde(ultimoId, Limit.of(tamanoLote));
+                for (Object[] fila : lote) {
+                    ultimoId = (Long) fila[0];
+                    nuevo.agregar((String) fila[1]);
+                }
+            } while (lote.size() == tamanoLote);
+
+            filtro = nuevo;
+            listo = true;
+        } finally {
+            enConstruccion = null;
+        }
+
+        logger.info("Filtro de identificaciones reconstruido: {} elementos, {} bits, {} funciones hash en {} ms",
+                nuevo.getElementos(), nuevo.getBits(), nuevo.getFuncionesHash(), (System.nanoTime() - inicio) / 1_000_000);
+        return estado();
+    }
+
+    public FiltroIdentificacionDTO estado() {
+        FiltroBloom actual = filtro;
+        return new FiltroIdentificacionDTO(actual.getElementos(), actual.getBits(), actual.getFuncionesHash(),
+                actual.probabilidadFalsoPositivo());
+    }
+
+    private double tasaFalsosPositivos() {
+        double falsos = falsosPositivos.count();
+        double negativos = falsos + consultasNuevas.count();
+        return negativos == 0 ? 0 : falsos / negativos;
+    }
+}
@@ -0,0 +1,104 @@
+package banco.jontuna.ms_banco_cliente.util.filtro;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Filtro de Bloom sobre cadenas: puedeContener() en false significa que el valor nunca se agregó; en true
+// puede ser un falso positivo. Los bits viven en un AtomicLongArray, así que agregar y consultar desde
+// varios hilos no necesita locks. Las k posiciones salen de dos hashes de 64 bits (h1 + i * h2).
+public final class FiltroBloom {
+
+    private static final int MAXIMO_PALABRAS = Integer.MAX_VALUE - 8;
+
+    private final AtomicLongArray palabras;
+    private final long bits;
+    private final int funcionesHash;
+    private final AtomicLong bitsEnUno = new AtomicLong();
+    private final AtomicLong elementos = new AtomicLong();
+
+    private FiltroBloom(long bits, int funcionesHash) {
+        int cantidadPalabras = (int) Math.min(MAXIMO_PALABRAS, Math.max(1, (bits + 63) / 64));
+        this.palabras = new AtomicLongArray(cantidadPalabras);
+        this.bits = cantidadPalabras * 64L;
+        this.funcionesHash = funcionesHash;
+    }
+
+    // Dimensiona bits y funciones hash para "capacidad" elementos con la probabilidad de falso positivo dada
+    public static FiltroBloom paraCapacidad(long capacidad, double probabilidadFalsoPositivo) {
+        if (capacidad <= 0 || probabilidadFalsoPositivo <= 0 || probabilidadFalsoPositivo >= 1) {
+            throw new IllegalArgumentException("Capacidad o probabilidad de falso positivo inválida");
+        }
+        double ln2 = Math.log(2);
+        long bits = (long) Math.ceil(-capacidad * Math.log(probabilidadFalsoPositivo) / (ln2 * ln2));
+        int funcionesHash = (int) Math.max(1, Math.round((double) bits / capacidad * ln2));
+        return new FiltroBloom(bits, funcionesHash);
+    }
+
+    public void agregar(String valor) {
+        long h1 = hash(valor);
+        long h2 = mezclar(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        boolean nuevo = false;
+        for (int i = 0; i < funcionesHash; i++) {
+            long posicion = Math.floorMod(h1 + i * h2, bits);
+            int palabra = (int) (posicion >>> 6);
+            long mascara = 1L << posicion;
+            if ((palabras.getAndAccumulate(palabra, mascara, (actual, m) -> actual | m) & mascara) == 0) {
+                bitsEnUno.incrementAndGet();
+                nuevo = true;
+            }
+        }
+        if (nuevo) {
+            elementos.incrementAndGet();
+        }
+    }
+
+    public boolean puedeContener(String valor) {
+        long h1 = hash(valor);
+        long h2 = mezclar(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < funcionesHash; i++) {
+            long posicion = Math.floorMod(h1 + i * h2, bits);
+            if ((palabras.get((int) (posicion >>> 6)) & (1L << posicion)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Probabilidad de falso positivo con la ocupación actual: (bits en uno / bits)^k
+    public double probabilidadFalsoPositivo() {
+        return Math.pow((double) bitsEnUno.get() / bits, funcionesHash);
+    }
+
+    // Valores que encendieron al menos un bit (un valor repetido o que colisiona en todo no se cuenta)
+    public long getElementos() {
+        return elementos.get();
+    }
+
+    public long getBits() {
+        return bits;
+    }
+
+    public int getFuncionesHash() {
+        return funcionesHash;
+    }
+
+    // FNV-1a de 64 bits sobre los bytes UTF-8, con mezcla final para repartir bien los bits bajos
+    private static long hash(String valor) {
+        long h = 0xCBF29CE484222325L;
+        for (byte b : valor.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xFF;
+            h *= 0x100000001B3L;
+        }
+        return mezclar(h);
+    }
+
+    private static long mezclar(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
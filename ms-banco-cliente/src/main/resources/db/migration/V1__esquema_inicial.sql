@@ -0,0 +1,22 @@
+-- Esquema de ms-banco-cliente (equivalente a BaseDatos.sql antes de las migraciones)
+
+-- TABLA PERSONA
+CREATE TABLE PERSONA (
+    PersonaId BIGINT AUTO_INCREMENT PRIMARY KEY,
+    Identificacion VARCHAR(50) NOT NULL,
+    Nombre VARCHAR(100),
+    Genero VARCHAR(20),
+    Edad INT,
+    Direccion VARCHAR(200),
+    Telefono VARCHAR(20),
+    CONSTRAINT UK_PERSONA_IDENTIFICACION UNIQUE (Identificacion)
+);
+
+-- TABLA CLIENTE
+CREATE TABLE CLIENTE (
+    ClienteId BIGINT AUTO_INCREMENT PRIMARY KEY,
+    Contrasena VARCHAR(100) NOT NULL,
+    Estado VARCHAR(20),
+    PersonaId BIGINT NOT NULL,
+    CONSTRAINT FK_CLIENTE_PERSONA FOREIGN KEY (PersonaId) REFERENCES PERSONA (PersonaId)
+);
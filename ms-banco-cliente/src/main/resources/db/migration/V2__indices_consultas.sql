@@ -0,0 +1,7 @@
+-- Índices para las consultas de los repositorios (ver RepositorioExplainTest).
+
+-- JOIN de findByPersonaIdentificacion y existsByPersonaIdentificacion desde PERSONA
+CREATE INDEX IX_CLIENTE_PERSONA ON CLIENTE (PersonaId);
+
+-- findByEstado
+CREATE INDEX IX_CLIENTE_ESTADO ON CLIENTE (Estado);
@@ -0,0 +1,190 @@
+package banco.jontuna.ms_banco_cliente.repository;
+
+import banco.jontuna.ms_banco_cliente.model.Cliente;
+import banco.jontuna.ms_banco_cliente.model.Persona;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Ejecuta cada consulta declarada en los repositorios, captura el SQL que genera Hibernate y corre
+// EXPLAIN sobre él: falla si alguna tabla se recorre completa (tableScan en el plan de H2).
+@SpringBootTest
+class RepositorioExplainTest {
+
+    private static final List<Sentencia> SENTENCIAS = new ArrayList<>();
+    private static volatile boolean capturando;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private PersonaRepository personaRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private Cliente cliente;
+
+    @BeforeEach
+    void setUp() {
+        Persona persona = new Persona(String.valueOf(System.nanoTime()), "Explain", "M", 30, "Quito", "0999999999");
+        cliente = clienteRepository.save(new Cliente("1234", persona));
+    }
+
+    @Test
+    void consultasClienteRepository_NoDeberianRecorrerLaTablaCompleta() throws Exception {
+        assertSinRecorridosCompletos(ClienteRepository.class, clienteRepository);
+    }
+
+    @Test
+    void consultasPersonaRepository_NoDeberianRecorrerLaTablaCompleta() throws Exception {
+        assertSinRecorridosCompletos(PersonaRepository.class, personaRepository);
+    }
+
+    private void assertSinRecorridosCompletos(Class<?> repositorio, Object instancia) throws Exception {
+        List<String> recorridos = new ArrayList<>();
+
+        for (Method consulta : repositorio.getDeclaredMethods()) {
+            List<Sentencia> sentencias = capturar(consulta, instancia);
+            assertFalse(sentencias.isEmpty(), "Sin SQL capturado para " + consulta.getName());
+
+            for (Sentencia sentencia : sentencias) {
+                String plan = explain(sentencia);
+                if (plan.contains(".tableScan")) {
+                    recorridos.add(repositorio.getSimpleName() + "." + consulta.getName() + ":\n" + plan);
+                }
+            }
+        }
+
+        assertTrue(recorridos.isEmpty(), "Consultas con recorrido completo de tabla:\n" + String.join("\n\n", recorridos));
+    }
+
+    private List<Sentencia> capturar(Method consulta, Object instancia) {
+        Object[] argumentos = new Object[consulta.getParameterCount()];
+        for (int i = 0; i < argumentos.length; i++) {
+            argumentos[i] = valorDeEjemplo(consulta.getParameterTypes()[i]);
+        }
+
+        return transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            synchronized (SENTENCIAS) {
+                SENTENCIAS.clear();
+            }
+            capturando = true;
+            try {
+                consulta.invoke(instancia, argumentos);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Error al ejecutar " + consulta.getName(), e);
+            } finally {
+                capturando = false;
+            }
+            synchronized (SENTENCIAS) {
+                return new ArrayList<>(SENTENCIAS);
+            }
+        });
+    }
+
+    private Object valorDeEjemplo(Class<?> tipo) {
+        if (tipo == Long.class || tipo == long.class) {
+            return cliente.getClienteId();
+        }
+        if (tipo == String.class) {
+            return cliente.getPersona().getIdentificacion();
+        }
+        if (tipo == Limit.class) {
+            return Limit.of(10);
+        }
+        if (tipo == Pageable.class) {
+            return PageRequest.of(0, 10, Sort.by("clienteId"));
+        }
+        throw new IllegalArgumentException("Tipo de parámetro sin valor de ejemplo: " + tipo.getName());
+    }
+
+    private String explain(Sentencia sentencia) throws Exception {
+        try (Connection conexion = dataSource.getConnection();
+             PreparedStatement explain = conexion.prepareStatement("EXPLAIN " + sentencia.sql())) {
+            for (Map.Entry<Integer, Object> parametro : sentencia.parametros().entrySet()) {
+                explain.setObject(parametro.getKey(), parametro.getValue());
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet resultado = explain.executeQuery()) {
+                while (resultado.next()) {
+                    plan.append(resultado.getString(1));
+                }
+            }
+            return plan.toString();
+        }
+    }
+
+    private record Sentencia(String sql, Map<Integer, Object> parametros) {}
+
+    @TestConfiguration
+    static class CapturaSqlConfig {
+
+        @Bean
+        static BeanPostProcessor capturaSqlPostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource ? capturar(bean, DataSource.class, null, null) : bean;
+                }
+            };
+        }
+
+        // Registra el SQL de cada PreparedStatement y los parámetros con los que se ejecuta
+        private static Object capturar(Object destino, Class<?> tipo, String sql, Map<Integer, Object> parametros) {
+            return Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[] { tipo }, (proxy, metodo, args) -> {
+                if (parametros != null && metodo.getName().startsWith("set") && args != null
+                        && args.length >= 2 && args[0] instanceof Integer indice) {
+                    parametros.put(indice, args[1]);
+                }
+                if (capturando && parametros != null && metodo.getName().startsWith("execute")) {
+                    synchronized (SENTENCIAS) {
+                        SENTENCIAS.add(new Sentencia(sql, new TreeMap<>(parametros)));
+                    }
+                }
+
+                Object resultado;
+                try {
+                    resultado = metodo.invoke(destino, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getTargetException();
+                }
+
+                if (resultado instanceof Connection) {
+                    return capturar(resultado, Connection.class, null, null);
+                }
+                if (resultado instanceof PreparedStatement && metodo.getName().equals("prepareStatement")) {
+                    return capturar(resultado, PreparedStatement.class, (String) args[0], new TreeMap<>());
+                }
+                return resultado;
+            });
+        }
+    }
+}
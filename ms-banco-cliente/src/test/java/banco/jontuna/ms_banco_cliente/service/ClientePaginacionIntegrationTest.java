@@ -0,0 +1,89 @@
+package banco.jontuna.ms_banco_cliente.service;
+
+import banco.jontuna.ms_banco_cliente.dto.ClientePaginaDTO;
+import banco.jontuna.ms_banco_cliente.dto.ClienteResponseDTO;
+import banco.jontuna.ms_banco_cliente.model.Cliente;
+import banco.jontuna.ms_banco_cliente.model.Persona;
+import banco.jontuna.ms_banco_cliente.repository.ClienteRepository;
+import banco.jontuna.ms_banco_cliente.util.ConteoSentencias;
+import banco.jontuna.ms_banco_cliente.util.exception.ValidationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static banco.jontuna.ms_banco_cliente.util.ConteoSentencias.contar;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Import(ConteoSentencias.Config.class)
+class ClientePaginacionIntegrationTest {
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Test
+    void obtenerClientes_DeberiaTraerCadaPaginaConSuPersonaEnUnaSolaSentencia() {
+        // Arrange
+        String estado = estadoUnico();
+        crearClientes(estado, "Ana", "Bruno", "Carla", "Diego", "Elena");
+
+        // Act
+        List<ClientePaginaDTO> paginas = new ArrayList<>();
+        int sentenciasPrimera = contar(() -> paginas.add(clienteService.obtenerClientes(estado, 0, 2, null)));
+        int sentenciasUltima = contar(() -> paginas.add(clienteService.obtenerClientes(estado, 2, 2, null)));
+
+        // Assert
+        assertEquals(1, sentenciasPrimera);
+        assertEquals(1, sentenciasUltima);
+        assertEquals(List.of("Ana", "Bruno"), nombres(paginas.get(0)));
+        assertTrue(paginas.get(0).isHaySiguiente());
+        assertEquals(List.of("Elena"), nombres(paginas.get(1)));
+        assertFalse(paginas.get(1).isHaySiguiente());
+    }
+
+    @Test
+    void obtenerClientes_OrdenadoPorNombreDescendente_DeberiaRespetarElOrden() {
+        // Arrange
+        String estado = estadoUnico();
+        crearClientes(estado, "Bruno", "Ana", "Carla");
+
+        // Act
+        ClientePaginaDTO pagina = clienteService.obtenerClientes(estado, 0, 10, "nombre,desc");
+
+        // Assert
+        assertEquals(List.of("Carla", "Bruno", "Ana"), nombres(pagina));
+    }
+
+    @Test
+    void obtenerClientes_OrdenOTamanoInvalido_DeberiaLanzarValidationException() {
+        assertThrows(ValidationException.class, () -> clienteService.obtenerClientes(null, 0, 10, "contrasena"));
+        assertThrows(ValidationException.class, () -> clienteService.obtenerClientes(null, 0, 10, "nombre,arriba"));
+        assertThrows(ValidationException.class, () -> clienteService.obtenerClientes(null, 0, 0, null));
+        assertThrows(ValidationException.class, () -> clienteService.obtenerClientes(null, -1, 10, null));
+    }
+
+    private void crearClientes(String estado, String... nombres) {
+        for (String nombre : nombres) {
+            Persona persona = new Persona("P" + System.nanoTime(), nombre, "F", 30, "Quito", "0999999999");
+            Cliente cliente = new Cliente("clave123", persona);
+            cliente.setEstado(estado);
+            clienteRepository.save(cliente);
+        }
+    }
+
+    private static List<String> nombres(ClientePaginaDTO pagina) {
+        return pagina.getClientes().stream().map(ClienteResponseDTO::getPersona).map(p -> p.getNombre()).toList();
+    }
+
+    // Estado propio de cada test para no mezclarse con los clientes de otras pruebas de la misma base
+    private static String estadoUnico() {
+        return "PAG" + System.nanoTime() % 1_000_000_000L;
+    }
+}
@@ -11,12 +11,15 @@ import banco.jontuna.ms_banco_cliente.util.exception.ClienteNotFoundException;
 import banco.jontuna.ms_banco_cliente.util.exception.PersonaAlreadyExistsException;
 import banco.jontuna.ms_banco_cliente.util.exception.ValidationException;
 import banco.jontuna.ms_banco_cliente.util.mapper.ClienteMapper;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
+import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -76,6 +79,35 @@ class ClienteServiceTest {
         });
     }
 
+    @Test
+    void crearCliente_DuplicateKeyOnIndexFromBaseDatosSql_ShouldThrowPersonaAlreadyExistsException() {
+        // Arrange: índice único con el nombre que le da MySQL en las bases creadas con BaseDatos.sql
+        ClienteRequestDTO request = createValidClienteRequest();
+        Cliente cliente = createValidCliente();
+        when(personaRepository.existsByIdentificacion(anyString())).thenReturn(false);
+        when(clienteMapper.toEntity(request)).thenReturn(cliente);
+        when(clienteRepository.save(cliente)).thenThrow(violacion(
+                "Duplicate entry '1234567890' for key 'persona.Identificacion'", "23000", 1062));
+
+        // Act & Assert
+        assertThrows(PersonaAlreadyExistsException.class, () -> clienteService.crearCliente(request));
+    }
+
+    @Test
+    void crearCliente_OtherIntegrityViolation_ShouldNotBeReportedAsDuplicate() {
+        // Arrange: misma SQLState 23000 de MySQL pero por una clave foránea
+        ClienteRequestDTO request = createValidClienteRequest();
+        Cliente cliente = createValidCliente();
+        when(personaRepository.existsByIdentificacion(anyString())).thenReturn(false);
+        when(clienteMapper.toEntity(request)).thenReturn(cliente);
+        when(clienteRepository.save(cliente)).thenThrow(violacion(
+                "Cannot add or update a child row: a foreign key constraint fails", "23000", 1452));
+
+        // Act & Assert
+        RuntimeException error = assertThrows(RuntimeException.class, () -> clienteService.crearCliente(request));
+        assertFalse(error instanceof PersonaAlreadyExistsException);
+    }
+
     @Test
     void crearCliente_EmptyPassword_ShouldThrowValidationException() {
         // Arrange
@@ -360,6 +392,12 @@ class ClienteServiceTest {
         assertFalse(result);
     }
 
+    private DataIntegrityViolationException violacion(String mensaje, String sqlState, int codigo) {
+        SQLException causa = new SQLException(mensaje, sqlState, codigo);
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", causa, null));
+    }
+
     private ClienteRequestDTO createValidClienteRequest() {
         ClienteRequestDTO request = new ClienteRequestDTO();
         request.setContrasena("validPassword123");
@@ -0,0 +1,95 @@
+package banco.jontuna.ms_banco_cliente.service;
+
+import banco.jontuna.ms_banco_cliente.dto.ClienteRequestDTO;
+import banco.jontuna.ms_banco_cliente.dto.FiltroIdentificacionDTO;
+import banco.jontuna.ms_banco_cliente.dto.PersonaDTO;
+import banco.jontuna.ms_banco_cliente.model.Cliente;
+import banco.jontuna.ms_banco_cliente.model.Persona;
+import banco.jontuna.ms_banco_cliente.repository.ClienteRepository;
+import banco.jontuna.ms_banco_cliente.util.exception.PersonaAlreadyExistsException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "banco.clientes.filtro-identificacion.enabled=true")
+class FiltroIdentificacionServiceIntegrationTest {
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private FiltroIdentificacionService filtroIdentificacionService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockBean
+    private ClienteEventPublisher clienteEventPublisher;
+
+    @Test
+    void crearCliente_IdentificacionNueva_NoDeberiaConsultarLaBaseYLuegoDeberiaDetectarElDuplicado() {
+        // Arrange
+        String identificacion = identificacionUnica();
+        double nuevasAntes = contador("consultas", "nuevo");
+        double duplicadosAntes = contador("verificaciones", "duplicado");
+
+        // Act
+        clienteService.crearCliente(solicitud(identificacion));
+
+        // Assert
+        assertEquals(nuevasAntes + 1, contador("consultas", "nuevo"));
+        assertThrows(PersonaAlreadyExistsException.class, () -> clienteService.crearCliente(solicitud(identificacion)));
+        assertEquals(duplicadosAntes + 1, contador("verificaciones", "duplicado"));
+    }
+
+    @Test
+    void crearCliente_DuplicadoQueElFiltroNoConoce_DeberiaRechazarloElIndiceUnico() {
+        // Arrange: la persona se inserta sin pasar por ClienteService, el filtro no la conoce
+        String identificacion = identificacionUnica();
+        insertarFueraDelServicio(identificacion);
+        assertFalse(filtroIdentificacionService.puedeExistir(identificacion));
+
+        // Act & Assert
+        assertThrows(PersonaAlreadyExistsException.class, () -> clienteService.crearCliente(solicitud(identificacion)));
+    }
+
+    @Test
+    void reconstruir_DeberiaIncluirLasIdentificacionesExistentes() {
+        // Arrange
+        String identificacion = identificacionUnica();
+        insertarFueraDelServicio(identificacion);
+
+        // Act
+        FiltroIdentificacionDTO estado = filtroIdentificacionService.reconstruir();
+
+        // Assert
+        assertTrue(filtroIdentificacionService.puedeExistir(identificacion));
+        assertTrue(estado.getElementos() >= clienteRepository.count());
+        assertTrue(estado.getProbabilidadFalsoPositivo() < 0.01);
+    }
+
+    private double contador(String nombre, String resultado) {
+        return meterRegistry.counter("banco.clientes.filtro-identificacion." + nombre, "resultado", resultado).count();
+    }
+
+    private void insertarFueraDelServicio(String identificacion) {
+        Persona persona = new Persona(identificacion, "Fuera", "F", 40, "Cuenca", "0999999999");
+        clienteRepository.save(new Cliente("secreta", persona));
+    }
+
+    private static ClienteRequestDTO solicitud(String identificacion) {
+        PersonaDTO persona = new PersonaDTO(identificacion, "Ana Filtro", "F", 28, "Quito", "0987654321");
+        return new ClienteRequestDTO(persona, "clave123");
+    }
+
+    private static String identificacionUnica() {
+        return "F" + System.nanoTime();
+    }
+}
@@ -0,0 +1,49 @@
+package banco.jontuna.ms_banco_cliente.util.filtro;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FiltroBloomTest {
+
+    @Test
+    void puedeContener_ValoresAgregados_NuncaDeberiaDarFalsoNegativo() {
+        FiltroBloom filtro = FiltroBloom.paraCapacidad(10_000, 0.01);
+
+        for (int i = 0; i < 10_000; i++) {
+            filtro.agregar("17" + i);
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filtro.puedeContener("17" + i));
+        }
+    }
+
+    @Test
+    void puedeContener_ValoresNuevos_DeberiaRespetarLaProbabilidadDeFalsoPositivo() {
+        // Arrange
+        FiltroBloom filtro = FiltroBloom.paraCapacidad(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filtro.agregar("17" + i);
+        }
+
+        // Act
+        int falsosPositivos = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filtro.puedeContener("09" + i)) {
+                falsosPositivos++;
+            }
+        }
+
+        // Assert: alrededor de 1% (margen amplio para no depender del hash)
+        assertTrue(falsosPositivos < 2_000, "Falsos positivos: " + falsosPositivos);
+        assertEquals(0.01, filtro.probabilidadFalsoPositivo(), 0.005);
+        assertEquals(7, filtro.getFuncionesHash());
+    }
+
+    @Test
+    void paraCapacidad_ParametrosInvalidos_DeberiaLanzarIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> FiltroBloom.paraCapacidad(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> FiltroBloom.paraCapacidad(100, 1));
+    }
+}
@@ -2,8 +2,10 @@ package banco.jontuna.ms_banco_cuenta;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class MsBancoCuentaApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,111 @@
+package banco.jontuna.ms_banco_cuenta.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Limita las conexiones en uso con un semáforo justo: con hilos virtuales la concurrencia ya no está
+// acotada por el tamaño del pool de Tomcat, así que miles de hilos esperan aquí (sin ocupar un hilo de
+// plataforma) en lugar de competir dentro del pool. El permiso se libera al cerrar la conexión.
+// Un hilo que ya tiene conexión (p. ej. el generador de IDs abriendo una conexión aislada dentro de la
+// transacción) no pide otro permiso; por eso los permisos deben ser menos que el tamaño del pool.
+public class SemaforoDataSource extends DelegatingDataSource {
+
+    private final Semaphore permisos;
+    private final long timeoutMs;
+    private final ThreadLocal<int[]> conexionesDelHilo = ThreadLocal.withInitial(() -> new int[1]);
+
+    public SemaforoDataSource(DataSource destino, int maximoConexiones, long timeoutMs) {
+        super(destino);
+        this.permisos = new Semaphore(maximoConexiones, true);
+        this.timeoutMs = timeoutMs;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        int[] conexiones = conexionesDelHilo.get();
+        boolean conPermiso = adquirir(conexiones);
+        try {
+            return liberarAlCerrar(super.getConnection(), conexiones, conPermiso);
+        } catch (SQLException | RuntimeException e) {
+            liberar(conexiones, conPermiso);
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        int[] conexiones = conexionesDelHilo.get();
+        boolean conPermiso = adquirir(conexiones);
+        try {
+            return liberarAlCerrar(super.getConnection(username, password), conexiones, conPermiso);
+        } catch (SQLException | RuntimeException e) {
+            liberar(conexiones, conPermiso);
+            throw e;
+        }
+    }
+
+    public int getPermisosDisponibles() {
+        return permisos.availablePermits();
+    }
+
+    public int getHilosEnEspera() {
+        return permisos.getQueueLength();
+    }
+
+    private boolean adquirir(int[] conexiones) throws SQLException {
+        if (conexiones[0] > 0) {
+            conexiones[0]++;
+            return false;
+        }
+
+        try {
+            if (!permisos.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException(
+                    "No hay conexiones disponibles después de " + timeoutMs + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Espera de conexión interrumpida", e);
+        }
+        conexiones[0]++;
+        return true;
+    }
+
+    private void liberar(int[] conexiones, boolean conPermiso) {
+        conexiones[0]--;
+        if (conPermiso) {
+            permisos.release();
+        }
+    }
+
+    private Connection liberarAlCerrar(Connection conexion, int[] conexiones, boolean conPermiso) {
+        AtomicBoolean cerrada = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+                (proxy, metodo, args) -> {
+                    if ("close".equals(metodo.getName())) {
+                        try {
+                            conexion.close();
+                        } finally {
+                            if (cerrada.compareAndSet(false, true)) {
+                                liberar(conexiones, conPermiso);
+                            }
+                        }
+                        return null;
+                    }
+                    try {
+                        return metodo.invoke(conexion, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
@@ -2,15 +2,24 @@ package banco.jontuna.ms_banco_cuenta.controller;
 
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import banco.jontuna.ms_banco_cuenta.dto.CuentaRequestDTO;
 import banco.jontuna.ms_banco_cuenta.dto.CuentaResponseDTO;
+import banco.jontuna.ms_banco_cuenta.dto.SaldosRequestDTO;
 import banco.jontuna.ms_banco_cuenta.service.CuentaService;
+import banco.jontuna.ms_banco_cuenta.service.ExportacionService;
+import banco.jontuna.ms_banco_cuenta.util.http.ConsultaCondicional;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/cuentas")
@@ -20,6 +29,9 @@ public class CuentaController {
     @Autowired
     private CuentaService cuentaService;
 
+    @Autowired
+    private ExportacionService exportacionService;
+
     @PostMapping
     public ResponseEntity<CuentaResponseDTO> crearCuenta(@Valid @RequestBody CuentaRequestDTO cuentaRequest) {
         try {
@@ -36,28 +48,61 @@ public class CuentaController {
         return ResponseEntity.ok(cuentas);
     }
 
+    // Los datos salen de CuentaCache: el ETag usa la versión de esa misma copia
     @GetMapping("/{cuentaId}")
-    public ResponseEntity<CuentaResponseDTO> obtenerCuentaPorId(@PathVariable("cuentaId") Long cuentaId) {
+    public ResponseEntity<CuentaResponseDTO> obtenerCuentaPorId(
+            @PathVariable("cuentaId") Long cuentaId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         CuentaResponseDTO cuenta = cuentaService.obtenerCuentaPorId(cuentaId);
-        return ResponseEntity.ok(cuenta);
+        return responderCuenta(cuenta, ifNoneMatch);
     }
 
     @GetMapping("/numero/{numeroCuenta}")
-    public ResponseEntity<CuentaResponseDTO> obtenerCuentaPorNumero(@PathVariable("numeroCuenta") String numeroCuenta) {
+    public ResponseEntity<CuentaResponseDTO> obtenerCuentaPorNumero(
+            @PathVariable("numeroCuenta") String numeroCuenta,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         CuentaResponseDTO cuenta = cuentaService.obtenerCuentaPorNumero(numeroCuenta);
-        return ResponseEntity.ok(cuenta);
+        return responderCuenta(cuenta, ifNoneMatch);
     }
 
-    @GetMapping
-    public ResponseEntity<List<CuentaResponseDTO>> obtenerTodasLasCuentas() {
-        List<CuentaResponseDTO> cuentas = cuentaService.obtenerTodasLasCuentas();
-        return ResponseEntity.ok(cuentas);
+    // Todas las cuentas: se escribe a medida que se lee (arreglo JSON por partes o NDJSON con Accept: application/x-ndjson)
+    @GetMapping(produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public ResponseEntity<StreamingResponseBody> obtenerTodasLasCuentas(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        ExportacionService.Formato formato = ExportacionService.Formato.segunAccept(accept);
+        StreamingResponseBody cuerpo = salida -> exportacionService.exportarCuentas(salida, formato);
+        return ResponseEntity.ok()
+                .contentType(formato == ExportacionService.Formato.NDJSON ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                .body(cuerpo);
     }
 
+    // Con el ETag vigente responde 304 sin calcular el saldo. La versión se lee antes que el saldo: si cambia
+    // en medio, el ETag queda más viejo que el cuerpo y la próxima consulta lo vuelve a pedir completo
     @GetMapping("/{cuentaId}/saldo")
-    public ResponseEntity<BigDecimal> consultarSaldo(@PathVariable("cuentaId") Long cuentaId) {
+    public ResponseEntity<BigDecimal> consultarSaldo(
+            @PathVariable("cuentaId") Long cuentaId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Optional<String> etag = cuentaService.obtenerVersionParaEtag(cuentaId)
+                .map(version -> ConsultaCondicional.etag(cuentaId, version));
+        if (etag.isPresent() && ConsultaCondicional.noModificado(ifNoneMatch, etag.get())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag.get()).build();
+        }
+
         BigDecimal saldo = cuentaService.consultarSaldo(cuentaId);
-        return ResponseEntity.ok(saldo);
+        return etag.map(valor -> ResponseEntity.ok().eTag(valor)).orElseGet(ResponseEntity::ok).body(saldo);
+    }
+
+    // Saldos de varias cuentas en una sola consulta (ids=1,2,3); para listas largas usar el POST
+    @GetMapping("/saldos")
+    public ResponseEntity<Map<Long, BigDecimal>> consultarSaldos(@RequestParam("ids") List<Long> ids) {
+        Map<Long, BigDecimal> saldos = cuentaService.consultarSaldos(ids);
+        return ResponseEntity.ok(saldos);
+    }
+
+    @PostMapping("/saldos")
+    public ResponseEntity<Map<Long, BigDecimal>> consultarSaldos(@Valid @RequestBody SaldosRequestDTO saldosRequest) {
+        Map<Long, BigDecimal> saldos = cuentaService.consultarSaldos(saldosRequest.getIds());
+        return ResponseEntity.ok(saldos);
     }
 
     @PatchMapping("/{cuentaId}/estado")
@@ -79,4 +124,21 @@ public class CuentaController {
         CuentaResponseDTO cuentaActualizada = cuentaService.reactivarCuenta(cuentaId);
         return ResponseEntity.ok(cuentaActualizada);
     }
-}
\ No newline at end of file
+
+    // Reparte los depósitos de una cuenta muy concurrida en N slots de saldo (0 los desactiva)
+    @PatchMapping("/{cuentaId}/saldo-slots")
+    public ResponseEntity<CuentaResponseDTO> ajustarSaldoSlots(
+            @PathVariable("cuentaId") Long cuentaId,
+            @RequestParam("cantidad") int cantidad) {
+        CuentaResponseDTO cuentaActualizada = cuentaService.ajustarSaldoSlots(cuentaId, cantidad);
+        return ResponseEntity.ok(cuentaActualizada);
+    }
+
+    private ResponseEntity<CuentaResponseDTO> responderCuenta(CuentaResponseDTO cuenta, String ifNoneMatch) {
+        String etag = ConsultaCondicional.etag(cuenta.getCuentaId(), cuenta.getVersion());
+        if (ConsultaCondicional.noModificado(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(cuenta);
+    }
+}
@@ -2,14 +2,32 @@ package banco.jontuna.ms_banco_cuenta.controller;
 
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import banco.jontuna.ms_banco_cuenta.dto.MovimientoLoteRequestDTO;
+import banco.jontuna.ms_banco_cuenta.dto.MovimientoLoteResponseDTO;
+import banco.jontuna.ms_banco_cuenta.dto.MovimientoPaginaDTO;
 import banco.jontuna.ms_banco_cuenta.dto.MovimientoRequestDTO;
 import banco.jontuna.ms_banco_cuenta.dto.MovimientoResponseDTO;
+import banco.jontuna.ms_banco_cuenta.dto.TransferenciaRequestDTO;
+import banco.jontuna.ms_banco_cuenta.dto.TransferenciaResponseDTO;
+import banco.jontuna.ms_banco_cuenta.service.CuentaService;
+import banco.jontuna.ms_banco_cuenta.service.ExportacionService;
+import banco.jontuna.ms_banco_cuenta.service.IdempotenciaService;
+import banco.jontuna.ms_banco_cuenta.service.MovimientoGroupCommitService;
+import banco.jontuna.ms_banco_cuenta.service.MovimientoLoteService;
 import banco.jontuna.ms_banco_cuenta.service.MovimientoService;
+import banco.jontuna.ms_banco_cuenta.service.TransferenciaService;
+import banco.jontuna.ms_banco_cuenta.util.http.ConsultaCondicional;
 
-import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/movimientos")
@@ -19,39 +37,110 @@ public class MovimientoController {
     @Autowired
     private MovimientoService movimientoService;
 
+    @Autowired
+    private CuentaService cuentaService;
+
+    @Autowired
+    private MovimientoLoteService movimientoLoteService;
+
+    @Autowired
+    private TransferenciaService transferenciaService;
+
+    @Autowired
+    private IdempotenciaService idempotenciaService;
+
+    @Autowired
+    private ExportacionService exportacionService;
+
+    @Autowired(required = false)
+    private MovimientoGroupCommitService movimientoGroupCommitService;
+
     @PostMapping("/cuenta/{cuentaId}")
     public ResponseEntity<MovimientoResponseDTO> registrarMovimiento(
             @PathVariable("cuentaId") Long cuentaId,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @Valid @RequestBody MovimientoRequestDTO movimientoRequest) {
         try {
-            MovimientoResponseDTO movimiento = movimientoService.registrarMovimiento(cuentaId, movimientoRequest);
+            MovimientoResponseDTO movimiento;
+            if (idempotencyKey != null) {
+                // El movimiento y la clave se confirman juntos, por eso no pasa por el group commit
+                movimiento = idempotenciaService.registrarMovimiento(idempotencyKey, cuentaId, movimientoRequest);
+            } else if (movimientoGroupCommitService != null) {
+                movimiento = movimientoGroupCommitService.registrarMovimiento(cuentaId, movimientoRequest);
+            } else {
+                movimiento = movimientoService.registrarMovimiento(cuentaId, movimientoRequest);
+            }
             return ResponseEntity.ok(movimiento);
         } catch (RuntimeException e) {
             throw e;
         }
     }
 
+    @PostMapping("/lote")
+    public ResponseEntity<MovimientoLoteResponseDTO> registrarLote(
+            @Valid @RequestBody MovimientoLoteRequestDTO loteRequest) {
+        MovimientoLoteResponseDTO resultado = movimientoLoteService.registrarLote(loteRequest);
+        return ResponseEntity.ok(resultado);
+    }
+
+    @PostMapping("/transferencia")
+    public ResponseEntity<TransferenciaResponseDTO> registrarTransferencia(
+            @Valid @RequestBody TransferenciaRequestDTO transferenciaRequest) {
+        TransferenciaResponseDTO transferencia = transferenciaService.transferir(transferenciaRequest);
+        return ResponseEntity.ok(transferencia);
+    }
+
+    // Paginación por cursor: la respuesta trae siguienteCursor para pedir la página siguiente.
+    // Cada movimiento nuevo actualiza CUENTA: con la misma versión la página no cambió y se responde 304.
     @GetMapping("/cuenta/{cuentaId}")
-    public ResponseEntity<List<MovimientoResponseDTO>> obtenerMovimientosPorCuenta(@PathVariable("cuentaId") Long cuentaId) {
-        List<MovimientoResponseDTO> movimientos = movimientoService.obtenerMovimientosPorCuenta(cuentaId);
-        return ResponseEntity.ok(movimientos);
+    public ResponseEntity<MovimientoPaginaDTO> obtenerMovimientosPorCuenta(
+            @PathVariable("cuentaId") Long cuentaId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "tamano", required = false) Integer tamano,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Optional<String> etag = cuentaService.obtenerVersionParaEtag(cuentaId)
+                .map(version -> ConsultaCondicional.etag(cuentaId, version));
+        if (etag.isPresent() && ConsultaCondicional.noModificado(ifNoneMatch, etag.get())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag.get()).build();
+        }
+
+        MovimientoPaginaDTO pagina = movimientoService.obtenerPaginaPorCuenta(cuentaId, cursor, tamano);
+        return etag.map(valor -> ResponseEntity.ok().eTag(valor)).orElseGet(ResponseEntity::ok).body(pagina);
     }
 
     @GetMapping("/cliente/{clienteId}")
-    public ResponseEntity<List<MovimientoResponseDTO>> obtenerMovimientosPorCliente(@PathVariable("clienteId") Long clienteId) {
-        List<MovimientoResponseDTO> movimientos = movimientoService.obtenerMovimientosPorCliente(clienteId);
-        return ResponseEntity.ok(movimientos);
+    public ResponseEntity<MovimientoPaginaDTO> obtenerMovimientosPorCliente(
+            @PathVariable("clienteId") Long clienteId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "tamano", required = false) Integer tamano) {
+        MovimientoPaginaDTO pagina = movimientoService.obtenerPaginaPorCliente(clienteId, cursor, tamano);
+        return ResponseEntity.ok(pagina);
     }
 
+    // Un movimiento confirmado no cambia nunca: el cliente puede guardarlo sin revalidar y, si igual
+    // pregunta con su ETag, se responde 304 sin consultar la base
     @GetMapping("/{movimientoId}")
-    public ResponseEntity<MovimientoResponseDTO> obtenerMovimientoPorId(@PathVariable("movimientoId") Long movimientoId) {
+    public ResponseEntity<MovimientoResponseDTO> obtenerMovimientoPorId(
+            @PathVariable("movimientoId") Long movimientoId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = ConsultaCondicional.etag(movimientoId);
+        CacheControl inmutable = CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable();
+        if (ConsultaCondicional.noModificado(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(inmutable).build();
+        }
+
         MovimientoResponseDTO movimiento = movimientoService.obtenerMovimientoPorId(movimientoId);
-        return ResponseEntity.ok(movimiento);
+        return ResponseEntity.ok().eTag(etag).cacheControl(inmutable).body(movimiento);
     }
 
-    @GetMapping
-    public ResponseEntity<List<MovimientoResponseDTO>> obtenerTodosLosMovimientos() {
-        List<MovimientoResponseDTO> movimientos = movimientoService.obtenerTodosLosMovimientos();
-        return ResponseEntity.ok(movimientos);
+    // Todos los movimientos: se escribe a medida que se lee (arreglo JSON por partes o NDJSON con Accept: application/x-ndjson)
+    @GetMapping(produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public ResponseEntity<StreamingResponseBody> obtenerTodosLosMovimientos(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        ExportacionService.Formato formato = ExportacionService.Formato.segunAccept(accept);
+        StreamingResponseBody cuerpo = salida -> exportacionService.exportarMovimientos(salida, formato);
+        return ResponseEntity.ok()
+                .contentType(formato == ExportacionService.Formato.NDJSON ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                .body(cuerpo);
     }
 }
\ No newline at end of file
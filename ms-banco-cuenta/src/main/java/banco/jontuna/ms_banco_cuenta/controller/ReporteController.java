@@ -1,15 +1,41 @@
 package banco.jontuna.ms_banco_cuenta.controller;
 
 import banco.jontuna.ms_banco_cuenta.dto.EstadoCuentaReporteDTO;
+import banco.jontuna.ms_banco_cuenta.dto.EstadoCuentaResumenDTO;
+import banco.jontuna.ms_banco_cuenta.dto.MovimientoPaginaDTO;
+import banco.jontuna.ms_banco_cuenta.dto.ReporteJobDTO;
+import banco.jontuna.ms_banco_cuenta.service.ReporteJobService;
 import banco.jontuna.ms_banco_cuenta.service.ReporteService;
+import banco.jontuna.ms_banco_cuenta.service.SaldoDiarioService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.task.support.TaskExecutorAdapter;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @RestController
 @RequestMapping("/api/reportes")
@@ -17,11 +43,72 @@ public class ReporteController {
 
     private static final Logger logger = LoggerFactory.getLogger(ReporteController.class);
 
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
     @Autowired
     private ReporteService reporteService;
 
+    @Autowired
+    private ReporteJobService reporteJobService;
+
+    @Autowired(required = false)
+    private SaldoDiarioService saldoDiarioService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${banco.reportes.sincrono.timeout-ms:60000}")
+    private long timeoutSincronoMs;
+
+    @Value("${banco.reportes.sincrono.hilos:4}")
+    private int hilosSincronos;
+
+    @Value("${banco.reportes.sincrono.capacidad-cola:20}")
+    private int capacidadColaSincrona;
+
+    // Pool propio del reporte síncrono: con el applicationTaskExecutor de Spring (compartido con los endpoints
+    // de streaming y con cola sin límite) las solicitudes de más esperaban en silencio hasta el timeout
+    private ThreadPoolExecutor executorSincrono;
+    private TaskExecutorAdapter tareasSincronas;
+
+    @PostConstruct
+    public void iniciar() {
+        if (hilosSincronos < 1 || capacidadColaSincrona < 1) {
+            throw new IllegalStateException("Configuración del reporte síncrono inválida: hilos=" + hilosSincronos
+                    + ", capacidad-cola=" + capacidadColaSincrona);
+        }
+
+        AtomicInteger numeroHilo = new AtomicInteger();
+        executorSincrono = new ThreadPoolExecutor(hilosSincronos, hilosSincronos, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadColaSincrona),
+                tarea -> {
+                    Thread hilo = new Thread(tarea, "reporte-sincrono-" + numeroHilo.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        tareasSincronas = new TaskExecutorAdapter(executorSincrono);
+
+        Gauge.builder("banco.reportes.sincrono.cola", executorSincrono, ejecutor -> ejecutor.getQueue().size())
+                .description("Reportes síncronos esperando un hilo")
+                .register(meterRegistry);
+        Gauge.builder("banco.reportes.sincrono.en-proceso", executorSincrono, ThreadPoolExecutor::getActiveCount)
+                .description("Reportes síncronos generándose")
+                .register(meterRegistry);
+
+        logger.info("Reporte síncrono con {} hilos y cola de {}", hilosSincronos, capacidadColaSincrona);
+    }
+
+    @PreDestroy
+    public void detener() {
+        executorSincrono.shutdownNow();
+    }
+
+    // Se genera fuera del hilo de Tomcat en el pool del reporte síncrono (503 con la cola llena): si vence
+    // banco.reportes.sincrono.timeout-ms, contado desde que llega la solicitud, o el cliente se desconecta,
+    // Spring interrumpe la tarea y ReporteService corta las lecturas en paralelo que sigan pendientes
     @GetMapping("/{clienteId}")
-    public ResponseEntity<EstadoCuentaReporteDTO> generarReporteEstadoCuenta(
+    public WebAsyncTask<ResponseEntity<EstadoCuentaReporteDTO>> generarReporteEstadoCuenta(
             @PathVariable("clienteId") Long clienteId,
             @RequestParam("fechaInicio") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
             @RequestParam("fechaFin") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin) {
@@ -29,7 +116,136 @@ public class ReporteController {
         logger.info("Solicitando reporte de estado de cuenta - Cliente: {}, Fechas: {} a {}", 
                     clienteId, fechaInicio, fechaFin);
 
-        EstadoCuentaReporteDTO reporte = reporteService.generarReporteEstadoCuenta(clienteId, fechaInicio, fechaFin);
-        return ResponseEntity.ok(reporte);
+        // Los rangos largos se piden con POST /{clienteId}/jobs
+        reporteService.validarRangoSincrono(fechaInicio, fechaFin);
+        return new WebAsyncTask<>(timeoutSincronoMs, tareasSincronas, () -> {
+            try {
+                return ResponseEntity.ok(reporteService.generarReporteEstadoCuenta(clienteId, fechaInicio, fechaFin));
+            } catch (RuntimeException e) {
+                // Spring interrumpe la tarea antes de registrar el timeout: si la cancelación termina primero,
+                // su resultado sería un 500 en lugar del 503 del timeout
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new AsyncRequestTimeoutException();
+                }
+                throw e;
+            }
+        });
+    }
+
+    // Mismo reporte escrito a medida que se lee, con memoria constante: CSV con Accept: text/csv
+    @GetMapping(value = "/{clienteId}", produces = TEXT_CSV_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportarReporteEstadoCuentaCsv(
+            @PathVariable("clienteId") Long clienteId,
+            @RequestParam("fechaInicio") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
+            @RequestParam("fechaFin") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin) {
+
+        logger.info("Solicitando reporte de estado de cuenta en CSV - Cliente: {}, Fechas: {} a {}",
+                    clienteId, fechaInicio, fechaFin);
+
+        reporteService.validarFechas(fechaInicio, fechaFin);
+        StreamingResponseBody cuerpo = salida -> reporteService.escribirReporteEstadoCuenta(
+                clienteId, fechaInicio, fechaFin, salida, ReporteService.Formato.CSV);
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("estado-cuenta-" + clienteId + ".csv")
+                        .build()
+                        .toString())
+                .body(cuerpo);
+    }
+
+    // JSON por partes con ?streaming=true: mismo contenido que el reporte normal, sin armarlo en memoria
+    @GetMapping(value = "/{clienteId}", params = "streaming=true", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportarReporteEstadoCuentaJson(
+            @PathVariable("clienteId") Long clienteId,
+            @RequestParam("fechaInicio") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
+            @RequestParam("fechaFin") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin) {
+
+        logger.info("Solicitando reporte de estado de cuenta por streaming - Cliente: {}, Fechas: {} a {}",
+                    clienteId, fechaInicio, fechaFin);
+
+        reporteService.validarFechas(fechaInicio, fechaFin);
+        StreamingResponseBody cuerpo = salida -> reporteService.escribirReporteEstadoCuenta(
+                clienteId, fechaInicio, fechaFin, salida, ReporteService.Formato.JSON);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(cuerpo);
+    }
+
+    // Resumen por período desde SALDO_DIARIO; 404 si ese resumen diario no se mantiene en esta instancia
+    @GetMapping("/{clienteId}/resumen")
+    public ResponseEntity<EstadoCuentaResumenDTO> generarResumenEstadoCuenta(
+            @PathVariable("clienteId") Long clienteId,
+            @RequestParam("fechaInicio") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
+            @RequestParam("fechaFin") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin) {
+
+        if (saldoDiarioService == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        logger.info("Solicitando resumen de estado de cuenta - Cliente: {}, Fechas: {} a {}",
+                    clienteId, fechaInicio, fechaFin);
+
+        return ResponseEntity.ok(reporteService.generarResumenEstadoCuenta(clienteId, fechaInicio, fechaFin));
+    }
+
+    // GET /api/reportes/{clienteId}/cuentas/{cuentaId}/movimientos?fechaInicio=...&fechaFin=...&cursor=...&tamano=50
+    @GetMapping("/{clienteId}/cuentas/{cuentaId}/movimientos")
+    public ResponseEntity<MovimientoPaginaDTO> obtenerDetalleMovimientos(
+            @PathVariable("clienteId") Long clienteId,
+            @PathVariable("cuentaId") Long cuentaId,
+            @RequestParam("fechaInicio") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
+            @RequestParam("fechaFin") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "tamano", required = false) Integer tamano) {
+
+        return ResponseEntity.ok(reporteService.obtenerDetalleMovimientos(
+                clienteId, cuentaId, fechaInicio, fechaFin, cursor, tamano));
+    }
+
+    // Reporte en segundo plano: 202 con el jobId y su URL en Location
+    @PostMapping("/{clienteId}/jobs")
+    public ResponseEntity<ReporteJobDTO> crearReporteJob(
+            @PathVariable("clienteId") Long clienteId,
+            @RequestParam("fechaInicio") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
+            @RequestParam("fechaFin") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin) {
+
+        logger.info("Solicitando reporte en segundo plano - Cliente: {}, Fechas: {} a {}",
+                    clienteId, fechaInicio, fechaFin);
+
+        ReporteJobDTO job = reporteJobService.crear(clienteId, fechaInicio, fechaFin);
+        URI ubicacion = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{jobId}")
+                .buildAndExpand(job.getJobId())
+                .toUri();
+        return ResponseEntity.accepted().location(ubicacion).body(job);
+    }
+
+    // Estado del reporte; cuando está COMPLETADO el resultado se descarga de /{jobId}/resultado
+    @GetMapping("/{clienteId}/jobs/{jobId}")
+    public ResponseEntity<ReporteJobDTO> obtenerReporteJob(
+            @PathVariable("clienteId") Long clienteId,
+            @PathVariable("jobId") String jobId) {
+
+        return ResponseEntity.of(reporteJobService.obtener(clienteId, jobId));
+    }
+
+    // JSON del reporte tal como se escribió al terminar; 404 si no está COMPLETADO o ya expiró
+    @GetMapping(value = "/{clienteId}/jobs/{jobId}/resultado", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Resource> obtenerResultadoReporteJob(
+            @PathVariable("clienteId") Long clienteId,
+            @PathVariable("jobId") String jobId) {
+
+        return ResponseEntity.of(reporteJobService.obtenerResultado(clienteId, jobId)
+                .map(FileSystemResource::new));
+    }
+
+    @DeleteMapping("/{clienteId}/jobs/{jobId}")
+    public ResponseEntity<ReporteJobDTO> cancelarReporteJob(
+            @PathVariable("clienteId") Long clienteId,
+            @PathVariable("jobId") String jobId) {
+
+        logger.info("Cancelando reporte {} del cliente: {}", jobId, clienteId);
+        return ResponseEntity.of(reporteJobService.cancelar(clienteId, jobId));
     }
-}
\ No newline at end of file
+}
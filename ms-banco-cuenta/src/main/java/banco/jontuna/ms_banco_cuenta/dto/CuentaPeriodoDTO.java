@@ -0,0 +1,34 @@
+package banco.jontuna.ms_banco_cuenta.dto;
+
+import java.math.BigDecimal;
+
+import lombok.Data;
+
+@Data
+public class CuentaPeriodoDTO {
+    private Long cuentaId;
+    private String numeroCuenta;
+    private String tipoCuenta;
+    private String estado;
+    private BigDecimal saldoApertura;
+    private BigDecimal saldoCierre;
+    private BigDecimal totalCreditos;
+    private BigDecimal totalDebitos;
+    private long cantidadMovimientos;
+
+    public CuentaPeriodoDTO() {}
+
+    public CuentaPeriodoDTO(Long cuentaId, String numeroCuenta, String tipoCuenta, String estado,
+                            BigDecimal saldoApertura, BigDecimal saldoCierre, BigDecimal totalCreditos,
+                            BigDecimal totalDebitos, long cantidadMovimientos) {
+        this.cuentaId = cuentaId;
+        this.numeroCuenta = numeroCuenta;
+        this.tipoCuenta = tipoCuenta;
+        this.estado = estado;
+        this.saldoApertura = saldoApertura;
+        this.saldoCierre = saldoCierre;
+        this.totalCreditos = totalCreditos;
+        this.totalDebitos = totalDebitos;
+        this.cantidadMovimientos = cantidadMovimientos;
+    }
+}
@@ -2,6 +2,7 @@ package banco.jontuna.ms_banco_cuenta.dto;
 
 import java.math.BigDecimal;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 
 @Data
@@ -12,6 +13,10 @@ public class CuentaResponseDTO {
     private BigDecimal saldoInicial;
     private String estado;
     private Long clienteId;
+    private int saldoSlots;
+    // Solo para el ETag de la respuesta
+    @JsonIgnore
+    private Long version;
 
     public CuentaResponseDTO() {}
 
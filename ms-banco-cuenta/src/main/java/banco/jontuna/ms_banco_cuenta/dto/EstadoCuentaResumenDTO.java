@@ -0,0 +1,40 @@
+package banco.jontuna.ms_banco_cuenta.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Function;
+
+import lombok.Data;
+
+// Estado de cuenta de un período armado con SALDO_DIARIO, sin movimientos: el detalle se pide por cuenta y página
+@Data
+public class EstadoCuentaResumenDTO {
+    private Long clienteId;
+    private LocalDate fechaInicio;
+    private LocalDate fechaFin;
+    private List<CuentaPeriodoDTO> cuentas;
+    private BigDecimal saldoApertura;
+    private BigDecimal saldoCierre;
+
+    public EstadoCuentaResumenDTO() {}
+
+    public EstadoCuentaResumenDTO(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin,
+                                  List<CuentaPeriodoDTO> cuentas) {
+        this.clienteId = clienteId;
+        this.fechaInicio = fechaInicio;
+        this.fechaFin = fechaFin;
+        this.cuentas = cuentas;
+        this.saldoApertura = sumar(CuentaPeriodoDTO::getSaldoApertura);
+        this.saldoCierre = sumar(CuentaPeriodoDTO::getSaldoCierre);
+    }
+
+    private BigDecimal sumar(Function<CuentaPeriodoDTO, BigDecimal> saldo) {
+        if (cuentas == null || cuentas.isEmpty()) {
+            return BigDecimal.ZERO;
+        }
+        return cuentas.stream()
+                .map(saldo)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
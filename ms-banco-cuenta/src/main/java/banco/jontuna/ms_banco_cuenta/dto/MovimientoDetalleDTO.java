@@ -3,10 +3,15 @@ package banco.jontuna.ms_banco_cuenta.dto;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import lombok.Data;
 
 @Data
 public class MovimientoDetalleDTO {
+    // Solo para agrupar el reporte por cuenta; no forma parte de la respuesta
+    @JsonIgnore
+    private Long cuentaId;
     private Long movimientoId;
     private LocalDateTime fecha;
     private String tipoMovimiento;
@@ -25,4 +30,16 @@ public class MovimientoDetalleDTO {
         this.descripcion = descripcion;
         this.saldoDespues = saldoDespues;
     }
+
+    // Usado por la proyección JPQL del reporte (SELECT new ...): la descripción se arma a partir del tipo
+    public MovimientoDetalleDTO(Long cuentaId, Long movimientoId, LocalDateTime fecha, String tipoMovimiento,
+                                BigDecimal valor, BigDecimal saldoDespues) {
+        this(movimientoId, fecha, tipoMovimiento, valor, prefijoDescripcion(tipoMovimiento) + valor, saldoDespues);
+        this.cuentaId = cuentaId;
+    }
+
+    // La descripción es este prefijo seguido del valor; el reporte por streaming los escribe por separado
+    public static String prefijoDescripcion(String tipoMovimiento) {
+        return "DEBITO".equals(tipoMovimiento) ? "Debito de $" : "Crédito de $";
+    }
 }
\ No newline at end of file
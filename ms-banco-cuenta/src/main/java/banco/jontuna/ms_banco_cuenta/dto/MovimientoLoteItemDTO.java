@@ -0,0 +1,23 @@
+package banco.jontuna.ms_banco_cuenta.dto;
+
+import jakarta.validation.constraints.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class MovimientoLoteItemDTO {
+    @NotNull(message = "El ID de la cuenta es obligatorio")
+    private Long cuentaId;
+
+    @NotNull(message = "El valor es obligatorio")
+    @Digits(integer = 15, fraction = 2, message = "El valor debe tener máximo 15 enteros y 2 decimales")
+    private BigDecimal valor;
+
+    public MovimientoLoteItemDTO() {}
+
+    public MovimientoLoteItemDTO(Long cuentaId, BigDecimal valor) {
+        this.cuentaId = cuentaId;
+        this.valor = valor;
+    }
+}
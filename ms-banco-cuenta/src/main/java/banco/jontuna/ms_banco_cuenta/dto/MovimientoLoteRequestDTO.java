@@ -0,0 +1,19 @@
+package banco.jontuna.ms_banco_cuenta.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class MovimientoLoteRequestDTO {
+    @NotEmpty(message = "El lote debe contener al menos un movimiento")
+    private List<@Valid @NotNull MovimientoLoteItemDTO> movimientos;
+
+    public MovimientoLoteRequestDTO() {}
+
+    public MovimientoLoteRequestDTO(List<MovimientoLoteItemDTO> movimientos) {
+        this.movimientos = movimientos;
+    }
+}
@@ -0,0 +1,21 @@
+package banco.jontuna.ms_banco_cuenta.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class MovimientoLoteResponseDTO {
+    private int totalAplicados;
+    private int totalRechazados;
+    private List<MovimientoLoteResultadoDTO> resultados;
+
+    public MovimientoLoteResponseDTO() {}
+
+    public MovimientoLoteResponseDTO(int totalAplicados, int totalRechazados,
+                                     List<MovimientoLoteResultadoDTO> resultados) {
+        this.totalAplicados = totalAplicados;
+        this.totalRechazados = totalRechazados;
+        this.resultados = resultados;
+    }
+}
@@ -0,0 +1,31 @@
+package banco.jontuna.ms_banco_cuenta.dto;
+
+import lombok.Data;
+
+@Data
+public class MovimientoLoteResultadoDTO {
+    private int indice;
+    private Long cuentaId;
+    private String estado;
+    private MovimientoResponseDTO movimiento;
+    private String error;
+
+    public MovimientoLoteResultadoDTO() {}
+
+    public MovimientoLoteResultadoDTO(int indice, Long cuentaId, String estado,
+                                      MovimientoResponseDTO movimiento, String error) {
+        this.indice = indice;
+        this.cuentaId = cuentaId;
+        this.estado = estado;
+        this.movimiento = movimiento;
+        this.error = error;
+    }
+
+    public static MovimientoLoteResultadoDTO aplicado(int indice, MovimientoResponseDTO movimiento) {
+        return new MovimientoLoteResultadoDTO(indice, movimiento.getCuentaId(), "APLICADO", movimiento, null);
+    }
+
+    public static MovimientoLoteResultadoDTO rechazado(int indice, Long cuentaId, String error) {
+        return new MovimientoLoteResultadoDTO(indice, cuentaId, "RECHAZADO", null, error);
+    }
+}
@@ -0,0 +1,21 @@
+package banco.jontuna.ms_banco_cuenta.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class MovimientoPaginaDTO {
+    private List<MovimientoResponseDTO> movimientos;
+    private int tamano;
+    // Token para pedir la página siguiente; null cuando no hay más movimientos
+    private String siguienteCursor;
+
+    public MovimientoPaginaDTO() {}
+
+    public MovimientoPaginaDTO(List<MovimientoResponseDTO> movimientos, int tamano, String siguienteCursor) {
+        this.movimientos = movimientos;
+        this.tamano = tamano;
+        this.siguienteCursor = siguienteCursor;
+    }
+}
@@ -11,9 +11,12 @@ public class MovimientoResponseDTO {
     private LocalDateTime fecha;
     private String tipoMovimiento;
     private BigDecimal valor;
+    // Saldo de la cuenta después del movimiento. En un depósito en slot es aproximado: es el saldo confirmado
+    // al registrarlo más el depósito, sin los depósitos concurrentes en otros slots; el exacto es el de la cuenta
     private BigDecimal saldo;
     private Long cuentaId;
     private String numeroCuenta;
+    private String transferenciaId;
 
     public MovimientoResponseDTO() {}
 
@@ -27,4 +30,12 @@ public class MovimientoResponseDTO {
         this.cuentaId = cuentaId;
         this.numeroCuenta = numeroCuenta;
     }
+
+    // Usado por las proyecciones JPQL de MovimientoRepository (SELECT new ...)
+    public MovimientoResponseDTO(Long movimientoId, LocalDateTime fecha, String tipoMovimiento, 
+                                BigDecimal valor, BigDecimal saldo, Long cuentaId, String numeroCuenta,
+                                String transferenciaId) {
+        this(movimientoId, fecha, tipoMovimiento, valor, saldo, cuentaId, numeroCuenta);
+        this.transferenciaId = transferenciaId;
+    }
 }
\ No newline at end of file
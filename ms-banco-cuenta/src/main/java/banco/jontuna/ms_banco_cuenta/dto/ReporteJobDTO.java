@@ -0,0 +1,40 @@
+package banco.jontuna.ms_banco_cuenta.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import lombok.Data;
+
+// Estado de un reporte en segundo plano: PENDIENTE, EN_PROCESO, COMPLETADO, FALLIDO o CANCELADO.
+// bytesResultado solo viene en COMPLETADO (el JSON se descarga de GET .../jobs/{jobId}/resultado) y error
+// solo en FALLIDO.
+@Data
+public class ReporteJobDTO {
+    private String jobId;
+    private Long clienteId;
+    private LocalDate fechaInicio;
+    private LocalDate fechaFin;
+    private String estado;
+    private LocalDateTime fechaCreacion;
+    private LocalDateTime fechaFinalizacion;
+    private LocalDateTime fechaExpiracion;
+    private String error;
+    private Long bytesResultado;
+
+    public ReporteJobDTO() {}
+
+    public ReporteJobDTO(String jobId, Long clienteId, LocalDate fechaInicio, LocalDate fechaFin, String estado,
+                         LocalDateTime fechaCreacion, LocalDateTime fechaFinalizacion, LocalDateTime fechaExpiracion,
+                         String error, Long bytesResultado) {
+        this.jobId = jobId;
+        this.clienteId = clienteId;
+        this.fechaInicio = fechaInicio;
+        this.fechaFin = fechaFin;
+        this.estado = estado;
+        this.fechaCreacion = fechaCreacion;
+        this.fechaFinalizacion = fechaFinalizacion;
+        this.fechaExpiracion = fechaExpiracion;
+        this.error = error;
+        this.bytesResultado = bytesResultado;
+    }
+}
@@ -0,0 +1,18 @@
+package banco.jontuna.ms_banco_cuenta.dto;
+
+import jakarta.validation.constraints.*;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class SaldosRequestDTO {
+    @NotEmpty(message = "Debe indicar al menos una cuenta")
+    private List<@NotNull Long> ids;
+
+    public SaldosRequestDTO() {}
+
+    public SaldosRequestDTO(List<Long> ids) {
+        this.ids = ids;
+    }
+}
@@ -0,0 +1,28 @@
+package banco.jontuna.ms_banco_cuenta.dto;
+
+import jakarta.validation.constraints.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class TransferenciaRequestDTO {
+    @NotNull(message = "La cuenta de origen es obligatoria")
+    private Long cuentaOrigenId;
+
+    @NotNull(message = "La cuenta de destino es obligatoria")
+    private Long cuentaDestinoId;
+
+    @NotNull(message = "El valor es obligatorio")
+    @DecimalMin(value = "0.01", message = "El valor de la transferencia debe ser mayor a 0")
+    @Digits(integer = 15, fraction = 2, message = "El valor debe tener máximo 15 enteros y 2 decimales")
+    private BigDecimal valor;
+
+    public TransferenciaRequestDTO() {}
+
+    public TransferenciaRequestDTO(Long cuentaOrigenId, Long cuentaDestinoId, BigDecimal valor) {
+        this.cuentaOrigenId = cuentaOrigenId;
+        this.cuentaDestinoId = cuentaDestinoId;
+        this.valor = valor;
+    }
+}
@@ -0,0 +1,26 @@
+package banco.jontuna.ms_banco_cuenta.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+public class TransferenciaResponseDTO {
+    private String transferenciaId;
+    private LocalDateTime fecha;
+    private BigDecimal valor;
+    private MovimientoResponseDTO debito;
+    private MovimientoResponseDTO credito;
+
+    public TransferenciaResponseDTO() {}
+
+    public TransferenciaResponseDTO(String transferenciaId, LocalDateTime fecha, BigDecimal valor,
+                                    MovimientoResponseDTO debito, MovimientoResponseDTO credito) {
+        this.transferenciaId = transferenciaId;
+        this.fecha = fecha;
+        this.valor = valor;
+        this.debito = debito;
+        this.credito = credito;
+    }
+}
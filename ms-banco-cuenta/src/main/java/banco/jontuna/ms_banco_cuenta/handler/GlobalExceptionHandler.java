@@ -1,22 +1,29 @@
 package banco.jontuna.ms_banco_cuenta.handler;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.ValidationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
 
 import banco.jontuna.ms_banco_cuenta.dto.ErrorResponse;
 import banco.jontuna.ms_banco_cuenta.util.exception.CuentaNoActivaException;
 import banco.jontuna.ms_banco_cuenta.util.exception.CuentaConSaldoException;
 import banco.jontuna.ms_banco_cuenta.util.exception.CuentaInactivaException;
 import banco.jontuna.ms_banco_cuenta.util.exception.CuentaNotFoundException;
+import banco.jontuna.ms_banco_cuenta.util.exception.CuentaOcupadaException;
+import banco.jontuna.ms_banco_cuenta.util.exception.LimiteSolicitudesException;
 import banco.jontuna.ms_banco_cuenta.util.exception.MovimientoInvalidoException;
 import banco.jontuna.ms_banco_cuenta.util.exception.SaldoInsuficienteException;
+import banco.jontuna.ms_banco_cuenta.util.exception.ServicioSaturadoException;
 import banco.jontuna.ms_banco_cuenta.util.exception.FechaInvalidaException;
 import banco.jontuna.ms_banco_cuenta.util.exception.CuentasNoEncontradasException;
 
@@ -53,6 +60,21 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(ValidationException.class)
+    public ResponseEntity<ErrorResponse> handleValidationException(
+            ValidationException ex, HttpServletRequest request) {
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+            HttpStatus.BAD_REQUEST.value(),
+            "Error de Validación",
+            ex.getMessage(),
+            request.getRequestURI()
+        );
+
+        logger.warn("Error de validación en Cuenta-Service: {}", ex.getMessage());
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(CuentaNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleCuentaNotFoundException(
             CuentaNotFoundException ex, HttpServletRequest request) {
@@ -173,6 +195,99 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(CuentaOcupadaException.class)
+    public ResponseEntity<ErrorResponse> handleCuentaOcupadaException(
+            CuentaOcupadaException ex, HttpServletRequest request) {
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+            HttpStatus.CONFLICT.value(),
+            "Cuenta Ocupada",
+            ex.getMessage(),
+            request.getRequestURI()
+        );
+
+        logger.warn("Cuenta ocupada: {}", ex.getMessage());
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
+    // Escritura sobre una versión de CUENTA que otra transacción ya cambió (@Version): se puede reintentar
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailureException(
+            OptimisticLockingFailureException ex, HttpServletRequest request) {
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+            HttpStatus.CONFLICT.value(),
+            "Modificación Concurrente",
+            "La cuenta fue modificada por otra operación. Intente nuevamente",
+            request.getRequestURI()
+        );
+
+        logger.warn("Modificación concurrente: {}", ex.getMessage());
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(ServicioSaturadoException.class)
+    public ResponseEntity<ErrorResponse> handleServicioSaturadoException(
+            ServicioSaturadoException ex, HttpServletRequest request) {
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+            HttpStatus.SERVICE_UNAVAILABLE.value(),
+            "Servicio Saturado",
+            ex.getMessage(),
+            request.getRequestURI()
+        );
+
+        logger.warn("Servicio saturado: {}", ex.getMessage());
+        return new ResponseEntity<>(errorResponse, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    // Pool con la cola llena (p. ej. el del reporte síncrono): la tarea no llegó a encolarse
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<ErrorResponse> handleTaskRejectedException(
+            TaskRejectedException ex, HttpServletRequest request) {
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+            HttpStatus.SERVICE_UNAVAILABLE.value(),
+            "Servicio Saturado",
+            "Hay demasiadas solicitudes en curso. Intente nuevamente más tarde",
+            request.getRequestURI()
+        );
+
+        logger.warn("Tarea rechazada en {}: {}", request.getRequestURI(), ex.getMessage());
+        return new ResponseEntity<>(errorResponse, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(LimiteSolicitudesException.class)
+    public ResponseEntity<ErrorResponse> handleLimiteSolicitudesException(
+            LimiteSolicitudesException ex, HttpServletRequest request) {
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+            HttpStatus.TOO_MANY_REQUESTS.value(),
+            "Demasiadas Solicitudes",
+            ex.getMessage(),
+            request.getRequestURI()
+        );
+
+        logger.warn("Límite de solicitudes alcanzado: {}", ex.getMessage());
+        return new ResponseEntity<>(errorResponse, HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    // Solicitud asíncrona que superó su tiempo máximo (p. ej. el reporte síncrono): la tarea ya fue cancelada
+    @ExceptionHandler(AsyncRequestTimeoutException.class)
+    public ResponseEntity<ErrorResponse> handleAsyncRequestTimeoutException(
+            AsyncRequestTimeoutException ex, HttpServletRequest request) {
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+            HttpStatus.SERVICE_UNAVAILABLE.value(),
+            "Tiempo de Espera Agotado",
+            "La solicitud superó el tiempo máximo de respuesta",
+            request.getRequestURI()
+        );
+
+        logger.warn("Tiempo de espera agotado en: {}", request.getRequestURI());
+        return new ResponseEntity<>(errorResponse, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<ErrorResponse> handleRuntimeException(
             RuntimeException ex, HttpServletRequest request) {
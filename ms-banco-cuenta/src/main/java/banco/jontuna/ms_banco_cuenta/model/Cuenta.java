@@ -7,6 +7,8 @@ import jakarta.validation.constraints.NotNull;
 import lombok.Getter;
 import lombok.Setter;
 
+import banco.jontuna.ms_banco_cuenta.util.generator.TablaId;
+
 import java.math.BigDecimal;
 
 @Getter
@@ -15,7 +17,7 @@ import java.math.BigDecimal;
 @Table(name = "CUENTA")
 public class Cuenta {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TablaId(segmento = "CUENTA")
     @Column(name = "CuentaId")
     private Long cuentaId;
 
@@ -32,6 +34,21 @@ public class Cuenta {
     @Column(name = "SaldoInicial", nullable = false, precision = 15, scale = 2)
     private BigDecimal saldoInicial = BigDecimal.ZERO;
 
+    // Con saldoSlots > 0 es solo la parte base del saldo: el resto está repartido en SALDO_SLOT
+    @Column(name = "SaldoActual", nullable = false, precision = 15, scale = 2)
+    private BigDecimal saldoActual = BigDecimal.ZERO;
+
+    @Column(name = "SaldoSlots", nullable = false)
+    private int saldoSlots;
+
+    @Column(name = "UltimoMovimientoId")
+    private Long ultimoMovimientoId;
+
+    // Cambia con cada UPDATE de la fila: detecta escrituras concurrentes sin lock y es la base de los ETag
+    @Version
+    @Column(name = "Version", nullable = false)
+    private Long version;
+
     @Column(name = "Estado", length = 20)
     private String estado = "ACTIVA";
 
@@ -0,0 +1,66 @@
+package banco.jontuna.ms_banco_cuenta.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "IDEMPOTENCIA_MOVIMIENTO")
+public class IdempotenciaMovimiento implements Persistable<String> {
+    @Id
+    @Column(name = "Clave", length = 100)
+    private String clave;
+
+    @Column(name = "CuentaId", nullable = false)
+    private Long cuentaId;
+
+    @Column(name = "Valor", nullable = false, precision = 15, scale = 2)
+    private BigDecimal valor;
+
+    @Column(name = "Respuesta", nullable = false, length = 1000)
+    private String respuesta;
+
+    @Column(name = "FechaCreacion", nullable = false)
+    private LocalDateTime fechaCreacion;
+
+    @Column(name = "FechaExpiracion", nullable = false)
+    private LocalDateTime fechaExpiracion;
+
+    // La clave es asignada por el cliente: sin esto save() haría un SELECT previo para decidir entre persist y merge
+    @Transient
+    private boolean nuevo = true;
+
+    public IdempotenciaMovimiento() {}
+
+    public IdempotenciaMovimiento(String clave, Long cuentaId, BigDecimal valor, String respuesta,
+                                  LocalDateTime fechaCreacion, LocalDateTime fechaExpiracion) {
+        this.clave = clave;
+        this.cuentaId = cuentaId;
+        this.valor = valor;
+        this.respuesta = respuesta;
+        this.fechaCreacion = fechaCreacion;
+        this.fechaExpiracion = fechaExpiracion;
+    }
+
+    @Override
+    public String getId() {
+        return clave;
+    }
+
+    @Override
+    public boolean isNew() {
+        return nuevo;
+    }
+
+    @PostLoad
+    @PostPersist
+    void marcarPersistido() {
+        this.nuevo = false;
+    }
+}
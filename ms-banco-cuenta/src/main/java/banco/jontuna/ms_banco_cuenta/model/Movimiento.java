@@ -7,6 +7,10 @@ import jakarta.validation.constraints.NotNull;
 import lombok.Getter;
 import lombok.Setter;
 
+import banco.jontuna.ms_banco_cuenta.util.cache.SaldoMemoriaListener;
+import banco.jontuna.ms_banco_cuenta.util.generator.TablaId;
+import banco.jontuna.ms_banco_cuenta.util.reporte.SaldoDiarioListener;
+
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
@@ -14,9 +18,10 @@ import java.time.LocalDateTime;
 @Setter
 @Entity
 @Table(name = "MOVIMIENTO")
+@EntityListeners({SaldoMemoriaListener.class, SaldoDiarioListener.class})
 public class Movimiento {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TablaId(segmento = "MOVIMIENTO")
     @Column(name = "MovimientoId")
     private Long movimientoId;
 
@@ -41,6 +46,15 @@ public class Movimiento {
     @JoinColumn(name = "CuentaId", nullable = false)
     private Cuenta cuenta;
 
+    // Enlaza el débito y el crédito de una misma transferencia (null en movimientos simples)
+    @Column(name = "TransferenciaId", length = 36)
+    private String transferenciaId;
+
+    // Slot de SALDO_SLOT en el que sumó un depósito (null en los demás movimientos). No se guarda:
+    // SaldoDiarioService lo usa para acumular el depósito en la fila de ese slot
+    @Transient
+    private Integer slotSaldo;
+
     public Movimiento() {
         this.fecha = LocalDateTime.now();
     }
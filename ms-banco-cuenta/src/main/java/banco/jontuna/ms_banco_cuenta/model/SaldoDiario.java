@@ -0,0 +1,50 @@
+package banco.jontuna.ms_banco_cuenta.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Resumen de los movimientos de una cuenta en un día (ver SaldoDiarioService). Un día puede tener una fila
+// por slot además de la base: sus totales y su cierre son la suma de todas sus filas.
+@Getter
+@Setter
+@Entity
+@Table(name = "SALDO_DIARIO")
+@IdClass(SaldoDiarioId.class)
+public class SaldoDiario {
+    // Fila con el saldo de apertura y los movimientos registrados con la cuenta bloqueada
+    public static final int FILA_BASE = 0;
+
+    @Id
+    @Column(name = "CuentaId")
+    private Long cuentaId;
+
+    @Id
+    @Column(name = "Fecha")
+    private LocalDate fecha;
+
+    // FILA_BASE, o N + 1 para los depósitos en el slot N de SALDO_SLOT
+    @Id
+    @Column(name = "Slot")
+    private Integer slot;
+
+    @Column(name = "SaldoApertura", nullable = false, precision = 15, scale = 2)
+    private BigDecimal saldoApertura;
+
+    @Column(name = "SaldoCierre", nullable = false, precision = 15, scale = 2)
+    private BigDecimal saldoCierre;
+
+    @Column(name = "Creditos", nullable = false, precision = 15, scale = 2)
+    private BigDecimal creditos = BigDecimal.ZERO;
+
+    @Column(name = "Debitos", nullable = false, precision = 15, scale = 2)
+    private BigDecimal debitos = BigDecimal.ZERO;
+
+    @Column(name = "CantidadMovimientos", nullable = false)
+    private Integer cantidadMovimientos = 0;
+
+    public SaldoDiario() {}
+}
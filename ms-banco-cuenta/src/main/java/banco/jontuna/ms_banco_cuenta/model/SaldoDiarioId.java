@@ -0,0 +1,25 @@
+package banco.jontuna.ms_banco_cuenta.model;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@EqualsAndHashCode
+public class SaldoDiarioId implements Serializable {
+    private Long cuentaId;
+    private LocalDate fecha;
+    private Integer slot;
+
+    public SaldoDiarioId() {}
+
+    public SaldoDiarioId(Long cuentaId, LocalDate fecha, Integer slot) {
+        this.cuentaId = cuentaId;
+        this.fecha = fecha;
+        this.slot = slot;
+    }
+}
@@ -0,0 +1,33 @@
+package banco.jontuna.ms_banco_cuenta.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+// Parte del saldo de una cuenta con slots (ver SaldoSlotService)
+@Getter
+@Setter
+@Entity
+@Table(name = "SALDO_SLOT")
+@IdClass(SaldoSlotId.class)
+public class SaldoSlot {
+    @Id
+    @Column(name = "CuentaId")
+    private Long cuentaId;
+
+    @Id
+    @Column(name = "Slot")
+    private Integer slot;
+
+    @Column(name = "Saldo", nullable = false, precision = 15, scale = 2)
+    private BigDecimal saldo = BigDecimal.ZERO;
+
+    public SaldoSlot() {}
+
+    public SaldoSlot(Long cuentaId, Integer slot) {
+        this.cuentaId = cuentaId;
+        this.slot = slot;
+    }
+}
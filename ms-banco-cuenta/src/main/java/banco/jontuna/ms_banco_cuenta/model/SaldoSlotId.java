@@ -0,0 +1,22 @@
+package banco.jontuna.ms_banco_cuenta.model;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+@Getter
+@Setter
+@EqualsAndHashCode
+public class SaldoSlotId implements Serializable {
+    private Long cuentaId;
+    private Integer slot;
+
+    public SaldoSlotId() {}
+
+    public SaldoSlotId(Long cuentaId, Integer slot) {
+        this.cuentaId = cuentaId;
+        this.slot = slot;
+    }
+}
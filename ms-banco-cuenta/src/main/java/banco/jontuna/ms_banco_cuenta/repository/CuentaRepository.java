@@ -1,12 +1,19 @@
 package banco.jontuna.ms_banco_cuenta.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import banco.jontuna.ms_banco_cuenta.dto.CuentaResumenDTO;
 import banco.jontuna.ms_banco_cuenta.model.Cuenta;
+import banco.jontuna.ms_banco_cuenta.util.cache.CuentaMetadatos;
+import jakarta.persistence.LockModeType;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,10 +22,58 @@ public interface CuentaRepository extends JpaRepository<Cuenta, Long> {
     
     @Query("SELECT c FROM Cuenta c WHERE c.numeroCuenta = :numeroCuenta")
     Optional<Cuenta> findByNumeroCuenta(@Param("numeroCuenta") String numeroCuenta);
+
+    // Lecturas de CuentaCache: proyecciones que no dejan la entidad en el contexto de persistencia, así un
+    // findByIdForUpdate posterior en la misma transacción lee la fila bloqueada y no una copia anterior
+    @Query("SELECT new banco.jontuna.ms_banco_cuenta.util.cache.CuentaMetadatos(c.cuentaId, c.numeroCuenta, " +
+           "c.tipoCuenta, c.saldoInicial, c.estado, c.clienteId, c.saldoSlots, c.version) FROM Cuenta c WHERE c.cuentaId = :cuentaId")
+    Optional<CuentaMetadatos> findMetadatosById(@Param("cuentaId") Long cuentaId);
+
+    @Query("SELECT c.cuentaId FROM Cuenta c WHERE c.numeroCuenta = :numeroCuenta")
+    Optional<Long> findCuentaIdByNumeroCuenta(@Param("numeroCuenta") String numeroCuenta);
+
+    // Versión para el ETag del saldo y del historial; vacío si la cuenta no existe o usa slots
+    // (los depósitos en slots no actualizan CUENTA y no cambiarían la versión)
+    @Query("SELECT c.version FROM Cuenta c WHERE c.cuentaId = :cuentaId AND c.saldoSlots = 0")
+    Optional<Long> findVersionSinSlotsById(@Param("cuentaId") Long cuentaId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Cuenta c WHERE c.cuentaId = :cuentaId")
+    Optional<Cuenta> findByIdForUpdate(@Param("cuentaId") Long cuentaId);
+
+    // Saldo exacto: incluye lo acumulado en SALDO_SLOT en una sola lectura
+    @Query("SELECT c.saldoActual + COALESCE((SELECT SUM(s.saldo) FROM SaldoSlot s WHERE s.cuentaId = c.cuentaId), 0) "
+         + "FROM Cuenta c WHERE c.cuentaId = :cuentaId")
+    Optional<BigDecimal> findSaldoActualByCuentaId(@Param("cuentaId") Long cuentaId);
+
+    // Cuenta y su saldo exacto en la misma lectura: [Cuenta, saldo], sin filas si la cuenta no existe
+    @Query("SELECT c, c.saldoActual + COALESCE((SELECT SUM(s.saldo) FROM SaldoSlot s WHERE s.cuentaId = c.cuentaId), 0) "
+         + "FROM Cuenta c WHERE c.cuentaId = :cuentaId")
+    List<Object[]> findConSaldoActualById(@Param("cuentaId") Long cuentaId);
+
+    // Saldo exacto de varias cuentas en una sola sentencia: [cuentaId, saldo]; las que no existen no vuelven
+    @Query("SELECT c.cuentaId, c.saldoActual + COALESCE(SUM(s.saldo), 0) FROM Cuenta c "
+         + "LEFT JOIN SaldoSlot s ON s.cuentaId = c.cuentaId "
+         + "WHERE c.cuentaId IN :cuentaIds GROUP BY c.cuentaId, c.saldoActual")
+    List<Object[]> findSaldosActualesByCuentaIds(@Param("cuentaIds") Collection<Long> cuentaIds);
+
+    @Query("SELECT c.cuentaId, c.saldoSlots FROM Cuenta c WHERE c.saldoSlots > 0")
+    List<Object[]> findCuentasConSaldoSlots();
+
+    @Query("SELECT c.cuentaId FROM Cuenta c WHERE c.cuentaId > :ultimoCuentaId ORDER BY c.cuentaId")
+    List<Long> findCuentaIdsDesde(@Param("ultimoCuentaId") Long ultimoCuentaId, Limit limit);
+
+    // Precarga de SaldoMemoria: las cuentas con slots se cargan bajo demanda con findSaldoActualByCuentaId
+    @Query("SELECT c.cuentaId, c.saldoActual FROM Cuenta c WHERE c.cuentaId > :ultimoCuentaId AND c.saldoSlots = 0 "
+         + "ORDER BY c.cuentaId")
+    List<Object[]> findSaldosSinSlotsDesde(@Param("ultimoCuentaId") Long ultimoCuentaId, Limit limit);
     
     @Query("SELECT c FROM Cuenta c WHERE c.clienteId = :clienteId")
     List<Cuenta> findByClienteId(@Param("clienteId") Long clienteId);
     
+    @Query("SELECT c.cuentaId FROM Cuenta c WHERE c.clienteId = :clienteId")
+    List<Long> findCuentaIdsByClienteId(@Param("clienteId") Long clienteId);
+
     @Query("SELECT c FROM Cuenta c WHERE c.estado = :estado")
     List<Cuenta> findByEstado(@Param("estado") String estado);
     
@@ -26,4 +81,12 @@ public interface CuentaRepository extends JpaRepository<Cuenta, Long> {
     boolean existsByNumeroCuenta(@Param("numeroCuenta") String numeroCuenta);
 
     List<Cuenta> findByClienteIdAndEstado(Long clienteId, String estado);
+
+    // Resumen de las cuentas de un cliente con el saldo exacto (SaldoActual + slots) en una sola sentencia
+    @Query("SELECT new banco.jontuna.ms_banco_cuenta.dto.CuentaResumenDTO(c.cuentaId, c.numeroCuenta, c.tipoCuenta, "
+         + "c.estado, c.saldoActual + COALESCE(SUM(s.saldo), 0)) FROM Cuenta c "
+         + "LEFT JOIN SaldoSlot s ON s.cuentaId = c.cuentaId "
+         + "WHERE c.clienteId = :clienteId AND c.estado = :estado "
+         + "GROUP BY c.cuentaId, c.numeroCuenta, c.tipoCuenta, c.estado, c.saldoActual ORDER BY c.cuentaId")
+    List<CuentaResumenDTO> findResumenesByClienteIdAndEstado(@Param("clienteId") Long clienteId, @Param("estado") String estado);
 }
@@ -0,0 +1,19 @@
+package banco.jontuna.ms_banco_cuenta.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import banco.jontuna.ms_banco_cuenta.model.IdempotenciaMovimiento;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface IdempotenciaMovimientoRepository extends JpaRepository<IdempotenciaMovimiento, String> {
+
+    @Query("SELECT i.clave FROM IdempotenciaMovimiento i WHERE i.fechaExpiracion < :ahora ORDER BY i.fechaExpiracion")
+    List<String> findClavesExpiradas(@Param("ahora") LocalDateTime ahora, Limit limit);
+}
@@ -1,10 +1,12 @@
 package banco.jontuna.ms_banco_cuenta.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import banco.jontuna.ms_banco_cuenta.dto.MovimientoResponseDTO;
 import banco.jontuna.ms_banco_cuenta.model.Movimiento;
 
 import java.time.LocalDateTime;
@@ -13,16 +15,66 @@ import java.util.Optional;
 
 @Repository
 public interface MovimientoRepository extends JpaRepository<Movimiento, Long> {
+
+    // Proyección de lectura: una sola consulta con CUENTA unida, sin cargar entidades ni el proxy LAZY de la cuenta
+    String PROYECCION_RESPUESTA = "SELECT new banco.jontuna.ms_banco_cuenta.dto.MovimientoResponseDTO(" +
+           "m.movimientoId, m.fecha, m.tipoMovimiento, " +
+           "CASE WHEN m.tipoMovimiento = 'RETIRO' THEN -m.valor ELSE m.valor END, " +
+           "m.saldo, c.cuentaId, c.numeroCuenta, m.transferenciaId) " +
+           "FROM Movimiento m JOIN m.cuenta c ";
     
     @Query("SELECT m FROM Movimiento m WHERE m.cuenta.cuentaId = :cuentaId ORDER BY m.fecha DESC")
     List<Movimiento> findByCuentaCuentaIdOrderByFechaDesc(@Param("cuentaId") Long cuentaId);
     
-    @Query("SELECT m FROM Movimiento m WHERE m.cuenta.cuentaId = :cuentaId ORDER BY m.fecha DESC LIMIT 1")
+    @Query("SELECT m FROM Movimiento m WHERE m.cuenta.cuentaId = :cuentaId ORDER BY m.fecha DESC, m.movimientoId DESC LIMIT 1")
     Optional<Movimiento> findTopByCuentaCuentaIdOrderByFechaDesc(@Param("cuentaId") Long cuentaId);
     
-    @Query("SELECT m FROM Movimiento m WHERE m.cuenta.clienteId = :clienteId")
-    List<Movimiento> findByCuentaClienteId(@Param("clienteId") Long clienteId);
+    @Query(PROYECCION_RESPUESTA + "WHERE c.cuentaId = :cuentaId ORDER BY m.fecha DESC")
+    List<MovimientoResponseDTO> findRespuestasPorCuenta(@Param("cuentaId") Long cuentaId);
+
+    @Query(PROYECCION_RESPUESTA + "WHERE c.clienteId = :clienteId")
+    List<MovimientoResponseDTO> findRespuestasPorCliente(@Param("clienteId") Long clienteId);
+
+    @Query(PROYECCION_RESPUESTA + "WHERE m.movimientoId = :movimientoId")
+    Optional<MovimientoResponseDTO> findRespuestaPorId(@Param("movimientoId") Long movimientoId);
+
+    @Query(PROYECCION_RESPUESTA + "ORDER BY m.movimientoId")
+    List<MovimientoResponseDTO> findRespuestasTodas();
     
+    // Paginación por posición (keyset) sobre IX_MOVIMIENTO_CUENTA_FECHA: la página N cuesta lo mismo que la primera
+    @Query("SELECT m FROM Movimiento m JOIN FETCH m.cuenta WHERE m.cuenta.cuentaId = :cuentaId " +
+           "ORDER BY m.fecha DESC, m.movimientoId DESC")
+    List<Movimiento> findPrimeraPaginaPorCuenta(@Param("cuentaId") Long cuentaId, Limit limit);
+
+    @Query("SELECT m FROM Movimiento m JOIN FETCH m.cuenta WHERE m.cuenta.cuentaId = :cuentaId " +
+           "AND m.fecha <= :fecha AND (m.fecha < :fecha OR m.movimientoId < :movimientoId) " +
+           "ORDER BY m.fecha DESC, m.movimientoId DESC")
+    List<Movimiento> findPaginaPorCuentaDespuesDe(@Param("cuentaId") Long cuentaId,
+                                                  @Param("fecha") LocalDateTime fecha,
+                                                  @Param("movimientoId") Long movimientoId,
+                                                  Limit limit);
+
+    // Misma paginación limitada a un rango de fechas: la primera página empieza en (fin del rango, Long.MAX_VALUE)
+    @Query("SELECT m FROM Movimiento m JOIN FETCH m.cuenta WHERE m.cuenta.cuentaId = :cuentaId " +
+           "AND m.fecha >= :desde AND m.fecha <= :fecha AND (m.fecha < :fecha OR m.movimientoId < :movimientoId) " +
+           "ORDER BY m.fecha DESC, m.movimientoId DESC")
+    List<Movimiento> findPaginaPorCuentaEnRango(@Param("cuentaId") Long cuentaId,
+                                                @Param("desde") LocalDateTime desde,
+                                                @Param("fecha") LocalDateTime fecha,
+                                                @Param("movimientoId") Long movimientoId,
+                                                Limit limit);
+
+    @Query("SELECT m FROM Movimiento m WHERE m.cuenta.cuentaId = :cuentaId ORDER BY m.fecha, m.movimientoId LIMIT 1")
+    Optional<Movimiento> findPrimeroPorCuenta(@Param("cuentaId") Long cuentaId);
+
+    // Totales por día de una cuenta (reconstrucción de SALDO_DIARIO): [fecha, créditos, débitos, cantidad]
+    @Query("SELECT CAST(m.fecha AS LocalDate), " +
+           "SUM(CASE WHEN m.tipoMovimiento = 'RETIRO' THEN 0 ELSE m.valor END), " +
+           "SUM(CASE WHEN m.tipoMovimiento = 'RETIRO' THEN m.valor ELSE 0 END), COUNT(m) " +
+           "FROM Movimiento m WHERE m.cuenta.cuentaId = :cuentaId " +
+           "GROUP BY CAST(m.fecha AS LocalDate) ORDER BY CAST(m.fecha AS LocalDate)")
+    List<Object[]> findTotalesDiariosPorCuenta(@Param("cuentaId") Long cuentaId);
+
     @Query("SELECT COUNT(m) > 0 FROM Movimiento m WHERE m.cuenta.cuentaId = :cuentaId AND m.fecha > :fechaLimite")
     boolean existsByCuentaCuentaIdAndFechaAfter(@Param("cuentaId") Long cuentaId, 
                                                 @Param("fechaLimite") LocalDateTime fechaLimite);
@@ -0,0 +1,59 @@
+package banco.jontuna.ms_banco_cuenta.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import banco.jontuna.ms_banco_cuenta.model.SaldoDiario;
+import banco.jontuna.ms_banco_cuenta.model.SaldoDiarioId;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SaldoDiarioRepository extends JpaRepository<SaldoDiario, SaldoDiarioId> {
+
+    // Crea la fila del día (base o de un slot) con el saldo de apertura dado o suma los totales a la existente
+    // (el saldo de apertura de una fila que ya existe no cambia). Una sola sentencia, sin leer la fila antes.
+    @Modifying
+    @Query(value = "INSERT INTO SALDO_DIARIO (CuentaId, Fecha, Slot, SaldoApertura, SaldoCierre, Creditos, Debitos, CantidadMovimientos) "
+                 + "VALUES (:cuentaId, :fecha, :slot, :saldoApertura, :saldoApertura + :creditos - :debitos, :creditos, :debitos, :cantidad) "
+                 + "ON DUPLICATE KEY UPDATE SaldoCierre = SaldoCierre + VALUES(Creditos) - VALUES(Debitos), "
+                 + "Creditos = Creditos + VALUES(Creditos), Debitos = Debitos + VALUES(Debitos), "
+                 + "CantidadMovimientos = CantidadMovimientos + VALUES(CantidadMovimientos)",
+           nativeQuery = true)
+    int acumular(@Param("cuentaId") Long cuentaId, @Param("fecha") LocalDate fecha, @Param("slot") Integer slot,
+                 @Param("saldoApertura") BigDecimal saldoApertura, @Param("creditos") BigDecimal creditos,
+                 @Param("debitos") BigDecimal debitos, @Param("cantidad") Integer cantidad);
+
+    // Fila base del día sin totales, solo si no existe: con INSERT IGNORE los depósitos en slots que la
+    // encuentran no la bloquean para escritura y no se esperan entre sí
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO SALDO_DIARIO (CuentaId, Fecha, Slot, SaldoApertura, SaldoCierre) "
+                 + "VALUES (:cuentaId, :fecha, " + SaldoDiario.FILA_BASE + ", :saldoApertura, :saldoApertura)",
+           nativeQuery = true)
+    int crearFilaBase(@Param("cuentaId") Long cuentaId, @Param("fecha") LocalDate fecha,
+                      @Param("saldoApertura") BigDecimal saldoApertura);
+
+    @Modifying
+    @Query("DELETE FROM SaldoDiario s WHERE s.cuentaId = :cuentaId")
+    int deleteByCuentaId(@Param("cuentaId") Long cuentaId);
+
+    // Totales del período por cuenta: [cuentaId, créditos, débitos, cantidad de movimientos]
+    @Query("SELECT s.cuentaId, SUM(s.creditos), SUM(s.debitos), SUM(s.cantidadMovimientos) FROM SaldoDiario s "
+         + "WHERE s.cuentaId IN :cuentaIds AND s.fecha BETWEEN :fechaInicio AND :fechaFin GROUP BY s.cuentaId")
+    List<Object[]> sumarPorCuentaEnRango(@Param("cuentaIds") Collection<Long> cuentaIds,
+                                         @Param("fechaInicio") LocalDate fechaInicio,
+                                         @Param("fechaFin") LocalDate fechaFin);
+
+    // Saldo de cierre de cada cuenta al final de la fecha dada: el del último día con movimientos hasta esa fecha,
+    // sumando la fila base y las de los slots
+    @Query("SELECT s.cuentaId, SUM(s.saldoCierre) FROM SaldoDiario s WHERE s.cuentaId IN :cuentaIds "
+         + "AND s.fecha = (SELECT MAX(u.fecha) FROM SaldoDiario u WHERE u.cuentaId = s.cuentaId AND u.fecha <= :fecha) "
+         + "GROUP BY s.cuentaId")
+    List<Object[]> findSaldosCierreHasta(@Param("cuentaIds") Collection<Long> cuentaIds, @Param("fecha") LocalDate fecha);
+}
@@ -0,0 +1,32 @@
+package banco.jontuna.ms_banco_cuenta.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import banco.jontuna.ms_banco_cuenta.model.SaldoSlot;
+import banco.jontuna.ms_banco_cuenta.model.SaldoSlotId;
+import jakarta.persistence.LockModeType;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SaldoSlotRepository extends JpaRepository<SaldoSlot, SaldoSlotId> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM SaldoSlot s WHERE s.cuentaId = :cuentaId ORDER BY s.slot")
+    List<SaldoSlot> findByCuentaIdForUpdate(@Param("cuentaId") Long cuentaId);
+
+    // Solo bloquea la fila del slot: los depósitos en otros slots de la misma cuenta no esperan
+    @Modifying
+    @Query("UPDATE SaldoSlot s SET s.saldo = s.saldo + :valor WHERE s.cuentaId = :cuentaId AND s.slot = :slot")
+    int sumarSaldo(@Param("cuentaId") Long cuentaId, @Param("slot") Integer slot, @Param("valor") BigDecimal valor);
+
+    @Query("SELECT s.cuentaId, SUM(s.saldo) FROM SaldoSlot s WHERE s.cuentaId IN :cuentaIds GROUP BY s.cuentaId")
+    List<Object[]> sumarSaldoPorCuenta(@Param("cuentaIds") Collection<Long> cuentaIds);
+}
@@ -0,0 +1,8 @@
+package banco.jontuna.ms_banco_cuenta.repository.custom;
+
+import banco.jontuna.ms_banco_cuenta.model.Cuenta;
+import java.util.stream.Stream;
+
+public interface CustomCuentaRepository {
+    Stream<Cuenta> streamTodas(int fetchSize);
+}
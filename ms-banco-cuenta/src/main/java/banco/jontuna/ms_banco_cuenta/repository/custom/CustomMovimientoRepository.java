@@ -1,9 +1,17 @@
 package banco.jontuna.ms_banco_cuenta.repository.custom;
 
+import banco.jontuna.ms_banco_cuenta.dto.MovimientoDetalleDTO;
 import banco.jontuna.ms_banco_cuenta.model.Movimiento;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface CustomMovimientoRepository {
-    List<Movimiento> findMovimientosByClienteAndFechaRange(Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin);
+    List<MovimientoDetalleDTO> findDetallesByClienteAndFechaRange(Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin);
+
+    List<MovimientoDetalleDTO> findDetallesByCuentasAndFechaRange(List<Long> cuentaIds, LocalDateTime fechaInicio, LocalDateTime fechaFin);
+
+    Stream<Movimiento> streamTodos(int fetchSize);
+
+    Stream<Object[]> streamFilasReporte(Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin, int fetchSize);
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package banco.jontuna.ms_banco_cuenta.repository.custom.impl;
+
+import banco.jontuna.ms_banco_cuenta.model.Cuenta;
+import banco.jontuna.ms_banco_cuenta.repository.custom.CustomCuentaRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.stream.Stream;
+
+@Repository
+public class CustomCuentaRepositoryImpl implements CustomCuentaRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Stream<Cuenta> streamTodas(int fetchSize) {
+        return entityManager.createQuery("SELECT c FROM Cuenta c ORDER BY c.cuentaId", Cuenta.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+}
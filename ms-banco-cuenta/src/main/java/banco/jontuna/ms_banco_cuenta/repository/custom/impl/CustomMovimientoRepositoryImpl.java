@@ -1,14 +1,17 @@
 package banco.jontuna.ms_banco_cuenta.repository.custom.impl;
 
+import banco.jontuna.ms_banco_cuenta.dto.MovimientoDetalleDTO;
 import banco.jontuna.ms_banco_cuenta.model.Movimiento;
 import banco.jontuna.ms_banco_cuenta.repository.custom.CustomMovimientoRepository;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public class CustomMovimientoRepositoryImpl implements CustomMovimientoRepository {
@@ -16,21 +19,77 @@ public class CustomMovimientoRepositoryImpl implements CustomMovimientoRepositor
     @PersistenceContext
     private EntityManager entityManager;
 
+    // Proyección plana para el reporte: el cuentaId viaja en el DTO para agrupar sin tocar la entidad Cuenta
     @Override
-    public List<Movimiento> findMovimientosByClienteAndFechaRange(Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+    public List<MovimientoDetalleDTO> findDetallesByClienteAndFechaRange(Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin) {
         String jpql = """
-            SELECT m FROM Movimiento m 
+            SELECT new banco.jontuna.ms_banco_cuenta.dto.MovimientoDetalleDTO(
+                c.cuentaId, m.movimientoId, m.fecha, m.tipoMovimiento, m.valor, m.saldo)
+            FROM Movimiento m 
             JOIN m.cuenta c 
             WHERE c.clienteId = :clienteId 
             AND m.fecha BETWEEN :fechaInicio AND :fechaFin 
             ORDER BY m.fecha DESC
             """;
 
-        TypedQuery<Movimiento> query = entityManager.createQuery(jpql, Movimiento.class);
+        TypedQuery<MovimientoDetalleDTO> query = entityManager.createQuery(jpql, MovimientoDetalleDTO.class);
         query.setParameter("clienteId", clienteId);
         query.setParameter("fechaInicio", fechaInicio);
         query.setParameter("fechaFin", fechaFin);
 
         return query.getResultList();
     }
-}
\ No newline at end of file
+
+    // Misma proyección para un grupo de cuentas (reporte armado en paralelo), ordenada por cuenta
+    @Override
+    public List<MovimientoDetalleDTO> findDetallesByCuentasAndFechaRange(List<Long> cuentaIds, LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+        String jpql = """
+            SELECT new banco.jontuna.ms_banco_cuenta.dto.MovimientoDetalleDTO(
+                c.cuentaId, m.movimientoId, m.fecha, m.tipoMovimiento, m.valor, m.saldo)
+            FROM Movimiento m
+            JOIN m.cuenta c
+            WHERE c.cuentaId IN :cuentaIds
+            AND m.fecha BETWEEN :fechaInicio AND :fechaFin
+            ORDER BY c.cuentaId, m.fecha DESC
+            """;
+
+        TypedQuery<MovimientoDetalleDTO> query = entityManager.createQuery(jpql, MovimientoDetalleDTO.class);
+        query.setParameter("cuentaIds", cuentaIds);
+        query.setParameter("fechaInicio", fechaInicio);
+        query.setParameter("fechaFin", fechaFin);
+
+        return query.getResultList();
+    }
+
+    // Lectura hacia adelante para exportaciones: el resultado no se materializa en memoria y las
+    // entidades se cargan en modo solo lectura (sin snapshot para dirty checking)
+    @Override
+    public Stream<Movimiento> streamTodos(int fetchSize) {
+        return entityManager.createQuery("SELECT m FROM Movimiento m JOIN FETCH m.cuenta ORDER BY m.movimientoId", Movimiento.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    // Reporte por streaming: [cuentaId, movimientoId, fecha, tipoMovimiento, valor, saldo] de las cuentas activas,
+    // ordenadas por cuenta para escribir una cuenta a la vez; sin DTO ni descripción armada por fila
+    @Override
+    public Stream<Object[]> streamFilasReporte(Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin, int fetchSize) {
+        String jpql = """
+            SELECT c.cuentaId, m.movimientoId, m.fecha, m.tipoMovimiento, m.valor, m.saldo
+            FROM Movimiento m
+            JOIN m.cuenta c
+            WHERE c.clienteId = :clienteId
+            AND c.estado = 'ACTIVA'
+            AND m.fecha BETWEEN :fechaInicio AND :fechaFin
+            ORDER BY c.cuentaId, m.fecha DESC, m.movimientoId DESC
+            """;
+
+        return entityManager.createQuery(jpql, Object[].class)
+                .setParameter("clienteId", clienteId)
+                .setParameter("fechaInicio", fechaInicio)
+                .setParameter("fechaFin", fechaFin)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+}
@@ -3,6 +3,8 @@ package banco.jontuna.ms_banco_cuenta.service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -10,14 +12,23 @@ import banco.jontuna.ms_banco_cuenta.dto.CuentaRequestDTO;
 import banco.jontuna.ms_banco_cuenta.dto.CuentaResponseDTO;
 import banco.jontuna.ms_banco_cuenta.model.Cuenta;
 import banco.jontuna.ms_banco_cuenta.repository.CuentaRepository;
+import banco.jontuna.ms_banco_cuenta.util.cache.CuentaCache;
+import banco.jontuna.ms_banco_cuenta.util.cache.SaldoMemoria;
+import banco.jontuna.ms_banco_cuenta.util.concurrency.CuentaLockManager;
 import banco.jontuna.ms_banco_cuenta.util.exception.CuentaConSaldoException;
 import banco.jontuna.ms_banco_cuenta.util.exception.CuentaNoActivaException;
 import banco.jontuna.ms_banco_cuenta.util.exception.CuentaNotFoundException;
+import banco.jontuna.ms_banco_cuenta.util.exception.CuentaOcupadaException;
 import banco.jontuna.ms_banco_cuenta.util.mapper.CuentaMapper;
 import jakarta.validation.ValidationException;
 
 import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.Random;
 import java.util.stream.Collectors;
 
@@ -36,6 +47,21 @@ public class CuentaService {
     @Autowired
     private MovimientoService movimientoService;
 
+    @Autowired
+    private SaldoSlotService saldoSlotService;
+
+    @Autowired
+    private CuentaCache cuentaCache;
+
+    @Autowired
+    private CuentaLockManager cuentaLockManager;
+
+    @Autowired(required = false)
+    private SaldoMemoria saldoMemoria;
+
+    @Value("${banco.cuentas.saldos.max-ids:500}")
+    private int maxIdsSaldos;
+
     private Random random = new Random();
 
     public CuentaResponseDTO crearCuenta(CuentaRequestDTO cuentaRequest) {
@@ -85,9 +111,7 @@ public class CuentaService {
     public CuentaResponseDTO obtenerCuentaPorId(Long cuentaId) {
         try {
             logger.info("Buscando cuenta con ID: {}", cuentaId);
-            Cuenta cuenta = cuentaRepository.findById(cuentaId)
-                    .orElseThrow(() -> new CuentaNotFoundException(cuentaId));
-            return cuentaMapper.toResponseDTO(cuenta);
+            return cuentaMapper.toResponseDTO(cuentaCache.obtenerPorId(cuentaId));
         } catch (CuentaNotFoundException e) {
             throw e;
         } catch (Exception e) {
@@ -100,9 +124,7 @@ public class CuentaService {
     public CuentaResponseDTO obtenerCuentaPorNumero(String numeroCuenta) {
         try {
             logger.info("Buscando cuenta con número: {}", numeroCuenta);
-            Cuenta cuenta = cuentaRepository.findByNumeroCuenta(numeroCuenta)
-                    .orElseThrow(() -> new CuentaNotFoundException(numeroCuenta, true));
-            return cuentaMapper.toResponseDTO(cuenta);
+            return cuentaMapper.toResponseDTO(cuentaCache.obtenerPorNumero(numeroCuenta));
         } catch (CuentaNotFoundException e) {
             throw e;
         } catch (Exception e) {
@@ -130,11 +152,10 @@ public class CuentaService {
         try {
             logger.info("Consultando saldo para cuenta ID: {}", cuentaId);
             
-            if (!cuentaRepository.existsById(cuentaId)) {
-                throw new CuentaNotFoundException(cuentaId);
-            }
-            
-            BigDecimal saldo = movimientoService.calcularSaldoDisponible(cuentaId);
+            BigDecimal saldo = (saldoMemoria != null
+                    ? saldoMemoria.obtenerSaldo(cuentaId)
+                    : cuentaRepository.findSaldoActualByCuentaId(cuentaId))
+                    .orElseThrow(() -> new CuentaNotFoundException(cuentaId));
             logger.info("Saldo consultado para cuenta ID: {} - Saldo: {}", cuentaId, saldo);
             
             return saldo;
@@ -146,24 +167,65 @@ public class CuentaService {
         }
     }
 
+    // Versión de la fila CUENTA para el ETag del saldo y del historial; vacía si no existe o usa slots
+    @Transactional(readOnly = true)
+    public Optional<Long> obtenerVersionParaEtag(Long cuentaId) {
+        return cuentaRepository.findVersionSinSlotsById(cuentaId);
+    }
+
+    // Saldos de varias cuentas con una sola consulta, en el orden pedido; las cuentas que no existen no se incluyen
+    @Transactional(readOnly = true)
+    public Map<Long, BigDecimal> consultarSaldos(List<Long> cuentaIds) {
+        try {
+            Set<Long> ids = validarIdsSaldos(cuentaIds);
+            logger.info("Consultando saldo de {} cuentas", ids.size());
+
+            Map<Long, BigDecimal> encontrados = new LinkedHashMap<>();
+            if (saldoMemoria != null) {
+                encontrados.putAll(saldoMemoria.obtenerSaldos(ids));
+            } else {
+                for (Object[] fila : cuentaRepository.findSaldosActualesByCuentaIds(ids)) {
+                    encontrados.put((Long) fila[0], (BigDecimal) fila[1]);
+                }
+            }
+
+            Map<Long, BigDecimal> saldos = new LinkedHashMap<>();
+            for (Long cuentaId : ids) {
+                BigDecimal saldo = encontrados.get(cuentaId);
+                if (saldo != null) {
+                    saldos.put(cuentaId, saldo);
+                }
+            }
+            return saldos;
+        } catch (ValidationException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error al consultar saldos de cuentas: {}", cuentaIds, e);
+            throw new RuntimeException("Error al consultar los saldos");
+        }
+    }
+
     public CuentaResponseDTO actualizarEstadoCuenta(Long cuentaId, String nuevoEstado) {
         try {
             logger.info("Actualizando estado de cuenta ID: {} a {}", cuentaId, nuevoEstado);
             
-            Cuenta cuenta = cuentaRepository.findById(cuentaId)
-                    .orElseThrow(() -> new CuentaNotFoundException(cuentaId));
-            
             if (!List.of("ACTIVA", "BLOQUEADA", "CANCELADA").contains(nuevoEstado)) {
                 throw new ValidationException("Estado de cuenta inválido: " + nuevoEstado);
             }
             
+            Cuenta cuenta = bloquearCuenta(cuentaId);
+            if (!"ACTIVA".equals(nuevoEstado)) {
+                saldoSlotService.quitarSlots(cuenta);
+            }
+            
             cuenta.setEstado(nuevoEstado);
             Cuenta cuentaActualizada = cuentaRepository.save(cuenta);
+            cuentaCache.invalidar(cuentaActualizada);
             
             logger.info("Estado de cuenta ID: {} actualizado exitosamente a {}", cuentaId, nuevoEstado);
             return cuentaMapper.toResponseDTO(cuentaActualizada);
             
-        } catch (CuentaNotFoundException | ValidationException e) {
+        } catch (CuentaNotFoundException | CuentaOcupadaException | OptimisticLockingFailureException | ValidationException e) {
             throw e;
         } catch (Exception e) {
             logger.error("Error al actualizar estado de cuenta ID: {}", cuentaId, e);
@@ -206,15 +268,18 @@ public class CuentaService {
         try {
             logger.info("Iniciando eliminación lógica de cuenta ID: {}", cuentaId);
 
-            Cuenta cuenta = cuentaRepository.findById(cuentaId)
-                    .orElseThrow(() -> new CuentaNotFoundException(cuentaId));
+            Cuenta cuenta = bloquearCuenta(cuentaId);
 
             if (!"ACTIVA".equals(cuenta.getEstado())) {
                 throw new CuentaNoActivaException(
                     cuenta.getNumeroCuenta(), cuenta.getEstado());
             }
 
-            BigDecimal saldoActual = movimientoService.calcularSaldoDisponible(cuentaId);
+            // Con la cuenta bloqueada ningún movimiento puede cambiar el saldo entre la validación y el cambio
+            // de estado; los depósitos en slots ya registrados se consolidan para que entren en la validación
+            // y los que están en curso vuelven a la vía normal, que ve la cuenta ELIMINADA
+            saldoSlotService.quitarSlots(cuenta);
+            BigDecimal saldoActual = cuenta.getSaldoActual();
             if (saldoActual.compareTo(BigDecimal.ZERO) > 0) {
                 throw new CuentaConSaldoException(cuenta.getNumeroCuenta(), saldoActual);
             }
@@ -222,12 +287,14 @@ public class CuentaService {
             cuenta.setEstado("ELIMINADA");
 
             Cuenta cuentaEliminada = cuentaRepository.save(cuenta);
+            cuentaCache.invalidar(cuentaEliminada);
 
             logger.info("Cuenta ID: {} eliminada lógicamente exitosamente.", cuentaId);
 
             return cuentaMapper.toResponseDTO(cuentaEliminada);
 
-        } catch (CuentaNotFoundException | CuentaConSaldoException| ValidationException e) {
+        } catch (CuentaNotFoundException | CuentaConSaldoException | CuentaOcupadaException
+                | OptimisticLockingFailureException | ValidationException e) {
             throw e;
         } catch (Exception e) {
             logger.error("Error al eliminar lógicamente cuenta ID: {}", cuentaId, e);
@@ -239,8 +306,7 @@ public class CuentaService {
         try {
             logger.info("Reactivando cuenta ID: {}", cuentaId);
 
-            Cuenta cuenta = cuentaRepository.findById(cuentaId)
-                    .orElseThrow(() -> new CuentaNotFoundException(cuentaId));
+            Cuenta cuenta = bloquearCuenta(cuentaId);
 
             if (!"ELIMINADA".equals(cuenta.getEstado())) {
                 throw new ValidationException(
@@ -252,12 +318,13 @@ public class CuentaService {
             cuenta.setEstado("ACTIVA");
 
             Cuenta cuentaReactivada = cuentaRepository.save(cuenta);
+            cuentaCache.invalidar(cuentaReactivada);
             
             logger.info("Cuenta ID: {} reactivada exitosamente", cuentaId);
 
             return cuentaMapper.toResponseDTO(cuentaReactivada);
 
-        } catch (CuentaNotFoundException | ValidationException e) {
+        } catch (CuentaNotFoundException | CuentaOcupadaException | OptimisticLockingFailureException | ValidationException e) {
             throw e;
         } catch (Exception e) {
             logger.error("Error al reactivar cuenta ID: {}", cuentaId, e);
@@ -265,6 +332,26 @@ public class CuentaService {
         }
     }
 
+    public CuentaResponseDTO ajustarSaldoSlots(Long cuentaId, int cantidad) {
+        try {
+            logger.info("Ajustando slots de saldo de cuenta ID: {} a {}", cuentaId, cantidad);
+            return cuentaMapper.toResponseDTO(saldoSlotService.ajustarSlots(cuentaId, cantidad));
+        } catch (CuentaNotFoundException | ValidationException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error al ajustar slots de saldo de cuenta ID: {}", cuentaId, e);
+            throw new RuntimeException("Error al ajustar los slots de saldo de la cuenta: " + e.getMessage());
+        }
+    }
+
+    // Los cambios de estado toman la cuenta igual que un movimiento (stripe y FOR UPDATE): sin el bloqueo, el
+    // save de la entidad leída antes escribiría SaldoActual y UltimoMovimientoId anteriores a un movimiento concurrente
+    private Cuenta bloquearCuenta(Long cuentaId) {
+        cuentaLockManager.bloquearHastaFinDeTransaccion(cuentaId);
+        return cuentaRepository.findByIdForUpdate(cuentaId)
+                .orElseThrow(() -> new CuentaNotFoundException(cuentaId));
+    }
+
     private void validarDatosCuenta(CuentaRequestDTO cuentaRequest) {
         if (cuentaRequest.getTipoCuenta() == null || cuentaRequest.getTipoCuenta().trim().isEmpty()) {
             throw new ValidationException("El tipo de cuenta es obligatorio");
@@ -283,6 +370,24 @@ public class CuentaService {
         }
     }
 
+    private Set<Long> validarIdsSaldos(List<Long> cuentaIds) {
+        if (cuentaIds == null || cuentaIds.isEmpty()) {
+            throw new ValidationException("Debe indicar al menos una cuenta");
+        }
+        Set<Long> ids = new LinkedHashSet<>();
+        for (Long cuentaId : cuentaIds) {
+            if (cuentaId == null) {
+                throw new ValidationException("Los IDs de cuenta no pueden ser nulos");
+            }
+            ids.add(cuentaId);
+        }
+        if (ids.size() > maxIdsSaldos) {
+            throw new ValidationException(String.format(
+                    "No se pueden consultar más de %d cuentas por solicitud. Recibidas: %d", maxIdsSaldos, ids.size()));
+        }
+        return ids;
+    }
+
     private String generarNumeroCuentaUnico() {
         String numeroCuenta;
         int intentos = 0;
@@ -0,0 +1,123 @@
+package banco.jontuna.ms_banco_cuenta.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import banco.jontuna.ms_banco_cuenta.dto.CuentaResponseDTO;
+import banco.jontuna.ms_banco_cuenta.dto.MovimientoResponseDTO;
+import banco.jontuna.ms_banco_cuenta.model.Cuenta;
+import banco.jontuna.ms_banco_cuenta.model.Movimiento;
+import banco.jontuna.ms_banco_cuenta.repository.custom.CustomCuentaRepository;
+import banco.jontuna.ms_banco_cuenta.repository.custom.CustomMovimientoRepository;
+import banco.jontuna.ms_banco_cuenta.util.mapper.CuentaMapper;
+import banco.jontuna.ms_banco_cuenta.util.mapper.MovimientoMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+// Exportación completa de cuentas y movimientos con memoria constante: lee con un cursor hacia adelante
+// (fetch size configurable), escribe cada fila apenas se mapea y vacía el contexto de persistencia por
+// bloques, así el heap no crece con el tamaño de la tabla.
+@Service
+public class ExportacionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportacionService.class);
+
+    public enum Formato {
+        JSON, NDJSON;
+
+        public static Formato segunAccept(String accept) {
+            return accept != null && accept.contains(MediaType.APPLICATION_NDJSON_VALUE) ? NDJSON : JSON;
+        }
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private CustomMovimientoRepository customMovimientoRepository;
+
+    @Autowired
+    private CustomCuentaRepository customCuentaRepository;
+
+    @Autowired
+    private MovimientoMapper movimientoMapper;
+
+    @Autowired
+    private CuentaMapper cuentaMapper;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${banco.exportacion.fetch-size:500}")
+    private int fetchSize;
+
+    @Transactional(readOnly = true)
+    public long exportarMovimientos(OutputStream salida, Formato formato) {
+        try (Stream<Movimiento> movimientos = customMovimientoRepository.streamTodos(fetchSize)) {
+            long total = escribir(movimientos, movimientoMapper::toResponseDTO, MovimientoResponseDTO.class, salida, formato);
+            logger.info("Exportación de movimientos finalizada: {} registros en formato {}", total, formato);
+            return total;
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long exportarCuentas(OutputStream salida, Formato formato) {
+        try (Stream<Cuenta> cuentas = customCuentaRepository.streamTodas(fetchSize)) {
+            long total = escribir(cuentas, cuentaMapper::toResponseDTO, CuentaResponseDTO.class, salida, formato);
+            logger.info("Exportación de cuentas finalizada: {} registros en formato {}", total, formato);
+            return total;
+        }
+    }
+
+    private <E, D> long escribir(Stream<E> entidades, Function<E, D> mapper, Class<D> tipo,
+                                 OutputStream salida, Formato formato) {
+        ObjectWriter writer = objectMapper.writerFor(tipo);
+        long total = 0;
+
+        try (JsonGenerator generador = objectMapper.getFactory().createGenerator(salida)) {
+            // La respuesta la cierra el contenedor; en NDJSON el separador entre objetos es el salto de línea
+            generador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generador.setRootValueSeparator(null);
+            if (formato == Formato.JSON) {
+                generador.writeStartArray();
+            }
+
+            Iterator<E> iterador = entidades.iterator();
+            while (iterador.hasNext()) {
+                writer.writeValue(generador, mapper.apply(iterador.next()));
+                if (formato == Formato.NDJSON) {
+                    generador.writeRaw('\n');
+                }
+
+                // Las entidades ya escritas se desacoplan por bloques del tamaño del fetch
+                if (++total % fetchSize == 0) {
+                    entityManager.clear();
+                    generador.flush();
+                }
+            }
+
+            if (formato == Formato.JSON) {
+                generador.writeEndArray();
+            }
+        } catch (IOException e) {
+            // El cliente cerró la conexión o falló la escritura: se corta la lectura y se libera el cursor
+            throw new UncheckedIOException("Error al escribir la exportación", e);
+        }
+        return total;
+    }
+}
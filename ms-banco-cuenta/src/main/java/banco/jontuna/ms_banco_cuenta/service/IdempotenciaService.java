@@ -0,0 +1,213 @@
+package banco.jontuna.ms_banco_cuenta.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import banco.jontuna.ms_banco_cuenta.dto.MovimientoRequestDTO;
+import banco.jontuna.ms_banco_cuenta.dto.MovimientoResponseDTO;
+import banco.jontuna.ms_banco_cuenta.model.IdempotenciaMovimiento;
+import banco.jontuna.ms_banco_cuenta.repository.IdempotenciaMovimientoRepository;
+import banco.jontuna.ms_banco_cuenta.util.exception.MovimientoInvalidoException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+// Idempotency-Key para el registro de movimientos. La clave se inserta en la misma transacción que el
+// movimiento: una clave nueva no cuesta lecturas (la PK de IDEMPOTENCIA_MOVIMIENTO detecta el duplicado)
+// y una clave repetida se responde desde la caché acotada o, si no está en memoria, desde la tabla.
+@Service
+public class IdempotenciaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotenciaService.class);
+
+    private static final int LONGITUD_MAXIMA_CLAVE = 100;
+
+    @Autowired
+    private IdempotenciaMovimientoRepository idempotenciaRepository;
+
+    @Autowired
+    private MovimientoService movimientoService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${banco.idempotencia.ttl-horas:24}")
+    private long ttlHoras;
+
+    @Value("${banco.idempotencia.cache.max-entradas:100000}")
+    private long maxEntradasCache;
+
+    @Value("${banco.idempotencia.purga.tamano-lote:500}")
+    private int tamanoLotePurga;
+
+    private Cache<String, Registro> cache;
+    private final ConcurrentMap<String, CompletableFuture<MovimientoResponseDTO>> enCurso = new ConcurrentHashMap<>();
+    private Counter repetidos;
+
+    @PostConstruct
+    public void iniciar() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxEntradasCache)
+                .expireAfterWrite(Duration.ofHours(ttlHoras))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "idempotencia-movimientos");
+        repetidos = Counter.builder("banco.movimientos.idempotencia.repetidos")
+                .description("Solicitudes respondidas con el resultado de una ejecución previa")
+                .register(meterRegistry);
+    }
+
+    public MovimientoResponseDTO registrarMovimiento(String clave, Long cuentaId, MovimientoRequestDTO movimientoRequest) {
+        validarClave(clave);
+
+        Registro registro = cache.getIfPresent(clave);
+        if (registro != null) {
+            return respuestaRepetida(clave, registro, cuentaId, movimientoRequest.getValor());
+        }
+
+        CompletableFuture<MovimientoResponseDTO> propio = new CompletableFuture<>();
+        CompletableFuture<MovimientoResponseDTO> existente = enCurso.putIfAbsent(clave, propio);
+        if (existente != null) {
+            logger.info("Solicitud con Idempotency-Key {} en curso, esperando su resultado", clave);
+            esperar(existente);
+            return respuestaRepetida(clave, cache.getIfPresent(clave), cuentaId, movimientoRequest.getValor());
+        }
+
+        try {
+            MovimientoResponseDTO respuesta = ejecutar(clave, cuentaId, movimientoRequest);
+            propio.complete(respuesta);
+            return respuesta;
+        } catch (RuntimeException e) {
+            propio.completeExceptionally(e);
+            throw e;
+        } finally {
+            enCurso.remove(clave, propio);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${banco.idempotencia.purga.intervalo-ms:60000}")
+    public int purgarExpiradas() {
+        LocalDateTime ahora = LocalDateTime.now();
+        int total = 0;
+        List<String> claves;
+
+        do {
+            claves = transactionTemplate.execute(status -> {
+                List<String> expiradas = idempotenciaRepository.findClavesExpiradas(ahora, Limit.of(tamanoLotePurga));
+                if (!expiradas.isEmpty()) {
+                    idempotenciaRepository.deleteAllByIdInBatch(expiradas);
+                }
+                return expiradas;
+            });
+            total += claves.size();
+        } while (claves.size() == tamanoLotePurga);
+
+        if (total > 0) {
+            logger.info("Purga de claves de idempotencia: {} claves expiradas eliminadas", total);
+        }
+        return total;
+    }
+
+    private MovimientoResponseDTO ejecutar(String clave, Long cuentaId, MovimientoRequestDTO movimientoRequest) {
+        LocalDateTime ahora = LocalDateTime.now();
+        try {
+            MovimientoResponseDTO respuesta = transactionTemplate.execute(status -> {
+                MovimientoResponseDTO resultado = movimientoService.registrarMovimiento(cuentaId, movimientoRequest);
+                idempotenciaRepository.saveAndFlush(new IdempotenciaMovimiento(clave, cuentaId,
+                        movimientoRequest.getValor(), serializar(resultado), ahora, ahora.plusHours(ttlHoras)));
+                return resultado;
+            });
+            cache.put(clave, new Registro(cuentaId, movimientoRequest.getValor(), respuesta));
+            return respuesta;
+        } catch (DataIntegrityViolationException e) {
+            // Otra instancia ya registró la clave: el movimiento de esta transacción se revirtió
+            IdempotenciaMovimiento existente = idempotenciaRepository.findById(clave).orElseThrow(() -> e);
+            Registro registro = new Registro(existente.getCuentaId(), existente.getValor(),
+                    deserializar(existente.getRespuesta()));
+            cache.put(clave, registro);
+            return respuestaRepetida(clave, registro, cuentaId, movimientoRequest.getValor());
+        }
+    }
+
+    private MovimientoResponseDTO respuestaRepetida(String clave, Registro registro, Long cuentaId, BigDecimal valor) {
+        if (registro == null) {
+            throw new RuntimeException("Error al recuperar el resultado de la Idempotency-Key: " + clave);
+        }
+
+        if (!registro.cuentaId().equals(cuentaId) || registro.valor().compareTo(valor) != 0) {
+            throw new MovimientoInvalidoException(
+                "La Idempotency-Key " + clave + " ya fue utilizada con otros datos de movimiento");
+        }
+
+        repetidos.increment();
+        logger.info("Idempotency-Key {} repetida, se retorna el movimiento ID: {}",
+                    clave, registro.respuesta().getMovimientoId());
+        return registro.respuesta();
+    }
+
+    private void esperar(CompletableFuture<MovimientoResponseDTO> existente) {
+        try {
+            existente.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new RuntimeException("Error al registrar el movimiento: " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Registro del movimiento interrumpido");
+        }
+    }
+
+    private void validarClave(String clave) {
+        if (clave.isBlank() || clave.length() > LONGITUD_MAXIMA_CLAVE) {
+            throw new MovimientoInvalidoException(
+                "La Idempotency-Key debe tener entre 1 y " + LONGITUD_MAXIMA_CLAVE + " caracteres");
+        }
+    }
+
+    private String serializar(MovimientoResponseDTO respuesta) {
+        try {
+            return objectMapper.writeValueAsString(respuesta);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error al serializar la respuesta del movimiento", e);
+        }
+    }
+
+    private MovimientoResponseDTO deserializar(String respuesta) {
+        try {
+            return objectMapper.readValue(respuesta, MovimientoResponseDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error al leer la respuesta almacenada del movimiento", e);
+        }
+    }
+
+    private record Registro(Long cuentaId, BigDecimal valor, MovimientoResponseDTO respuesta) {}
+}
@@ -0,0 +1,273 @@
+package banco.jontuna.ms_banco_cuenta.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import banco.jontuna.ms_banco_cuenta.dto.MovimientoLoteItemDTO;
+import banco.jontuna.ms_banco_cuenta.dto.MovimientoRequestDTO;
+import banco.jontuna.ms_banco_cuenta.dto.MovimientoResponseDTO;
+import banco.jontuna.ms_banco_cuenta.util.concurrency.CuentaLockManager;
+import banco.jontuna.ms_banco_cuenta.util.exception.CuentaOcupadaException;
+import banco.jontuna.ms_banco_cuenta.util.exception.ServicioSaturadoException;
+import banco.jontuna.ms_banco_cuenta.util.mapper.MovimientoMapper;
+import banco.jontuna.ms_banco_cuenta.util.validator.MovimientoValidator;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Group commit de movimientos: los hilos HTTP encolan el movimiento en la cola del shard de su cuenta y
+// un escritor por shard aplica hasta max-lote comandos (o los que lleguen dentro de la ventana) en una
+// sola transacción. Todos los movimientos de una cuenta pasan por el mismo escritor, en orden de llegada.
+@Service
+@ConditionalOnProperty(name = "banco.movimientos.group-commit.enabled", havingValue = "true")
+public class MovimientoGroupCommitService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MovimientoGroupCommitService.class);
+
+    private static final long ESPERA_COLA_VACIA_MS = 100;
+
+    @Autowired
+    private MovimientoLoteService movimientoLoteService;
+
+    @Autowired
+    private MovimientoMapper movimientoMapper;
+
+    @Autowired
+    private MovimientoValidator movimientoValidator;
+
+    @Autowired
+    private CuentaLockManager cuentaLockManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${banco.movimientos.group-commit.shards:4}")
+    private int shards;
+
+    @Value("${banco.movimientos.group-commit.max-lote:64}")
+    private int maxLote;
+
+    @Value("${banco.movimientos.group-commit.ventana-us:500}")
+    private long ventanaMicros;
+
+    @Value("${banco.movimientos.group-commit.capacidad-cola:10000}")
+    private int capacidadCola;
+
+    @Value("${banco.movimientos.group-commit.timeout-ms:5000}")
+    private long timeoutMs;
+
+    private final List<BlockingQueue<Comando>> colas = new ArrayList<>();
+    private final List<Thread> escritores = new ArrayList<>();
+    private volatile boolean activo;
+
+    private DistributionSummary tamanoLote;
+    private Timer latencia;
+    private Timer duracionTransaccion;
+
+    @PostConstruct
+    public void iniciar() {
+        if (shards < 1 || maxLote < 1 || ventanaMicros < 0) {
+            throw new IllegalStateException("Configuración de group commit inválida: shards=" + shards
+                    + ", max-lote=" + maxLote + ", ventana-us=" + ventanaMicros);
+        }
+
+        Gauge.builder("banco.movimientos.group-commit.ventana", this, servicio -> servicio.ventanaMicros)
+                .description("Ventana máxima de espera para completar un lote")
+                .baseUnit("microseconds")
+                .register(meterRegistry);
+        Gauge.builder("banco.movimientos.group-commit.max-lote", this, servicio -> servicio.maxLote)
+                .description("Cantidad máxima de movimientos por transacción")
+                .register(meterRegistry);
+        tamanoLote = DistributionSummary.builder("banco.movimientos.group-commit.lote")
+                .description("Movimientos aplicados por transacción")
+                .register(meterRegistry);
+        latencia = Timer.builder("banco.movimientos.group-commit.latencia")
+                .description("Tiempo desde que se encola el movimiento hasta que se confirma")
+                .register(meterRegistry);
+        duracionTransaccion = Timer.builder("banco.movimientos.group-commit.transaccion")
+                .description("Duración de la transacción de cada lote")
+                .register(meterRegistry);
+
+        activo = true;
+        for (int i = 0; i < shards; i++) {
+            BlockingQueue<Comando> cola = new ArrayBlockingQueue<>(capacidadCola);
+            colas.add(cola);
+            Gauge.builder("banco.movimientos.group-commit.cola", cola, BlockingQueue::size)
+                    .description("Movimientos pendientes en la cola del shard")
+                    .tag("shard", String.valueOf(i))
+                    .register(meterRegistry);
+
+            Thread escritor = new Thread(() -> procesarCola(cola), "group-commit-" + i);
+            escritor.setDaemon(true);
+            escritor.start();
+            escritores.add(escritor);
+        }
+        logger.info("Group commit iniciado con {} shards, lotes de hasta {} movimientos y ventana de {} us",
+                    shards, maxLote, ventanaMicros);
+    }
+
+    @PreDestroy
+    public void detener() throws InterruptedException {
+        activo = false;
+        for (Thread escritor : escritores) {
+            escritor.join(timeoutMs);
+        }
+        logger.info("Group commit detenido");
+    }
+
+    public MovimientoResponseDTO registrarMovimiento(Long cuentaId, MovimientoRequestDTO movimientoRequest) {
+        movimientoValidator.validarValor(movimientoRequest.getValor());
+
+        Comando comando = new Comando(cuentaId, movimientoRequest.getValor());
+        try {
+            if (!activo || !colas.get(shard(cuentaId)).offer(comando, timeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new ServicioSaturadoException("No se pudo encolar el movimiento. Intente nuevamente");
+            }
+
+            try {
+                return comando.resultado.get(timeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (comando.cancelar()) {
+                    throw new ServicioSaturadoException("El movimiento no fue procesado a tiempo. Intente nuevamente");
+                }
+                // El escritor ya lo tomó: el resultado llega al terminar su transacción
+                return comando.resultado.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new RuntimeException("Error al registrar el movimiento: " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServicioSaturadoException("Registro del movimiento interrumpido");
+        }
+    }
+
+    private int shard(Long cuentaId) {
+        return cuentaLockManager.indiceStripe(cuentaId) % shards;
+    }
+
+    private void procesarCola(BlockingQueue<Comando> cola) {
+        List<Comando> lote = new ArrayList<>(maxLote);
+        long ventanaNanos = TimeUnit.MICROSECONDS.toNanos(ventanaMicros);
+
+        while (activo || !cola.isEmpty()) {
+            try {
+                Comando primero = cola.poll(ESPERA_COLA_VACIA_MS, TimeUnit.MILLISECONDS);
+                if (primero == null) {
+                    continue;
+                }
+                lote.add(primero);
+
+                long limite = System.nanoTime() + ventanaNanos;
+                cola.drainTo(lote, maxLote - lote.size());
+                while (lote.size() < maxLote) {
+                    Comando siguiente = cola.poll(limite - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (siguiente == null) {
+                        break;
+                    }
+                    lote.add(siguiente);
+                    cola.drainTo(lote, maxLote - lote.size());
+                }
+
+                aplicarLote(lote);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                aplicarLote(lote);
+                break;
+            } catch (Exception e) {
+                logger.error("Error inesperado en el escritor de group commit", e);
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+
+    private void aplicarLote(List<Comando> lote) {
+        List<Comando> tomados = lote.stream().filter(Comando::tomar).toList();
+        if (tomados.isEmpty()) {
+            return;
+        }
+
+        List<MovimientoLoteItemDTO> items = tomados.stream()
+                .map(comando -> new MovimientoLoteItemDTO(comando.cuentaId, comando.valor))
+                .toList();
+        MovimientoResponseDTO[] aplicados = new MovimientoResponseDTO[items.size()];
+        RuntimeException[] rechazos = new RuntimeException[items.size()];
+
+        long inicio = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> movimientoLoteService.aplicarEnTransaccion(items,
+                    (indice, movimiento) -> aplicados[indice] = movimientoMapper.toResponseDTO(movimiento),
+                    (indice, error) -> rechazos[indice] = error));
+        } catch (Exception e) {
+            logger.error("Error al aplicar lote de group commit con {} movimientos", tomados.size(), e);
+            RuntimeException error = e instanceof CuentaOcupadaException cuentaOcupada
+                    ? cuentaOcupada
+                    : new RuntimeException("Error al registrar el movimiento: " + e.getMessage());
+            tomados.forEach(comando -> comando.resultado.completeExceptionally(error));
+            return;
+        } finally {
+            duracionTransaccion.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            tamanoLote.record(tomados.size());
+        }
+
+        for (int i = 0; i < tomados.size(); i++) {
+            Comando comando = tomados.get(i);
+            if (rechazos[i] != null) {
+                comando.resultado.completeExceptionally(rechazos[i]);
+            } else {
+                comando.resultado.complete(aplicados[i]);
+            }
+            latencia.record(System.nanoTime() - comando.encoladoNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static final class Comando {
+        private static final int PENDIENTE = 0;
+        private static final int TOMADO = 1;
+        private static final int CANCELADO = 2;
+
+        private final Long cuentaId;
+        private final BigDecimal valor;
+        private final long encoladoNanos = System.nanoTime();
+        private final CompletableFuture<MovimientoResponseDTO> resultado = new CompletableFuture<>();
+        private final AtomicInteger estado = new AtomicInteger(PENDIENTE);
+
+        private Comando(Long cuentaId, BigDecimal valor) {
+            this.cuentaId = cuentaId;
+            this.valor = valor;
+        }
+
+        private boolean tomar() {
+            return estado.compareAndSet(PENDIENTE, TOMADO);
+        }
+
+        private boolean cancelar() {
+            return estado.compareAndSet(PENDIENTE, CANCELADO);
+        }
+    }
+}
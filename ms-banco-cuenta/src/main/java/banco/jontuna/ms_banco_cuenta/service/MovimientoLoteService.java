@@ -0,0 +1,226 @@
+package banco.jontuna.ms_banco_cuenta.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import banco.jontuna.ms_banco_cuenta.dto.MovimientoLoteItemDTO;
+import banco.jontuna.ms_banco_cuenta.dto.MovimientoLoteRequestDTO;
+import banco.jontuna.ms_banco_cuenta.dto.MovimientoLoteResponseDTO;
+import banco.jontuna.ms_banco_cuenta.dto.MovimientoLoteResultadoDTO;
+import banco.jontuna.ms_banco_cuenta.model.Cuenta;
+import banco.jontuna.ms_banco_cuenta.model.Movimiento;
+import banco.jontuna.ms_banco_cuenta.repository.CuentaRepository;
+import banco.jontuna.ms_banco_cuenta.repository.MovimientoRepository;
+import banco.jontuna.ms_banco_cuenta.util.concurrency.CuentaLockManager;
+import banco.jontuna.ms_banco_cuenta.util.exception.CuentaInactivaException;
+import banco.jontuna.ms_banco_cuenta.util.exception.CuentaNotFoundException;
+import banco.jontuna.ms_banco_cuenta.util.exception.MovimientoInvalidoException;
+import banco.jontuna.ms_banco_cuenta.util.exception.SaldoInsuficienteException;
+import banco.jontuna.ms_banco_cuenta.util.mapper.MovimientoMapper;
+import banco.jontuna.ms_banco_cuenta.util.validator.MovimientoValidator;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+
+// Registro de movimientos por lote: agrupa los items por cuenta (en el orden recibido dentro de cada cuenta)
+// y los aplica en pocas transacciones. Un item rechazado no afecta al resto del lote.
+@Service
+public class MovimientoLoteService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MovimientoLoteService.class);
+
+    @Autowired
+    private MovimientoRepository movimientoRepository;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private MovimientoMapper movimientoMapper;
+
+    @Autowired
+    private MovimientoValidator movimientoValidator;
+
+    @Autowired
+    private CuentaLockManager cuentaLockManager;
+
+    @Autowired
+    private SaldoSlotService saldoSlotService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${banco.movimientos.lote.max-items:5000}")
+    private int maxItems;
+
+    @Value("${banco.movimientos.lote.items-por-transaccion:500}")
+    private int itemsPorTransaccion;
+
+    @Value("${banco.movimientos.lote.cuentas-por-transaccion:16}")
+    private int cuentasPorTransaccion;
+
+    public MovimientoLoteResponseDTO registrarLote(MovimientoLoteRequestDTO loteRequest) {
+        List<MovimientoLoteItemDTO> items = loteRequest.getMovimientos();
+        validarTamanoLote(items);
+
+        logger.info("Registrando lote de {} movimientos", items.size());
+
+        MovimientoLoteResultadoDTO[] resultados = new MovimientoLoteResultadoDTO[items.size()];
+        Map<Long, List<Integer>> indicesPorCuenta = agruparPorCuenta(items);
+
+        for (Map<Long, List<Integer>> bloque : dividirEnBloques(indicesPorCuenta)) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> aplicarBloque(bloque, items,
+                        (indice, movimiento) -> resultados[indice] =
+                                MovimientoLoteResultadoDTO.aplicado(indice, movimientoMapper.toResponseDTO(movimiento)),
+                        (indice, error) -> resultados[indice] =
+                                MovimientoLoteResultadoDTO.rechazado(indice, items.get(indice).getCuentaId(), error.getMessage())));
+            } catch (Exception e) {
+                logger.error("Error al aplicar bloque del lote para cuentas: {}", bloque.keySet(), e);
+                rechazarBloque(bloque, "Error al registrar el movimiento: " + e.getMessage(), resultados);
+            }
+        }
+
+        List<MovimientoLoteResultadoDTO> listaResultados = Arrays.asList(resultados);
+        int totalAplicados = (int) listaResultados.stream()
+                .filter(resultado -> "APLICADO".equals(resultado.getEstado()))
+                .count();
+        int totalRechazados = listaResultados.size() - totalAplicados;
+
+        logger.info("Lote procesado. Aplicados: {}, Rechazados: {}", totalAplicados, totalRechazados);
+        return new MovimientoLoteResponseDTO(totalAplicados, totalRechazados, listaResultados);
+    }
+
+    private void validarTamanoLote(List<MovimientoLoteItemDTO> items) {
+        if (items == null || items.isEmpty()) {
+            throw new MovimientoInvalidoException("El lote debe contener al menos un movimiento");
+        }
+
+        if (items.size() > maxItems) {
+            throw new MovimientoInvalidoException(
+                String.format("El lote no puede superar %d movimientos. Recibidos: %d", maxItems, items.size()));
+        }
+    }
+
+    // Orden ascendente de cuentaId: los bloqueos de fila se toman siempre en el mismo orden entre lotes concurrentes.
+    private Map<Long, List<Integer>> agruparPorCuenta(List<MovimientoLoteItemDTO> items) {
+        Map<Long, List<Integer>> indicesPorCuenta = new TreeMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            indicesPorCuenta.computeIfAbsent(items.get(i).getCuentaId(), id -> new ArrayList<>()).add(i);
+        }
+        return indicesPorCuenta;
+    }
+
+    private List<Map<Long, List<Integer>>> dividirEnBloques(Map<Long, List<Integer>> indicesPorCuenta) {
+        List<Map<Long, List<Integer>>> bloques = new ArrayList<>();
+        Map<Long, List<Integer>> bloqueActual = new TreeMap<>();
+        int itemsEnBloque = 0;
+
+        for (Map.Entry<Long, List<Integer>> entrada : indicesPorCuenta.entrySet()) {
+            if (!bloqueActual.isEmpty() && (bloqueActual.size() >= cuentasPorTransaccion
+                    || itemsEnBloque + entrada.getValue().size() > itemsPorTransaccion)) {
+                bloques.add(bloqueActual);
+                bloqueActual = new TreeMap<>();
+                itemsEnBloque = 0;
+            }
+            bloqueActual.put(entrada.getKey(), entrada.getValue());
+            itemsEnBloque += entrada.getValue().size();
+        }
+
+        if (!bloqueActual.isEmpty()) {
+            bloques.add(bloqueActual);
+        }
+        return bloques;
+    }
+
+    // Aplica los items dentro de la transacción en curso y notifica el resultado de cada uno por su índice.
+    public void aplicarEnTransaccion(List<MovimientoLoteItemDTO> items,
+                                     BiConsumer<Integer, Movimiento> alAplicar,
+                                     BiConsumer<Integer, RuntimeException> alRechazar) {
+        aplicarBloque(agruparPorCuenta(items), items, alAplicar, alRechazar);
+    }
+
+    private void aplicarBloque(Map<Long, List<Integer>> bloque, List<MovimientoLoteItemDTO> items,
+                               BiConsumer<Integer, Movimiento> alAplicar,
+                               BiConsumer<Integer, RuntimeException> alRechazar) {
+        cuentaLockManager.bloquearHastaFinDeTransaccion(bloque.keySet());
+
+        List<Movimiento> movimientos = new ArrayList<>();
+        List<Integer> indicesAplicados = new ArrayList<>();
+
+        for (Map.Entry<Long, List<Integer>> entrada : bloque.entrySet()) {
+            Long cuentaId = entrada.getKey();
+            Cuenta cuenta = cuentaRepository.findByIdForUpdate(cuentaId).orElse(null);
+
+            if (cuenta == null) {
+                CuentaNotFoundException error = new CuentaNotFoundException(cuentaId);
+                entrada.getValue().forEach(indice -> alRechazar.accept(indice, error));
+                continue;
+            }
+
+            try {
+                movimientoValidator.validarCuentaActiva(cuenta);
+            } catch (CuentaInactivaException e) {
+                entrada.getValue().forEach(indice -> alRechazar.accept(indice, e));
+                continue;
+            }
+            saldoSlotService.consolidar(cuenta);
+
+            for (Integer indice : entrada.getValue()) {
+                try {
+                    movimientos.add(aplicarItem(cuenta, items.get(indice).getValor()));
+                    indicesAplicados.add(indice);
+                } catch (MovimientoInvalidoException | SaldoInsuficienteException e) {
+                    alRechazar.accept(indice, e);
+                }
+            }
+        }
+
+        List<Movimiento> guardados = movimientoRepository.saveAll(movimientos);
+
+        for (int i = 0; i < guardados.size(); i++) {
+            Movimiento movimiento = guardados.get(i);
+            movimiento.getCuenta().setUltimoMovimientoId(movimiento.getMovimientoId());
+            alAplicar.accept(indicesAplicados.get(i), movimiento);
+        }
+
+        logger.debug("Bloque aplicado: {} movimientos en {} cuentas", guardados.size(), bloque.size());
+    }
+
+    // Mismas reglas que MovimientoService.registrarMovimiento, acumulando el saldo en la cuenta bloqueada.
+    private Movimiento aplicarItem(Cuenta cuenta, BigDecimal valor) {
+        movimientoValidator.validarValor(valor);
+
+        String tipoMovimiento = movimientoValidator.determinarTipoMovimiento(valor);
+        BigDecimal valorAbsoluto = valor.abs();
+        BigDecimal saldoActual = cuenta.getSaldoActual();
+
+        if ("RETIRO".equals(tipoMovimiento)) {
+            movimientoValidator.validarRetiro(saldoActual, valorAbsoluto);
+        }
+
+        BigDecimal nuevoSaldo = movimientoValidator.calcularNuevoSaldo(tipoMovimiento, saldoActual, valorAbsoluto);
+        cuenta.setSaldoActual(nuevoSaldo);
+
+        return new Movimiento(tipoMovimiento, valorAbsoluto, nuevoSaldo, cuenta);
+    }
+
+    private void rechazarBloque(Map<Long, List<Integer>> bloque, String error, MovimientoLoteResultadoDTO[] resultados) {
+        bloque.forEach((cuentaId, indices) -> rechazarItems(indices, cuentaId, error, resultados));
+    }
+
+    private void rechazarItems(List<Integer> indices, Long cuentaId, String error, MovimientoLoteResultadoDTO[] resultados) {
+        for (Integer indice : indices) {
+            resultados[indice] = MovimientoLoteResultadoDTO.rechazado(indice, cuentaId, error);
+        }
+    }
+}
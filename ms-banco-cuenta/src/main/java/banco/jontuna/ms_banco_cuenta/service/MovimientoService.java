@@ -3,22 +3,35 @@ package banco.jontuna.ms_banco_cuenta.service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import banco.jontuna.ms_banco_cuenta.dto.MovimientoPaginaDTO;
 import banco.jontuna.ms_banco_cuenta.dto.MovimientoRequestDTO;
 import banco.jontuna.ms_banco_cuenta.dto.MovimientoResponseDTO;
 import banco.jontuna.ms_banco_cuenta.model.Cuenta;
 import banco.jontuna.ms_banco_cuenta.model.Movimiento;
 import banco.jontuna.ms_banco_cuenta.repository.CuentaRepository;
 import banco.jontuna.ms_banco_cuenta.repository.MovimientoRepository;
+import banco.jontuna.ms_banco_cuenta.util.cache.CuentaCache;
+import banco.jontuna.ms_banco_cuenta.util.cache.CuentaMetadatos;
+import banco.jontuna.ms_banco_cuenta.util.cache.SaldoMemoria;
+import banco.jontuna.ms_banco_cuenta.util.concurrency.CuentaLockManager;
 import banco.jontuna.ms_banco_cuenta.util.exception.CuentaInactivaException;
 import banco.jontuna.ms_banco_cuenta.util.exception.CuentaNotFoundException;
+import banco.jontuna.ms_banco_cuenta.util.exception.CuentaOcupadaException;
 import banco.jontuna.ms_banco_cuenta.util.exception.MovimientoInvalidoException;
 import banco.jontuna.ms_banco_cuenta.util.exception.SaldoInsuficienteException;
 import banco.jontuna.ms_banco_cuenta.util.mapper.MovimientoMapper;
+import banco.jontuna.ms_banco_cuenta.util.pagination.CursorMovimiento;
+import banco.jontuna.ms_banco_cuenta.util.validator.MovimientoValidator;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -29,6 +42,12 @@ public class MovimientoService {
 
     private static final Logger logger = LoggerFactory.getLogger(MovimientoService.class);
 
+    // Orden de la paginación: más recientes primero y, a igual fecha, mayor ID primero
+    private static final Comparator<Movimiento> ORDEN_PAGINACION = Comparator
+            .comparing(Movimiento::getFecha)
+            .thenComparing(Movimiento::getMovimientoId)
+            .reversed();
+
     @Autowired
     private MovimientoRepository movimientoRepository;
 
@@ -38,29 +57,66 @@ public class MovimientoService {
     @Autowired
     private MovimientoMapper movimientoMapper;
 
+    @Autowired
+    private MovimientoValidator movimientoValidator;
+
+    @Autowired
+    private CuentaLockManager cuentaLockManager;
+
+    @Autowired
+    private SaldoSlotService saldoSlotService;
+
+    @Autowired
+    private CuentaCache cuentaCache;
+
+    @Autowired(required = false)
+    private SaldoMemoria saldoMemoria;
+
+    @Value("${banco.movimientos.paginacion.tamano-defecto:50}")
+    private int tamanoPaginaDefecto;
+
+    @Value("${banco.movimientos.paginacion.tamano-maximo:500}")
+    private int tamanoPaginaMaximo;
+
     public MovimientoResponseDTO registrarMovimiento(Long cuentaId, MovimientoRequestDTO movimientoRequest) {
         try {
             logger.info("Registrando movimiento para cuenta ID: {} - Valor recibido: {}", 
                     cuentaId, movimientoRequest.getValor());
 
-            validarMovimiento(movimientoRequest);
+            movimientoValidator.validarValor(movimientoRequest.getValor());
 
-            Cuenta cuenta = obtenerYValidarCuenta(cuentaId);
-
-            String tipoMovimiento = determinarTipoMovimiento(movimientoRequest.getValor());
+            String tipoMovimiento = movimientoValidator.determinarTipoMovimiento(movimientoRequest.getValor());
             
             BigDecimal valorAbsoluto = movimientoRequest.getValor().abs();
 
-            BigDecimal saldoActual = calcularSaldoDisponible(cuentaId);
+            rechazarCuentaInactiva(cuentaId);
+
+            if ("RETIRO".equals(tipoMovimiento)) {
+                rechazarSaldoInsuficiente(cuentaId, valorAbsoluto);
+            }
+
+            if ("DEPOSITO".equals(tipoMovimiento) && saldoSlotService.tieneSlots(cuentaId)) {
+                Optional<Movimiento> depositoEnSlot = saldoSlotService.depositarEnSlot(cuentaId, valorAbsoluto);
+                if (depositoEnSlot.isPresent()) {
+                    logger.info("Depósito registrado en slot para cuenta ID: {}. Valor: {}", cuentaId, valorAbsoluto);
+                    return crearResponseDTO(depositoEnSlot.get(), movimientoRequest.getValor());
+                }
+            }
+
+            cuentaLockManager.bloquearHastaFinDeTransaccion(cuentaId);
+            Cuenta cuenta = obtenerYValidarCuenta(cuentaId);
+
+            BigDecimal saldoActual = cuenta.getSaldoActual();
             
             if ("RETIRO".equals(tipoMovimiento)) {
-                validarRetiro(saldoActual, valorAbsoluto);
+                movimientoValidator.validarRetiro(saldoActual, valorAbsoluto);
             }
 
-            BigDecimal nuevoSaldo = calcularNuevoSaldo(tipoMovimiento, saldoActual, valorAbsoluto);
+            BigDecimal nuevoSaldo = movimientoValidator.calcularNuevoSaldo(tipoMovimiento, saldoActual, valorAbsoluto);
 
             Movimiento movimiento = crearMovimiento(tipoMovimiento, valorAbsoluto, nuevoSaldo, cuenta);
             Movimiento movimientoGuardado = movimientoRepository.save(movimiento);
+            actualizarSaldoCuenta(cuenta, movimientoGuardado);
 
             logger.info("Movimiento {} registrado exitosamente para cuenta ID: {}. Valor: {}, Nuevo saldo: {}", 
                         tipoMovimiento, cuentaId, valorAbsoluto, nuevoSaldo);
@@ -68,7 +124,7 @@ public class MovimientoService {
             return crearResponseDTO(movimientoGuardado, movimientoRequest.getValor());
 
         } catch (CuentaNotFoundException | SaldoInsuficienteException | 
-                CuentaInactivaException | MovimientoInvalidoException e) {
+                CuentaInactivaException | MovimientoInvalidoException | CuentaOcupadaException e) {
             throw e;
         } catch (Exception e) {
             logger.error("Error al registrar movimiento para cuenta ID: {}", cuentaId, e);
@@ -85,10 +141,7 @@ public class MovimientoService {
                 throw new CuentaNotFoundException(cuentaId);
             }
             
-            return movimientoRepository.findByCuentaCuentaIdOrderByFechaDesc(cuentaId)
-                    .stream()
-                    .map(movimientoMapper::toResponseDTO)
-                    .collect(Collectors.toList());
+            return movimientoRepository.findRespuestasPorCuenta(cuentaId);
         } catch (CuentaNotFoundException e) {
             throw e;
         } catch (Exception e) {
@@ -101,23 +154,86 @@ public class MovimientoService {
     public List<MovimientoResponseDTO> obtenerMovimientosPorCliente(Long clienteId) {
         try {
             logger.info("Obteniendo movimientos para cliente ID: {}", clienteId);
-            return movimientoRepository.findByCuentaClienteId(clienteId)
-                    .stream()
-                    .map(movimientoMapper::toResponseDTO)
-                    .collect(Collectors.toList());
+            return movimientoRepository.findRespuestasPorCliente(clienteId);
         } catch (Exception e) {
             logger.error("Error al obtener movimientos para cliente ID: {}", clienteId, e);
             throw new RuntimeException("Error al obtener los movimientos del cliente");
         }
     }
 
+    @Transactional(readOnly = true)
+    public MovimientoPaginaDTO obtenerPaginaPorCuenta(Long cuentaId, String cursor, Integer tamano) {
+        try {
+            logger.info("Obteniendo página de movimientos para cuenta ID: {}", cuentaId);
+
+            if (!cuentaRepository.existsById(cuentaId)) {
+                throw new CuentaNotFoundException(cuentaId);
+            }
+
+            int tamanoPagina = resolverTamanoPagina(tamano);
+            CursorMovimiento posicion = cursor != null ? CursorMovimiento.decodificar(cursor) : null;
+            return crearPagina(buscarPagina(cuentaId, posicion, tamanoPagina + 1), tamanoPagina);
+        } catch (CuentaNotFoundException | MovimientoInvalidoException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error al obtener página de movimientos para cuenta ID: {}", cuentaId, e);
+            throw new RuntimeException("Error al obtener los movimientos de la cuenta");
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public MovimientoPaginaDTO obtenerPaginaPorCliente(Long clienteId, String cursor, Integer tamano) {
+        try {
+            logger.info("Obteniendo página de movimientos para cliente ID: {}", clienteId);
+
+            int tamanoPagina = resolverTamanoPagina(tamano);
+            CursorMovimiento posicion = cursor != null ? CursorMovimiento.decodificar(cursor) : null;
+
+            // Una búsqueda por índice en cada cuenta del cliente y mezcla en memoria: ninguna cuenta
+            // aporta más de tamanoPagina + 1 filas, sin importar lo profunda que sea la página
+            List<Movimiento> candidatos = new ArrayList<>();
+            for (Long cuentaId : cuentaRepository.findCuentaIdsByClienteId(clienteId)) {
+                candidatos.addAll(buscarPagina(cuentaId, posicion, tamanoPagina + 1));
+            }
+            candidatos.sort(ORDEN_PAGINACION);
+
+            return crearPagina(candidatos.subList(0, Math.min(candidatos.size(), tamanoPagina + 1)), tamanoPagina);
+        } catch (MovimientoInvalidoException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error al obtener página de movimientos para cliente ID: {}", clienteId, e);
+            throw new RuntimeException("Error al obtener los movimientos del cliente");
+        }
+    }
+
+    // Página de movimientos de una cuenta entre dos fechas (detalle del resumen por período)
+    @Transactional(readOnly = true)
+    public MovimientoPaginaDTO obtenerPaginaPorCuentaEnRango(Long cuentaId, LocalDateTime desde, LocalDateTime hasta,
+                                                             String cursor, Integer tamano) {
+        try {
+            logger.info("Obteniendo página de movimientos para cuenta ID: {} entre {} y {}", cuentaId, desde, hasta);
+
+            int tamanoPagina = resolverTamanoPagina(tamano);
+            CursorMovimiento posicion = cursor != null
+                    ? CursorMovimiento.decodificar(cursor)
+                    : new CursorMovimiento(hasta, Long.MAX_VALUE);
+            List<Movimiento> movimientos = movimientoRepository.findPaginaPorCuentaEnRango(
+                    cuentaId, desde, posicion.fecha(), posicion.movimientoId(), Limit.of(tamanoPagina + 1));
+            return crearPagina(movimientos, tamanoPagina);
+        } catch (MovimientoInvalidoException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error al obtener página de movimientos para cuenta ID: {}", cuentaId, e);
+            throw new RuntimeException("Error al obtener los movimientos de la cuenta");
+        }
+    }
+
     @Transactional(readOnly = true)
     public MovimientoResponseDTO obtenerMovimientoPorId(Long movimientoId) {
         try {
             logger.info("Obteniendo movimiento con ID: {}", movimientoId);
-            Movimiento movimiento = movimientoRepository.findById(movimientoId)
+            return movimientoRepository.findRespuestaPorId(movimientoId)
                     .orElseThrow(() -> new RuntimeException("Movimiento no encontrado con ID: " + movimientoId));
-            return movimientoMapper.toResponseDTO(movimiento);
         } catch (Exception e) {
             logger.error("Error al obtener movimiento por ID: {}", movimientoId, e);
             throw new RuntimeException("Error al obtener el movimiento");
@@ -128,10 +244,7 @@ public class MovimientoService {
     public List<MovimientoResponseDTO> obtenerTodosLosMovimientos() {
         try {
             logger.info("Obteniendo todos los movimientos");
-            return movimientoRepository.findAll()
-                    .stream()
-                    .map(movimientoMapper::toResponseDTO)
-                    .collect(Collectors.toList());
+            return movimientoRepository.findRespuestasTodas();
         } catch (Exception e) {
             logger.error("Error al obtener todos los movimientos", e);
             throw new RuntimeException("Error al obtener los movimientos");
@@ -140,11 +253,9 @@ public class MovimientoService {
 
     public BigDecimal calcularSaldoDisponible(Long cuentaId) {
         try {
-            Optional<Movimiento> ultimoMovimiento = movimientoRepository
-                    .findTopByCuentaCuentaIdOrderByFechaDesc(cuentaId);
-            
-            return ultimoMovimiento
-                    .map(Movimiento::getSaldo)
+            return (saldoMemoria != null
+                    ? saldoMemoria.obtenerSaldo(cuentaId)
+                    : cuentaRepository.findSaldoActualByCuentaId(cuentaId))
                     .orElse(BigDecimal.ZERO);
         } catch (Exception e) {
             logger.error("Error al calcular saldo para cuenta ID: {}", cuentaId, e);
@@ -160,7 +271,8 @@ public class MovimientoService {
                 cuenta.getSaldoInicial(),
                 cuenta
             );
-            movimientoRepository.save(movimientoInicial);
+            Movimiento movimientoGuardado = movimientoRepository.save(movimientoInicial);
+            actualizarSaldoCuenta(cuenta, movimientoGuardado);
             logger.info("Movimiento inicial registrado para cuenta: {}", cuenta.getNumeroCuenta());
         } catch (Exception e) {
             logger.error("Error al crear movimiento inicial para cuenta: {}", cuenta.getNumeroCuenta(), e);
@@ -168,59 +280,64 @@ public class MovimientoService {
         }
     }
 
-    private void validarMovimiento(MovimientoRequestDTO movimientoRequest) {
-        if (movimientoRequest.getValor() == null) {
-            throw new MovimientoInvalidoException("El valor del movimiento es obligatorio");
+    private List<Movimiento> buscarPagina(Long cuentaId, CursorMovimiento posicion, int limite) {
+        if (posicion == null) {
+            return movimientoRepository.findPrimeraPaginaPorCuenta(cuentaId, Limit.of(limite));
         }
+        return movimientoRepository.findPaginaPorCuentaDespuesDe(
+                cuentaId, posicion.fecha(), posicion.movimientoId(), Limit.of(limite));
+    }
 
-        if (movimientoRequest.getValor().compareTo(BigDecimal.ZERO) == 0) {
-            throw new MovimientoInvalidoException("El valor del movimiento no puede ser cero");
-        }
+    // Se pide una fila de más para saber si existe una página siguiente sin contar el total
+    private MovimientoPaginaDTO crearPagina(List<Movimiento> movimientos, int tamanoPagina) {
+        boolean hayMas = movimientos.size() > tamanoPagina;
+        List<Movimiento> pagina = hayMas ? movimientos.subList(0, tamanoPagina) : movimientos;
 
-        if (movimientoRequest.getValor().abs().compareTo(new BigDecimal("0.01")) < 0) {
-            throw new MovimientoInvalidoException("El valor mínimo del movimiento es 0.01");
-        }
+        String siguienteCursor = hayMas ? CursorMovimiento.de(pagina.get(pagina.size() - 1)).codificar() : null;
+        List<MovimientoResponseDTO> movimientosDTO = pagina.stream()
+                .map(movimientoMapper::toResponseDTO)
+                .collect(Collectors.toList());
+        return new MovimientoPaginaDTO(movimientosDTO, tamanoPagina, siguienteCursor);
+    }
 
-        if (movimientoRequest.getValor().abs().compareTo(new BigDecimal("1000000")) > 0) {
-            throw new MovimientoInvalidoException("El valor máximo del movimiento es 1,000,000.00");
+    private int resolverTamanoPagina(Integer tamano) {
+        if (tamano == null) {
+            return tamanoPaginaDefecto;
         }
+        if (tamano < 1) {
+            throw new MovimientoInvalidoException("El tamaño de página debe ser mayor a cero");
+        }
+        return Math.min(tamano, tamanoPaginaMaximo);
     }
 
-    private String determinarTipoMovimiento(BigDecimal valor) {
-        if (valor.compareTo(BigDecimal.ZERO) > 0) {
-            return "DEPOSITO";
-        } else {
-            return "RETIRO";
+    // Rechazo temprano con la caché, sin tomar el lock ni una conexión. Una entrada vieja nunca deja pasar
+    // un movimiento: la aceptación se decide siempre con el estado de la fila bloqueada (obtenerYValidarCuenta)
+    private void rechazarCuentaInactiva(Long cuentaId) {
+        CuentaMetadatos metadatos = cuentaCache.obtenerPorId(cuentaId);
+        if (!metadatos.activa()) {
+            throw new CuentaInactivaException(metadatos.numeroCuenta(), metadatos.estado());
         }
     }
 
+    // Con SaldoMemoria un retiro que no alcanza se rechaza sin tomar el lock ni la fila; si alcanza,
+    // la validación definitiva sigue siendo la de la fila bloqueada
+    private void rechazarSaldoInsuficiente(Long cuentaId, BigDecimal valorAbsoluto) {
+        if (saldoMemoria != null) {
+            saldoMemoria.saldoEnMemoria(cuentaId)
+                    .ifPresent(saldo -> movimientoValidator.validarRetiro(saldo, valorAbsoluto));
+        }
+    }
 
     private Cuenta obtenerYValidarCuenta(Long cuentaId) {
-        Cuenta cuenta = cuentaRepository.findById(cuentaId)
+        Cuenta cuenta = cuentaRepository.findByIdForUpdate(cuentaId)
                 .orElseThrow(() -> new CuentaNotFoundException(cuentaId));
 
-        if (!"ACTIVA".equals(cuenta.getEstado())) {
-            throw new CuentaInactivaException(cuenta.getNumeroCuenta(), cuenta.getEstado());
-        }
+        movimientoValidator.validarCuentaActiva(cuenta);
+        saldoSlotService.consolidar(cuenta);
 
         return cuenta;
     }
 
-    private void validarRetiro(BigDecimal saldoActual, BigDecimal valorRetiro) {
-        if (saldoActual.compareTo(valorRetiro) < 0) {
-            throw new SaldoInsuficienteException(saldoActual, valorRetiro);
-        }
-    }
-
-
-    private BigDecimal calcularNuevoSaldo(String tipoMovimiento, BigDecimal saldoActual, BigDecimal valorAbsoluto) {
-        if ("DEPOSITO".equals(tipoMovimiento)) {
-            return saldoActual.add(valorAbsoluto);
-        } else {
-            return saldoActual.subtract(valorAbsoluto);
-        }
-    }
-
     private Movimiento crearMovimiento(String tipoMovimiento, BigDecimal valorAbsoluto, 
                                     BigDecimal nuevoSaldo, Cuenta cuenta) {
         Movimiento movimiento = new Movimiento();
@@ -231,6 +348,11 @@ public class MovimientoService {
         return movimiento;
     }
 
+    private void actualizarSaldoCuenta(Cuenta cuenta, Movimiento movimiento) {
+        cuenta.setSaldoActual(movimiento.getSaldo());
+        cuenta.setUltimoMovimientoId(movimiento.getMovimientoId());
+    }
+
     private MovimientoResponseDTO crearResponseDTO(Movimiento movimiento, BigDecimal valorOriginal) {
         MovimientoResponseDTO dto = new MovimientoResponseDTO();
         dto.setMovimientoId(movimiento.getMovimientoId());
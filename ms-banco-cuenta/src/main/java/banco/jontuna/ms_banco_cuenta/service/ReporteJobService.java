@@ -0,0 +1,369 @@
+package banco.jontuna.ms_banco_cuenta.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import banco.jontuna.ms_banco_cuenta.dto.ReporteJobDTO;
+import banco.jontuna.ms_banco_cuenta.util.exception.LimiteSolicitudesException;
+import banco.jontuna.ms_banco_cuenta.util.exception.ServicioSaturadoException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Reportes de estado de cuenta en segundo plano. Un pool fijo de hilos con cola acotada limita cuántos
+// reportes leen la base a la vez (y cuántas conexiones toman); con la cola llena se rechaza con 503 y cada
+// cliente tiene un máximo de reportes pendientes o en proceso (429). Cada resultado se escribe por partes a un
+// archivo temporal de esta instancia (memoria constante mientras se genera y mientras se retiene) y se borra
+// al expirar; max-retenidos y max-mb-retenidos acotan cuántos y cuánto se retiene.
+@Service
+public class ReporteJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReporteJobService.class);
+
+    static final String PENDIENTE = "PENDIENTE";
+    static final String EN_PROCESO = "EN_PROCESO";
+    static final String COMPLETADO = "COMPLETADO";
+    static final String FALLIDO = "FALLIDO";
+    static final String CANCELADO = "CANCELADO";
+
+    @Autowired
+    private ReporteService reporteService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Value("${banco.reportes.jobs.hilos:2}")
+    private int hilos;
+
+    @Value("${banco.reportes.jobs.capacidad-cola:50}")
+    private int capacidadCola;
+
+    @Value("${banco.reportes.jobs.max-por-cliente:2}")
+    private int maxPorCliente;
+
+    @Value("${banco.reportes.jobs.max-retenidos:1000}")
+    private int maxRetenidos;
+
+    @Value("${banco.reportes.jobs.max-mb-retenidos:512}")
+    private long maxMbRetenidos;
+
+    @Value("${banco.reportes.jobs.retencion-minutos:30}")
+    private long retencionMinutos;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    // Reportes pendientes o en proceso de cada cliente
+    private final Map<Long, Integer> activosPorCliente = new ConcurrentHashMap<>();
+    // Tamaño de los archivos de resultado que aún no expiran
+    private final AtomicLong bytesRetenidos = new AtomicLong();
+    private ThreadPoolExecutor executor;
+    private TransactionTemplate lectura;
+
+    @PostConstruct
+    public void iniciar() {
+        if (hilos < 1 || capacidadCola < 1 || maxPorCliente < 1 || maxRetenidos < 1 || maxMbRetenidos < 1
+                || retencionMinutos < 0) {
+            throw new IllegalStateException("Configuración de reportes en segundo plano inválida: hilos=" + hilos
+                    + ", capacidad-cola=" + capacidadCola + ", max-por-cliente=" + maxPorCliente
+                    + ", max-retenidos=" + maxRetenidos + ", max-mb-retenidos=" + maxMbRetenidos
+                    + ", retencion-minutos=" + retencionMinutos);
+        }
+
+        lectura = new TransactionTemplate(transactionManager);
+        lectura.setReadOnly(true);
+
+        AtomicInteger numeroHilo = new AtomicInteger();
+        executor = new ThreadPoolExecutor(hilos, hilos, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadCola),
+                tarea -> {
+                    Thread hilo = new Thread(tarea, "reporte-job-" + numeroHilo.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("banco.reportes.jobs.cola", executor, ejecutor -> ejecutor.getQueue().size())
+                .description("Reportes esperando un hilo")
+                .register(meterRegistry);
+        Gauge.builder("banco.reportes.jobs.en-proceso", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Reportes generándose")
+                .register(meterRegistry);
+        Gauge.builder("banco.reportes.jobs.retenidos", jobs, Map::size)
+                .description("Reportes en memoria, incluidos los terminados que aún no expiran")
+                .register(meterRegistry);
+        Gauge.builder("banco.reportes.jobs.bytes-retenidos", bytesRetenidos, AtomicLong::get)
+                .description("Tamaño de los resultados en disco que aún no expiran")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+
+        logger.info("Reportes en segundo plano con {} hilos, cola de {} y hasta {} por cliente",
+                    hilos, capacidadCola, maxPorCliente);
+    }
+
+    @PreDestroy
+    public void detener() {
+        executor.shutdownNow();
+        jobs.values().forEach(this::descartarResultado);
+    }
+
+    public ReporteJobDTO crear(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin) {
+        reporteService.validarFechas(fechaInicio, fechaFin);
+
+        if (retencionLlena() && purgarExpirados() == 0 && retencionLlena()) {
+            throw new ServicioSaturadoException("Hay demasiados reportes retenidos. Intente más tarde");
+        }
+        reservar(clienteId);
+
+        Job job = new Job(UUID.randomUUID().toString(), clienteId, fechaInicio, fechaFin);
+        job.tarea = new FutureTask<>(() -> ejecutar(job), null);
+        jobs.put(job.id, job);
+        try {
+            executor.execute(job.tarea);
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            liberar(clienteId);
+            throw new ServicioSaturadoException("La cola de reportes está llena. Intente nuevamente más tarde");
+        }
+
+        logger.info("Reporte {} encolado para cliente: {} entre {} y {}", job.id, clienteId, fechaInicio, fechaFin);
+        return aDTO(job);
+    }
+
+    public Optional<ReporteJobDTO> obtener(Long clienteId, String jobId) {
+        return buscar(clienteId, jobId).map(this::aDTO);
+    }
+
+    // Archivo con el JSON del reporte, solo si está COMPLETADO y no expiró
+    public Optional<Path> obtenerResultado(Long clienteId, String jobId) {
+        return buscar(clienteId, jobId)
+                .filter(job -> COMPLETADO.equals(job.estado.get()))
+                .map(job -> job.archivo);
+    }
+
+    // Un reporte pendiente sale de la cola; uno en proceso se interrumpe, se cancela la consulta que esté
+    // ejecutando y su resultado se descarta
+    public Optional<ReporteJobDTO> cancelar(Long clienteId, String jobId) {
+        return buscar(clienteId, jobId).map(job -> {
+            if (job.estado.compareAndSet(PENDIENTE, CANCELADO)) {
+                job.tarea.cancel(false);
+                executor.remove(job.tarea);
+                finalizar(job);
+                liberar(job.clienteId);
+                logger.info("Reporte {} cancelado antes de empezar", job.id);
+            } else if (job.estado.compareAndSet(EN_PROCESO, CANCELADO)) {
+                // ejecutar() libera el cupo del cliente al salir
+                job.tarea.cancel(true);
+                cancelarConsulta(job);
+                logger.info("Reporte {} cancelado en proceso", job.id);
+            }
+            return aDTO(job);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${banco.reportes.jobs.purga.intervalo-ms:60000}")
+    public int purgarExpirados() {
+        LocalDateTime ahora = LocalDateTime.now();
+        int antes = jobs.size();
+        jobs.values().removeIf(job -> {
+            if (job.fechaExpiracion == null || job.fechaExpiracion.isAfter(ahora)) {
+                return false;
+            }
+            descartarResultado(job);
+            return true;
+        });
+        int purgados = antes - jobs.size();
+        if (purgados > 0) {
+            logger.info("Reportes expirados eliminados: {}", purgados);
+        }
+        return Math.max(purgados, 0);
+    }
+
+    private void ejecutar(Job job) {
+        if (!job.estado.compareAndSet(PENDIENTE, EN_PROCESO)) {
+            return;
+        }
+        Path archivo = null;
+        try {
+            archivo = Files.createTempFile("reporte-" + job.id + "-", ".json");
+            try (OutputStream salida = Files.newOutputStream(archivo)) {
+                escribir(job, salida);
+            }
+            job.bytes = Files.size(archivo);
+            job.archivo = archivo;
+            bytesRetenidos.addAndGet(job.bytes);
+            archivo = null;
+            if (!job.estado.compareAndSet(EN_PROCESO, COMPLETADO)) {
+                descartarResultado(job);
+            }
+        } catch (CancellationException e) {
+            // Cancelado con cancelar(): queda CANCELADO, sin mensaje de error
+            logger.info("Reporte {} del cliente {} detenido por cancelación", job.id, job.clienteId);
+        } catch (IOException | RuntimeException e) {
+            job.error = e instanceof IOException ? "Error al guardar el reporte" : e.getMessage();
+            if (job.estado.compareAndSet(EN_PROCESO, FALLIDO)) {
+                logger.warn("Reporte {} del cliente {} falló: {}", job.id, job.clienteId, e.getMessage());
+            } else {
+                // La consulta que detuvo cancelar() falla con su propio error: el reporte ya quedó CANCELADO
+                job.error = null;
+            }
+        } finally {
+            borrar(archivo);
+            finalizar(job);
+            liberar(job.clienteId);
+        }
+    }
+
+    // El reporte se escribe desde el cursor, sin armarlo en memoria, en una transacción propia para poder
+    // cancelar desde cancelar() la consulta que tenga en curso su sesión
+    private void escribir(Job job, OutputStream salida) {
+        lectura.executeWithoutResult(status -> {
+            // La sesión real de la transacción: el EntityManager compartido resolvería el del hilo que cancela
+            job.sesion = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory)
+                    .unwrap(Session.class);
+            try {
+                // Cancelado antes de publicar la sesión: cancelar() no tuvo consulta que detener
+                if (CANCELADO.equals(job.estado.get())) {
+                    throw new CancellationException("La generación del reporte fue cancelada");
+                }
+                reporteService.escribirReporteEstadoCuenta(job.clienteId, job.fechaInicio, job.fechaFin,
+                                                           salida, ReporteService.Formato.JSON);
+            } finally {
+                job.sesion = null;
+            }
+        });
+    }
+
+    // Statement.cancel de la consulta en curso; si no hay ninguna, la interrupción corta en el siguiente bloque
+    private void cancelarConsulta(Job job) {
+        Session sesion = job.sesion;
+        if (sesion == null) {
+            return;
+        }
+        try {
+            sesion.cancelQuery();
+        } catch (RuntimeException e) {
+            logger.debug("No se pudo cancelar la consulta del reporte {}: {}", job.id, e.getMessage());
+        }
+    }
+
+    private boolean retencionLlena() {
+        return jobs.size() >= maxRetenidos || bytesRetenidos.get() >= maxMbRetenidos * 1024 * 1024;
+    }
+
+    // purgarExpirados puede correr a la vez desde crear() y desde el scheduler
+    private synchronized void descartarResultado(Job job) {
+        Path archivo = job.archivo;
+        if (archivo != null) {
+            job.archivo = null;
+            bytesRetenidos.addAndGet(-job.bytes);
+            borrar(archivo);
+        }
+    }
+
+    private void borrar(Path archivo) {
+        if (archivo == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(archivo);
+        } catch (IOException e) {
+            logger.warn("No se pudo borrar el resultado {}: {}", archivo, e.getMessage());
+        }
+    }
+
+    private void finalizar(Job job) {
+        LocalDateTime ahora = LocalDateTime.now();
+        job.fechaFinalizacion = ahora;
+        job.fechaExpiracion = ahora.plusMinutes(retencionMinutos);
+    }
+
+    private void reservar(Long clienteId) {
+        boolean[] reservado = { false };
+        activosPorCliente.compute(clienteId, (id, activos) -> {
+            int actuales = activos == null ? 0 : activos;
+            if (actuales >= maxPorCliente) {
+                return activos;
+            }
+            reservado[0] = true;
+            return actuales + 1;
+        });
+        if (!reservado[0]) {
+            throw new LimiteSolicitudesException("El cliente " + clienteId + " ya tiene " + maxPorCliente
+                    + " reportes en curso. Espere a que terminen o cancele alguno");
+        }
+    }
+
+    private void liberar(Long clienteId) {
+        activosPorCliente.computeIfPresent(clienteId, (id, activos) -> activos > 1 ? activos - 1 : null);
+    }
+
+    private Optional<Job> buscar(Long clienteId, String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).filter(job -> job.clienteId.equals(clienteId));
+    }
+
+    private ReporteJobDTO aDTO(Job job) {
+        String estado = job.estado.get();
+        return new ReporteJobDTO(job.id, job.clienteId, job.fechaInicio, job.fechaFin, estado,
+                job.fechaCreacion, job.fechaFinalizacion, job.fechaExpiracion,
+                FALLIDO.equals(estado) ? job.error : null,
+                COMPLETADO.equals(estado) ? job.bytes : null);
+    }
+
+    private static final class Job {
+        private final String id;
+        private final Long clienteId;
+        private final LocalDate fechaInicio;
+        private final LocalDate fechaFin;
+        private final LocalDateTime fechaCreacion = LocalDateTime.now();
+        private final AtomicReference<String> estado = new AtomicReference<>(PENDIENTE);
+        private FutureTask<Void> tarea;
+        private volatile LocalDateTime fechaFinalizacion;
+        private volatile LocalDateTime fechaExpiracion;
+        private volatile String error;
+        private volatile Session sesion;
+        private volatile Path archivo;
+        private volatile long bytes;
+
+        private Job(String id, Long clienteId, LocalDate fechaInicio, LocalDate fechaFin) {
+            this.id = id;
+            this.clienteId = clienteId;
+            this.fechaInicio = fechaInicio;
+            this.fechaFin = fechaFin;
+        }
+    }
+}
@@ -1,29 +1,59 @@
 package banco.jontuna.ms_banco_cuenta.service;
 
+import banco.jontuna.ms_banco_cuenta.dto.CuentaPeriodoDTO;
 import banco.jontuna.ms_banco_cuenta.dto.CuentaResumenDTO;
 import banco.jontuna.ms_banco_cuenta.dto.EstadoCuentaReporteDTO;
+import banco.jontuna.ms_banco_cuenta.dto.EstadoCuentaResumenDTO;
 import banco.jontuna.ms_banco_cuenta.dto.MovimientoDetalleDTO;
+import banco.jontuna.ms_banco_cuenta.dto.MovimientoPaginaDTO;
 import banco.jontuna.ms_banco_cuenta.model.Cuenta;
-import banco.jontuna.ms_banco_cuenta.model.Movimiento;
 import banco.jontuna.ms_banco_cuenta.repository.CuentaRepository;
+import banco.jontuna.ms_banco_cuenta.repository.SaldoDiarioRepository;
 import banco.jontuna.ms_banco_cuenta.repository.custom.CustomMovimientoRepository;
+import banco.jontuna.ms_banco_cuenta.util.cache.CuentaCache;
+import banco.jontuna.ms_banco_cuenta.util.cache.CuentaMetadatos;
+import banco.jontuna.ms_banco_cuenta.util.exception.CuentaNotFoundException;
 import banco.jontuna.ms_banco_cuenta.util.exception.FechaInvalidaException;
 import banco.jontuna.ms_banco_cuenta.util.exception.CuentasNoEncontradasException;
+import banco.jontuna.ms_banco_cuenta.util.exception.MovimientoInvalidoException;
+import banco.jontuna.ms_banco_cuenta.util.reporte.EscritorReporte;
+import banco.jontuna.ms_banco_cuenta.util.reporte.EscritorReporteCsv;
+import banco.jontuna.ms_banco_cuenta.util.reporte.EscritorReporteJson;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional(readOnly = true)
@@ -31,15 +61,70 @@ public class ReporteService {
 
     private static final Logger logger = LoggerFactory.getLogger(ReporteService.class);
 
+    public enum Formato {
+        JSON, CSV
+    }
+
     @Autowired
     private CuentaRepository cuentaRepository;
 
     @Autowired
     private CustomMovimientoRepository customMovimientoRepository;
 
+    @Autowired
+    private SaldoDiarioRepository saldoDiarioRepository;
+
     @Autowired
     private MovimientoService movimientoService;
 
+    @Autowired
+    private CuentaCache cuentaCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${banco.exportacion.fetch-size:500}")
+    private int fetchSize;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Movimientos por grupos de cuentas en paralelo sobre hilos virtuales para clientes con muchas cuentas
+    @Value("${banco.reportes.paralelo.enabled:false}")
+    private boolean paraleloHabilitado;
+
+    @Value("${banco.reportes.paralelo.min-cuentas:8}")
+    private int minCuentasParalelo;
+
+    @Value("${banco.reportes.paralelo.max-conexiones:4}")
+    private int maxConexionesParalelo;
+
+    // El resumen por período no lee MOVIMIENTO, así que admite rangos más largos que el reporte completo
+    @Value("${banco.reportes.resumen.max-anios:10}")
+    private int aniosMaximosResumen;
+
+    // Rangos más largos se generan en segundo plano (ReporteJobService)
+    @Value("${banco.reportes.sincrono.max-dias:93}")
+    private int diasMaximosSincrono;
+
+    // Compartido por todos los reportes: acota las conexiones que toman las lecturas en paralelo
+    private Semaphore conexionesParalelo;
+    // Transacción de solo lectura del reporte completo: la del camino secuencial y la de cada lectura en paralelo
+    private TransactionTemplate lectura;
+
+    @PostConstruct
+    public void iniciar() {
+        if (maxConexionesParalelo < 1) {
+            throw new IllegalStateException("banco.reportes.paralelo.max-conexiones debe ser mayor a 0");
+        }
+        conexionesParalelo = new Semaphore(maxConexionesParalelo, true);
+        lectura = new TransactionTemplate(transactionManager);
+        lectura.setReadOnly(true);
+    }
+
+    // Sin la transacción de la clase: el camino secuencial lee cuentas y movimientos en una sola transacción de solo
+    // lectura y el paralelo usa transacciones cortas en sus propios hilos, así el hilo que espera no retiene conexión
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public EstadoCuentaReporteDTO generarReporteEstadoCuenta(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin) {
         try {
             logger.info("Generando reporte de estado de cuenta para cliente: {} entre {} y {}", 
@@ -47,48 +132,20 @@ public class ReporteService {
 
             validarFechas(fechaInicio, fechaFin);
 
-            List<Cuenta> cuentas = cuentaRepository.findByClienteIdAndEstado(clienteId, "ACTIVA");
-            
-            if (cuentas.isEmpty()) {
-                logger.warn("No se encontraron cuentas activas para el cliente: {}", clienteId);
-                throw CuentasNoEncontradasException.paraCliente(clienteId);
-            }
-
             LocalDateTime fechaInicioTime = fechaInicio.atStartOfDay();
             LocalDateTime fechaFinTime = fechaFin.atTime(LocalTime.MAX);
 
-            List<Movimiento> movimientos = customMovimientoRepository
-                    .findMovimientosByClienteAndFechaRange(clienteId, fechaInicioTime, fechaFinTime);
+            List<CuentaResumenDTO> cuentasDTO = paraleloHabilitado
+                    ? leerCuentasEnParalelo(clienteId, fechaInicioTime, fechaFinTime)
+                    : lectura.execute(status -> leerCuentasConMovimientos(clienteId, fechaInicioTime, fechaFinTime));
 
-            if (movimientos.isEmpty()) {
+            if (cuentasDTO.stream().allMatch(cuentaDTO -> cuentaDTO.getMovimientos().isEmpty())) {
                 logger.warn("No se encontraron movimientos para el cliente {} en el rango {} - {}", 
                             clienteId, fechaInicio, fechaFin);
                 throw CuentasNoEncontradasException.paraClienteEnRango(
                     clienteId, fechaInicio.toString(), fechaFin.toString());
             }
 
-            Map<Long, List<Movimiento>> movimientosPorCuenta = movimientos.stream()
-                    .collect(Collectors.groupingBy(m -> m.getCuenta().getCuentaId()));
-
-            List<CuentaResumenDTO> cuentasDTO = cuentas.stream()
-                    .map(cuenta -> {
-                        CuentaResumenDTO cuentaDTO = convertirCuentaADTO(cuenta);
-                        
-                        List<Movimiento> movimientosCuenta = movimientosPorCuenta.getOrDefault(cuenta.getCuentaId(), new ArrayList<>());
-                        List<MovimientoDetalleDTO> movimientosDTO = movimientosCuenta.stream()
-                                .map(this::convertirMovimientoADTO)
-                                .collect(Collectors.toList());
-                        
-                        cuentaDTO.setMovimientos(movimientosDTO);
-                        return cuentaDTO;
-                    })
-                    .collect(Collectors.toList());
-
-            if (cuentasDTO.isEmpty()) {
-                throw CuentasNoEncontradasException.paraClienteEnRango(
-                    clienteId, fechaInicio.toString(), fechaFin.toString());
-            }
-
             EstadoCuentaReporteDTO reporte = new EstadoCuentaReporteDTO(clienteId, fechaInicio, fechaFin, cuentasDTO);
             
             logger.info("Reporte generado exitosamente para cliente: {}. Total cuentas: {}, Saldo total: {}", 
@@ -98,54 +155,277 @@ public class ReporteService {
 
         } catch (FechaInvalidaException | CuentasNoEncontradasException e) {
             throw e;
+        } catch (InterruptedException e) {
+            // Cancelado (DELETE del job, o timeout o desconexión en el GET): las lecturas en curso ya se interrumpieron
+            Thread.currentThread().interrupt();
+            logger.warn("Generación del reporte cancelada para cliente: {}", clienteId);
+            throw new CancellationException("La generación del reporte fue cancelada");
         } catch (Exception e) {
             logger.error("Error al generar reporte de estado de cuenta para cliente: {}", clienteId, e);
             throw new RuntimeException("Error al generar el reporte: " + e.getMessage());
         }
     }
 
-    private CuentaResumenDTO convertirCuentaADTO(Cuenta cuenta) {
+    // Cuentas activas con su saldo exacto (incluye los slots sin consolidar) y sus movimientos del rango
+    private List<CuentaResumenDTO> leerCuentasConMovimientos(Long clienteId, LocalDateTime fechaInicio,
+                                                             LocalDateTime fechaFin) {
+        List<CuentaResumenDTO> cuentas = leerCuentasActivas(clienteId);
+        asignarMovimientos(cuentas, customMovimientoRepository.findDetallesByClienteAndFechaRange(clienteId, fechaInicio, fechaFin));
+        return cuentas;
+    }
+
+    private List<CuentaResumenDTO> leerCuentasActivas(Long clienteId) {
+        List<CuentaResumenDTO> cuentas = cuentaRepository.findResumenesByClienteIdAndEstado(clienteId, "ACTIVA");
+        if (cuentas.isEmpty()) {
+            logger.warn("No se encontraron cuentas activas para el cliente: {}", clienteId);
+            throw CuentasNoEncontradasException.paraCliente(clienteId);
+        }
+        return cuentas;
+    }
+
+    private static void asignarMovimientos(List<CuentaResumenDTO> cuentas, List<MovimientoDetalleDTO> movimientos) {
+        Map<Long, List<MovimientoDetalleDTO>> movimientosPorCuenta = movimientos.stream()
+                .collect(Collectors.groupingBy(MovimientoDetalleDTO::getCuentaId));
+        cuentas.forEach(cuenta -> cuenta.setMovimientos(
+                movimientosPorCuenta.getOrDefault(cuenta.getCuentaId(), new ArrayList<>())));
+    }
+
+    // Todas las lecturas corren en hilos virtuales, también la de las cuentas: el hilo que llama no toma ninguna
+    // conexión (con open-in-view la retendría hasta el final de la solicitud) y solo espera. Un cliente con menos de
+    // min-cuentas cuentas se lee como en el camino secuencial; con más, las cuentas se leen en una transacción corta
+    // que termina antes de repartir los movimientos por grupos. Si una lectura falla o el hilo que espera es
+    // interrumpido, se interrumpen las pendientes.
+    private List<CuentaResumenDTO> leerCuentasEnParalelo(Long clienteId, LocalDateTime fechaInicio,
+                                                         LocalDateTime fechaFin) throws InterruptedException {
+        ExecutorService executor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("reporte-cuentas-", 0).factory());
         try {
-            if (!"ACTIVA".equals(cuenta.getEstado())) {
-                throw CuentasNoEncontradasException.cuentaInactiva(cuenta.getCuentaId(), cuenta.getEstado());
+            List<CuentaResumenDTO> cuentas = executor.submit(() -> lectura.execute(status -> {
+                List<CuentaResumenDTO> resumenes = leerCuentasActivas(clienteId);
+                if (resumenes.size() < minCuentasParalelo) {
+                    asignarMovimientos(resumenes, customMovimientoRepository
+                            .findDetallesByClienteAndFechaRange(clienteId, fechaInicio, fechaFin));
+                }
+                return resumenes;
+            })).get();
+
+            if (cuentas.size() >= minCuentasParalelo) {
+                asignarMovimientosEnParalelo(executor, cuentas, fechaInicio, fechaFin);
             }
-            
-            BigDecimal saldoActual = movimientoService.calcularSaldoDisponible(cuenta.getCuentaId());
-            
-            return new CuentaResumenDTO(
-                cuenta.getCuentaId(),
-                cuenta.getNumeroCuenta(),
-                cuenta.getTipoCuenta(),
-                cuenta.getEstado(),
-                saldoActual
-            );
-        } catch (CuentasNoEncontradasException e) {
+            return cuentas;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new RuntimeException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Las cuentas se reparten en max-conexiones grupos contiguos y cada grupo se lee con su propia transacción de
+    // solo lectura; el semáforo, compartido por todos los reportes, acota las lecturas en curso. Los movimientos se
+    // asignan en el orden de las cuentas, no en el de llegada.
+    private void asignarMovimientosEnParalelo(ExecutorService executor, List<CuentaResumenDTO> cuentas,
+                                              LocalDateTime fechaInicio, LocalDateTime fechaFin)
+            throws InterruptedException, ExecutionException {
+        int grupos = Math.min(maxConexionesParalelo, cuentas.size());
+        CompletionService<Map<Long, List<MovimientoDetalleDTO>>> completadas = new ExecutorCompletionService<>(executor);
+        for (int grupo = 0; grupo < grupos; grupo++) {
+            List<Long> cuentaIds = cuentas.subList(cuentas.size() * grupo / grupos, cuentas.size() * (grupo + 1) / grupos)
+                    .stream()
+                    .map(CuentaResumenDTO::getCuentaId)
+                    .collect(Collectors.toList());
+            completadas.submit(() -> leerMovimientosDeCuentas(cuentaIds, fechaInicio, fechaFin));
+        }
+
+        // En orden de llegada para cortar apenas falle uno
+        Map<Long, List<MovimientoDetalleDTO>> movimientosPorCuenta = new HashMap<>();
+        for (int i = 0; i < grupos; i++) {
+            movimientosPorCuenta.putAll(completadas.take().get());
+        }
+        cuentas.forEach(cuenta -> cuenta.setMovimientos(
+                movimientosPorCuenta.getOrDefault(cuenta.getCuentaId(), new ArrayList<>())));
+    }
+
+    private Map<Long, List<MovimientoDetalleDTO>> leerMovimientosDeCuentas(List<Long> cuentaIds, LocalDateTime fechaInicio,
+                                                                          LocalDateTime fechaFin) throws InterruptedException {
+        conexionesParalelo.acquire();
+        try {
+            List<MovimientoDetalleDTO> movimientos = lectura.execute(status -> customMovimientoRepository
+                    .findDetallesByCuentasAndFechaRange(cuentaIds, fechaInicio, fechaFin));
+            return movimientos.stream().collect(Collectors.groupingBy(MovimientoDetalleDTO::getCuentaId));
+        } finally {
+            conexionesParalelo.release();
+        }
+    }
+
+    // El mismo reporte escrito a medida que se lee: en memoria solo quedan las cuentas del cliente; los
+    // movimientos salen de un cursor hacia adelante ordenado por cuenta y el saldo total se suma al escribir.
+    // Un rango sin movimientos no es error: las cuentas salen con la lista de movimientos vacía.
+    public BigDecimal escribirReporteEstadoCuenta(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin,
+                                                  OutputStream salida, Formato formato) {
+        try {
+            logger.info("Escribiendo reporte de estado de cuenta en {} para cliente: {} entre {} y {}",
+                        formato, clienteId, fechaInicio, fechaFin);
+
+            validarFechas(fechaInicio, fechaFin);
+
+            // Antes de escribir nada, para que la falta de cuentas todavía pueda responderse con 404
+            List<CuentaResumenDTO> cuentas = cuentaRepository.findResumenesByClienteIdAndEstado(clienteId, "ACTIVA");
+            if (cuentas.isEmpty()) {
+                logger.warn("No se encontraron cuentas activas para el cliente: {}", clienteId);
+                throw CuentasNoEncontradasException.paraCliente(clienteId);
+            }
+
+            EscritorReporte escritor = formato == Formato.CSV
+                    ? new EscritorReporteCsv(salida)
+                    : new EscritorReporteJson(objectMapper, salida);
+            BigDecimal saldoTotal = BigDecimal.ZERO;
+            long totalMovimientos = 0;
+
+            try (Stream<Object[]> filas = customMovimientoRepository.streamFilasReporte(
+                    clienteId, fechaInicio.atStartOfDay(), fechaFin.atTime(LocalTime.MAX), fetchSize)) {
+                Iterator<Object[]> iterador = filas.iterator();
+                Object[] fila = iterador.hasNext() ? iterador.next() : null;
+
+                escritor.iniciar(clienteId, fechaInicio, fechaFin);
+                for (CuentaResumenDTO cuenta : cuentas) {
+                    escritor.iniciarCuenta(cuenta);
+                    // Las filas vienen en el mismo orden de cuenta; se saltan las de una cuenta que no está en la lista
+                    while (fila != null && (Long) fila[0] <= cuenta.getCuentaId()) {
+                        if (cuenta.getCuentaId().equals(fila[0])) {
+                            escritor.escribirMovimiento((Long) fila[1], (LocalDateTime) fila[2], (String) fila[3],
+                                                        (BigDecimal) fila[4], (BigDecimal) fila[5]);
+                            if (++totalMovimientos % fetchSize == 0) {
+                                escritor.flush();
+                                // Un job cancelado entre bloques: la consulta ya no está en curso para cancelarla
+                                if (Thread.currentThread().isInterrupted()) {
+                                    throw new InterruptedException();
+                                }
+                            }
+                        }
+                        fila = iterador.hasNext() ? iterador.next() : null;
+                    }
+                    escritor.terminarCuenta();
+                    saldoTotal = saldoTotal.add(cuenta.getSaldoActual());
+                }
+                escritor.terminar(saldoTotal);
+            }
+
+            logger.info("Reporte escrito para cliente: {}. Total cuentas: {}, movimientos: {}, saldo total: {}",
+                        clienteId, cuentas.size(), totalMovimientos, saldoTotal);
+            return saldoTotal;
+
+        } catch (IOException e) {
+            // El cliente cerró la conexión o falló la escritura: se corta la lectura y se libera el cursor
+            throw new UncheckedIOException("Error al escribir el reporte", e);
+        } catch (FechaInvalidaException | CuentasNoEncontradasException | UncheckedIOException e) {
             throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Escritura del reporte cancelada para cliente: {}", clienteId);
+            throw new CancellationException("La generación del reporte fue cancelada");
         } catch (Exception e) {
-            logger.error("Error al convertir cuenta a DTO: {}", cuenta.getCuentaId(), e);
-            return new CuentaResumenDTO(
-                cuenta.getCuentaId(),
-                cuenta.getNumeroCuenta(),
-                cuenta.getTipoCuenta(),
-                cuenta.getEstado(),
-                cuenta.getSaldoInicial()
-            );
-        }
-    }
-
-    private MovimientoDetalleDTO convertirMovimientoADTO(Movimiento movimiento) {
-        return new MovimientoDetalleDTO(
-            movimiento.getMovimientoId(),
-            movimiento.getFecha(),
-            movimiento.getTipoMovimiento(),
-            movimiento.getValor(),
-            movimiento.getTipoMovimiento().equals("DEBITO") ? 
-            "Debito de $" + movimiento.getValor() : "Crédito de $" + movimiento.getValor(),
-            movimiento.getSaldo()
-        );
-    }
-
-    private void validarFechas(LocalDate fechaInicio, LocalDate fechaFin) {
+            logger.error("Error al escribir reporte de estado de cuenta para cliente: {}", clienteId, e);
+            throw new RuntimeException("Error al generar el reporte: " + e.getMessage());
+        }
+    }
+
+    // Saldos y totales del período por cuenta desde SALDO_DIARIO: tres consultas (cuentas, totales del rango y
+    // último cierre hasta fechaFin) sin importar la longitud del rango. El saldo de apertura es el cierre menos
+    // lo movido en el período. Requiere SALDO_DIARIO al día (banco.reportes.saldo-diario.enabled y su backfill).
+    public EstadoCuentaResumenDTO generarResumenEstadoCuenta(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin) {
+        try {
+            logger.info("Generando resumen de estado de cuenta para cliente: {} entre {} y {}",
+                        clienteId, fechaInicio, fechaFin);
+
+            validarFechas(fechaInicio, fechaFin, aniosMaximosResumen);
+
+            List<Cuenta> cuentas = cuentaRepository.findByClienteIdAndEstado(clienteId, "ACTIVA");
+            if (cuentas.isEmpty()) {
+                logger.warn("No se encontraron cuentas activas para el cliente: {}", clienteId);
+                throw CuentasNoEncontradasException.paraCliente(clienteId);
+            }
+
+            List<Long> cuentaIds = cuentas.stream().map(Cuenta::getCuentaId).collect(Collectors.toList());
+
+            Map<Long, Object[]> totalesPorCuenta = new HashMap<>();
+            for (Object[] fila : saldoDiarioRepository.sumarPorCuentaEnRango(cuentaIds, fechaInicio, fechaFin)) {
+                totalesPorCuenta.put((Long) fila[0], fila);
+            }
+
+            Map<Long, BigDecimal> cierres = new HashMap<>();
+            for (Object[] fila : saldoDiarioRepository.findSaldosCierreHasta(cuentaIds, fechaFin)) {
+                cierres.put((Long) fila[0], (BigDecimal) fila[1]);
+            }
+
+            List<CuentaPeriodoDTO> cuentasDTO = cuentas.stream()
+                    .map(cuenta -> {
+                        Object[] totales = totalesPorCuenta.get(cuenta.getCuentaId());
+                        BigDecimal creditos = totales != null ? (BigDecimal) totales[1] : BigDecimal.ZERO;
+                        BigDecimal debitos = totales != null ? (BigDecimal) totales[2] : BigDecimal.ZERO;
+                        long cantidad = totales != null ? ((Number) totales[3]).longValue() : 0;
+                        BigDecimal saldoCierre = cierres.getOrDefault(cuenta.getCuentaId(), BigDecimal.ZERO);
+
+                        return new CuentaPeriodoDTO(cuenta.getCuentaId(), cuenta.getNumeroCuenta(),
+                                cuenta.getTipoCuenta(), cuenta.getEstado(),
+                                saldoCierre.subtract(creditos).add(debitos), saldoCierre,
+                                creditos, debitos, cantidad);
+                    })
+                    .collect(Collectors.toList());
+
+            EstadoCuentaResumenDTO resumen = new EstadoCuentaResumenDTO(clienteId, fechaInicio, fechaFin, cuentasDTO);
+
+            logger.info("Resumen generado exitosamente para cliente: {}. Total cuentas: {}, Saldo de cierre: {}",
+                        clienteId, cuentasDTO.size(), resumen.getSaldoCierre());
+
+            return resumen;
+
+        } catch (FechaInvalidaException | CuentasNoEncontradasException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error al generar resumen de estado de cuenta para cliente: {}", clienteId, e);
+            throw new RuntimeException("Error al generar el resumen: " + e.getMessage());
+        }
+    }
+
+    // Detalle del resumen: solo la página de movimientos de la cuenta que se abre
+    public MovimientoPaginaDTO obtenerDetalleMovimientos(Long clienteId, Long cuentaId, LocalDate fechaInicio,
+                                                         LocalDate fechaFin, String cursor, Integer tamano) {
+        try {
+            validarFechas(fechaInicio, fechaFin, aniosMaximosResumen);
+
+            CuentaMetadatos cuenta = cuentaCache.obtenerPorId(cuentaId);
+            if (!clienteId.equals(cuenta.clienteId())) {
+                throw CuentasNoEncontradasException.cuentaEspecifica(cuentaId);
+            }
+
+            return movimientoService.obtenerPaginaPorCuentaEnRango(cuentaId, fechaInicio.atStartOfDay(),
+                    fechaFin.atTime(LocalTime.MAX), cursor, tamano);
+
+        } catch (FechaInvalidaException | CuentasNoEncontradasException | CuentaNotFoundException
+                | MovimientoInvalidoException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error al obtener detalle de movimientos de la cuenta ID: {} del cliente: {}", cuentaId, clienteId, e);
+            throw new RuntimeException("Error al obtener el detalle de movimientos: " + e.getMessage());
+        }
+    }
+
+    public void validarFechas(LocalDate fechaInicio, LocalDate fechaFin) {
+        validarFechas(fechaInicio, fechaFin, 1);
+    }
+
+    // GET /api/reportes/{clienteId} arma el reporte en memoria y ocupa una conexión mientras se genera
+    public void validarRangoSincrono(LocalDate fechaInicio, LocalDate fechaFin) {
+        validarFechas(fechaInicio, fechaFin);
+        if (ChronoUnit.DAYS.between(fechaInicio, fechaFin) >= diasMaximosSincrono) {
+            throw FechaInvalidaException.rangoSincronoExcesivo(diasMaximosSincrono);
+        }
+    }
+
+    private void validarFechas(LocalDate fechaInicio, LocalDate fechaFin, int aniosMaximos) {
         if (fechaInicio == null || fechaFin == null) {
             throw FechaInvalidaException.fechasNulas();
         }
@@ -154,8 +434,8 @@ public class ReporteService {
             throw FechaInvalidaException.fechaInicioPosterior();
         }
 
-        if (fechaInicio.plusYears(1).isBefore(fechaFin)) {
-            throw FechaInvalidaException.rangoExcesivo();
+        if (fechaInicio.plusYears(aniosMaximos).isBefore(fechaFin)) {
+            throw aniosMaximos == 1 ? FechaInvalidaException.rangoExcesivo() : FechaInvalidaException.rangoExcesivo(aniosMaximos);
         }
 
         LocalDate hoy = LocalDate.now();
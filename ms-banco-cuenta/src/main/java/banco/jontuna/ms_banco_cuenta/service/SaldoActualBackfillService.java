@@ -0,0 +1,87 @@
+package banco.jontuna.ms_banco_cuenta.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import banco.jontuna.ms_banco_cuenta.model.Cuenta;
+import banco.jontuna.ms_banco_cuenta.repository.CuentaRepository;
+import banco.jontuna.ms_banco_cuenta.repository.MovimientoRepository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// Proceso único para poblar SaldoActual/UltimoMovimientoId en cuentas creadas antes de que existieran.
+// Se activa con banco.saldo.backfill.enabled=true y procesa las cuentas por lotes, un lote por transacción.
+@Service
+@ConditionalOnProperty(name = "banco.saldo.backfill.enabled", havingValue = "true")
+public class SaldoActualBackfillService implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SaldoActualBackfillService.class);
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private MovimientoRepository movimientoRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${banco.saldo.backfill.tamano-lote:500}")
+    private int tamanoLote;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        ejecutarBackfill();
+    }
+
+    public long ejecutarBackfill() {
+        logger.info("Iniciando backfill de saldo actual en lotes de {} cuentas", tamanoLote);
+
+        long cuentasProcesadas = 0;
+        Long ultimoCuentaId = 0L;
+        List<Long> cuentaIds;
+
+        do {
+            cuentaIds = cuentaRepository.findCuentaIdsDesde(ultimoCuentaId, Limit.of(tamanoLote));
+            if (cuentaIds.isEmpty()) {
+                break;
+            }
+
+            List<Long> lote = cuentaIds;
+            transactionTemplate.executeWithoutResult(status -> lote.forEach(this::recalcularSaldo));
+
+            cuentasProcesadas += cuentaIds.size();
+            ultimoCuentaId = cuentaIds.get(cuentaIds.size() - 1);
+            logger.info("Backfill de saldo actual: {} cuentas procesadas (última cuenta ID: {})",
+                        cuentasProcesadas, ultimoCuentaId);
+        } while (cuentaIds.size() == tamanoLote);
+
+        logger.info("Backfill de saldo actual finalizado. Total cuentas: {}", cuentasProcesadas);
+        return cuentasProcesadas;
+    }
+
+    private void recalcularSaldo(Long cuentaId) {
+        cuentaRepository.findByIdForUpdate(cuentaId)
+            // Con slots de saldo el último movimiento no determina SaldoActual (parte del saldo vive en SALDO_SLOT)
+            .filter(cuenta -> cuenta.getSaldoSlots() == 0)
+            .ifPresent((Cuenta cuenta) ->
+                movimientoRepository.findTopByCuentaCuentaIdOrderByFechaDesc(cuentaId)
+                        .ifPresentOrElse(ultimoMovimiento -> {
+                            cuenta.setSaldoActual(ultimoMovimiento.getSaldo());
+                            cuenta.setUltimoMovimientoId(ultimoMovimiento.getMovimientoId());
+                        }, () -> {
+                            cuenta.setSaldoActual(BigDecimal.ZERO);
+                            cuenta.setUltimoMovimientoId(null);
+                        })
+            );
+    }
+}
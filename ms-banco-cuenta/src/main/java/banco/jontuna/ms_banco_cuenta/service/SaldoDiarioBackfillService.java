@@ -0,0 +1,106 @@
+package banco.jontuna.ms_banco_cuenta.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import banco.jontuna.ms_banco_cuenta.model.SaldoDiario;
+import banco.jontuna.ms_banco_cuenta.repository.CuentaRepository;
+import banco.jontuna.ms_banco_cuenta.repository.MovimientoRepository;
+import banco.jontuna.ms_banco_cuenta.repository.SaldoDiarioRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+// Reconstruye SALDO_DIARIO desde MOVIMIENTO: para los días anteriores a activar SaldoDiarioService o
+// después de cargar movimientos por fuera del servicio. Se activa con
+// banco.reportes.saldo-diario.backfill.enabled=true y procesa las cuentas por lotes, un lote por transacción.
+@Service
+@ConditionalOnProperty(name = "banco.reportes.saldo-diario.backfill.enabled", havingValue = "true")
+public class SaldoDiarioBackfillService implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SaldoDiarioBackfillService.class);
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private MovimientoRepository movimientoRepository;
+
+    @Autowired
+    private SaldoDiarioRepository saldoDiarioRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${banco.reportes.saldo-diario.backfill.tamano-lote:100}")
+    private int tamanoLote;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        ejecutarBackfill();
+    }
+
+    public long ejecutarBackfill() {
+        logger.info("Iniciando reconstrucción de SALDO_DIARIO en lotes de {} cuentas", tamanoLote);
+
+        long cuentasProcesadas = 0;
+        Long ultimoCuentaId = 0L;
+        List<Long> cuentaIds;
+
+        do {
+            cuentaIds = cuentaRepository.findCuentaIdsDesde(ultimoCuentaId, Limit.of(tamanoLote));
+            if (cuentaIds.isEmpty()) {
+                break;
+            }
+
+            List<Long> lote = cuentaIds;
+            transactionTemplate.executeWithoutResult(status -> lote.forEach(this::reconstruir));
+
+            cuentasProcesadas += cuentaIds.size();
+            ultimoCuentaId = cuentaIds.get(cuentaIds.size() - 1);
+            logger.info("Reconstrucción de SALDO_DIARIO: {} cuentas procesadas (última cuenta ID: {})",
+                        cuentasProcesadas, ultimoCuentaId);
+        } while (cuentaIds.size() == tamanoLote);
+
+        logger.info("Reconstrucción de SALDO_DIARIO finalizada. Total cuentas: {}", cuentasProcesadas);
+        return cuentasProcesadas;
+    }
+
+    public void reconstruirCuenta(Long cuentaId) {
+        transactionTemplate.executeWithoutResult(status -> reconstruir(cuentaId));
+    }
+
+    // Con la cuenta bloqueada reemplaza sus filas (también las de slots) por los totales diarios de MOVIMIENTO en
+    // la fila base. El saldo de apertura del primer día sale del primer movimiento; el de cada día siguiente es el
+    // cierre del anterior.
+    private void reconstruir(Long cuentaId) {
+        if (cuentaRepository.findByIdForUpdate(cuentaId).isEmpty()) {
+            return;
+        }
+        saldoDiarioRepository.deleteByCuentaId(cuentaId);
+
+        BigDecimal saldo = movimientoRepository.findPrimeroPorCuenta(cuentaId)
+                .map(primero -> primero.getSaldo().subtract(SaldoDiarioService.valorConSigno(primero)))
+                .orElse(null);
+        if (saldo == null) {
+            return;
+        }
+
+        for (Object[] dia : movimientoRepository.findTotalesDiariosPorCuenta(cuentaId)) {
+            BigDecimal creditos = (BigDecimal) dia[1];
+            BigDecimal debitos = (BigDecimal) dia[2];
+            saldoDiarioRepository.acumular(cuentaId, (LocalDate) dia[0], SaldoDiario.FILA_BASE, saldo, creditos, debitos,
+                                           ((Long) dia[3]).intValue());
+            saldo = saldo.add(creditos).subtract(debitos);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package banco.jontuna.ms_banco_cuenta.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import banco.jontuna.ms_banco_cuenta.model.Movimiento;
+import banco.jontuna.ms_banco_cuenta.model.SaldoDiario;
+import banco.jontuna.ms_banco_cuenta.model.SaldoDiarioId;
+import banco.jontuna.ms_banco_cuenta.repository.SaldoDiarioRepository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Mantiene SALDO_DIARIO con cada movimiento insertado (simple, transferencia, lote, group commit o slot).
+// Los movimientos de la transacción se agrupan por cuenta, día y fila y se escriben antes del commit, con un
+// upsert por grupo en orden de cuenta: la fila queda bloqueada solo hasta ese commit. Los depósitos en slots
+// suman en la fila de su slot y no en la base, así no vuelven a serializarse en SALDO_DIARIO.
+// Se activa con banco.reportes.saldo-diario.enabled=true; los días anteriores se cargan con SaldoDiarioBackfillService.
+@Service
+@ConditionalOnProperty(name = "banco.reportes.saldo-diario.enabled", havingValue = "true")
+public class SaldoDiarioService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SaldoDiarioService.class);
+
+    private static final Comparator<SaldoDiarioId> ORDEN_FILAS = Comparator
+            .comparing(SaldoDiarioId::getCuentaId)
+            .thenComparing(SaldoDiarioId::getFecha)
+            .thenComparing(SaldoDiarioId::getSlot);
+
+    @Autowired
+    private SaldoDiarioRepository saldoDiarioRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public void registrarMovimiento(Movimiento movimiento) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            logger.warn("Movimiento de la cuenta ID: {} insertado sin transacción; SALDO_DIARIO no se actualiza",
+                        movimiento.getCuenta().getCuentaId());
+            return;
+        }
+        pendientesDeLaTransaccion(true).movimientos.add(movimiento);
+    }
+
+    // Un depósito en slot que se deshace (SaldoSlotService.depositarEnSlot) no debe contarse
+    public void quitarMovimiento(Movimiento movimiento) {
+        Pendientes pendientes = pendientesDeLaTransaccion(false);
+        if (pendientes != null) {
+            pendientes.movimientos.removeIf(registrado -> registrado == movimiento);
+        }
+    }
+
+    // Valor con el signo que tiene sobre el saldo: los retiros restan
+    static BigDecimal valorConSigno(Movimiento movimiento) {
+        return "RETIRO".equals(movimiento.getTipoMovimiento()) ? movimiento.getValor().negate() : movimiento.getValor();
+    }
+
+    private void acumular(List<Movimiento> movimientos) {
+        // Se escribe después del flush: la cuenta nueva ya existe para la FK
+        entityManager.flush();
+
+        Map<SaldoDiarioId, Acumulado> porDia = new TreeMap<>(ORDEN_FILAS);
+        for (Movimiento movimiento : movimientos) {
+            SaldoDiarioId id = new SaldoDiarioId(movimiento.getCuenta().getCuentaId(), movimiento.getFecha().toLocalDate(),
+                    movimiento.getSlotSaldo() != null ? movimiento.getSlotSaldo() + 1 : SaldoDiario.FILA_BASE);
+            // El primer movimiento del grupo (en orden de registro) da el saldo de apertura si el día es nuevo
+            porDia.computeIfAbsent(id, clave -> new Acumulado(movimiento.getSaldo().subtract(valorConSigno(movimiento))))
+                  .sumar(movimiento);
+        }
+
+        porDia.forEach((id, acumulado) -> {
+            if (id.getSlot() == SaldoDiario.FILA_BASE) {
+                saldoDiarioRepository.acumular(id.getCuentaId(), id.getFecha(), SaldoDiario.FILA_BASE,
+                        acumulado.saldoApertura, acumulado.creditos, acumulado.debitos, acumulado.cantidad);
+                return;
+            }
+            // El saldo de apertura del día va solo en la fila base: se crea si todavía no existe
+            if (!porDia.containsKey(new SaldoDiarioId(id.getCuentaId(), id.getFecha(), SaldoDiario.FILA_BASE))) {
+                saldoDiarioRepository.crearFilaBase(id.getCuentaId(), id.getFecha(), acumulado.saldoApertura);
+            }
+            saldoDiarioRepository.acumular(id.getCuentaId(), id.getFecha(), id.getSlot(),
+                    BigDecimal.ZERO, acumulado.creditos, acumulado.debitos, acumulado.cantidad);
+        });
+    }
+
+    private Pendientes pendientesDeLaTransaccion(boolean crear) {
+        // Igual que en SaldoMemoria: se busca entre las sincronizaciones para respetar las transacciones REQUIRES_NEW
+        for (TransactionSynchronization sincronizacion : TransactionSynchronizationManager.getSynchronizations()) {
+            if (sincronizacion instanceof Pendientes pendientes && pendientes.esDe(this)) {
+                return pendientes;
+            }
+        }
+        if (!crear) {
+            return null;
+        }
+        Pendientes pendientes = new Pendientes();
+        TransactionSynchronizationManager.registerSynchronization(pendientes);
+        return pendientes;
+    }
+
+    private static final class Acumulado {
+
+        private final BigDecimal saldoApertura;
+        private BigDecimal creditos = BigDecimal.ZERO;
+        private BigDecimal debitos = BigDecimal.ZERO;
+        private int cantidad;
+
+        Acumulado(BigDecimal saldoApertura) {
+            this.saldoApertura = saldoApertura;
+        }
+
+        void sumar(Movimiento movimiento) {
+            if ("RETIRO".equals(movimiento.getTipoMovimiento())) {
+                debitos = debitos.add(movimiento.getValor());
+            } else {
+                creditos = creditos.add(movimiento.getValor());
+            }
+            cantidad++;
+        }
+    }
+
+    private class Pendientes implements TransactionSynchronization {
+
+        private final List<Movimiento> movimientos = new ArrayList<>();
+
+        boolean esDe(SaldoDiarioService saldoDiarioService) {
+            return SaldoDiarioService.this == saldoDiarioService;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (!movimientos.isEmpty()) {
+                acumular(movimientos);
+            }
+        }
+    }
+}
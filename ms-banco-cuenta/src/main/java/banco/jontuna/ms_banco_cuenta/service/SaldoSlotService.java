@@ -0,0 +1,214 @@
+package banco.jontuna.ms_banco_cuenta.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ValidationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import banco.jontuna.ms_banco_cuenta.model.Cuenta;
+import banco.jontuna.ms_banco_cuenta.model.Movimiento;
+import banco.jontuna.ms_banco_cuenta.model.SaldoSlot;
+import banco.jontuna.ms_banco_cuenta.repository.CuentaRepository;
+import banco.jontuna.ms_banco_cuenta.repository.MovimientoRepository;
+import banco.jontuna.ms_banco_cuenta.repository.SaldoSlotRepository;
+import banco.jontuna.ms_banco_cuenta.util.cache.CuentaCache;
+import banco.jontuna.ms_banco_cuenta.util.concurrency.CuentaLockManager;
+import banco.jontuna.ms_banco_cuenta.util.exception.CuentaNotFoundException;
+import banco.jontuna.ms_banco_cuenta.util.validator.MovimientoValidator;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Cuentas con saldo en slots (opcional, por cuenta): los depósitos suman en uno de N slots de SALDO_SLOT
+// sin bloquear la fila de CUENTA, así no se serializan entre sí. Los retiros y cualquier otra operación que
+// bloquea la cuenta consolidan primero los slots en SaldoActual; las lecturas suman SaldoActual y los slots.
+@Service
+@Transactional
+public class SaldoSlotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SaldoSlotService.class);
+
+    @Autowired
+    private SaldoSlotRepository saldoSlotRepository;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private MovimientoRepository movimientoRepository;
+
+    @Autowired
+    private MovimientoValidator movimientoValidator;
+
+    @Autowired
+    private CuentaLockManager cuentaLockManager;
+
+    @Autowired
+    private CuentaCache cuentaCache;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${banco.cuentas.saldo-slots.max:64}")
+    private int maxSlots;
+
+    // cuentaId -> cantidad de slots. Puede estar desactualizado respecto de otra instancia:
+    // un depósito en un slot que ya no existe vuelve al registro normal con bloqueo de la cuenta.
+    private volatile Map<Long, Integer> cuentasConSlots = new ConcurrentHashMap<>();
+    // Cambia con cada ajuste confirmado en esta instancia: un refresco que se cruzó con un ajuste se descarta
+    private final AtomicLong versionAjustes = new AtomicLong();
+
+    @Transactional(readOnly = true)
+    @Scheduled(fixedDelayString = "${banco.cuentas.saldo-slots.refresco-ms:5000}")
+    public void refrescarCuentasConSlots() {
+        long version = versionAjustes.get();
+        Map<Long, Integer> cuentas = new ConcurrentHashMap<>();
+        for (Object[] fila : cuentaRepository.findCuentasConSaldoSlots()) {
+            cuentas.put((Long) fila[0], (Integer) fila[1]);
+        }
+        if (versionAjustes.get() == version) {
+            cuentasConSlots = cuentas;
+        }
+    }
+
+    public boolean tieneSlots(Long cuentaId) {
+        return cuentasConSlots.containsKey(cuentaId);
+    }
+
+    // Depósito sin bloquear la cuenta. Vacío si la cuenta ya no usa ese slot y debe registrarse por la vía normal.
+    public Optional<Movimiento> depositarEnSlot(Long cuentaId, BigDecimal valor) {
+        // El saldo se lee junto con la cuenta para que el movimiento se escriba con un solo INSERT. Es el saldo
+        // confirmado más este depósito, leído sin bloquear: aproximado, no incluye los depósitos en otros slots
+        // que aún no confirman
+        List<Object[]> filas = cuentaRepository.findConSaldoActualById(cuentaId);
+        if (filas.isEmpty()) {
+            throw new CuentaNotFoundException(cuentaId);
+        }
+        Cuenta cuenta = (Cuenta) filas.get(0)[0];
+        movimientoValidator.validarCuentaActiva(cuenta);
+        if (cuenta.getSaldoSlots() == 0) {
+            return Optional.empty();
+        }
+        BigDecimal saldo = ((BigDecimal) filas.get(0)[1]).add(valor);
+
+        // El movimiento se inserta antes de tomar el lock del slot, en el mismo orden que la vía normal
+        // (primero CUENTA, por la FK, y luego SALDO_SLOT): así un depósito en slot no puede cruzarse con
+        // una consolidación que ya bloqueó la cuenta. Tampoco pide la conexión aislada del generador de IDs
+        // mientras otros depósitos esperan ese slot con su conexión tomada.
+        Movimiento movimiento = new Movimiento("DEPOSITO", valor, saldo, cuenta);
+        int slot = ThreadLocalRandom.current().nextInt(cuenta.getSaldoSlots());
+        movimiento.setSlotSaldo(slot);
+        movimientoRepository.saveAndFlush(movimiento);
+
+        if (saldoSlotRepository.sumarSaldo(cuentaId, slot, valor) == 0) {
+            logger.info("Slot {} de la cuenta ID: {} no existe, se registra el depósito sin slots", slot, cuentaId);
+            movimientoRepository.delete(movimiento);
+            // La cuenta se leyó sin bloqueo y quien borró el slot cambió su versión: la vía normal la bloquea
+            // y valida sobre la fila actual
+            entityManager.refresh(cuenta);
+            return Optional.empty();
+        }
+        return Optional.of(movimiento);
+    }
+
+    // Con la cuenta bloqueada (FOR UPDATE) mueve lo acumulado en los slots a SaldoActual.
+    public void consolidar(Cuenta cuenta) {
+        if (cuenta.getSaldoSlots() > 0) {
+            consolidarSlots(cuenta);
+        }
+    }
+
+    public Map<Long, BigDecimal> sumarSlots(Collection<Long> cuentaIds) {
+        Map<Long, BigDecimal> sumas = new HashMap<>();
+        if (!cuentaIds.isEmpty()) {
+            for (Object[] fila : saldoSlotRepository.sumarSaldoPorCuenta(cuentaIds)) {
+                sumas.put((Long) fila[0], (BigDecimal) fila[1]);
+            }
+        }
+        return sumas;
+    }
+
+    public Cuenta ajustarSlots(Long cuentaId, int cantidad) {
+        if (cantidad < 0 || cantidad > maxSlots) {
+            throw new ValidationException("La cantidad de slots debe estar entre 0 y " + maxSlots);
+        }
+
+        cuentaLockManager.bloquearHastaFinDeTransaccion(cuentaId);
+        Cuenta cuenta = cuentaRepository.findByIdForUpdate(cuentaId)
+                .orElseThrow(() -> new CuentaNotFoundException(cuentaId));
+
+        ajustar(cuenta, cantidad);
+        logger.info("Cuenta ID: {} ahora reparte su saldo en {} slots", cuentaId, cantidad);
+        return cuenta;
+    }
+
+    // Con la cuenta bloqueada (FOR UPDATE), para una cuenta que deja de estar ACTIVA. Un depósito en slot valida
+    // el estado sin bloquear la cuenta y puede quedar esperando el lock de su slot; al borrar los slots su
+    // sumarSaldo no encuentra la fila y el depósito vuelve a la vía normal, que rechaza la cuenta no activa.
+    public void quitarSlots(Cuenta cuenta) {
+        if (cuenta.getSaldoSlots() > 0) {
+            ajustar(cuenta, 0);
+            logger.info("Cuenta ID: {} deja de repartir su saldo en slots", cuenta.getCuentaId());
+        }
+    }
+
+    private void ajustar(Cuenta cuenta, int cantidad) {
+        Long cuentaId = cuenta.getCuentaId();
+        List<SaldoSlot> existentes = consolidarSlots(cuenta);
+        for (SaldoSlot saldoSlot : existentes) {
+            if (saldoSlot.getSlot() >= cantidad) {
+                saldoSlotRepository.delete(saldoSlot);
+            }
+        }
+        for (int slot = existentes.size(); slot < cantidad; slot++) {
+            saldoSlotRepository.save(new SaldoSlot(cuentaId, slot));
+        }
+        cuenta.setSaldoSlots(cantidad);
+        cuentaCache.invalidar(cuenta);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                if (cantidad > 0) {
+                    cuentasConSlots.put(cuentaId, cantidad);
+                } else {
+                    cuentasConSlots.remove(cuentaId);
+                }
+                versionAjustes.incrementAndGet();
+            }
+        });
+    }
+
+    private List<SaldoSlot> consolidarSlots(Cuenta cuenta) {
+        List<SaldoSlot> slots = saldoSlotRepository.findByCuentaIdForUpdate(cuenta.getCuentaId());
+
+        BigDecimal acumulado = BigDecimal.ZERO;
+        for (SaldoSlot saldoSlot : slots) {
+            if (saldoSlot.getSaldo().signum() != 0) {
+                acumulado = acumulado.add(saldoSlot.getSaldo());
+                saldoSlot.setSaldo(BigDecimal.ZERO);
+            }
+        }
+
+        if (acumulado.signum() != 0) {
+            cuenta.setSaldoActual(cuenta.getSaldoActual().add(acumulado));
+            logger.debug("Consolidados {} de {} slots en la cuenta ID: {}", acumulado, slots.size(), cuenta.getCuentaId());
+        }
+        return slots;
+    }
+}
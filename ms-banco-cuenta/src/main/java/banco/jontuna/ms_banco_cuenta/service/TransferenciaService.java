@@ -0,0 +1,132 @@
+package banco.jontuna.ms_banco_cuenta.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import banco.jontuna.ms_banco_cuenta.dto.TransferenciaRequestDTO;
+import banco.jontuna.ms_banco_cuenta.dto.TransferenciaResponseDTO;
+import banco.jontuna.ms_banco_cuenta.model.Cuenta;
+import banco.jontuna.ms_banco_cuenta.model.Movimiento;
+import banco.jontuna.ms_banco_cuenta.repository.CuentaRepository;
+import banco.jontuna.ms_banco_cuenta.repository.MovimientoRepository;
+import banco.jontuna.ms_banco_cuenta.util.concurrency.CuentaLockManager;
+import banco.jontuna.ms_banco_cuenta.util.exception.CuentaInactivaException;
+import banco.jontuna.ms_banco_cuenta.util.exception.CuentaNotFoundException;
+import banco.jontuna.ms_banco_cuenta.util.exception.CuentaOcupadaException;
+import banco.jontuna.ms_banco_cuenta.util.exception.MovimientoInvalidoException;
+import banco.jontuna.ms_banco_cuenta.util.exception.SaldoInsuficienteException;
+import banco.jontuna.ms_banco_cuenta.util.mapper.MovimientoMapper;
+import banco.jontuna.ms_banco_cuenta.util.validator.MovimientoValidator;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Transferencia entre dos cuentas en una sola transacción: débito y crédito se confirman juntos.
+// Los locks (stripes en memoria y filas con FOR UPDATE) se toman en orden ascendente de cuentaId,
+// así dos transferencias en sentidos opuestos sobre el mismo par de cuentas nunca se bloquean mutuamente.
+@Service
+@Transactional
+public class TransferenciaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransferenciaService.class);
+
+    @Autowired
+    private MovimientoRepository movimientoRepository;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private MovimientoMapper movimientoMapper;
+
+    @Autowired
+    private MovimientoValidator movimientoValidator;
+
+    @Autowired
+    private CuentaLockManager cuentaLockManager;
+
+    @Autowired
+    private SaldoSlotService saldoSlotService;
+
+    public TransferenciaResponseDTO transferir(TransferenciaRequestDTO transferenciaRequest) {
+        Long origenId = transferenciaRequest.getCuentaOrigenId();
+        Long destinoId = transferenciaRequest.getCuentaDestinoId();
+        BigDecimal valor = transferenciaRequest.getValor();
+
+        try {
+            logger.info("Registrando transferencia de cuenta ID: {} a cuenta ID: {} - Valor: {}",
+                    origenId, destinoId, valor);
+
+            validarTransferencia(origenId, destinoId, valor);
+
+            cuentaLockManager.bloquearHastaFinDeTransaccion(List.of(origenId, destinoId));
+            Map<Long, Cuenta> cuentas = bloquearCuentasEnOrden(origenId, destinoId);
+            Cuenta origen = cuentas.get(origenId);
+            Cuenta destino = cuentas.get(destinoId);
+
+            movimientoValidator.validarRetiro(origen.getSaldoActual(), valor);
+
+            String transferenciaId = UUID.randomUUID().toString();
+            Movimiento debito = crearMovimiento("RETIRO", valor, origen, transferenciaId);
+            Movimiento credito = crearMovimiento("DEPOSITO", valor, destino, transferenciaId);
+            movimientoRepository.saveAll(List.of(debito, credito));
+            actualizarSaldoCuenta(origen, debito);
+            actualizarSaldoCuenta(destino, credito);
+
+            logger.info("Transferencia {} registrada exitosamente. Cuenta ID: {} saldo {}, cuenta ID: {} saldo {}",
+                        transferenciaId, origenId, debito.getSaldo(), destinoId, credito.getSaldo());
+
+            return new TransferenciaResponseDTO(transferenciaId, debito.getFecha(), valor,
+                    movimientoMapper.toResponseDTO(debito), movimientoMapper.toResponseDTO(credito));
+
+        } catch (CuentaNotFoundException | SaldoInsuficienteException |
+                CuentaInactivaException | MovimientoInvalidoException | CuentaOcupadaException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error al registrar transferencia de cuenta ID: {} a cuenta ID: {}", origenId, destinoId, e);
+            throw new RuntimeException("Error al registrar la transferencia: " + e.getMessage());
+        }
+    }
+
+    private void validarTransferencia(Long origenId, Long destinoId, BigDecimal valor) {
+        movimientoValidator.validarValor(valor);
+
+        if (valor.signum() < 0) {
+            throw new MovimientoInvalidoException("El valor de la transferencia debe ser mayor a 0");
+        }
+
+        if (origenId.equals(destinoId)) {
+            throw new MovimientoInvalidoException("La cuenta de origen y de destino deben ser distintas");
+        }
+    }
+
+    private Map<Long, Cuenta> bloquearCuentasEnOrden(Long origenId, Long destinoId) {
+        Map<Long, Cuenta> cuentas = new HashMap<>();
+        for (Long cuentaId : List.of(Math.min(origenId, destinoId), Math.max(origenId, destinoId))) {
+            Cuenta cuenta = cuentaRepository.findByIdForUpdate(cuentaId)
+                    .orElseThrow(() -> new CuentaNotFoundException(cuentaId));
+            movimientoValidator.validarCuentaActiva(cuenta);
+            saldoSlotService.consolidar(cuenta);
+            cuentas.put(cuentaId, cuenta);
+        }
+        return cuentas;
+    }
+
+    private Movimiento crearMovimiento(String tipoMovimiento, BigDecimal valor, Cuenta cuenta, String transferenciaId) {
+        BigDecimal nuevoSaldo = movimientoValidator.calcularNuevoSaldo(tipoMovimiento, cuenta.getSaldoActual(), valor);
+        Movimiento movimiento = new Movimiento(tipoMovimiento, valor, nuevoSaldo, cuenta);
+        movimiento.setTransferenciaId(transferenciaId);
+        return movimiento;
+    }
+
+    private void actualizarSaldoCuenta(Cuenta cuenta, Movimiento movimiento) {
+        cuenta.setSaldoActual(movimiento.getSaldo());
+        cuenta.setUltimoMovimientoId(movimiento.getMovimientoId());
+    }
+}
@@ -0,0 +1,91 @@
+package banco.jontuna.ms_banco_cuenta.util.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import banco.jontuna.ms_banco_cuenta.model.Cuenta;
+import banco.jontuna.ms_banco_cuenta.repository.CuentaRepository;
+import banco.jontuna.ms_banco_cuenta.util.exception.CuentaNotFoundException;
+
+import java.time.Duration;
+
+// Caché en memoria de los metadatos de cuenta, por cuentaId y por numeroCuenta, acotada por tamaño y TTL.
+// La carga es atómica por clave: una invalidación que llega mientras se carga espera a que termine y la
+// descarta, así una lectura anterior al cambio no queda guardada después de invalidar.
+// Es solo para lecturas y rechazos tempranos: los movimientos validan siempre el estado sobre la fila bloqueada.
+@Component
+public class CuentaCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(CuentaCache.class);
+
+    private final CuentaRepository cuentaRepository;
+    private final Cache<Long, CuentaMetadatos> porId;
+    // El número de una cuenta no cambia: solo se guarda el cuentaId y los datos se leen de porId
+    private final Cache<String, Long> porNumero;
+
+    public CuentaCache(CuentaRepository cuentaRepository,
+                       MeterRegistry meterRegistry,
+                       @Value("${banco.cuentas.cache.max-entradas:10000}") long maxEntradas,
+                       @Value("${banco.cuentas.cache.ttl-segundos:60}") long ttlSegundos) {
+        this.cuentaRepository = cuentaRepository;
+        this.porId = Caffeine.newBuilder()
+                .maximumSize(maxEntradas)
+                .expireAfterWrite(Duration.ofSeconds(ttlSegundos))
+                .recordStats()
+                .build();
+        this.porNumero = Caffeine.newBuilder()
+                .maximumSize(maxEntradas)
+                .expireAfterWrite(Duration.ofSeconds(ttlSegundos))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, porId, "cuentas-por-id");
+        CaffeineCacheMetrics.monitor(meterRegistry, porNumero, "cuentas-por-numero");
+        logger.info("CuentaCache inicializada con {} entradas como máximo y TTL de {} s", maxEntradas, ttlSegundos);
+    }
+
+    public CuentaMetadatos obtenerPorId(Long cuentaId) {
+        CuentaMetadatos metadatos = porId.get(cuentaId, id -> cuentaRepository.findMetadatosById(id).orElse(null));
+        if (metadatos == null) {
+            throw new CuentaNotFoundException(cuentaId);
+        }
+        return metadatos;
+    }
+
+    public CuentaMetadatos obtenerPorNumero(String numeroCuenta) {
+        Long cuentaId = porNumero.get(numeroCuenta, numero -> cuentaRepository.findCuentaIdByNumeroCuenta(numero).orElse(null));
+        if (cuentaId == null) {
+            throw new CuentaNotFoundException(numeroCuenta, true);
+        }
+        return obtenerPorId(cuentaId);
+    }
+
+    // Se llama al modificar la cuenta: invalida ya y otra vez al terminar la transacción, para descartar
+    // lo que otro hilo haya cargado con el estado anterior mientras el cambio no estaba confirmado
+    public void invalidar(Cuenta cuenta) {
+        invalidarAhora(cuenta.getCuentaId(), cuenta.getNumeroCuenta());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            Long cuentaId = cuenta.getCuentaId();
+            String numeroCuenta = cuenta.getNumeroCuenta();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidarAhora(cuentaId, numeroCuenta);
+                }
+            });
+        }
+    }
+
+    private void invalidarAhora(Long cuentaId, String numeroCuenta) {
+        porId.invalidate(cuentaId);
+        porNumero.invalidate(numeroCuenta);
+    }
+}
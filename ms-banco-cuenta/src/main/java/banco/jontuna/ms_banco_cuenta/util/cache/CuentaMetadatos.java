@@ -0,0 +1,12 @@
+package banco.jontuna.ms_banco_cuenta.util.cache;
+
+import java.math.BigDecimal;
+
+// Copia inmutable de los datos de una cuenta que casi nunca cambian (sin SaldoActual, que cambia con cada movimiento)
+public record CuentaMetadatos(Long cuentaId, String numeroCuenta, String tipoCuenta, BigDecimal saldoInicial,
+                              String estado, Long clienteId, int saldoSlots, Long version) {
+
+    public boolean activa() {
+        return "ACTIVA".equals(estado);
+    }
+}
@@ -0,0 +1,142 @@
+package banco.jontuna.ms_banco_cuenta.util.cache;
+
+// Mapa long -> long con direccionamiento abierto (sondeo lineal) sobre dos arreglos primitivos:
+// 16 bytes por posición, sin objetos Long/BigDecimal ni nodos por entrada.
+// La clave 0 marca una posición vacía, por eso no se admite como cuentaId.
+// No es thread-safe: SaldoMemoria lo protege por segmento.
+final class MapaSaldos {
+
+    static final long SIN_VALOR = Long.MIN_VALUE;
+
+    private static final int CAPACIDAD_MAXIMA = 1 << 30;
+
+    private long[] claves;
+    private long[] valores;
+    private int tamano;
+    private int umbral;
+
+    MapaSaldos(int capacidadInicial) {
+        int capacidad = Integer.highestOneBit(Math.max(capacidadInicial, 8) - 1) << 1;
+        asignar(Math.min(capacidad, CAPACIDAD_MAXIMA));
+    }
+
+    static long mezclar(long clave) {
+        return clave * 0x9E3779B97F4A7C15L;
+    }
+
+    // Tolera modificaciones concurrentes (lecturas optimistas de StampedLock): usa una sola copia de cada
+    // arreglo, acota el sondeo y el resultado solo vale si el stamp sigue siendo válido al terminar
+    long obtener(long clave) {
+        long[] c = claves;
+        long[] v = valores;
+        if (c.length != v.length) {
+            return SIN_VALOR;
+        }
+        int mascara = c.length - 1;
+        int i = indice(clave, mascara);
+        for (int sondeos = 0; sondeos < c.length; sondeos++) {
+            long actual = c[i];
+            if (actual == clave) {
+                return v[i];
+            }
+            if (actual == 0) {
+                return SIN_VALOR;
+            }
+            i = (i + 1) & mascara;
+        }
+        return SIN_VALOR;
+    }
+
+    void poner(long clave, long valor) {
+        if (clave == 0) {
+            throw new IllegalArgumentException("La clave 0 está reservada");
+        }
+        int mascara = claves.length - 1;
+        int i = indice(clave, mascara);
+        while (claves[i] != 0) {
+            if (claves[i] == clave) {
+                valores[i] = valor;
+                return;
+            }
+            i = (i + 1) & mascara;
+        }
+        claves[i] = clave;
+        valores[i] = valor;
+        if (++tamano > umbral) {
+            redimensionar();
+        }
+    }
+
+    // Borrado con desplazamiento hacia atrás: no deja marcas de borrado que alarguen los sondeos
+    boolean eliminar(long clave) {
+        int mascara = claves.length - 1;
+        int i = indice(clave, mascara);
+        while (claves[i] != clave) {
+            if (claves[i] == 0) {
+                return false;
+            }
+            i = (i + 1) & mascara;
+        }
+
+        int j = i;
+        while (true) {
+            j = (j + 1) & mascara;
+            if (claves[j] == 0) {
+                break;
+            }
+            int ideal = indice(claves[j], mascara);
+            boolean enSuTramo = i <= j ? (i < ideal && ideal <= j) : (i < ideal || ideal <= j);
+            if (!enSuTramo) {
+                claves[i] = claves[j];
+                valores[i] = valores[j];
+                i = j;
+            }
+        }
+        claves[i] = 0;
+        valores[i] = 0;
+        tamano--;
+        return true;
+    }
+
+    void limpiar() {
+        asignar(claves.length);
+    }
+
+    int tamano() {
+        return tamano;
+    }
+
+    int capacidad() {
+        return claves.length;
+    }
+
+    long bytesReservados() {
+        return 2L * Long.BYTES * claves.length;
+    }
+
+    private void redimensionar() {
+        if (claves.length == CAPACIDAD_MAXIMA) {
+            throw new IllegalStateException("MapaSaldos alcanzó la capacidad máxima de " + CAPACIDAD_MAXIMA);
+        }
+        long[] clavesAnteriores = claves;
+        long[] valoresAnteriores = valores;
+        asignar(clavesAnteriores.length << 1);
+        for (int i = 0; i < clavesAnteriores.length; i++) {
+            if (clavesAnteriores[i] != 0) {
+                poner(clavesAnteriores[i], valoresAnteriores[i]);
+            }
+        }
+    }
+
+    private void asignar(int capacidad) {
+        valores = new long[capacidad];
+        claves = new long[capacidad];
+        tamano = 0;
+        umbral = capacidad / 4 * 3;
+    }
+
+    private static int indice(long clave, int mascara) {
+        long h = mezclar(clave);
+        return (int) (h ^ (h >>> 32)) & mascara;
+    }
+}
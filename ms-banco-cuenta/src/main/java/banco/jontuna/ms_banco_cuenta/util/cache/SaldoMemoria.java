@@ -0,0 +1,373 @@
+package banco.jontuna.ms_banco_cuenta.util.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import banco.jontuna.ms_banco_cuenta.model.Cuenta;
+import banco.jontuna.ms_banco_cuenta.model.Movimiento;
+import banco.jontuna.ms_banco_cuenta.repository.CuentaRepository;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.StampedLock;
+
+import static banco.jontuna.ms_banco_cuenta.util.cache.MapaSaldos.SIN_VALOR;
+
+// Saldo de cada cuenta en centavos (long cuentaId -> long) sobre arreglos primitivos, para consultarSaldo y
+// el rechazo temprano de retiros. Se escribe al confirmar cada transacción que inserta movimientos, se carga
+// bajo demanda en un fallo y se precarga al arrancar. Los cambios que no pasan por esta instancia no se ven:
+// activarlo solo con una única instancia que registre movimientos (banco.saldos.memoria.enabled=true).
+@Component
+@ConditionalOnProperty(name = "banco.saldos.memoria.enabled", havingValue = "true")
+public class SaldoMemoria {
+
+    private static final Logger logger = LoggerFactory.getLogger(SaldoMemoria.class);
+
+    private final CuentaRepository cuentaRepository;
+    private final Segmento[] segmentos;
+    private final int tamanoLotePrecarga;
+    private final Counter aciertos;
+    private final Counter fallos;
+
+    public SaldoMemoria(CuentaRepository cuentaRepository,
+                        MeterRegistry meterRegistry,
+                        @Value("${banco.saldos.memoria.segmentos:64}") int cantidadSegmentos,
+                        @Value("${banco.saldos.memoria.capacidad-inicial:1024}") int capacidadInicial,
+                        @Value("${banco.saldos.memoria.precarga.tamano-lote:1000}") int tamanoLotePrecarga) {
+        this.cuentaRepository = cuentaRepository;
+        this.tamanoLotePrecarga = tamanoLotePrecarga;
+
+        int cantidad = Integer.highestOneBit(Math.max(cantidadSegmentos, 2) - 1) << 1;
+        this.segmentos = new Segmento[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            segmentos[i] = new Segmento(Math.max(capacidadInicial / cantidad, 8));
+        }
+
+        Gauge.builder("banco.saldos.memoria.cuentas", this, SaldoMemoria::cantidadCuentas)
+                .description("Cuentas con saldo en memoria")
+                .register(meterRegistry);
+        Gauge.builder("banco.saldos.memoria.bytes", this, SaldoMemoria::bytesReservados)
+                .description("Bytes reservados por los arreglos de saldos en memoria")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.aciertos = Counter.builder("banco.saldos.memoria.consultas")
+                .description("Consultas de saldo resueltas en memoria o que tuvieron que ir a la base")
+                .tag("resultado", "acierto")
+                .register(meterRegistry);
+        this.fallos = Counter.builder("banco.saldos.memoria.consultas")
+                .description("Consultas de saldo resueltas en memoria o que tuvieron que ir a la base")
+                .tag("resultado", "fallo")
+                .register(meterRegistry);
+        logger.info("SaldoMemoria inicializada con {} segmentos", cantidad);
+    }
+
+    // Saldo exacto (incluye slots): en un fallo se lee de la base y se guarda si nadie lo cambió mientras tanto
+    public Optional<BigDecimal> obtenerSaldo(Long cuentaId) {
+        Segmento segmento = segmento(cuentaId);
+        long centavos = segmento.obtener(cuentaId);
+        if (centavos != SIN_VALOR) {
+            aciertos.increment();
+            return Optional.of(BigDecimal.valueOf(centavos, 2));
+        }
+
+        fallos.increment();
+        long version = segmento.version();
+        Optional<BigDecimal> saldo = cuentaRepository.findSaldoActualByCuentaId(cuentaId);
+        saldo.ifPresent(valor -> {
+            long leidos = aCentavos(valor);
+            if (leidos != SIN_VALOR) {
+                segmento.ponerSiNoCambio(cuentaId, leidos, version);
+            }
+        });
+        return saldo;
+    }
+
+    // Varias cuentas: las que faltan en memoria se leen juntas con una sola consulta
+    public Map<Long, BigDecimal> obtenerSaldos(Collection<Long> cuentaIds) {
+        Map<Long, BigDecimal> saldos = new HashMap<>();
+        List<Long> faltantes = new ArrayList<>();
+        for (Long cuentaId : cuentaIds) {
+            long centavos = segmento(cuentaId).obtener(cuentaId);
+            if (centavos != SIN_VALOR) {
+                saldos.put(cuentaId, BigDecimal.valueOf(centavos, 2));
+            } else {
+                faltantes.add(cuentaId);
+            }
+        }
+        aciertos.increment(saldos.size());
+        if (faltantes.isEmpty()) {
+            return saldos;
+        }
+
+        fallos.increment(faltantes.size());
+        long[] versiones = new long[faltantes.size()];
+        for (int i = 0; i < versiones.length; i++) {
+            versiones[i] = segmento(faltantes.get(i)).version();
+        }
+        Map<Long, BigDecimal> leidos = new HashMap<>();
+        for (Object[] fila : cuentaRepository.findSaldosActualesByCuentaIds(faltantes)) {
+            leidos.put((Long) fila[0], (BigDecimal) fila[1]);
+        }
+        for (int i = 0; i < versiones.length; i++) {
+            Long cuentaId = faltantes.get(i);
+            BigDecimal saldo = leidos.get(cuentaId);
+            long centavos = saldo == null ? SIN_VALOR : aCentavos(saldo);
+            if (centavos != SIN_VALOR) {
+                segmento(cuentaId).ponerSiNoCambio(cuentaId, centavos, versiones[i]);
+            }
+        }
+        saldos.putAll(leidos);
+        return saldos;
+    }
+
+    // Solo lo que ya está en memoria, sin ir a la base
+    public Optional<BigDecimal> saldoEnMemoria(Long cuentaId) {
+        long centavos = segmento(cuentaId).obtener(cuentaId);
+        return centavos == SIN_VALOR ? Optional.empty() : Optional.of(BigDecimal.valueOf(centavos, 2));
+    }
+
+    // Llamado por SaldoMemoriaListener al insertar un movimiento: el saldo se publica recién al confirmar.
+    // afterCommit corre antes de que CuentaLockManager suelte la cuenta (afterCompletion), así que las
+    // escrituras de una misma cuenta llegan aquí en el orden en que se confirmaron.
+    public void registrarMovimiento(Movimiento movimiento) {
+        Cuenta cuenta = movimiento.getCuenta();
+        Long cuentaId = cuenta.getCuentaId();
+        // Con slots el movimiento no trae el saldo total de la cuenta: se invalida y se recarga bajo demanda
+        long centavos = Hibernate.isInitialized(cuenta) && cuenta.getSaldoSlots() == 0
+                ? aCentavos(movimiento.getSaldo())
+                : SIN_VALOR;
+
+        boolean enTransaccion = TransactionSynchronizationManager.isSynchronizationActive();
+        if (centavos == SIN_VALOR || !enTransaccion) {
+            segmento(cuentaId).invalidar(cuentaId);
+        }
+        if (enTransaccion) {
+            pendientesDeLaTransaccion().registrar(cuentaId, movimiento.getMovimientoId(), centavos);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void precargar() {
+        long inicio = System.currentTimeMillis();
+        for (Segmento segmento : segmentos) {
+            segmento.limpiar();
+        }
+
+        long cargadas = 0;
+        Long ultimoCuentaId = 0L;
+        List<Object[]> lote;
+        do {
+            long[] versiones = new long[segmentos.length];
+            for (int i = 0; i < segmentos.length; i++) {
+                versiones[i] = segmentos[i].version();
+            }
+
+            lote = cuentaRepository.findSaldosSinSlotsDesde(ultimoCuentaId, Limit.of(tamanoLotePrecarga));
+            for (Object[] fila : lote) {
+                Long cuentaId = (Long) fila[0];
+                long centavos = aCentavos((BigDecimal) fila[1]);
+                int indice = indiceSegmento(cuentaId);
+                if (centavos != SIN_VALOR && segmentos[indice].ponerSiNoCambio(cuentaId, centavos, versiones[indice])) {
+                    cargadas++;
+                }
+                ultimoCuentaId = cuentaId;
+            }
+        } while (lote.size() == tamanoLotePrecarga);
+
+        logger.info("Precarga de saldos en memoria: {} cuentas en {} ms ({} bytes)",
+                    cargadas, System.currentTimeMillis() - inicio, bytesReservados());
+    }
+
+    public int cantidadCuentas() {
+        int total = 0;
+        for (Segmento segmento : segmentos) {
+            total += segmento.tamano();
+        }
+        return total;
+    }
+
+    public long bytesReservados() {
+        long total = 0;
+        for (Segmento segmento : segmentos) {
+            total += segmento.bytesReservados();
+        }
+        return total;
+    }
+
+    private Pendientes pendientesDeLaTransaccion() {
+        // Se busca entre las sincronizaciones y no como recurso ligado al hilo: una transacción REQUIRES_NEW
+        // suspende las sincronizaciones de la externa, pero no los recursos que no son del gestor
+        for (TransactionSynchronization sincronizacion : TransactionSynchronizationManager.getSynchronizations()) {
+            if (sincronizacion instanceof Pendientes pendientes && pendientes.esDe(this)) {
+                return pendientes;
+            }
+        }
+        Pendientes pendientes = new Pendientes();
+        TransactionSynchronizationManager.registerSynchronization(pendientes);
+        return pendientes;
+    }
+
+    private Segmento segmento(Long cuentaId) {
+        return segmentos[indiceSegmento(cuentaId)];
+    }
+
+    // Bits altos del hash: MapaSaldos usa los bajos para la posición dentro del segmento
+    private int indiceSegmento(long cuentaId) {
+        return (int) (MapaSaldos.mezclar(cuentaId) >>> 40) & (segmentos.length - 1);
+    }
+
+    private static long aCentavos(BigDecimal saldo) {
+        try {
+            return saldo.setScale(2, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            return SIN_VALOR;
+        }
+    }
+
+    // Último saldo de cada cuenta escrito en la transacción (el de mayor movimientoId: con order_inserts
+    // Hibernate puede insertar en otro orden) o SIN_VALOR si hay que invalidarla
+    private class Pendientes implements TransactionSynchronization {
+
+        private final Map<Long, long[]> porCuenta = new HashMap<>();
+
+        boolean esDe(SaldoMemoria saldoMemoria) {
+            return SaldoMemoria.this == saldoMemoria;
+        }
+
+        void registrar(Long cuentaId, Long movimientoId, long centavos) {
+            long[] actual = porCuenta.get(cuentaId);
+            if (actual == null) {
+                porCuenta.put(cuentaId, new long[] { movimientoId, centavos });
+            } else if (actual[1] != SIN_VALOR && (centavos == SIN_VALOR || movimientoId > actual[0])) {
+                actual[0] = movimientoId;
+                actual[1] = centavos;
+            }
+        }
+
+        @Override
+        public void afterCommit() {
+            porCuenta.forEach((cuentaId, pendiente) -> {
+                if (pendiente[1] == SIN_VALOR) {
+                    segmento(cuentaId).invalidar(cuentaId);
+                } else {
+                    segmento(cuentaId).poner(cuentaId, pendiente[1]);
+                }
+            });
+        }
+    }
+
+    // Un mapa por segmento con su StampedLock: las lecturas son optimistas y solo toman el lock si hubo
+    // una escritura en medio. La versión cambia con cada escritura y descarta cargas hechas con datos viejos.
+    private static final class Segmento {
+
+        private final StampedLock lock = new StampedLock();
+        private final MapaSaldos mapa;
+        private long version;
+
+        Segmento(int capacidadInicial) {
+            this.mapa = new MapaSaldos(capacidadInicial);
+        }
+
+        long obtener(long cuentaId) {
+            long stamp = lock.tryOptimisticRead();
+            long centavos = mapa.obtener(cuentaId);
+            if (lock.validate(stamp)) {
+                return centavos;
+            }
+            stamp = lock.readLock();
+            try {
+                return mapa.obtener(cuentaId);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        long version() {
+            long stamp = lock.readLock();
+            try {
+                return version;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        void poner(long cuentaId, long centavos) {
+            long stamp = lock.writeLock();
+            try {
+                mapa.poner(cuentaId, centavos);
+                version++;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        boolean ponerSiNoCambio(long cuentaId, long centavos, long versionLeida) {
+            long stamp = lock.writeLock();
+            try {
+                if (version != versionLeida) {
+                    return false;
+                }
+                mapa.poner(cuentaId, centavos);
+                return true;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        void invalidar(long cuentaId) {
+            long stamp = lock.writeLock();
+            try {
+                mapa.eliminar(cuentaId);
+                version++;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        void limpiar() {
+            long stamp = lock.writeLock();
+            try {
+                mapa.limpiar();
+                version++;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        int tamano() {
+            long stamp = lock.readLock();
+            try {
+                return mapa.tamano();
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        long bytesReservados() {
+            long stamp = lock.readLock();
+            try {
+                return mapa.bytesReservados();
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+    }
+}
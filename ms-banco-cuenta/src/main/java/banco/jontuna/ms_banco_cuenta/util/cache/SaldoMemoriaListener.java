@@ -0,0 +1,23 @@
+package banco.jontuna.ms_banco_cuenta.util.cache;
+
+import jakarta.persistence.PostPersist;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import banco.jontuna.ms_banco_cuenta.model.Movimiento;
+
+// Listener JPA de Movimiento: todo movimiento insertado (simple, transferencia, lote, group commit o slot)
+// pasa por aquí. SaldoMemoria se resuelve en cada llamada porque es opcional y depende de los
+// repositorios, que a su vez necesitan este listener para crear el EntityManagerFactory.
+@Component
+public class SaldoMemoriaListener {
+
+    @Autowired
+    private ObjectProvider<SaldoMemoria> saldoMemoria;
+
+    @PostPersist
+    public void alInsertar(Movimiento movimiento) {
+        saldoMemoria.ifAvailable(memoria -> memoria.registrarMovimiento(movimiento));
+    }
+}
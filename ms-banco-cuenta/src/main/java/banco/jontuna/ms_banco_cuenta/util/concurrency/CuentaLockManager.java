@@ -0,0 +1,130 @@
+package banco.jontuna.ms_banco_cuenta.util.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import banco.jontuna.ms_banco_cuenta.util.exception.CuentaOcupadaException;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Lock striping por cuentaId: serializa en memoria los movimientos de una misma cuenta
+// antes del SELECT ... FOR UPDATE. El lock se libera al terminar la transacción.
+@Component
+public class CuentaLockManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(CuentaLockManager.class);
+
+    private final ReentrantLock[] stripes;
+    private final Timer[] tiemposEspera;
+    private final Counter[] contenciones;
+    private final long timeoutMs;
+
+    public CuentaLockManager(MeterRegistry meterRegistry,
+                             @Value("${banco.cuentas.lock.stripes:64}") int cantidadStripes,
+                             @Value("${banco.cuentas.lock.timeout-ms:5000}") long timeoutMs) {
+        int cantidad = potenciaDeDos(cantidadStripes);
+        this.stripes = new ReentrantLock[cantidad];
+        this.tiemposEspera = new Timer[cantidad];
+        this.contenciones = new Counter[cantidad];
+        this.timeoutMs = timeoutMs;
+
+        for (int i = 0; i < cantidad; i++) {
+            String stripe = String.valueOf(i);
+            stripes[i] = new ReentrantLock();
+            tiemposEspera[i] = Timer.builder("banco.cuenta.lock.espera")
+                    .description("Tiempo de espera para adquirir el lock de la cuenta")
+                    .tag("stripe", stripe)
+                    .register(meterRegistry);
+            contenciones[i] = Counter.builder("banco.cuenta.lock.contencion")
+                    .description("Veces que el lock de la cuenta estaba ocupado al solicitarlo")
+                    .tag("stripe", stripe)
+                    .register(meterRegistry);
+        }
+        logger.info("CuentaLockManager inicializado con {} stripes y timeout de {} ms", cantidad, timeoutMs);
+    }
+
+    public void bloquearHastaFinDeTransaccion(Long cuentaId) {
+        validarTransaccionActiva();
+        bloquearStripe(indiceStripe(cuentaId), cuentaId);
+    }
+
+    // Varias cuentas en la misma transacción: los stripes se toman una sola vez y en orden
+    // ascendente para que dos transacciones con cuentas cruzadas no se bloqueen mutuamente.
+    public void bloquearHastaFinDeTransaccion(Collection<Long> cuentaIds) {
+        validarTransaccionActiva();
+
+        Map<Integer, Long> cuentaPorStripe = new TreeMap<>();
+        for (Long cuentaId : cuentaIds) {
+            cuentaPorStripe.putIfAbsent(indiceStripe(cuentaId), cuentaId);
+        }
+        cuentaPorStripe.forEach(this::bloquearStripe);
+    }
+
+    public int indiceStripe(Long cuentaId) {
+        long h = cuentaId * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & (stripes.length - 1);
+    }
+
+    public int getCantidadStripes() {
+        return stripes.length;
+    }
+
+    private void validarTransaccionActiva() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("El bloqueo de cuenta requiere una transacción activa");
+        }
+    }
+
+    private void bloquearStripe(int indice, Long cuentaId) {
+        ReentrantLock lock = adquirir(indice, cuentaId);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    private ReentrantLock adquirir(int indice, Long cuentaId) {
+        ReentrantLock lock = stripes[indice];
+
+        if (lock.tryLock()) {
+            tiemposEspera[indice].record(0, TimeUnit.NANOSECONDS);
+            return lock;
+        }
+
+        contenciones[indice].increment();
+        long inicio = System.nanoTime();
+        try {
+            if (!lock.tryLock(timeoutMs, TimeUnit.MILLISECONDS)) {
+                logger.warn("Timeout esperando el lock de la cuenta ID: {} (stripe {})", cuentaId, indice);
+                throw new CuentaOcupadaException(cuentaId);
+            }
+            return lock;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CuentaOcupadaException(cuentaId);
+        } finally {
+            tiemposEspera[indice].record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static int potenciaDeDos(int valor) {
+        if (valor < 1) {
+            throw new IllegalArgumentException("La cantidad de stripes debe ser mayor a 0");
+        }
+        return Integer.highestOneBit(valor) == valor ? valor : Integer.highestOneBit(valor) << 1;
+    }
+}
@@ -0,0 +1,11 @@
+package banco.jontuna.ms_banco_cuenta.util.exception;
+
+public class CuentaOcupadaException extends RuntimeException {
+    public CuentaOcupadaException(String message) {
+        super(message);
+    }
+
+    public CuentaOcupadaException(Long cuentaId) {
+        super("La cuenta con ID: " + cuentaId + " está procesando otro movimiento. Intente nuevamente");
+    }
+}
@@ -26,6 +26,15 @@ public class FechaInvalidaException extends RuntimeException {
         return new FechaInvalidaException("El rango de fechas no puede ser mayor a 1 año");
     }
     
+    public static FechaInvalidaException rangoExcesivo(int anios) {
+        return new FechaInvalidaException("El rango de fechas no puede ser mayor a " + anios + " años");
+    }
+    
+    public static FechaInvalidaException rangoSincronoExcesivo(int dias) {
+        return new FechaInvalidaException("Para rangos mayores a " + dias
+                + " días solicite el reporte con POST /api/reportes/{clienteId}/jobs");
+    }
+    
     public static FechaInvalidaException fechasFuturas() {
         return new FechaInvalidaException("Las fechas no pueden ser futuras");
     }
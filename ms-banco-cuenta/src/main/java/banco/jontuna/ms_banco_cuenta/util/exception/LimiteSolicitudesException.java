@@ -0,0 +1,7 @@
+package banco.jontuna.ms_banco_cuenta.util.exception;
+
+public class LimiteSolicitudesException extends RuntimeException {
+    public LimiteSolicitudesException(String message) {
+        super(message);
+    }
+}
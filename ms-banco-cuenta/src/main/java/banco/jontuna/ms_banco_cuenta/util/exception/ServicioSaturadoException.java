@@ -0,0 +1,7 @@
+package banco.jontuna.ms_banco_cuenta.util.exception;
+
+public class ServicioSaturadoException extends RuntimeException {
+    public ServicioSaturadoException(String message) {
+        super(message);
+    }
+}
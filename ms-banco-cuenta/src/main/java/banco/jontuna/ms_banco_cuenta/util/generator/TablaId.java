@@ -0,0 +1,17 @@
+package banco.jontuna.ms_banco_cuenta.util.generator;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Id generado por TablaIdGenerator; segmento es la fila de ID_GENERADOR (columna Entidad) de la entidad
+@IdGeneratorType(TablaIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface TablaId {
+
+    String segmento();
+}
@@ -0,0 +1,37 @@
+package banco.jontuna.ms_banco_cuenta.util.http;
+
+// GET condicional con If-None-Match: el controlador calcula el ETag antes de armar la respuesta y,
+// si el cliente ya lo tiene, contesta 304 sin ejecutar la consulta completa ni serializar.
+public final class ConsultaCondicional {
+
+    private ConsultaCondicional() {
+    }
+
+    public static String etag(Object... partes) {
+        StringBuilder valor = new StringBuilder("\"");
+        for (int i = 0; i < partes.length; i++) {
+            if (i > 0) {
+                valor.append('-');
+            }
+            valor.append(partes[i]);
+        }
+        return valor.append('"').toString();
+    }
+
+    // If-None-Match admite una lista de ETags o "*" y se compara en forma débil (se ignora el prefijo W/)
+    public static boolean noModificado(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        for (String candidato : ifNoneMatch.split(",")) {
+            String valor = candidato.trim();
+            if (valor.startsWith("W/")) {
+                valor = valor.substring(2);
+            }
+            if (valor.equals("*") || valor.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
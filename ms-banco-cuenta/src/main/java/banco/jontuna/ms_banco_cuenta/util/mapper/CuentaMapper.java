@@ -5,6 +5,7 @@ import org.springframework.stereotype.Component;
 import banco.jontuna.ms_banco_cuenta.dto.CuentaRequestDTO;
 import banco.jontuna.ms_banco_cuenta.dto.CuentaResponseDTO;
 import banco.jontuna.ms_banco_cuenta.model.Cuenta;
+import banco.jontuna.ms_banco_cuenta.util.cache.CuentaMetadatos;
 
 @Component
 public class CuentaMapper {
@@ -29,6 +30,18 @@ public class CuentaMapper {
         dto.setSaldoInicial(entity.getSaldoInicial());
         dto.setEstado(entity.getEstado());
         dto.setClienteId(entity.getClienteId());
+        dto.setSaldoSlots(entity.getSaldoSlots());
+        dto.setVersion(entity.getVersion());
+        return dto;
+    }
+
+    public CuentaResponseDTO toResponseDTO(CuentaMetadatos metadatos) {
+        if (metadatos == null) return null;
+
+        CuentaResponseDTO dto = new CuentaResponseDTO(metadatos.cuentaId(), metadatos.numeroCuenta(),
+                metadatos.tipoCuenta(), metadatos.saldoInicial(), metadatos.estado(), metadatos.clienteId());
+        dto.setSaldoSlots(metadatos.saldoSlots());
+        dto.setVersion(metadatos.version());
         return dto;
     }
 }
\ No newline at end of file
@@ -35,6 +35,7 @@ public class MovimientoMapper {
         dto.setSaldo(entity.getSaldo());
         dto.setCuentaId(entity.getCuenta().getCuentaId());
         dto.setNumeroCuenta(entity.getCuenta().getNumeroCuenta());
+        dto.setTransferenciaId(entity.getTransferenciaId());
         return dto;
     }
 }
\ No newline at end of file
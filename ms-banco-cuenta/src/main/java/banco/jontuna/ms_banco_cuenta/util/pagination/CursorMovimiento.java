@@ -0,0 +1,36 @@
+package banco.jontuna.ms_banco_cuenta.util.pagination;
+
+import banco.jontuna.ms_banco_cuenta.model.Movimiento;
+import banco.jontuna.ms_banco_cuenta.util.exception.MovimientoInvalidoException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Posición del último movimiento entregado en una página (orden fecha DESC, movimientoId DESC).
+// Viaja al cliente como un token opaco; la siguiente página continúa justo después de esta posición.
+public record CursorMovimiento(LocalDateTime fecha, Long movimientoId) {
+
+    private static final String SEPARADOR = "|";
+
+    public static CursorMovimiento de(Movimiento movimiento) {
+        return new CursorMovimiento(movimiento.getFecha(), movimiento.getMovimientoId());
+    }
+
+    public String codificar() {
+        String valor = fecha + SEPARADOR + movimientoId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CursorMovimiento decodificar(String token) {
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separador = valor.indexOf(SEPARADOR);
+            return new CursorMovimiento(LocalDateTime.parse(valor.substring(0, separador)),
+                                        Long.valueOf(valor.substring(separador + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new MovimientoInvalidoException("Cursor de paginación inválido: " + token);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package banco.jontuna.ms_banco_cuenta.util.reporte;
+
+import banco.jontuna.ms_banco_cuenta.dto.CuentaResumenDTO;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Escribe el estado de cuenta por partes (ReporteService.escribirReporteEstadoCuenta): las cuentas llegan en
+// orden y los movimientos de cada cuenta entre iniciarCuenta y terminarCuenta
+public interface EscritorReporte {
+
+    void iniciar(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin) throws IOException;
+
+    void iniciarCuenta(CuentaResumenDTO cuenta) throws IOException;
+
+    void escribirMovimiento(Long movimientoId, LocalDateTime fecha, String tipoMovimiento, BigDecimal valor,
+                            BigDecimal saldoDespues) throws IOException;
+
+    void terminarCuenta() throws IOException;
+
+    void terminar(BigDecimal saldoTotal) throws IOException;
+
+    void flush() throws IOException;
+}
@@ -0,0 +1,94 @@
+package banco.jontuna.ms_banco_cuenta.util.reporte;
+
+import banco.jontuna.ms_banco_cuenta.dto.CuentaResumenDTO;
+import banco.jontuna.ms_banco_cuenta.dto.MovimientoDetalleDTO;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Una fila por movimiento con los datos de su cuenta; una cuenta sin movimientos en el rango sale en una
+// fila con las columnas del movimiento vacías. El saldo total es la suma de saldoActual de cada cuenta.
+public class EscritorReporteCsv implements EscritorReporte {
+
+    static final String ENCABEZADO = "cuentaId,numeroCuenta,tipoCuenta,estado,saldoActual,"
+            + "movimientoId,fecha,tipoMovimiento,valor,descripcion,saldoDespues";
+
+    private final Writer writer;
+    private String columnasCuenta;
+    private boolean cuentaConMovimientos;
+
+    public EscritorReporteCsv(OutputStream salida) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void iniciar(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin) throws IOException {
+        writer.write(ENCABEZADO);
+        writer.write('\n');
+    }
+
+    @Override
+    public void iniciarCuenta(CuentaResumenDTO cuenta) throws IOException {
+        columnasCuenta = cuenta.getCuentaId() + "," + escapar(cuenta.getNumeroCuenta()) + ","
+                + escapar(cuenta.getTipoCuenta()) + "," + escapar(cuenta.getEstado()) + ","
+                + cuenta.getSaldoActual().toPlainString() + ",";
+        cuentaConMovimientos = false;
+    }
+
+    @Override
+    public void escribirMovimiento(Long movimientoId, LocalDateTime fecha, String tipoMovimiento, BigDecimal valor,
+                                   BigDecimal saldoDespues) throws IOException {
+        String valorTexto = valor.toPlainString();
+        writer.write(columnasCuenta);
+        writer.write(String.valueOf(movimientoId));
+        writer.write(',');
+        writer.write(fecha.toString());
+        writer.write(',');
+        writer.write(escapar(tipoMovimiento));
+        writer.write(',');
+        writer.write(valorTexto);
+        writer.write(',');
+        // El prefijo y el valor no llevan comas ni comillas: se escriben directo, sin armar la descripción
+        writer.write(MovimientoDetalleDTO.prefijoDescripcion(tipoMovimiento));
+        writer.write(valorTexto);
+        writer.write(',');
+        writer.write(saldoDespues.toPlainString());
+        writer.write('\n');
+        cuentaConMovimientos = true;
+    }
+
+    @Override
+    public void terminarCuenta() throws IOException {
+        if (!cuentaConMovimientos) {
+            writer.write(columnasCuenta);
+            writer.write(",,,,,\n");
+        }
+    }
+
+    @Override
+    public void terminar(BigDecimal saldoTotal) throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    private static String escapar(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+}
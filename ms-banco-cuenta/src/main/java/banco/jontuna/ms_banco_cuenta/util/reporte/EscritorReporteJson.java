@@ -0,0 +1,79 @@
+package banco.jontuna.ms_banco_cuenta.util.reporte;
+
+import banco.jontuna.ms_banco_cuenta.dto.CuentaResumenDTO;
+import banco.jontuna.ms_banco_cuenta.dto.MovimientoDetalleDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Mismo JSON que EstadoCuentaReporteDTO, con saldoTotal al final porque se suma mientras se escribe.
+// Las fechas pasan por el ObjectMapper de la aplicación para conservar su formato.
+public class EscritorReporteJson implements EscritorReporte {
+
+    private final JsonGenerator generador;
+
+    public EscritorReporteJson(ObjectMapper objectMapper, OutputStream salida) throws IOException {
+        this.generador = objectMapper.getFactory().createGenerator(salida);
+        // La respuesta la cierra el contenedor
+        this.generador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    @Override
+    public void iniciar(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin) throws IOException {
+        generador.writeStartObject();
+        generador.writeNumberField("clienteId", clienteId);
+        generador.writePOJOField("fechaInicio", fechaInicio);
+        generador.writePOJOField("fechaFin", fechaFin);
+        generador.writeArrayFieldStart("cuentas");
+    }
+
+    @Override
+    public void iniciarCuenta(CuentaResumenDTO cuenta) throws IOException {
+        generador.writeStartObject();
+        generador.writeNumberField("cuentaId", cuenta.getCuentaId());
+        generador.writeStringField("numeroCuenta", cuenta.getNumeroCuenta());
+        generador.writeStringField("tipoCuenta", cuenta.getTipoCuenta());
+        generador.writeStringField("estado", cuenta.getEstado());
+        generador.writeNumberField("saldoActual", cuenta.getSaldoActual());
+        generador.writeArrayFieldStart("movimientos");
+    }
+
+    @Override
+    public void escribirMovimiento(Long movimientoId, LocalDateTime fecha, String tipoMovimiento, BigDecimal valor,
+                                   BigDecimal saldoDespues) throws IOException {
+        generador.writeStartObject();
+        generador.writeNumberField("movimientoId", movimientoId);
+        generador.writePOJOField("fecha", fecha);
+        generador.writeStringField("tipoMovimiento", tipoMovimiento);
+        generador.writeNumberField("valor", valor);
+        // Mismo texto que MovimientoDetalleDTO. Un valor JSON no se puede escribir por partes como en el CSV:
+        // la descripción es el único String que se arma por movimiento
+        generador.writeStringField("descripcion", MovimientoDetalleDTO.prefijoDescripcion(tipoMovimiento) + valor);
+        generador.writeNumberField("saldoDespues", saldoDespues);
+        generador.writeEndObject();
+    }
+
+    @Override
+    public void terminarCuenta() throws IOException {
+        generador.writeEndArray();
+        generador.writeEndObject();
+    }
+
+    @Override
+    public void terminar(BigDecimal saldoTotal) throws IOException {
+        generador.writeEndArray();
+        generador.writeNumberField("saldoTotal", saldoTotal);
+        generador.writeEndObject();
+        generador.close();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        generador.flush();
+    }
+}
@@ -0,0 +1,29 @@
+package banco.jontuna.ms_banco_cuenta.util.reporte;
+
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreRemove;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import banco.jontuna.ms_banco_cuenta.model.Movimiento;
+import banco.jontuna.ms_banco_cuenta.service.SaldoDiarioService;
+
+// Listener JPA de Movimiento para SALDO_DIARIO. Usa PrePersist/PreRemove y no los Post: con el generador
+// de tabla el INSERT puede esperar al flush del commit, y los totales se escriben antes de ese commit.
+@Component
+public class SaldoDiarioListener {
+
+    @Autowired
+    private ObjectProvider<SaldoDiarioService> saldoDiarioService;
+
+    @PrePersist
+    public void alInsertar(Movimiento movimiento) {
+        saldoDiarioService.ifAvailable(servicio -> servicio.registrarMovimiento(movimiento));
+    }
+
+    @PreRemove
+    public void alEliminar(Movimiento movimiento) {
+        saldoDiarioService.ifAvailable(servicio -> servicio.quitarMovimiento(movimiento));
+    }
+}
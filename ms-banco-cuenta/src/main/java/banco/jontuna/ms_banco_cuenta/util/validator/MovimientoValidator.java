@@ -0,0 +1,63 @@
+package banco.jontuna.ms_banco_cuenta.util.validator;
+
+import org.springframework.stereotype.Component;
+
+import banco.jontuna.ms_banco_cuenta.model.Cuenta;
+import banco.jontuna.ms_banco_cuenta.util.exception.CuentaInactivaException;
+import banco.jontuna.ms_banco_cuenta.util.exception.MovimientoInvalidoException;
+import banco.jontuna.ms_banco_cuenta.util.exception.SaldoInsuficienteException;
+
+import java.math.BigDecimal;
+
+@Component
+public class MovimientoValidator {
+
+    private static final BigDecimal VALOR_MINIMO = new BigDecimal("0.01");
+    private static final BigDecimal VALOR_MAXIMO = new BigDecimal("1000000");
+
+    public void validarValor(BigDecimal valor) {
+        if (valor == null) {
+            throw new MovimientoInvalidoException("El valor del movimiento es obligatorio");
+        }
+
+        if (valor.compareTo(BigDecimal.ZERO) == 0) {
+            throw new MovimientoInvalidoException("El valor del movimiento no puede ser cero");
+        }
+
+        if (valor.abs().compareTo(VALOR_MINIMO) < 0) {
+            throw new MovimientoInvalidoException("El valor mínimo del movimiento es 0.01");
+        }
+
+        if (valor.abs().compareTo(VALOR_MAXIMO) > 0) {
+            throw new MovimientoInvalidoException("El valor máximo del movimiento es 1,000,000.00");
+        }
+    }
+
+    public void validarCuentaActiva(Cuenta cuenta) {
+        if (!"ACTIVA".equals(cuenta.getEstado())) {
+            throw new CuentaInactivaException(cuenta.getNumeroCuenta(), cuenta.getEstado());
+        }
+    }
+
+    public void validarRetiro(BigDecimal saldoActual, BigDecimal valorRetiro) {
+        if (saldoActual.compareTo(valorRetiro) < 0) {
+            throw new SaldoInsuficienteException(saldoActual, valorRetiro);
+        }
+    }
+
+    public String determinarTipoMovimiento(BigDecimal valor) {
+        if (valor.compareTo(BigDecimal.ZERO) > 0) {
+            return "DEPOSITO";
+        } else {
+            return "RETIRO";
+        }
+    }
+
+    public BigDecimal calcularNuevoSaldo(String tipoMovimiento, BigDecimal saldoActual, BigDecimal valorAbsoluto) {
+        if ("DEPOSITO".equals(tipoMovimiento)) {
+            return saldoActual.add(valorAbsoluto);
+        } else {
+            return saldoActual.subtract(valorAbsoluto);
+        }
+    }
+}
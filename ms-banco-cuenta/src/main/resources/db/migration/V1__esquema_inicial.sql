@@ -0,0 +1,50 @@
+-- Esquema de ms-banco-cuenta (equivalente a BaseDatos.sql antes de las migraciones).
+-- CUENTA.ClienteId referencia a un cliente de ms-banco-cliente: la integridad se mantiene por eventos,
+-- no con una FOREIGN KEY, para que cada servicio pueda migrar su esquema de forma independiente.
+
+-- TABLA ID_GENERADOR (bloques de IDs para Cuenta y Movimiento, optimizador pooled-lo)
+CREATE TABLE ID_GENERADOR (
+    Entidad VARCHAR(255) NOT NULL PRIMARY KEY,
+    Valor BIGINT NOT NULL
+);
+
+INSERT INTO ID_GENERADOR (Entidad, Valor) VALUES ('CUENTA', 1), ('MOVIMIENTO', 1);
+
+-- TABLA CUENTA
+CREATE TABLE CUENTA (
+    CuentaId BIGINT NOT NULL PRIMARY KEY,
+    NumeroCuenta VARCHAR(30) NOT NULL,
+    TipoCuenta VARCHAR(30) NOT NULL,
+    SaldoInicial DECIMAL(15,2) NOT NULL DEFAULT 0.00,
+    SaldoActual DECIMAL(15,2) NOT NULL DEFAULT 0.00,
+    UltimoMovimientoId BIGINT,
+    Estado VARCHAR(20),
+    ClienteId BIGINT NOT NULL,
+    CONSTRAINT UK_CUENTA_NUMERO UNIQUE (NumeroCuenta)
+);
+
+-- TABLA MOVIMIENTO
+CREATE TABLE MOVIMIENTO (
+    MovimientoId BIGINT NOT NULL PRIMARY KEY,
+    Fecha DATETIME NOT NULL,
+    TipoMovimiento VARCHAR(30) NOT NULL,
+    Valor DECIMAL(15,2) NOT NULL,
+    Saldo DECIMAL(15,2) NOT NULL,
+    CuentaId BIGINT NOT NULL,
+    TransferenciaId VARCHAR(36),
+    CONSTRAINT FK_MOVIMIENTO_CUENTA FOREIGN KEY (CuentaId) REFERENCES CUENTA (CuentaId)
+);
+
+CREATE INDEX IX_MOVIMIENTO_TRANSFERENCIA ON MOVIMIENTO (TransferenciaId);
+
+-- TABLA IDEMPOTENCIA_MOVIMIENTO (Idempotency-Key -> respuesta del movimiento, con expiración)
+CREATE TABLE IDEMPOTENCIA_MOVIMIENTO (
+    Clave VARCHAR(100) NOT NULL PRIMARY KEY,
+    CuentaId BIGINT NOT NULL,
+    Valor DECIMAL(15,2) NOT NULL,
+    Respuesta VARCHAR(1000) NOT NULL,
+    FechaCreacion DATETIME NOT NULL,
+    FechaExpiracion DATETIME NOT NULL
+);
+
+CREATE INDEX IX_IDEMPOTENCIA_MOVIMIENTO_EXPIRACION ON IDEMPOTENCIA_MOVIMIENTO (FechaExpiracion);
@@ -0,0 +1,14 @@
+-- Índices para las consultas de los repositorios (ver RepositorioExplainTest).
+
+-- findByClienteId, findByClienteIdAndEstado y el JOIN por cliente de los reportes
+CREATE INDEX IX_CUENTA_CLIENTE_ESTADO ON CUENTA (ClienteId, Estado);
+
+-- findByEstado
+CREATE INDEX IX_CUENTA_ESTADO ON CUENTA (Estado);
+
+-- Movimientos de una cuenta ordenados por fecha (último movimiento, listado, rango de fechas por cliente).
+-- Reemplaza al índice que MySQL crea para FK_MOVIMIENTO_CUENTA, porque CuentaId es su prefijo.
+CREATE INDEX IX_MOVIMIENTO_CUENTA_FECHA ON MOVIMIENTO (CuentaId, Fecha, MovimientoId);
+
+-- Consultas por rango de fechas sin filtro de cuenta
+CREATE INDEX IX_MOVIMIENTO_FECHA ON MOVIMIENTO (Fecha);
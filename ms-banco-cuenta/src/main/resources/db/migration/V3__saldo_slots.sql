@@ -0,0 +1,13 @@
+-- Saldo repartido en slots para cuentas con alto volumen de depósitos.
+-- Con SaldoSlots > 0 el saldo de la cuenta es CUENTA.SaldoActual + SUM(SALDO_SLOT.Saldo).
+ALTER TABLE CUENTA ADD COLUMN SaldoSlots INT NOT NULL DEFAULT 0;
+
+CREATE INDEX IX_CUENTA_SALDO_SLOTS ON CUENTA (SaldoSlots);
+
+CREATE TABLE SALDO_SLOT (
+    CuentaId BIGINT NOT NULL,
+    Slot INT NOT NULL,
+    Saldo DECIMAL(15,2) NOT NULL DEFAULT 0.00,
+    PRIMARY KEY (CuentaId, Slot),
+    CONSTRAINT FK_SALDO_SLOT_CUENTA FOREIGN KEY (CuentaId) REFERENCES CUENTA (CuentaId)
+);
@@ -0,0 +1,3 @@
+-- Versión de la fila (optimistic locking de JPA): cambia con cada UPDATE de CUENTA y es la base de los
+-- ETag de la cuenta, su saldo y su historial de movimientos.
+ALTER TABLE CUENTA ADD COLUMN Version BIGINT NOT NULL DEFAULT 0;
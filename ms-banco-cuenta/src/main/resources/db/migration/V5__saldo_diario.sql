@@ -0,0 +1,14 @@
+-- Resumen diario de cada cuenta: saldo de apertura y cierre, créditos, débitos y cantidad de movimientos.
+-- Se acumula al confirmar cada transacción que inserta movimientos (SaldoDiarioService) y se reconstruye
+-- desde MOVIMIENTO con SaldoDiarioBackfillService. SaldoCierre = SaldoApertura + Creditos - Debitos.
+CREATE TABLE SALDO_DIARIO (
+    CuentaId BIGINT NOT NULL,
+    Fecha DATE NOT NULL,
+    SaldoApertura DECIMAL(15,2) NOT NULL,
+    SaldoCierre DECIMAL(15,2) NOT NULL,
+    Creditos DECIMAL(15,2) NOT NULL DEFAULT 0.00,
+    Debitos DECIMAL(15,2) NOT NULL DEFAULT 0.00,
+    CantidadMovimientos INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (CuentaId, Fecha),
+    CONSTRAINT FK_SALDO_DIARIO_CUENTA FOREIGN KEY (CuentaId) REFERENCES CUENTA (CuentaId)
+);
@@ -0,0 +1,10 @@
+-- Los depósitos en slots (SALDO_SLOT) acumulan en su propia fila del día para no esperar todos la misma:
+-- Slot 0 es la fila base (movimientos con la cuenta bloqueada y saldo de apertura del día) y un depósito en el
+-- slot N de SALDO_SLOT suma en la fila N + 1, con SaldoApertura 0. Los totales y el cierre del día son la suma
+-- de sus filas. El índice temporal mantiene cubierta la FK de CuentaId mientras se reemplaza la clave primaria.
+ALTER TABLE SALDO_DIARIO ADD COLUMN Slot INT NOT NULL DEFAULT 0;
+
+CREATE INDEX IX_SALDO_DIARIO_CUENTA ON SALDO_DIARIO (CuentaId);
+ALTER TABLE SALDO_DIARIO DROP PRIMARY KEY;
+ALTER TABLE SALDO_DIARIO ADD PRIMARY KEY (CuentaId, Fecha, Slot);
+ALTER TABLE SALDO_DIARIO DROP INDEX IX_SALDO_DIARIO_CUENTA;
@@ -0,0 +1,186 @@
+package banco.jontuna.ms_banco_cuenta.benchmark;
+
+import banco.jontuna.ms_banco_cuenta.model.Cuenta;
+import banco.jontuna.ms_banco_cuenta.model.Movimiento;
+import banco.jontuna.ms_banco_cuenta.repository.CuentaRepository;
+import banco.jontuna.ms_banco_cuenta.repository.MovimientoRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Benchmark de throughput y p99 con N clientes concurrentes (por defecto 2.000) contra el servidor embebido.
+// Se ejecuta con "gradle benchmark"; -Dbenchmark.clientes y -Dbenchmark.solicitudes ajustan la carga.
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "spring.datasource.hikari.maximum-pool-size=20",
+    "spring.jpa.show-sql=false",
+    "logging.level.root=WARN",
+    "logging.level.org.hibernate.SQL=WARN",
+    "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+    "spring.rabbitmq.listener.simple.auto-startup=false"
+})
+abstract class HilosBenchmarkBase {
+
+    private static final int CLIENTES = Integer.getInteger("benchmark.clientes", 2000);
+    private static final int SOLICITUDES_POR_CLIENTE = Integer.getInteger("benchmark.solicitudes", 5);
+    // Una cuenta por cliente concurrente: se mide el modo de hilos, no la contención sobre una misma cuenta
+    private static final int CUENTAS = CLIENTES;
+    private static final long CLIENTE_ID_BASE = 900_000L;
+    private static final int CLIENTES_REPORTE = Math.max(CUENTAS / 2, 1);
+
+    @LocalServerPort
+    private int puerto;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private MovimientoRepository movimientoRepository;
+
+    private final List<Long> cuentaIds = new ArrayList<>();
+    private HttpClient httpClient;
+
+    protected abstract String modo();
+
+    @BeforeAll
+    void prepararDatos() {
+        long sufijo = System.nanoTime() % 1_000_000;
+        for (int i = 0; i < CUENTAS; i++) {
+            Cuenta cuenta = new Cuenta();
+            cuenta.setClienteId(CLIENTE_ID_BASE + i % CLIENTES_REPORTE);
+            cuenta.setNumeroCuenta(String.format("9%05d%06d", i, sufijo));
+            cuenta.setTipoCuenta("AHORROS");
+            cuenta.setEstado("ACTIVA");
+            cuenta.setSaldoInicial(BigDecimal.ZERO);
+            cuenta.setSaldoActual(new BigDecimal("1000.00"));
+            cuenta = cuentaRepository.save(cuenta);
+            cuentaIds.add(cuenta.getCuentaId());
+
+            Movimiento movimiento = new Movimiento("DEPOSITO", new BigDecimal("1000.00"), new BigDecimal("1000.00"), cuenta);
+            movimiento.setFecha(LocalDateTime.now().minusDays(1));
+            movimientoRepository.save(movimiento);
+        }
+
+        httpClient = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+    }
+
+    @Test
+    void registrarMovimiento() throws Exception {
+        medir("registrarMovimiento", indice -> HttpRequest.newBuilder()
+                .uri(url("/api/movimientos/cuenta/" + cuentaIds.get(indice / SOLICITUDES_POR_CLIENTE % cuentaIds.size())))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"valor\": 1.00}"))
+                .build());
+    }
+
+    @Test
+    void generarReporteEstadoCuenta() throws Exception {
+        String fechaInicio = LocalDate.now().minusDays(7).toString();
+        String fechaFin = LocalDate.now().toString();
+        medir("generarReporteEstadoCuenta", indice -> HttpRequest.newBuilder()
+                .uri(url("/api/reportes/" + (CLIENTE_ID_BASE + indice % CLIENTES_REPORTE)
+                        + "?fechaInicio=" + fechaInicio + "&fechaFin=" + fechaFin))
+                .GET()
+                .build());
+    }
+
+    private void medir(String operacion, IntFunction<HttpRequest> solicitud) throws Exception {
+        ejecutar(Math.min(CLIENTES, 200), 2, solicitud);
+
+        long[] latencias = new long[CLIENTES * SOLICITUDES_POR_CLIENTE];
+        AtomicInteger errores = new AtomicInteger();
+        long inicio = System.nanoTime();
+        int registradas = ejecutar(CLIENTES, SOLICITUDES_POR_CLIENTE, solicitud, latencias, errores);
+        long duracion = System.nanoTime() - inicio;
+
+        long[] ordenadas = Arrays.copyOf(latencias, registradas);
+        Arrays.sort(ordenadas);
+        double throughput = registradas / (duracion / 1_000_000_000.0);
+
+        System.out.printf("BENCHMARK modo=%-10s operacion=%-28s clientes=%d solicitudes=%d errores=%d "
+                        + "throughput=%.0f req/s p50=%.1f ms p99=%.1f ms max=%.1f ms%n",
+                modo(), operacion, CLIENTES, registradas, errores.get(), throughput,
+                percentil(ordenadas, 0.50), percentil(ordenadas, 0.99), percentil(ordenadas, 1.0));
+
+        assertTrue(registradas > 0, "Sin solicitudes completadas en " + operacion);
+    }
+
+    private void ejecutar(int clientes, int solicitudes, IntFunction<HttpRequest> solicitud) throws Exception {
+        ejecutar(clientes, solicitudes, solicitud, new long[clientes * solicitudes], new AtomicInteger());
+    }
+
+    private int ejecutar(int clientes, int solicitudes, IntFunction<HttpRequest> solicitud,
+                         long[] latencias, AtomicInteger errores) throws Exception {
+        AtomicInteger siguiente = new AtomicInteger();
+        CountDownLatch inicio = new CountDownLatch(1);
+        CountDownLatch fin = new CountDownLatch(clientes);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clientes; c++) {
+                int cliente = c;
+                executor.submit(() -> {
+                    try {
+                        inicio.await();
+                        for (int s = 0; s < solicitudes; s++) {
+                            long t0 = System.nanoTime();
+                            HttpResponse<Void> respuesta = httpClient.send(
+                                    solicitud.apply(cliente * solicitudes + s), HttpResponse.BodyHandlers.discarding());
+                            long latencia = System.nanoTime() - t0;
+                            if (respuesta.statusCode() != 200) {
+                                errores.incrementAndGet();
+                            }
+                            latencias[siguiente.getAndIncrement()] = latencia;
+                        }
+                    } catch (Exception e) {
+                        errores.incrementAndGet();
+                    } finally {
+                        fin.countDown();
+                    }
+                    return null;
+                });
+            }
+            inicio.countDown();
+            fin.await();
+        }
+        return siguiente.get();
+    }
+
+    private URI url(String ruta) {
+        return URI.create("http://localhost:" + puerto + ruta);
+    }
+
+    private static double percentil(long[] ordenadas, double percentil) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        int indice = (int) Math.ceil(percentil * ordenadas.length) - 1;
+        return ordenadas[Math.max(indice, 0)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,12 @@
+package banco.jontuna.ms_banco_cuenta.benchmark;
+
+import org.springframework.test.context.ActiveProfiles;
+
+@ActiveProfiles({"test", "virtual"})
+class HilosVirtualesBenchmarkTest extends HilosBenchmarkBase {
+
+    @Override
+    protected String modo() {
+        return "virtual";
+    }
+}
@@ -0,0 +1,117 @@
+package banco.jontuna.ms_banco_cuenta.benchmark;
+
+import banco.jontuna.ms_banco_cuenta.dto.EstadoCuentaReporteDTO;
+import banco.jontuna.ms_banco_cuenta.model.Cuenta;
+import banco.jontuna.ms_banco_cuenta.model.Movimiento;
+import banco.jontuna.ms_banco_cuenta.repository.CuentaRepository;
+import banco.jontuna.ms_banco_cuenta.repository.MovimientoRepository;
+import banco.jontuna.ms_banco_cuenta.service.ReporteService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Reporte de estado de cuenta armado en secuencia (una consulta por cliente) contra en paralelo (una consulta por
+// grupo de cuentas sobre hilos virtuales) para clientes con 1, 10 y 200 cuentas. Se ejecuta con "gradle benchmark".
+@Tag("benchmark")
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+    "banco.reportes.paralelo.enabled=true",
+    "banco.reportes.paralelo.min-cuentas=1",
+    "banco.reportes.paralelo.max-conexiones=4",
+    "spring.jpa.show-sql=false",
+    "logging.level.root=WARN",
+    "logging.level.org.hibernate.SQL=WARN",
+    "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+    "spring.rabbitmq.listener.simple.auto-startup=false"
+})
+class ReporteParaleloBenchmarkTest {
+
+    private static final int[] CUENTAS_POR_CLIENTE = { 1, 10, 200 };
+    private static final int MOVIMIENTOS_POR_CUENTA = 30;
+    private static final int CALENTAMIENTO = 5;
+    private static final int REPETICIONES = 20;
+
+    @Autowired
+    private ReporteService reporteService;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private MovimientoRepository movimientoRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void secuencialContraParalelo() throws Exception {
+        LocalDate hoy = LocalDate.now();
+        long clienteBase = 950_000L + System.nanoTime() % 10_000 * 10;
+
+        for (int indice = 0; indice < CUENTAS_POR_CLIENTE.length; indice++) {
+            int cuentas = CUENTAS_POR_CLIENTE[indice];
+            Long clienteId = clienteBase + indice;
+            crearCliente(clienteId, cuentas, hoy);
+
+            double secuencial = medir(clienteId, hoy, false);
+            double paralelo = medir(clienteId, hoy, true);
+            System.out.printf("BENCHMARK reporte-paralelo cuentas=%d movimientos=%d secuencial=%.2f ms paralelo=%.2f ms%n",
+                    cuentas, cuentas * MOVIMIENTOS_POR_CUENTA, secuencial, paralelo);
+
+            // Los dos modos deben armar exactamente el mismo reporte
+            assertEquals(objectMapper.writeValueAsString(generar(clienteId, hoy, false)),
+                         objectMapper.writeValueAsString(generar(clienteId, hoy, true)));
+        }
+    }
+
+    // Promedio en milisegundos por reporte después del calentamiento
+    private double medir(Long clienteId, LocalDate hoy, boolean paralelo) {
+        for (int i = 0; i < CALENTAMIENTO; i++) {
+            generar(clienteId, hoy, paralelo);
+        }
+        long inicio = System.nanoTime();
+        for (int i = 0; i < REPETICIONES; i++) {
+            generar(clienteId, hoy, paralelo);
+        }
+        return (System.nanoTime() - inicio) / 1_000_000.0 / REPETICIONES;
+    }
+
+    private EstadoCuentaReporteDTO generar(Long clienteId, LocalDate hoy, boolean paralelo) {
+        ReflectionTestUtils.setField(reporteService, "paraleloHabilitado", paralelo);
+        return reporteService.generarReporteEstadoCuenta(clienteId, hoy.minusDays(MOVIMIENTOS_POR_CUENTA), hoy);
+    }
+
+    private void crearCliente(Long clienteId, int cuentas, LocalDate hoy) {
+        long sufijo = System.nanoTime() % 100_000;
+        for (int c = 0; c < cuentas; c++) {
+            Cuenta cuenta = new Cuenta();
+            cuenta.setClienteId(clienteId);
+            cuenta.setNumeroCuenta(String.format("95%03d%05d", c, sufijo));
+            cuenta.setTipoCuenta("AHORROS");
+            cuenta.setEstado("ACTIVA");
+            cuenta.setSaldoInicial(BigDecimal.ZERO);
+            cuenta.setSaldoActual(new BigDecimal(MOVIMIENTOS_POR_CUENTA + ".00"));
+            cuenta = cuentaRepository.save(cuenta);
+
+            List<Movimiento> movimientos = new ArrayList<>(MOVIMIENTOS_POR_CUENTA);
+            for (int m = 1; m <= MOVIMIENTOS_POR_CUENTA; m++) {
+                Movimiento movimiento = new Movimiento("DEPOSITO", BigDecimal.ONE,
+                        new BigDecimal(MOVIMIENTOS_POR_CUENTA - m + 1), cuenta);
+                movimiento.setFecha(hoy.minusDays(m - 1).atTime(12, 0));
+                movimientos.add(movimiento);
+            }
+            movimientoRepository.saveAll(movimientos);
+        }
+    }
+}
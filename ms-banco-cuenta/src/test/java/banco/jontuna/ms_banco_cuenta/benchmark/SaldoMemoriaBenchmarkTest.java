@@ -0,0 +1,120 @@
+package banco.jontuna.ms_banco_cuenta.benchmark;
+
+import banco.jontuna.ms_banco_cuenta.repository.CuentaRepository;
+import banco.jontuna.ms_banco_cuenta.util.cache.SaldoMemoria;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Memoria por cuenta y latencia de lectura de SaldoMemoria con N cuentas precargadas (por defecto 1.000.000).
+// Se ejecuta con "gradle benchmark"; -Dbenchmark.saldos.cuentas ajusta la cantidad de cuentas.
+@Tag("benchmark")
+class SaldoMemoriaBenchmarkTest {
+
+    private static final int CUENTAS = Integer.getInteger("benchmark.saldos.cuentas", 1_000_000);
+    private static final int LECTURAS = 10_000_000;
+    private static final int HILOS = 8;
+
+    private double heapPorCuenta;
+
+    @Test
+    void memoriaYLatenciaDeLectura() throws Exception {
+        SaldoMemoria saldoMemoria = precargar();
+
+        System.out.printf("BENCHMARK saldos-memoria cuentas=%d bytes=%d bytes/cuenta=%.1f heap/cuenta=%.1f%n",
+                saldoMemoria.cantidadCuentas(), saldoMemoria.bytesReservados(),
+                saldoMemoria.bytesReservados() / (double) CUENTAS, heapPorCuenta);
+
+        leer(saldoMemoria, 1, LECTURAS / 10);
+        medir(saldoMemoria, 1);
+        medir(saldoMemoria, HILOS);
+
+        assertEquals(CUENTAS, saldoMemoria.cantidadCuentas());
+    }
+
+    // Precarga real (findSaldosSinSlotsDesde por páginas) contra un repositorio simulado de CUENTAS cuentas
+    private SaldoMemoria precargar() {
+        CuentaRepository cuentaRepository = mock(CuentaRepository.class);
+        when(cuentaRepository.findSaldosSinSlotsDesde(anyLong(), any(Limit.class))).thenAnswer(invocacion -> {
+            long ultimo = invocacion.getArgument(0);
+            int tamano = invocacion.<Limit>getArgument(1).max();
+            List<Object[]> lote = new ArrayList<>(tamano);
+            for (long cuentaId = ultimo + 1; cuentaId <= Math.min(ultimo + tamano, CUENTAS); cuentaId++) {
+                lote.add(new Object[] { cuentaId, BigDecimal.valueOf(cuentaId * 7 % 1_000_000, 2) });
+            }
+            return lote;
+        });
+
+        long heapAntes = heapUsado();
+        SaldoMemoria saldoMemoria = new SaldoMemoria(cuentaRepository, new SimpleMeterRegistry(), 64, 1024, 10_000);
+        long inicio = System.nanoTime();
+        saldoMemoria.precargar();
+        long duracion = System.nanoTime() - inicio;
+        heapPorCuenta = (heapUsado() - heapAntes) / (double) CUENTAS;
+
+        System.out.printf("BENCHMARK saldos-memoria precarga=%.0f ms%n", duracion / 1_000_000.0);
+        return saldoMemoria;
+    }
+
+    private void medir(SaldoMemoria saldoMemoria, int hilos) throws Exception {
+        int porHilo = LECTURAS / hilos;
+        long inicio = System.nanoTime();
+        long encontradas = leer(saldoMemoria, hilos, porHilo);
+        long duracion = System.nanoTime() - inicio;
+
+        System.out.printf("BENCHMARK saldos-memoria hilos=%d lecturas=%d ns/lectura=%.1f lecturas/s=%.0f%n",
+                hilos, (long) porHilo * hilos, duracion / (double) porHilo,
+                (long) porHilo * hilos / (duracion / 1_000_000_000.0));
+        assertEquals((long) porHilo * hilos, encontradas);
+    }
+
+    // Lecturas aleatorias de cuentas existentes; devuelve cuántas se encontraron en memoria
+    private long leer(SaldoMemoria saldoMemoria, int hilos, int porHilo) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        try {
+            List<Future<Long>> futuros = new ArrayList<>();
+            for (int h = 0; h < hilos; h++) {
+                SplittableRandom random = new SplittableRandom(h);
+                futuros.add(executor.submit(() -> {
+                    long encontradas = 0;
+                    for (int i = 0; i < porHilo; i++) {
+                        if (saldoMemoria.saldoEnMemoria(1 + random.nextLong(CUENTAS)).isPresent()) {
+                            encontradas++;
+                        }
+                    }
+                    return encontradas;
+                }));
+            }
+            long total = 0;
+            for (Future<Long> futuro : futuros) {
+                total += futuro.get();
+            }
+            return total;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static long heapUsado() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,135 @@
+package banco.jontuna.ms_banco_cuenta.config;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.MigrationState;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// ms-banco-cliente y ms-banco-cuenta migran la misma base (db_banco), cada uno con su historial. Corre los dos
+// juegos de migraciones sobre una misma base H2 con la configuración spring.flyway.* de cada servicio.
+class FlywayConfigTest {
+
+    private static final Path CLIENTE = Path.of("../ms-banco-cliente/src/main/resources");
+    private static final Path CUENTA = Path.of("src/main/resources");
+    private static final List<String> TABLAS_CLIENTE = List.of("PERSONA", "CLIENTE");
+
+    @Test
+    void migrar_BaseNuevaClienteAntesQueCuenta_DeberiaAplicarTodasLasMigraciones() throws Exception {
+        String url = baseNueva();
+
+        FlywayConfig.migrar(flyway(CLIENTE, url), TABLAS_CLIENTE);
+        FlywayConfig.migrar(flyway(CUENTA, url), FlywayConfig.TABLAS_PROPIAS);
+
+        assertTodoMigrado(url);
+    }
+
+    @Test
+    void migrar_BaseNuevaCuentaAntesQueCliente_DeberiaAplicarTodasLasMigraciones() throws Exception {
+        String url = baseNueva();
+
+        FlywayConfig.migrar(flyway(CUENTA, url), FlywayConfig.TABLAS_PROPIAS);
+        FlywayConfig.migrar(flyway(CLIENTE, url), TABLAS_CLIENTE);
+
+        assertTodoMigrado(url);
+    }
+
+    @Test
+    void migrar_BaseCreadaConBaseDatosSql_DeberiaPedirElBaselineYLuegoMigrar() throws Exception {
+        // Arrange: tablas de la versión 1 sin historial, como las dejaba BaseDatos.sql
+        String url = baseNueva();
+        try (Connection conexion = DriverManager.getConnection(url, "sa", "");
+             Statement sentencia = conexion.createStatement()) {
+            sentencia.execute("RUNSCRIPT FROM '" + CLIENTE.resolve("db/migration/V1__esquema_inicial.sql") + "'");
+            sentencia.execute("RUNSCRIPT FROM '" + CUENTA.resolve("db/migration/V1__esquema_inicial.sql") + "'");
+        }
+
+        // Act / Assert: sin baseline no se toca la base
+        assertThrows(FlywayException.class,
+                () -> FlywayConfig.migrar(flyway(CUENTA, url), FlywayConfig.TABLAS_PROPIAS));
+        assertThrows(FlywayException.class,
+                () -> FlywayConfig.migrar(flyway(CLIENTE, url), TABLAS_CLIENTE));
+
+        // El baseline de una sola vez (versión 1, baseline-version de cada servicio) y luego el arranque normal
+        flyway(CUENTA, url).baseline();
+        flyway(CLIENTE, url).baseline();
+        FlywayConfig.migrar(flyway(CUENTA, url), FlywayConfig.TABLAS_PROPIAS);
+        FlywayConfig.migrar(flyway(CLIENTE, url), TABLAS_CLIENTE);
+
+        assertTodoMigrado(url);
+    }
+
+    private void assertTodoMigrado(String url) throws SQLException {
+        for (Path servicio : List.of(CLIENTE, CUENTA)) {
+            Flyway flyway = flyway(servicio, url);
+            assertEquals(0, flyway.info().pending().length, servicio + " tiene migraciones pendientes");
+            for (MigrationInfo migracion : flyway.info().applied()) {
+                assertTrue(migracion.getState() == MigrationState.SUCCESS || migracion.getState() == MigrationState.BASELINE,
+                        servicio + " V" + migracion.getVersion() + ": " + migracion.getState());
+            }
+        }
+        try (Connection conexion = DriverManager.getConnection(url, "sa", "")) {
+            for (String tabla : List.of("PERSONA", "CLIENTE", "CUENTA", "MOVIMIENTO", "SALDO_SLOT", "SALDO_DIARIO")) {
+                try (ResultSet tablas = conexion.getMetaData().getTables(null, "PUBLIC", tabla, null)) {
+                    assertTrue(tablas.next(), "Falta la tabla " + tabla);
+                }
+            }
+        }
+    }
+
+    // Flyway con las propiedades spring.flyway.* del application.properties del servicio
+    private Flyway flyway(Path servicio, String url) {
+        Properties propiedades = new Properties();
+        try (InputStream entrada = Files.newInputStream(servicio.resolve("application.properties"))) {
+            propiedades.load(entrada);
+        } catch (IOException e) {
+            throw new RuntimeException("No se pudo leer la configuración de " + servicio, e);
+        }
+
+        Properties configuracion = new Properties();
+        for (String clave : propiedades.stringPropertyNames()) {
+            if (clave.startsWith("spring.flyway.") && !clave.equals("spring.flyway.enabled")) {
+                configuracion.setProperty("flyway." + camelCase(clave.substring("spring.flyway.".length())),
+                        propiedades.getProperty(clave).trim());
+            }
+        }
+        return Flyway.configure()
+                .configuration(configuracion)
+                .dataSource(url, "sa", "")
+                .locations("filesystem:" + servicio.resolve("db/migration"))
+                .load();
+    }
+
+    private static String camelCase(String clave) {
+        StringBuilder resultado = new StringBuilder();
+        boolean mayuscula = false;
+        for (char c : clave.toCharArray()) {
+            if (c == '-') {
+                mayuscula = true;
+            } else {
+                resultado.append(mayuscula ? Character.toUpperCase(c) : c);
+                mayuscula = false;
+            }
+        }
+        return resultado.toString();
+    }
+
+    private static String baseNueva() {
+        return "jdbc:h2:mem:db_banco_" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;MODE=MySQL";
+    }
+}
@@ -0,0 +1,113 @@
+package banco.jontuna.ms_banco_cuenta.config;
+
+import banco.jontuna.ms_banco_cuenta.dto.CuentaRequestDTO;
+import banco.jontuna.ms_banco_cuenta.dto.CuentaResponseDTO;
+import banco.jontuna.ms_banco_cuenta.service.CuentaService;
+import banco.jontuna.ms_banco_cuenta.util.exception.CuentaNotFoundException;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Dos bases H2 en memoria: testdb es la primaria (migrada por Flyway al arrancar) y replicadb hace de réplica
+@SpringBootTest(properties = {
+        "banco.datasource.replicas.enabled=true",
+        "banco.datasource.replicas.urls=" + ReplicasDataSourceIntegrationTest.URL_REPLICA
+})
+@ActiveProfiles("test")
+class ReplicasDataSourceIntegrationTest {
+
+    static final String URL_REPLICA = "jdbc:h2:mem:replicadb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;MODE=MySQL";
+    private static final String URL_PRIMARIA = "jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;MODE=MySQL";
+
+    private static final JdbcTemplate replica = new JdbcTemplate(h2(URL_REPLICA));
+    private static final JdbcTemplate primaria = new JdbcTemplate(h2(URL_PRIMARIA));
+
+    @Autowired
+    private CuentaService cuentaService;
+
+    @BeforeAll
+    static void migrarReplica() {
+        Flyway.configure().dataSource(h2(URL_REPLICA)).table("flyway_historial_cuenta").load().migrate();
+    }
+
+    @Test
+    void crearCuenta_DeberiaEscribirEnLaPrimaria() {
+        // Act
+        CuentaResponseDTO cuenta = cuentaService.crearCuenta(new CuentaRequestDTO("AHORROS", BigDecimal.ZERO, 8100L));
+
+        // Assert
+        assertEquals(1, contarCuenta(primaria, cuenta.getCuentaId()));
+        assertEquals(0, contarCuenta(replica, cuenta.getCuentaId()));
+    }
+
+    @Test
+    void consultarSaldo_TransaccionDeSoloLectura_DeberiaLeerDeLaReplica() {
+        // Arrange: la cuenta solo existe en la réplica
+        long cuentaId = 9_100_000_001L;
+        replica.update("INSERT INTO CUENTA (CuentaId, NumeroCuenta, TipoCuenta, SaldoInicial, SaldoActual, Estado, ClienteId) "
+                + "VALUES (?, '9100000001', 'AHORROS', 0, 42.00, 'ACTIVA', 8100)", cuentaId);
+
+        // Act & Assert
+        assertEquals(0, new BigDecimal("42.00").compareTo(cuentaService.consultarSaldo(cuentaId)));
+        assertEquals(0, contarCuenta(primaria, cuentaId));
+    }
+
+    @Test
+    void consultarSaldo_CuentaSoloEnLaPrimaria_NoDeberiaEncontrarseEnLaReplica() {
+        // Arrange
+        CuentaResponseDTO cuenta = cuentaService.crearCuenta(new CuentaRequestDTO("AHORROS", BigDecimal.ZERO, 8100L));
+
+        // Act & Assert
+        assertThrows(CuentaNotFoundException.class, () -> cuentaService.consultarSaldo(cuenta.getCuentaId()));
+    }
+
+    @Test
+    void getConnection_DeberiaSaltarReplicasCaidasYUsarLaPrimariaSiNingunaResponde() throws Exception {
+        // Arrange: una réplica sana, otra sin servidor y la primaria como respaldo
+        DataSource caida = h2("jdbc:h2:tcp://localhost:1/caida");
+        try (ReplicasDataSource replicas = new ReplicasDataSource(h2(URL_PRIMARIA), List.of(h2(URL_REPLICA), caida), 0, 1);
+             ReplicasDataSource sinReplicas = new ReplicasDataSource(h2(URL_PRIMARIA), List.of(caida), 0, 1)) {
+
+            // Act & Assert: la réplica caída sale de la rotación y todas las lecturas van a la sana
+            for (int i = 0; i < 4; i++) {
+                assertEquals("replicadb", base(replicas));
+            }
+            assertEquals(1, replicas.getReplicasDisponibles());
+            assertEquals(0, replicas.getLecturasEnPrimaria());
+
+            // Sin réplicas disponibles se lee en la primaria
+            assertEquals("testdb", base(sinReplicas));
+            assertEquals(1, sinReplicas.getLecturasEnPrimaria());
+
+            // La verificación periódica no reincorpora una réplica que sigue sin responder
+            replicas.verificarReplicas();
+            assertEquals(1, replicas.getReplicasDisponibles());
+        }
+    }
+
+    private static String base(DataSource dataSource) throws Exception {
+        try (Connection conexion = dataSource.getConnection()) {
+            return conexion.getCatalog().toLowerCase();
+        }
+    }
+
+    private static int contarCuenta(JdbcTemplate jdbcTemplate, Long cuentaId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM CUENTA WHERE CuentaId = ?", Integer.class, cuentaId);
+    }
+
+    private static DriverManagerDataSource h2(String url) {
+        return new DriverManagerDataSource(url, "sa", "");
+    }
+}
@@ -0,0 +1,194 @@
+package banco.jontuna.ms_banco_cuenta.controller;
+
+import banco.jontuna.ms_banco_cuenta.dto.ErrorResponse;
+import banco.jontuna.ms_banco_cuenta.dto.MovimientoRequestDTO;
+import banco.jontuna.ms_banco_cuenta.dto.MovimientoResponseDTO;
+import banco.jontuna.ms_banco_cuenta.handler.GlobalExceptionHandler;
+import banco.jontuna.ms_banco_cuenta.model.Cuenta;
+import banco.jontuna.ms_banco_cuenta.repository.CuentaRepository;
+import banco.jontuna.ms_banco_cuenta.service.CuentaService;
+import banco.jontuna.ms_banco_cuenta.service.MovimientoService;
+import banco.jontuna.ms_banco_cuenta.service.SaldoSlotService;
+import banco.jontuna.ms_banco_cuenta.util.ConteoSentencias;
+import banco.jontuna.ms_banco_cuenta.util.CuentasDePrueba;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.math.BigDecimal;
+
+import static banco.jontuna.ms_banco_cuenta.util.ConteoSentencias.contar;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(ConteoSentencias.Config.class)
+class ConsultaCondicionalIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CuentaService cuentaService;
+
+    @Autowired
+    private MovimientoService movimientoService;
+
+    @Autowired
+    private SaldoSlotService saldoSlotService;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private GlobalExceptionHandler globalExceptionHandler;
+
+    @Test
+    void consultarSaldo_ConElMismoETag_DeberiaResponder304HastaElSiguienteMovimiento() throws Exception {
+        // Arrange
+        Long cuentaId = crearCuenta(new BigDecimal("50.00"));
+        String etag = mockMvc.perform(get("/api/cuentas/{cuentaId}/saldo", cuentaId))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/cuentas/{cuentaId}/saldo", cuentaId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+
+        movimientoService.registrarMovimiento(cuentaId, new MovimientoRequestDTO(new BigDecimal("5.00")));
+
+        String nuevoEtag = mockMvc.perform(get("/api/cuentas/{cuentaId}/saldo", cuentaId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(content().string("55.00"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, nuevoEtag);
+    }
+
+    @Test
+    void obtenerMovimientosPorCuenta_ConElMismoETag_DeberiaResponder304ConUnaSolaSentencia() throws Exception {
+        // Arrange
+        Long cuentaId = crearCuenta(new BigDecimal("10.00"));
+        String etag = mockMvc.perform(get("/api/movimientos/cuenta/{cuentaId}", cuentaId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        // Act
+        MvcResult[] resultado = new MvcResult[1];
+        int sentencias = contar(() -> resultado[0] = ejecutar(
+                get("/api/movimientos/cuenta/{cuentaId}", cuentaId).header(HttpHeaders.IF_NONE_MATCH, etag)));
+
+        // Assert
+        assertEquals(304, resultado[0].getResponse().getStatus());
+        assertEquals(1, sentencias);
+    }
+
+    @Test
+    void consultarSaldo_CuentaConSlots_NoDeberiaEnviarETag() throws Exception {
+        // Arrange
+        Long cuentaId = crearCuenta(new BigDecimal("20.00"));
+        saldoSlotService.ajustarSlots(cuentaId, 2);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/cuentas/{cuentaId}/saldo", cuentaId).header(HttpHeaders.IF_NONE_MATCH, "*"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+                .andExpect(content().string("20.00"));
+    }
+
+    @Test
+    void obtenerMovimientoPorId_DeberiaMarcarseInmutableYResponder304SinConsultar() throws Exception {
+        // Arrange
+        Long cuentaId = crearCuenta(null);
+        MovimientoResponseDTO movimiento = movimientoService.registrarMovimiento(
+                cuentaId, new MovimientoRequestDTO(new BigDecimal("3.00")));
+        String etag = mockMvc.perform(get("/api/movimientos/{movimientoId}", movimiento.getMovimientoId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, private, immutable"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Act
+        MvcResult[] resultado = new MvcResult[1];
+        int sentencias = contar(() -> resultado[0] = ejecutar(
+                get("/api/movimientos/{movimientoId}", movimiento.getMovimientoId()).header(HttpHeaders.IF_NONE_MATCH, etag)));
+
+        // Assert
+        assertEquals(304, resultado[0].getResponse().getStatus());
+        assertEquals(0, sentencias);
+    }
+
+    @Test
+    void obtenerCuentaPorId_DespuesDeCambiarElEstado_DeberiaCambiarElETag() throws Exception {
+        // Arrange
+        Long cuentaId = crearCuenta(null);
+        String etag = mockMvc.perform(get("/api/cuentas/{cuentaId}", cuentaId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/cuentas/{cuentaId}", cuentaId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        // Act
+        cuentaService.actualizarEstadoCuenta(cuentaId, "BLOQUEADA");
+
+        // Assert
+        mockMvc.perform(get("/api/cuentas/{cuentaId}", cuentaId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.estado").value("BLOQUEADA"))
+                .andExpect(jsonPath("$.version").doesNotExist());
+    }
+
+    @Test
+    void guardarCuentaDesactualizada_DeberiaFallarPorVersionYResponder409() {
+        // Arrange: una copia leída antes de un movimiento queda con la versión anterior
+        Long cuentaId = crearCuenta(new BigDecimal("30.00"));
+        Cuenta desactualizada = cuentaRepository.findById(cuentaId).orElseThrow();
+        movimientoService.registrarMovimiento(cuentaId, new MovimientoRequestDTO(new BigDecimal("5.00")));
+        desactualizada.setEstado("BLOQUEADA");
+
+        // Act
+        OptimisticLockingFailureException error = assertThrows(OptimisticLockingFailureException.class,
+                () -> cuentaRepository.save(desactualizada));
+        ResponseEntity<ErrorResponse> respuesta = globalExceptionHandler.handleOptimisticLockingFailureException(
+                error, new MockHttpServletRequest("PATCH", "/api/cuentas/" + cuentaId + "/estado"));
+
+        // Assert: el movimiento no se pierde y el conflicto sale como 409, no como error interno
+        assertEquals(HttpStatus.CONFLICT, respuesta.getStatusCode());
+        Cuenta cuenta = cuentaRepository.findById(cuentaId).orElseThrow();
+        assertEquals("ACTIVA", cuenta.getEstado());
+        assertEquals(0, new BigDecimal("35.00").compareTo(cuenta.getSaldoActual()));
+    }
+
+    private MvcResult ejecutar(RequestBuilder solicitud) {
+        try {
+            return mockMvc.perform(solicitud).andReturn();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Con saldo, la cuenta recibe un depósito inicial por MovimientoService; con null queda sin movimientos
+    private Long crearCuenta(BigDecimal saldoInicial) {
+        Long cuentaId = cuentaRepository.save(CuentasDePrueba.nueva()).getCuentaId();
+        if (saldoInicial != null) {
+            movimientoService.registrarMovimiento(cuentaId, new MovimientoRequestDTO(saldoInicial));
+        }
+        return cuentaId;
+    }
+}
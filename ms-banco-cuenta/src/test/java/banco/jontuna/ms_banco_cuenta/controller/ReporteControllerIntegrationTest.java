@@ -6,6 +6,7 @@ import banco.jontuna.ms_banco_cuenta.model.Movimiento;
 import banco.jontuna.ms_banco_cuenta.repository.CuentaRepository;
 import banco.jontuna.ms_banco_cuenta.repository.MovimientoRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,19 +15,22 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
 
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
 @AutoConfigureMockMvc
 @ActiveProfiles("test")
-@Transactional
 class ReporteControllerIntegrationTest {
 
     @Autowired
@@ -43,6 +47,8 @@ class ReporteControllerIntegrationTest {
 
     private Long clienteIdExistente;
     private Long clienteIdSinCuentas;
+    // El reporte se lee desde otro hilo: los datos se confirman y se borran al terminar cada test
+    private final List<Cuenta> cuentasCreadas = new ArrayList<>();
 
     @BeforeEach
     void setUp() {
@@ -56,7 +62,7 @@ class ReporteControllerIntegrationTest {
         cuentaAhorros.setTipoCuenta("AHORROS");
         cuentaAhorros.setEstado("ACTIVA");
         cuentaAhorros.setSaldoInicial(BigDecimal.valueOf(1000.00));
-        cuentaRepository.save(cuentaAhorros);
+        cuentasCreadas.add(cuentaRepository.save(cuentaAhorros));
 
         Cuenta cuentaCorriente = new Cuenta();
         cuentaCorriente.setClienteId(clienteIdExistente);
@@ -64,7 +70,7 @@ class ReporteControllerIntegrationTest {
         cuentaCorriente.setTipoCuenta("CORRIENTE");
         cuentaCorriente.setEstado("ACTIVA");
         cuentaCorriente.setSaldoInicial(BigDecimal.valueOf(2000.00));
-        cuentaRepository.save(cuentaCorriente);
+        cuentasCreadas.add(cuentaRepository.save(cuentaCorriente));
 
         Movimiento movimientoDeposito = new Movimiento();
         movimientoDeposito.setCuenta(cuentaAhorros);
@@ -96,7 +102,15 @@ class ReporteControllerIntegrationTest {
         cuentaInactiva.setTipoCuenta("AHORROS");
         cuentaInactiva.setEstado("INACTIVA");
         cuentaInactiva.setSaldoInicial(BigDecimal.valueOf(500.00));
-        cuentaRepository.save(cuentaInactiva);
+        cuentasCreadas.add(cuentaRepository.save(cuentaInactiva));
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (Cuenta cuenta : cuentasCreadas) {
+            movimientoRepository.deleteAll(movimientoRepository.findByCuentaCuentaIdOrderByFechaDesc(cuenta.getCuentaId()));
+        }
+        cuentaRepository.deleteAll(cuentasCreadas);
     }
 
     @Test
@@ -107,10 +121,7 @@ class ReporteControllerIntegrationTest {
         String url = "/api/reportes/{clienteId}";
 
         // Act & Assert
-        mockMvc.perform(get(url, clienteIdExistente)
-                .param("fechaInicio", fechaInicio)
-                .param("fechaFin", fechaFin)
-                .contentType(MediaType.APPLICATION_JSON))
+        obtenerReporte(url, clienteIdExistente, fechaInicio, fechaFin)
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.clienteId").value(clienteIdExistente))
@@ -134,10 +145,7 @@ class ReporteControllerIntegrationTest {
         String url = "/api/reportes/{clienteId}";
 
         // Act
-        String response = mockMvc.perform(get(url, clienteIdExistente)
-                .param("fechaInicio", fechaInicio)
-                .param("fechaFin", fechaFin)
-                .contentType(MediaType.APPLICATION_JSON))
+        String response = obtenerReporte(url, clienteIdExistente, fechaInicio, fechaFin)
                 .andExpect(status().isOk())
                 .andReturn()
                 .getResponse()
@@ -164,10 +172,7 @@ class ReporteControllerIntegrationTest {
         String url = "/api/reportes/{clienteId}";
 
         // Act & Assert
-        mockMvc.perform(get(url, clienteIdSinCuentas)
-                .param("fechaInicio", fechaInicio)
-                .param("fechaFin", fechaFin)
-                .contentType(MediaType.APPLICATION_JSON))
+        obtenerReporte(url, clienteIdSinCuentas, fechaInicio, fechaFin)
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.error").value("Cuentas No Encontradas"))
                 .andExpect(jsonPath("$.message").value("No se encontraron cuentas activas para el cliente con ID: " + clienteIdSinCuentas));
@@ -232,10 +237,7 @@ class ReporteControllerIntegrationTest {
         String url = "/api/reportes/{clienteId}";
 
         // Act & Assert
-        mockMvc.perform(get(url, clienteIdExistente)
-                .param("fechaInicio", fechaInicio)
-                .param("fechaFin", fechaFin)
-                .contentType(MediaType.APPLICATION_JSON))
+        obtenerReporte(url, clienteIdExistente, fechaInicio, fechaFin)
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.error").value("Cuentas No Encontradas"))
                 .andExpect(jsonPath("$.message").value("No se encontraron cuentas con movimientos para el cliente ID: "+clienteIdExistente+" en el rango 2025-01-01 a 2025-01-31"));
@@ -249,10 +251,7 @@ class ReporteControllerIntegrationTest {
         String url = "/api/reportes/{clienteId}";
 
         // Act
-        String response = mockMvc.perform(get(url, clienteIdExistente)
-                .param("fechaInicio", fechaInicio)
-                .param("fechaFin", fechaFin)
-                .contentType(MediaType.APPLICATION_JSON))
+        String response = obtenerReporte(url, clienteIdExistente, fechaInicio, fechaFin)
                 .andExpect(status().isOk())
                 .andReturn()
                 .getResponse()
@@ -282,10 +281,7 @@ class ReporteControllerIntegrationTest {
         String url = "/api/reportes/{clienteId}";
 
         // Act
-        String response = mockMvc.perform(get(url, clienteIdExistente)
-                .param("fechaInicio", fechaInicio)
-                .param("fechaFin", fechaFin)
-                .contentType(MediaType.APPLICATION_JSON))
+        String response = obtenerReporte(url, clienteIdExistente, fechaInicio, fechaFin)
                 .andExpect(status().isOk())
                 .andReturn()
                 .getResponse()
@@ -330,10 +326,7 @@ class ReporteControllerIntegrationTest {
         String url = "/api/reportes/{clienteId}";
 
         // Act
-        String response = mockMvc.perform(get(url, clienteIdExistente)
-                .param("fechaInicio", fechaInicio)
-                .param("fechaFin", fechaFin)
-                .contentType(MediaType.APPLICATION_JSON))
+        String response = obtenerReporte(url, clienteIdExistente, fechaInicio, fechaFin)
                 .andExpect(status().isOk())
                 .andReturn()
                 .getResponse()
@@ -361,10 +354,7 @@ class ReporteControllerIntegrationTest {
         String url = "/api/reportes/{clienteId}";
 
         // Act
-        String response = mockMvc.perform(get(url, clienteIdExistente)
-                .param("fechaInicio", fechaInicio)
-                .param("fechaFin", fechaFin)
-                .contentType(MediaType.APPLICATION_JSON))
+        String response = obtenerReporte(url, clienteIdExistente, fechaInicio, fechaFin)
                 .andExpect(status().isOk())
                 .andReturn()
                 .getResponse()
@@ -380,4 +370,15 @@ class ReporteControllerIntegrationTest {
         assertEquals(0, saldoTotalCalculado.compareTo(reporte.getSaldoTotal()), 
                 "El saldo total del reporte debe ser igual a la suma de los saldos de todas las cuentas");
     }
-}
\ No newline at end of file
+
+    // La validación de fechas responde en el acto; el reporte llega con el despacho asíncrono
+    private ResultActions obtenerReporte(String url, Long clienteId, String fechaInicio, String fechaFin) throws Exception {
+        MvcResult iniciada = mockMvc.perform(get(url, clienteId)
+                .param("fechaInicio", fechaInicio)
+                .param("fechaFin", fechaFin)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(iniciada));
+    }
+}
@@ -0,0 +1,242 @@
+package banco.jontuna.ms_banco_cuenta.repository;
+
+import banco.jontuna.ms_banco_cuenta.model.Cuenta;
+import banco.jontuna.ms_banco_cuenta.model.Movimiento;
+import banco.jontuna.ms_banco_cuenta.repository.custom.CustomMovimientoRepository;
+import banco.jontuna.ms_banco_cuenta.util.CuentasDePrueba;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Ejecuta cada consulta declarada en los repositorios, captura el SQL que genera Hibernate y corre
+// EXPLAIN sobre él: falla si alguna tabla se recorre completa (tableScan en el plan de H2).
+@SpringBootTest
+@ActiveProfiles("test")
+class RepositorioExplainTest {
+
+    private static final List<Sentencia> SENTENCIAS = new ArrayList<>();
+    private static volatile boolean capturando;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private MovimientoRepository movimientoRepository;
+
+    @Autowired
+    private IdempotenciaMovimientoRepository idempotenciaMovimientoRepository;
+
+    @Autowired
+    private CustomMovimientoRepository customMovimientoRepository;
+
+    @Autowired
+    private SaldoSlotRepository saldoSlotRepository;
+
+    @Autowired
+    private SaldoDiarioRepository saldoDiarioRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private Cuenta cuenta;
+
+    @BeforeEach
+    void setUp() {
+        cuenta = CuentasDePrueba.nueva();
+        cuenta.setSaldoInicial(BigDecimal.TEN);
+        cuenta = cuentaRepository.save(cuenta);
+        movimientoRepository.save(new Movimiento("DEPOSITO", BigDecimal.TEN, BigDecimal.TEN, cuenta));
+    }
+
+    @Test
+    void consultasCuentaRepository_NoDeberianRecorrerLaTablaCompleta() throws Exception {
+        assertSinRecorridosCompletos(CuentaRepository.class, cuentaRepository);
+    }
+
+    @Test
+    void consultasMovimientoRepository_NoDeberianRecorrerLaTablaCompleta() throws Exception {
+        assertSinRecorridosCompletos(MovimientoRepository.class, movimientoRepository);
+        assertSinRecorridosCompletos(CustomMovimientoRepository.class, customMovimientoRepository);
+    }
+
+    @Test
+    void consultasIdempotenciaMovimientoRepository_NoDeberianRecorrerLaTablaCompleta() throws Exception {
+        assertSinRecorridosCompletos(IdempotenciaMovimientoRepository.class, idempotenciaMovimientoRepository);
+    }
+
+    @Test
+    void consultasSaldoSlotRepository_NoDeberianRecorrerLaTablaCompleta() throws Exception {
+        assertSinRecorridosCompletos(SaldoSlotRepository.class, saldoSlotRepository);
+    }
+
+    @Test
+    void consultasSaldoDiarioRepository_NoDeberianRecorrerLaTablaCompleta() throws Exception {
+        assertSinRecorridosCompletos(SaldoDiarioRepository.class, saldoDiarioRepository);
+    }
+
+    private void assertSinRecorridosCompletos(Class<?> repositorio, Object instancia) throws Exception {
+        List<String> recorridos = new ArrayList<>();
+
+        for (Method consulta : repositorio.getDeclaredMethods()) {
+            // Las exportaciones completas (streams) recorren la tabla a propósito
+            if (consulta.getReturnType() == Stream.class) {
+                continue;
+            }
+            List<Sentencia> sentencias = capturar(consulta, instancia);
+            assertFalse(sentencias.isEmpty(), "Sin SQL capturado para " + consulta.getName());
+
+            for (Sentencia sentencia : sentencias) {
+                String plan = explain(sentencia);
+                if (plan.contains(".tableScan")) {
+                    recorridos.add(repositorio.getSimpleName() + "." + consulta.getName() + ":\n" + plan);
+                }
+            }
+        }
+
+        assertTrue(recorridos.isEmpty(), "Consultas con recorrido completo de tabla:\n" + String.join("\n\n", recorridos));
+    }
+
+    private List<Sentencia> capturar(Method consulta, Object instancia) {
+        Object[] argumentos = new Object[consulta.getParameterCount()];
+        for (int i = 0; i < argumentos.length; i++) {
+            argumentos[i] = valorDeEjemplo(consulta.getParameterTypes()[i]);
+        }
+
+        return transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            synchronized (SENTENCIAS) {
+                SENTENCIAS.clear();
+            }
+            capturando = true;
+            try {
+                consulta.invoke(instancia, argumentos);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Error al ejecutar " + consulta.getName(), e);
+            } finally {
+                capturando = false;
+            }
+            synchronized (SENTENCIAS) {
+                return new ArrayList<>(SENTENCIAS);
+            }
+        });
+    }
+
+    private Object valorDeEjemplo(Class<?> tipo) {
+        if (tipo == Long.class || tipo == long.class) {
+            return cuenta.getCuentaId();
+        }
+        if (tipo == Integer.class || tipo == int.class) {
+            return 0;
+        }
+        if (tipo == String.class) {
+            return cuenta.getNumeroCuenta();
+        }
+        if (tipo == LocalDate.class) {
+            return LocalDate.now();
+        }
+        if (tipo == LocalDateTime.class) {
+            return LocalDateTime.now();
+        }
+        if (tipo == BigDecimal.class) {
+            return BigDecimal.ONE;
+        }
+        if (tipo == Limit.class) {
+            return Limit.of(10);
+        }
+        if (Collection.class.isAssignableFrom(tipo)) {
+            return List.of(cuenta.getCuentaId());
+        }
+        throw new IllegalArgumentException("Tipo de parámetro sin valor de ejemplo: " + tipo.getName());
+    }
+
+    private String explain(Sentencia sentencia) throws Exception {
+        try (Connection conexion = dataSource.getConnection();
+             PreparedStatement explain = conexion.prepareStatement("EXPLAIN " + sentencia.sql())) {
+            for (Map.Entry<Integer, Object> parametro : sentencia.parametros().entrySet()) {
+                explain.setObject(parametro.getKey(), parametro.getValue());
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet resultado = explain.executeQuery()) {
+                while (resultado.next()) {
+                    plan.append(resultado.getString(1));
+                }
+            }
+            return plan.toString();
+        }
+    }
+
+    private record Sentencia(String sql, Map<Integer, Object> parametros) {}
+
+    @TestConfiguration
+    static class CapturaSqlConfig {
+
+        @Bean
+        static BeanPostProcessor capturaSqlPostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource ? capturar(bean, DataSource.class, null, null) : bean;
+                }
+            };
+        }
+
+        // Registra el SQL de cada PreparedStatement y los parámetros con los que se ejecuta
+        private static Object capturar(Object destino, Class<?> tipo, String sql, Map<Integer, Object> parametros) {
+            return Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[] { tipo }, (proxy, metodo, args) -> {
+                if (parametros != null && metodo.getName().startsWith("set") && args != null
+                        && args.length >= 2 && args[0] instanceof Integer indice) {
+                    parametros.put(indice, args[1]);
+                }
+                if (capturando && parametros != null && metodo.getName().startsWith("execute")) {
+                    synchronized (SENTENCIAS) {
+                        SENTENCIAS.add(new Sentencia(sql, new TreeMap<>(parametros)));
+                    }
+                }
+
+                Object resultado;
+                try {
+                    resultado = metodo.invoke(destino, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getTargetException();
+                }
+
+                if (resultado instanceof Connection) {
+                    return capturar(resultado, Connection.class, null, null);
+                }
+                if (resultado instanceof PreparedStatement && metodo.getName().equals("prepareStatement")) {
+                    return capturar(resultado, PreparedStatement.class, (String) args[0], new TreeMap<>());
+                }
+                return resultado;
+            });
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package banco.jontuna.ms_banco_cuenta.service;
+
+import banco.jontuna.ms_banco_cuenta.dto.MovimientoRequestDTO;
+import banco.jontuna.ms_banco_cuenta.model.Cuenta;
+import banco.jontuna.ms_banco_cuenta.repository.CuentaRepository;
+import banco.jontuna.ms_banco_cuenta.util.CuentasDePrueba;
+import banco.jontuna.ms_banco_cuenta.util.exception.CuentaConSaldoException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Un cambio de estado que llega mientras un movimiento tiene la cuenta tomada debe esperar a que ese movimiento
+// confirme y trabajar sobre la fila actualizada, sin pisar SaldoActual ni UltimoMovimientoId
+@SpringBootTest
+@ActiveProfiles("test")
+class CuentaEstadoConcurrenciaIntegrationTest {
+
+    @Autowired
+    private CuentaService cuentaService;
+
+    @Autowired
+    private MovimientoService movimientoService;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long cuentaId;
+
+    @BeforeEach
+    void setUp() {
+        cuentaId = cuentaRepository.save(CuentasDePrueba.nueva()).getCuentaId();
+    }
+
+    @Test
+    void actualizarEstadoCuenta_ConMovimientoEnCurso_DeberiaConservarElSaldoDelMovimiento() throws Exception {
+        movimientoService.registrarMovimiento(cuentaId, new MovimientoRequestDTO(new BigDecimal("100.00")));
+
+        Long movimientoId = conMovimientoEnCurso("25.00",
+                () -> cuentaService.actualizarEstadoCuenta(cuentaId, "BLOQUEADA"));
+
+        Cuenta cuenta = cuentaRepository.findById(cuentaId).orElseThrow();
+        assertEquals("BLOQUEADA", cuenta.getEstado());
+        assertEquals(0, new BigDecimal("125.00").compareTo(cuenta.getSaldoActual()));
+        assertEquals(movimientoId, cuenta.getUltimoMovimientoId());
+    }
+
+    @Test
+    void eliminarCuentaLogicamente_ConDepositoEnCurso_DeberiaRechazarseConElSaldoNuevo() throws Exception {
+        ExecutionException error = assertThrows(ExecutionException.class, () -> conMovimientoEnCurso("10.00",
+                () -> cuentaService.eliminarCuentaLogicamente(cuentaId)));
+
+        assertInstanceOf(CuentaConSaldoException.class, error.getCause());
+        Cuenta cuenta = cuentaRepository.findById(cuentaId).orElseThrow();
+        assertEquals("ACTIVA", cuenta.getEstado());
+        assertEquals(0, new BigDecimal("10.00").compareTo(cuenta.getSaldoActual()));
+    }
+
+    // Registra un movimiento en una transacción que queda abierta mientras otro hilo ejecuta el cambio de estado;
+    // el cambio debe quedar esperando la cuenta hasta que esa transacción confirme
+    private Long conMovimientoEnCurso(String valor, Callable<?> cambioDeEstado) throws Exception {
+        CountDownLatch movimientoRegistrado = new CountDownLatch(1);
+        CountDownLatch confirmar = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<Long> movimiento = executor.submit(() -> new TransactionTemplate(transactionManager).execute(estado -> {
+                Long id = movimientoService.registrarMovimiento(cuentaId, new MovimientoRequestDTO(new BigDecimal(valor)))
+                        .getMovimientoId();
+                movimientoRegistrado.countDown();
+                try {
+                    confirmar.await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return id;
+            }));
+            assertTrue(movimientoRegistrado.await(10, TimeUnit.SECONDS));
+
+            Future<?> cambio = executor.submit(cambioDeEstado);
+            Thread.sleep(300);
+            assertFalse(cambio.isDone(), "El cambio de estado no esperó al movimiento en curso");
+
+            confirmar.countDown();
+            Long movimientoId = movimiento.get(30, TimeUnit.SECONDS);
+            cambio.get(30, TimeUnit.SECONDS);
+            return movimientoId;
+        } finally {
+            confirmar.countDown();
+            executor.shutdownNow();
+        }
+    }
+}
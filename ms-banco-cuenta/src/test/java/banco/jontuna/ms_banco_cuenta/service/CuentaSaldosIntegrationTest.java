@@ -0,0 +1,90 @@
+package banco.jontuna.ms_banco_cuenta.service;
+
+import banco.jontuna.ms_banco_cuenta.dto.MovimientoRequestDTO;
+import banco.jontuna.ms_banco_cuenta.repository.CuentaRepository;
+import banco.jontuna.ms_banco_cuenta.util.ConteoSentencias;
+import banco.jontuna.ms_banco_cuenta.util.CuentasDePrueba;
+import jakarta.validation.ValidationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static banco.jontuna.ms_banco_cuenta.util.ConteoSentencias.contar;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(ConteoSentencias.Config.class)
+class CuentaSaldosIntegrationTest {
+
+    @Autowired
+    private CuentaService cuentaService;
+
+    @Autowired
+    private MovimientoService movimientoService;
+
+    @Autowired
+    private SaldoSlotService saldoSlotService;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Test
+    void consultarSaldos_VariasCuentas_DeberiaResolverlasConUnaSolaSentencia() {
+        // Arrange
+        Long primera = crearCuenta(new BigDecimal("10.00"));
+        Long segunda = crearCuenta(new BigDecimal("20.50"));
+        Long conSlots = crearCuenta(new BigDecimal("100.00"));
+        saldoSlotService.ajustarSlots(conSlots, 2);
+        movimientoService.registrarMovimiento(conSlots, new MovimientoRequestDTO(new BigDecimal("5.00")));
+        List<Long> ids = List.of(segunda, -1L, conSlots, primera, segunda);
+
+        // Act
+        List<Map<Long, BigDecimal>> resultado = new ArrayList<>();
+        int sentencias = contar(() -> resultado.add(cuentaService.consultarSaldos(ids)));
+        Map<Long, BigDecimal> saldos = resultado.get(0);
+
+        // Assert
+        assertEquals(1, sentencias);
+        assertEquals(3, saldos.size());
+        assertEquals(0, new BigDecimal("10.00").compareTo(saldos.get(primera)));
+        assertEquals(0, new BigDecimal("20.50").compareTo(saldos.get(segunda)));
+        assertEquals(0, new BigDecimal("105.00").compareTo(saldos.get(conSlots)));
+        assertFalse(saldos.containsKey(-1L));
+    }
+
+    @Test
+    void consultarSaldos_DeberiaRespetarElOrdenPedido() {
+        // Arrange
+        Long primera = crearCuenta(new BigDecimal("1.00"));
+        Long segunda = crearCuenta(new BigDecimal("2.00"));
+
+        // Act
+        Map<Long, BigDecimal> saldos = cuentaService.consultarSaldos(List.of(segunda, primera));
+
+        // Assert
+        assertEquals(List.of(segunda, primera), new ArrayList<>(saldos.keySet()));
+    }
+
+    @Test
+    void consultarSaldos_SinIdsOMasDelMaximo_DeberiaLanzarValidationException() {
+        List<Long> demasiados = LongStream.rangeClosed(1, 501).boxed().toList();
+
+        assertThrows(ValidationException.class, () -> cuentaService.consultarSaldos(List.of()));
+        assertThrows(ValidationException.class, () -> cuentaService.consultarSaldos(demasiados));
+    }
+
+    private Long crearCuenta(BigDecimal saldo) {
+        Long cuentaId = cuentaRepository.save(CuentasDePrueba.nueva()).getCuentaId();
+        movimientoService.registrarMovimiento(cuentaId, new MovimientoRequestDTO(saldo));
+        return cuentaId;
+    }
+}
@@ -0,0 +1,105 @@
+package banco.jontuna.ms_banco_cuenta.service;
+
+import banco.jontuna.ms_banco_cuenta.dto.CuentaResponseDTO;
+import banco.jontuna.ms_banco_cuenta.dto.MovimientoResponseDTO;
+import banco.jontuna.ms_banco_cuenta.model.Cuenta;
+import banco.jontuna.ms_banco_cuenta.model.Movimiento;
+import banco.jontuna.ms_banco_cuenta.repository.CuentaRepository;
+import banco.jontuna.ms_banco_cuenta.repository.MovimientoRepository;
+import banco.jontuna.ms_banco_cuenta.util.CuentasDePrueba;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// fetch-size pequeño para que la exportación vacíe el contexto de persistencia varias veces
+@SpringBootTest(properties = "banco.exportacion.fetch-size=3")
+@ActiveProfiles("test")
+class ExportacionServiceIntegrationTest {
+
+    @Autowired
+    private ExportacionService exportacionService;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private MovimientoRepository movimientoRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void exportarMovimientos_FormatoJson_DeberiaEscribirUnArregloConTodosLosMovimientos() throws Exception {
+        // Arrange
+        Cuenta cuenta = crearCuenta();
+        List<Long> creados = crearMovimientos(cuenta, 10);
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        // Act
+        long total = exportacionService.exportarMovimientos(salida, ExportacionService.Formato.JSON);
+
+        // Assert
+        List<MovimientoResponseDTO> exportados = objectMapper.readValue(salida.toByteArray(),
+                new TypeReference<List<MovimientoResponseDTO>>() {});
+        assertEquals(total, exportados.size());
+        assertEquals(movimientoRepository.count(), total);
+        List<Long> ids = exportados.stream().map(MovimientoResponseDTO::getMovimientoId).toList();
+        assertTrue(ids.containsAll(creados));
+        MovimientoResponseDTO primero = exportados.get(ids.indexOf(creados.get(0)));
+        assertEquals(cuenta.getNumeroCuenta(), primero.getNumeroCuenta());
+    }
+
+    @Test
+    void exportarCuentas_FormatoNdjson_DeberiaEscribirUnaCuentaPorLinea() throws Exception {
+        // Arrange
+        Cuenta cuenta = crearCuenta();
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        // Act
+        long total = exportacionService.exportarCuentas(salida, ExportacionService.Formato.NDJSON);
+
+        // Assert
+        String contenido = salida.toString(StandardCharsets.UTF_8);
+        assertTrue(contenido.endsWith("\n"));
+        String[] lineas = contenido.split("\n");
+        assertEquals(total, lineas.length);
+        assertEquals(cuentaRepository.count(), total);
+
+        List<Long> ids = new ArrayList<>();
+        for (String linea : lineas) {
+            assertTrue(linea.startsWith("{"));
+            ids.add(objectMapper.readValue(linea, CuentaResponseDTO.class).getCuentaId());
+        }
+        assertTrue(ids.contains(cuenta.getCuentaId()));
+    }
+
+    @Test
+    void segunAccept_DeberiaElegirNdjsonSoloSiSeSolicita() {
+        assertEquals(ExportacionService.Formato.NDJSON, ExportacionService.Formato.segunAccept("application/x-ndjson"));
+        assertEquals(ExportacionService.Formato.JSON, ExportacionService.Formato.segunAccept("application/json"));
+        assertEquals(ExportacionService.Formato.JSON, ExportacionService.Formato.segunAccept(null));
+    }
+
+    private List<Long> crearMovimientos(Cuenta cuenta, int cantidad) {
+        List<Movimiento> movimientos = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            movimientos.add(new Movimiento("DEPOSITO", BigDecimal.ONE, BigDecimal.valueOf(i + 1), cuenta));
+        }
+        return movimientoRepository.saveAll(movimientos).stream().map(Movimiento::getMovimientoId).toList();
+    }
+
+    private Cuenta crearCuenta() {
+        return cuentaRepository.save(CuentasDePrueba.nueva());
+    }
+}
@@ -0,0 +1,105 @@
+package banco.jontuna.ms_banco_cuenta.service;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Exporta 5 millones de movimientos (cerca de 1 GB de NDJSON) con un heap de 256 MB (tarea "exportacion" de Gradle):
+// si la exportación acumulara filas o salida en memoria, el test terminaría con OutOfMemoryError.
+// La base es H2 en archivo para que los datos sembrados no ocupen el heap del test.
+// Ejecutar con: gradle exportacion (la siembra y la exportación tardan varios minutos)
+@Tag("exportacion")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:file:./build/exportacion/db_banco;MODE=MySQL;CACHE_SIZE=8192;LAZY_QUERY_EXECUTION=1",
+        "banco.exportacion.fetch-size=1000",
+        "spring.jpa.show-sql=false"
+})
+@ActiveProfiles("test")
+class ExportacionVolumenTest {
+
+    private static final int CUENTAS = 1_000;
+    private static final int MOVIMIENTOS = Integer.getInteger("exportacion.movimientos", 5_000_000);
+    private static final int BLOQUE_SIEMBRA = 250_000;
+
+    @Autowired
+    private ExportacionService exportacionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeAll
+    static void limpiarBase() throws IOException {
+        FileSystemUtils.deleteRecursively(Path.of("build", "exportacion"));
+    }
+
+    @Test
+    void exportarMovimientos_MillonesDeFilas_DeberiaTerminarConHeapAcotado() {
+        // Arrange: el pool trabaja sin auto-commit, la siembra se confirma por bloques
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                "INSERT INTO CUENTA (CuentaId, NumeroCuenta, TipoCuenta, SaldoInicial, SaldoActual, Estado, ClienteId) "
+                + "SELECT X, LPAD(X, 10, '0'), 'AHORROS', 0, 0, 'ACTIVA', X FROM SYSTEM_RANGE(1, " + CUENTAS + ")"));
+        for (int inicioBloque = 1; inicioBloque <= MOVIMIENTOS; inicioBloque += BLOQUE_SIEMBRA) {
+            int desde = inicioBloque;
+            int hasta = Math.min(desde + BLOQUE_SIEMBRA - 1, MOVIMIENTOS);
+            transactionTemplate.executeWithoutResult(status -> sembrarMovimientos(desde, hasta));
+        }
+        ContadorSalida salida = new ContadorSalida();
+        long heapMaximo = Runtime.getRuntime().maxMemory();
+
+        // Act
+        long inicio = System.nanoTime();
+        long total = exportacionService.exportarMovimientos(salida, ExportacionService.Formato.NDJSON);
+        long milisegundos = (System.nanoTime() - inicio) / 1_000_000;
+
+        // Assert
+        System.out.printf("Exportación: %d movimientos, %d MB escritos, %d ms, heap máximo %d MB%n",
+                total, salida.bytes / (1024 * 1024), milisegundos, heapMaximo / (1024 * 1024));
+        assertEquals(MOVIMIENTOS, total);
+        assertEquals(MOVIMIENTOS, salida.lineas);
+    }
+
+    private void sembrarMovimientos(int desde, int hasta) {
+        jdbcTemplate.update("INSERT INTO MOVIMIENTO (MovimientoId, Fecha, TipoMovimiento, Valor, Saldo, CuentaId) "
+                + "SELECT X, DATEADD('SECOND', X, TIMESTAMP '2020-01-01 00:00:00'), 'DEPOSITO', 1.00, X, MOD(X, "
+                + CUENTAS + ") + 1 FROM SYSTEM_RANGE(" + desde + ", " + hasta + ")");
+    }
+
+    // Descarta lo escrito y solo cuenta bytes y líneas
+    private static class ContadorSalida extends OutputStream {
+        private long bytes;
+        private long lineas;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+            if (b == '\n') {
+                lineas++;
+            }
+        }
+
+        @Override
+        public void write(byte[] buffer, int desde, int longitud) {
+            bytes += longitud;
+            for (int i = desde; i < desde + longitud; i++) {
+                if (buffer[i] == '\n') {
+                    lineas++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package banco.jontuna.ms_banco_cuenta.service;
+
+import banco.jontuna.ms_banco_cuenta.dto.MovimientoRequestDTO;
+import banco.jontuna.ms_banco_cuenta.dto.MovimientoResponseDTO;
+import banco.jontuna.ms_banco_cuenta.model.IdempotenciaMovimiento;
+import banco.jontuna.ms_banco_cuenta.repository.CuentaRepository;
+import banco.jontuna.ms_banco_cuenta.repository.IdempotenciaMovimientoRepository;
+import banco.jontuna.ms_banco_cuenta.repository.MovimientoRepository;
+import banco.jontuna.ms_banco_cuenta.util.CuentasDePrueba;
+import banco.jontuna.ms_banco_cuenta.util.exception.MovimientoInvalidoException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "banco.idempotencia.purga.tamano-lote=2")
+@ActiveProfiles("test")
+class IdempotenciaServiceIntegrationTest {
+
+    @Autowired
+    private IdempotenciaService idempotenciaService;
+
+    @Autowired
+    private IdempotenciaMovimientoRepository idempotenciaRepository;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private MovimientoRepository movimientoRepository;
+
+    @Test
+    void registrarMovimiento_MismaClaveRepetida_DeberiaAplicarseUnaSolaVez() {
+        // Arrange
+        Long cuentaId = crearCuenta();
+        String clave = UUID.randomUUID().toString();
+        MovimientoRequestDTO request = new MovimientoRequestDTO(new BigDecimal("100.00"));
+
+        // Act
+        MovimientoResponseDTO primera = idempotenciaService.registrarMovimiento(clave, cuentaId, request);
+        MovimientoResponseDTO segunda = idempotenciaService.registrarMovimiento(clave, cuentaId, request);
+
+        // Assert
+        assertEquals(primera.getMovimientoId(), segunda.getMovimientoId());
+        assertEquals(1, movimientoRepository.findByCuentaCuentaIdOrderByFechaDesc(cuentaId).size());
+        assertEquals(0, new BigDecimal("100.00").compareTo(cuentaRepository.findById(cuentaId).orElseThrow().getSaldoActual()));
+        assertTrue(idempotenciaRepository.existsById(clave));
+    }
+
+    @Test
+    void registrarMovimiento_MismaClaveConcurrente_DeberiaEjecutarseUnaSolaVez() throws Exception {
+        // Arrange
+        Long cuentaId = crearCuenta();
+        String clave = UUID.randomUUID().toString();
+        int hilos = 8;
+        CountDownLatch inicio = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+
+        // Act
+        List<Long> movimientoIds = new ArrayList<>();
+        try {
+            List<Future<MovimientoResponseDTO>> futuros = new ArrayList<>();
+            for (int i = 0; i < hilos; i++) {
+                futuros.add(executor.submit(() -> {
+                    inicio.await();
+                    return idempotenciaService.registrarMovimiento(
+                            clave, cuentaId, new MovimientoRequestDTO(new BigDecimal("25.00")));
+                }));
+            }
+            inicio.countDown();
+            for (Future<MovimientoResponseDTO> futuro : futuros) {
+                movimientoIds.add(futuro.get(30, TimeUnit.SECONDS).getMovimientoId());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        assertEquals(1, movimientoIds.stream().distinct().count());
+        assertEquals(1, movimientoRepository.findByCuentaCuentaIdOrderByFechaDesc(cuentaId).size());
+    }
+
+    @Test
+    void registrarMovimiento_ClaveRegistradaPorOtraInstancia_DeberiaRetornarLaRespuestaAlmacenada() {
+        // Arrange
+        Long cuentaId = crearCuenta();
+        String clave = UUID.randomUUID().toString();
+        LocalDateTime ahora = LocalDateTime.now();
+        idempotenciaRepository.save(new IdempotenciaMovimiento(clave, cuentaId, new BigDecimal("40.00"),
+                "{\"movimientoId\":987654,\"tipoMovimiento\":\"DEPOSITO\",\"valor\":40.00,\"saldo\":40.00,\"cuentaId\":"
+                        + cuentaId + "}", ahora, ahora.plusHours(1)));
+
+        // Act
+        MovimientoResponseDTO respuesta = idempotenciaService.registrarMovimiento(
+                clave, cuentaId, new MovimientoRequestDTO(new BigDecimal("40.00")));
+
+        // Assert
+        assertEquals(987654L, respuesta.getMovimientoId());
+        assertTrue(movimientoRepository.findByCuentaCuentaIdOrderByFechaDesc(cuentaId).isEmpty());
+        assertEquals(0, BigDecimal.ZERO.compareTo(cuentaRepository.findById(cuentaId).orElseThrow().getSaldoActual()));
+    }
+
+    @Test
+    void registrarMovimiento_MismaClaveConOtroValor_DeberiaLanzarMovimientoInvalidoException() {
+        // Arrange
+        Long cuentaId = crearCuenta();
+        String clave = UUID.randomUUID().toString();
+        idempotenciaService.registrarMovimiento(clave, cuentaId, new MovimientoRequestDTO(new BigDecimal("10.00")));
+
+        // Act & Assert
+        assertThrows(MovimientoInvalidoException.class, () -> idempotenciaService.registrarMovimiento(
+                clave, cuentaId, new MovimientoRequestDTO(new BigDecimal("20.00"))));
+    }
+
+    @Test
+    void purgarExpiradas_ClavesVencidas_DeberiaEliminarlasPorLotes() {
+        // Arrange
+        LocalDateTime ahora = LocalDateTime.now();
+        List<String> expiradas = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            String clave = "expirada-" + UUID.randomUUID();
+            idempotenciaRepository.save(new IdempotenciaMovimiento(clave, 1L, BigDecimal.ONE, "{}",
+                    ahora.minusDays(2), ahora.minusDays(1)));
+            expiradas.add(clave);
+        }
+        String vigente = "vigente-" + UUID.randomUUID();
+        idempotenciaRepository.save(new IdempotenciaMovimiento(vigente, 1L, BigDecimal.ONE, "{}",
+                ahora, ahora.plusDays(1)));
+
+        // Act
+        int eliminadas = idempotenciaService.purgarExpiradas();
+
+        // Assert
+        assertTrue(eliminadas >= 5);
+        expiradas.forEach(clave -> assertFalse(idempotenciaRepository.existsById(clave)));
+        assertTrue(idempotenciaRepository.existsById(vigente));
+    }
+
+    private Long crearCuenta() {
+        return cuentaRepository.save(CuentasDePrueba.nueva()).getCuentaId();
+    }
+}
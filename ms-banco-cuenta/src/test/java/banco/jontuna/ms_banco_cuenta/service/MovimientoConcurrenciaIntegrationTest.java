@@ -0,0 +1,76 @@
+package banco.jontuna.ms_banco_cuenta.service;
+
+import banco.jontuna.ms_banco_cuenta.dto.MovimientoRequestDTO;
+import banco.jontuna.ms_banco_cuenta.repository.CuentaRepository;
+import banco.jontuna.ms_banco_cuenta.util.CuentasDePrueba;
+import banco.jontuna.ms_banco_cuenta.util.exception.SaldoInsuficienteException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class MovimientoConcurrenciaIntegrationTest {
+
+    @Autowired
+    private MovimientoService movimientoService;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    private Long cuentaId;
+
+    @BeforeEach
+    void setUp() {
+        cuentaId = cuentaRepository.save(CuentasDePrueba.nueva()).getCuentaId();
+
+        movimientoService.registrarMovimiento(cuentaId, new MovimientoRequestDTO(new BigDecimal("100.00")));
+    }
+
+    @Test
+    void registrarMovimiento_RetirosConcurrentesMismaCuenta_NoDeberiaSobregirar() throws Exception {
+        int hilos = 10;
+        CountDownLatch inicio = new CountDownLatch(1);
+        AtomicInteger rechazados = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+
+        try {
+            List<Future<?>> futuros = new ArrayList<>();
+            for (int i = 0; i < hilos; i++) {
+                futuros.add(executor.submit(() -> {
+                    inicio.await();
+                    try {
+                        movimientoService.registrarMovimiento(cuentaId, new MovimientoRequestDTO(new BigDecimal("-20.00")));
+                    } catch (SaldoInsuficienteException e) {
+                        rechazados.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+
+            inicio.countDown();
+            for (Future<?> futuro : futuros) {
+                futuro.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(5, rechazados.get());
+        assertEquals(0, BigDecimal.ZERO.compareTo(movimientoService.calcularSaldoDisponible(cuentaId)));
+    }
+}
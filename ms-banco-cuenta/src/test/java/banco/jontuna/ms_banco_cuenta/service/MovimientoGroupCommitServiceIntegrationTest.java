@@ -0,0 +1,106 @@
+package banco.jontuna.ms_banco_cuenta.service;
+
+import banco.jontuna.ms_banco_cuenta.dto.MovimientoRequestDTO;
+import banco.jontuna.ms_banco_cuenta.dto.MovimientoResponseDTO;
+import banco.jontuna.ms_banco_cuenta.model.Cuenta;
+import banco.jontuna.ms_banco_cuenta.repository.CuentaRepository;
+import banco.jontuna.ms_banco_cuenta.util.CuentasDePrueba;
+import banco.jontuna.ms_banco_cuenta.util.exception.CuentaNotFoundException;
+import banco.jontuna.ms_banco_cuenta.util.exception.SaldoInsuficienteException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    "banco.movimientos.group-commit.enabled=true",
+    "banco.movimientos.group-commit.shards=2",
+    "banco.movimientos.group-commit.max-lote=16",
+    "banco.movimientos.group-commit.ventana-us=20000"
+})
+@ActiveProfiles("test")
+class MovimientoGroupCommitServiceIntegrationTest {
+
+    @Autowired
+    private MovimientoGroupCommitService movimientoGroupCommitService;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void registrarMovimiento_DepositosConcurrentes_DeberiaAgruparlosEnPocasTransacciones() throws Exception {
+        // Arrange
+        List<Long> cuentaIds = List.of(crearCuenta(), crearCuenta(), crearCuenta());
+        int movimientosPorCuenta = 20;
+        int total = cuentaIds.size() * movimientosPorCuenta;
+        DistributionSummary lotes = meterRegistry.get("banco.movimientos.group-commit.lote").summary();
+        long transaccionesPrevias = lotes.count();
+
+        CountDownLatch inicio = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(total);
+
+        // Act
+        try {
+            List<Future<MovimientoResponseDTO>> futuros = new ArrayList<>();
+            for (Long cuentaId : cuentaIds) {
+                for (int i = 0; i < movimientosPorCuenta; i++) {
+                    futuros.add(executor.submit(() -> {
+                        inicio.await();
+                        return movimientoGroupCommitService.registrarMovimiento(
+                                cuentaId, new MovimientoRequestDTO(new BigDecimal("10.00")));
+                    }));
+                }
+            }
+            inicio.countDown();
+            for (Future<MovimientoResponseDTO> futuro : futuros) {
+                assertNotNull(futuro.get(30, TimeUnit.SECONDS).getMovimientoId());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        for (Long cuentaId : cuentaIds) {
+            Cuenta cuenta = cuentaRepository.findById(cuentaId).orElseThrow();
+            assertEquals(0, new BigDecimal("200.00").compareTo(cuenta.getSaldoActual()));
+        }
+        long transacciones = lotes.count() - transaccionesPrevias;
+        assertTrue(transacciones < total, "Transacciones usadas: " + transacciones);
+    }
+
+    @Test
+    void registrarMovimiento_RetiroSinSaldo_DeberiaPropagarSaldoInsuficienteException() {
+        // Arrange
+        Long cuentaId = crearCuenta();
+
+        // Act & Assert
+        assertThrows(SaldoInsuficienteException.class, () -> movimientoGroupCommitService.registrarMovimiento(
+                cuentaId, new MovimientoRequestDTO(new BigDecimal("-50.00"))));
+    }
+
+    @Test
+    void registrarMovimiento_CuentaInexistente_DeberiaPropagarCuentaNotFoundException() {
+        assertThrows(CuentaNotFoundException.class, () -> movimientoGroupCommitService.registrarMovimiento(
+                999999L, new MovimientoRequestDTO(new BigDecimal("50.00"))));
+    }
+
+    private Long crearCuenta() {
+        return cuentaRepository.save(CuentasDePrueba.nueva()).getCuentaId();
+    }
+}
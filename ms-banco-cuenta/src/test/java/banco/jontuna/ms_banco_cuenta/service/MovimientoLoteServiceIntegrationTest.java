@@ -0,0 +1,114 @@
+package banco.jontuna.ms_banco_cuenta.service;
+
+import banco.jontuna.ms_banco_cuenta.dto.MovimientoLoteItemDTO;
+import banco.jontuna.ms_banco_cuenta.dto.MovimientoLoteRequestDTO;
+import banco.jontuna.ms_banco_cuenta.dto.MovimientoLoteResponseDTO;
+import banco.jontuna.ms_banco_cuenta.dto.MovimientoLoteResultadoDTO;
+import banco.jontuna.ms_banco_cuenta.model.Cuenta;
+import banco.jontuna.ms_banco_cuenta.repository.CuentaRepository;
+import banco.jontuna.ms_banco_cuenta.repository.MovimientoRepository;
+import banco.jontuna.ms_banco_cuenta.util.CuentasDePrueba;
+import banco.jontuna.ms_banco_cuenta.util.exception.MovimientoInvalidoException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    "banco.movimientos.lote.max-items=10",
+    "banco.movimientos.lote.cuentas-por-transaccion=2"
+})
+@ActiveProfiles("test")
+class MovimientoLoteServiceIntegrationTest {
+
+    @Autowired
+    private MovimientoLoteService movimientoLoteService;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private MovimientoRepository movimientoRepository;
+
+    @Test
+    void registrarLote_ItemsMixtos_DeberiaAplicarValidosYRechazarInvalidosSinFallarElLote() {
+        // Arrange
+        Cuenta cuentaA = crearCuenta("ACTIVA");
+        Cuenta cuentaB = crearCuenta("ACTIVA");
+        Cuenta cuentaBloqueada = crearCuenta("BLOQUEADA");
+
+        MovimientoLoteRequestDTO request = new MovimientoLoteRequestDTO(List.of(
+            item(cuentaA, "100.00"),
+            item(cuentaB, "50.00"),
+            item(cuentaA, "-30.00"),
+            item(cuentaB, "-80.00"),
+            item(cuentaBloqueada, "10.00"),
+            new MovimientoLoteItemDTO(999999L, new BigDecimal("10.00")),
+            item(cuentaA, "0"),
+            item(cuentaA, "-70.00")
+        ));
+
+        // Act
+        MovimientoLoteResponseDTO response = movimientoLoteService.registrarLote(request);
+
+        // Assert
+        assertEquals(4, response.getTotalAplicados());
+        assertEquals(4, response.getTotalRechazados());
+
+        List<MovimientoLoteResultadoDTO> resultados = response.getResultados();
+        assertEquals(8, resultados.size());
+        for (int i = 0; i < resultados.size(); i++) {
+            assertEquals(i, resultados.get(i).getIndice());
+        }
+
+        assertEquals("APLICADO", resultados.get(0).getEstado());
+        assertEquals("APLICADO", resultados.get(1).getEstado());
+        assertEquals("APLICADO", resultados.get(2).getEstado());
+        assertEquals("RECHAZADO", resultados.get(3).getEstado());
+        assertTrue(resultados.get(3).getError().startsWith("Saldo no disponible"));
+        assertEquals("RECHAZADO", resultados.get(4).getEstado());
+        assertEquals("RECHAZADO", resultados.get(5).getEstado());
+        assertEquals("RECHAZADO", resultados.get(6).getEstado());
+        assertEquals("APLICADO", resultados.get(7).getEstado());
+        assertEquals(0, BigDecimal.ZERO.compareTo(resultados.get(7).getMovimiento().getSaldo()));
+
+        Cuenta actualizadaA = cuentaRepository.findById(cuentaA.getCuentaId()).orElseThrow();
+        assertEquals(0, BigDecimal.ZERO.compareTo(actualizadaA.getSaldoActual()));
+        assertEquals(resultados.get(7).getMovimiento().getMovimientoId(), actualizadaA.getUltimoMovimientoId());
+
+        Cuenta actualizadaB = cuentaRepository.findById(cuentaB.getCuentaId()).orElseThrow();
+        assertEquals(0, new BigDecimal("50.00").compareTo(actualizadaB.getSaldoActual()));
+
+        assertTrue(movimientoRepository.findByCuentaCuentaIdOrderByFechaDesc(cuentaBloqueada.getCuentaId()).isEmpty());
+    }
+
+    @Test
+    void registrarLote_SuperaMaximoDeItems_DeberiaLanzarMovimientoInvalidoException() {
+        // Arrange
+        Cuenta cuenta = crearCuenta("ACTIVA");
+        List<MovimientoLoteItemDTO> items = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            items.add(item(cuenta, "1.00"));
+        }
+
+        // Act & Assert
+        assertThrows(MovimientoInvalidoException.class,
+            () -> movimientoLoteService.registrarLote(new MovimientoLoteRequestDTO(items)));
+    }
+
+    private MovimientoLoteItemDTO item(Cuenta cuenta, String valor) {
+        return new MovimientoLoteItemDTO(cuenta.getCuentaId(), new BigDecimal(valor));
+    }
+
+    private Cuenta crearCuenta(String estado) {
+        Cuenta cuenta = CuentasDePrueba.nueva();
+        cuenta.setEstado(estado);
+        return cuentaRepository.save(cuenta);
+    }
+}
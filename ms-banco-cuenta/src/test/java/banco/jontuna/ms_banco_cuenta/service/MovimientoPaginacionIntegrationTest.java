@@ -0,0 +1,137 @@
+package banco.jontuna.ms_banco_cuenta.service;
+
+import banco.jontuna.ms_banco_cuenta.dto.MovimientoPaginaDTO;
+import banco.jontuna.ms_banco_cuenta.dto.MovimientoResponseDTO;
+import banco.jontuna.ms_banco_cuenta.model.Cuenta;
+import banco.jontuna.ms_banco_cuenta.model.Movimiento;
+import banco.jontuna.ms_banco_cuenta.repository.CuentaRepository;
+import banco.jontuna.ms_banco_cuenta.repository.MovimientoRepository;
+import banco.jontuna.ms_banco_cuenta.util.CuentasDePrueba;
+import banco.jontuna.ms_banco_cuenta.util.exception.CuentaNotFoundException;
+import banco.jontuna.ms_banco_cuenta.util.exception.MovimientoInvalidoException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "banco.movimientos.paginacion.tamano-maximo=20")
+@ActiveProfiles("test")
+class MovimientoPaginacionIntegrationTest {
+
+    @Autowired
+    private MovimientoService movimientoService;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private MovimientoRepository movimientoRepository;
+
+    @Test
+    void obtenerPaginaPorCuenta_RecorrerConCursor_DeberiaEntregarCadaMovimientoUnaVezEnOrden() {
+        // Arrange
+        Cuenta cuenta = crearCuenta(CuentasDePrueba.clienteNuevo());
+        // Varios movimientos comparten fecha: el desempate es por movimientoId
+        List<Long> esperados = crearMovimientos(cuenta, 23, LocalDateTime.of(2024, 1, 1, 10, 0), 3);
+
+        // Act
+        List<Long> recibidos = new ArrayList<>();
+        String cursor = null;
+        int paginas = 0;
+        do {
+            MovimientoPaginaDTO pagina = movimientoService.obtenerPaginaPorCuenta(cuenta.getCuentaId(), cursor, 5);
+            assertTrue(pagina.getMovimientos().size() <= 5);
+            pagina.getMovimientos().forEach(movimiento -> recibidos.add(movimiento.getMovimientoId()));
+            cursor = pagina.getSiguienteCursor();
+            paginas++;
+        } while (cursor != null);
+
+        // Assert
+        assertEquals(5, paginas);
+        assertEquals(esperados, recibidos);
+    }
+
+    @Test
+    void obtenerPaginaPorCliente_VariasCuentas_DeberiaMezclarlasEnUnSoloOrden() {
+        // Arrange
+        Long clienteId = CuentasDePrueba.clienteNuevo();
+        List<Movimiento> todos = new ArrayList<>();
+        Cuenta ahorros = crearCuenta(clienteId);
+        Cuenta corriente = crearCuenta(clienteId);
+        crearMovimientos(ahorros, 7, LocalDateTime.of(2024, 2, 1, 9, 0), 2);
+        crearMovimientos(corriente, 6, LocalDateTime.of(2024, 2, 1, 9, 30), 1);
+        todos.addAll(movimientoRepository.findByCuentaCuentaIdOrderByFechaDesc(ahorros.getCuentaId()));
+        todos.addAll(movimientoRepository.findByCuentaCuentaIdOrderByFechaDesc(corriente.getCuentaId()));
+        List<Long> esperados = todos.stream()
+                .sorted(Comparator.comparing(Movimiento::getFecha).thenComparing(Movimiento::getMovimientoId).reversed())
+                .map(Movimiento::getMovimientoId)
+                .toList();
+
+        // Act
+        List<Long> recibidos = new ArrayList<>();
+        String cursor = null;
+        do {
+            MovimientoPaginaDTO pagina = movimientoService.obtenerPaginaPorCliente(clienteId, cursor, 4);
+            pagina.getMovimientos().stream().map(MovimientoResponseDTO::getMovimientoId).forEach(recibidos::add);
+            cursor = pagina.getSiguienteCursor();
+        } while (cursor != null);
+
+        // Assert
+        assertEquals(esperados, recibidos);
+    }
+
+    @Test
+    void obtenerPaginaPorCuenta_TamanoMayorAlMaximo_DeberiaLimitarseAlMaximo() {
+        // Arrange
+        Cuenta cuenta = crearCuenta(CuentasDePrueba.clienteNuevo());
+        crearMovimientos(cuenta, 25, LocalDateTime.of(2024, 3, 1, 8, 0), 1);
+
+        // Act
+        MovimientoPaginaDTO pagina = movimientoService.obtenerPaginaPorCuenta(cuenta.getCuentaId(), null, 1000);
+
+        // Assert
+        assertEquals(20, pagina.getTamano());
+        assertEquals(20, pagina.getMovimientos().size());
+        assertNotNull(pagina.getSiguienteCursor());
+    }
+
+    @Test
+    void obtenerPaginaPorCuenta_CursorOTamanoInvalido_DeberiaLanzarMovimientoInvalidoException() {
+        // Arrange
+        Long cuentaId = crearCuenta(CuentasDePrueba.clienteNuevo()).getCuentaId();
+
+        // Act & Assert
+        assertThrows(MovimientoInvalidoException.class,
+                () -> movimientoService.obtenerPaginaPorCuenta(cuentaId, "no-es-un-cursor", 10));
+        assertThrows(MovimientoInvalidoException.class,
+                () -> movimientoService.obtenerPaginaPorCuenta(cuentaId, null, 0));
+        assertThrows(CuentaNotFoundException.class,
+                () -> movimientoService.obtenerPaginaPorCuenta(-1L, null, 10));
+    }
+
+    // Crea movimientos con fechas descendentes agrupadas de a porFecha y devuelve sus IDs en el orden esperado
+    private List<Long> crearMovimientos(Cuenta cuenta, int cantidad, LocalDateTime desde, int porFecha) {
+        List<Movimiento> movimientos = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            Movimiento movimiento = new Movimiento("DEPOSITO", BigDecimal.ONE, BigDecimal.valueOf(i + 1), cuenta);
+            movimiento.setFecha(desde.plusMinutes(i / porFecha));
+            movimientos.add(movimiento);
+        }
+        return movimientoRepository.saveAll(movimientos).stream()
+                .sorted(Comparator.comparing(Movimiento::getFecha).thenComparing(Movimiento::getMovimientoId).reversed())
+                .map(Movimiento::getMovimientoId)
+                .toList();
+    }
+
+    private Cuenta crearCuenta(Long clienteId) {
+        return cuentaRepository.save(CuentasDePrueba.nueva(clienteId));
+    }
+}
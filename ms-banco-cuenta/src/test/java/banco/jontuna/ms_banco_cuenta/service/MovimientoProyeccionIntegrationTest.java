@@ -0,0 +1,158 @@
+package banco.jontuna.ms_banco_cuenta.service;
+
+import banco.jontuna.ms_banco_cuenta.dto.CuentaResumenDTO;
+import banco.jontuna.ms_banco_cuenta.dto.EstadoCuentaReporteDTO;
+import banco.jontuna.ms_banco_cuenta.dto.MovimientoRequestDTO;
+import banco.jontuna.ms_banco_cuenta.dto.MovimientoResponseDTO;
+import banco.jontuna.ms_banco_cuenta.model.Cuenta;
+import banco.jontuna.ms_banco_cuenta.model.Movimiento;
+import banco.jontuna.ms_banco_cuenta.repository.CuentaRepository;
+import banco.jontuna.ms_banco_cuenta.repository.MovimientoRepository;
+import banco.jontuna.ms_banco_cuenta.util.ConteoSentencias;
+import banco.jontuna.ms_banco_cuenta.util.CuentasDePrueba;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static banco.jontuna.ms_banco_cuenta.util.ConteoSentencias.contar;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Cuenta las sentencias SQL que ejecuta cada consulta de lectura: con las proyecciones el número no
+// depende de cuántas cuentas o movimientos haya (sin N+1 por la asociación LAZY Movimiento.cuenta).
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(ConteoSentencias.Config.class)
+class MovimientoProyeccionIntegrationTest {
+
+    @Autowired
+    private MovimientoService movimientoService;
+
+    @Autowired
+    private ReporteService reporteService;
+
+    @Autowired
+    private SaldoSlotService saldoSlotService;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private MovimientoRepository movimientoRepository;
+
+    @Test
+    void obtenerMovimientosPorCliente_MasCuentas_DeberiaEjecutarLasMismasSentencias() {
+        // Arrange
+        Long clienteId = CuentasDePrueba.clienteNuevo();
+        crearCuentaConMovimientos(clienteId, 2);
+
+        int conUnaCuenta = contar(() -> movimientoService.obtenerMovimientosPorCliente(clienteId));
+        for (int i = 0; i < 5; i++) {
+            crearCuentaConMovimientos(clienteId, 3);
+        }
+
+        // Act
+        List<MovimientoResponseDTO> movimientos = new ArrayList<>();
+        int conSeisCuentas = contar(() -> movimientos.addAll(movimientoService.obtenerMovimientosPorCliente(clienteId)));
+
+        // Assert
+        assertEquals(1, conUnaCuenta);
+        assertEquals(conUnaCuenta, conSeisCuentas);
+        assertEquals(17, movimientos.size());
+        movimientos.forEach(movimiento -> assertNotNull(movimiento.getNumeroCuenta()));
+    }
+
+    @Test
+    void obtenerMovimientos_PorCuentaPorIdYTodos_DeberianEjecutarUnNumeroFijoDeSentencias() {
+        // Arrange
+        Cuenta cuenta = crearCuentaConMovimientos(CuentasDePrueba.clienteNuevo(), 4);
+        Movimiento retiro = movimientoRepository.save(
+                new Movimiento("RETIRO", new BigDecimal("3.00"), new BigDecimal("1.00"), cuenta));
+
+        // Act & Assert
+        assertEquals(2, contar(() -> movimientoService.obtenerMovimientosPorCuenta(cuenta.getCuentaId())));
+        assertEquals(1, contar(() -> movimientoService.obtenerTodosLosMovimientos()));
+
+        List<MovimientoResponseDTO> porId = new ArrayList<>();
+        assertEquals(1, contar(() -> porId.add(movimientoService.obtenerMovimientoPorId(retiro.getMovimientoId()))));
+        // El retiro se expone con signo negativo, igual que con MovimientoMapper
+        assertEquals(0, new BigDecimal("-3.00").compareTo(porId.get(0).getValor()));
+        assertEquals(cuenta.getNumeroCuenta(), porId.get(0).getNumeroCuenta());
+    }
+
+    @Test
+    void generarReporteEstadoCuenta_MasCuentas_DeberiaEjecutarLasMismasSentencias() {
+        // Arrange
+        Long clienteId = CuentasDePrueba.clienteNuevo();
+        crearCuentaConMovimientos(clienteId, 2);
+        LocalDate hoy = LocalDate.now();
+
+        int conUnaCuenta = contar(() -> reporteService.generarReporteEstadoCuenta(clienteId, hoy.minusDays(1), hoy));
+        for (int i = 0; i < 4; i++) {
+            crearCuentaConMovimientos(clienteId, 3);
+        }
+
+        // Act
+        List<EstadoCuentaReporteDTO> reportes = new ArrayList<>();
+        int conCincoCuentas = contar(() -> reportes.add(reporteService.generarReporteEstadoCuenta(clienteId, hoy.minusDays(1), hoy)));
+
+        // Assert
+        assertEquals(conUnaCuenta, conCincoCuentas);
+        List<CuentaResumenDTO> cuentas = reportes.get(0).getCuentas();
+        assertEquals(5, cuentas.size());
+        assertEquals(14, cuentas.stream().mapToInt(cuenta -> cuenta.getMovimientos().size()).sum());
+        assertTrue(cuentas.get(0).getMovimientos().get(0).getDescripcion().startsWith("Crédito de $"));
+    }
+
+    @Test
+    void generarReporteEstadoCuenta_CuentasConSlots_DeberiaResolverSaldosSinSentenciasPorCuenta() {
+        // Arrange: una cuenta con slots y depósitos sin consolidar
+        Long clienteId = CuentasDePrueba.clienteNuevo();
+        Long conSlots = crearCuentaConMovimientos(clienteId, 1).getCuentaId();
+        saldoSlotService.ajustarSlots(conSlots, 4);
+        movimientoService.registrarMovimiento(conSlots, new MovimientoRequestDTO(new BigDecimal("30.00")));
+        LocalDate hoy = LocalDate.now();
+
+        int conUnaCuenta = contar(() -> reporteService.generarReporteEstadoCuenta(clienteId, hoy, hoy));
+        for (int i = 0; i < 19; i++) {
+            Long cuentaId = crearCuentaConMovimientos(clienteId, 1).getCuentaId();
+            if (i % 2 == 0) {
+                saldoSlotService.ajustarSlots(cuentaId, 2);
+                movimientoService.registrarMovimiento(cuentaId, new MovimientoRequestDTO(new BigDecimal("5.00")));
+            }
+        }
+
+        // Act
+        List<EstadoCuentaReporteDTO> reportes = new ArrayList<>();
+        int conVeinteCuentas = contar(() -> reportes.add(reporteService.generarReporteEstadoCuenta(clienteId, hoy, hoy)));
+
+        // Assert: cuentas con su saldo y movimientos, sin importar cuántas sean
+        assertTrue(conUnaCuenta <= 3, "Sentencias con una cuenta: " + conUnaCuenta);
+        assertEquals(conUnaCuenta, conVeinteCuentas);
+        List<CuentaResumenDTO> cuentas = reportes.get(0).getCuentas();
+        assertEquals(20, cuentas.size());
+        CuentaResumenDTO cuentaConSlots = cuentas.stream()
+                .filter(cuenta -> cuenta.getCuentaId().equals(conSlots))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(0, new BigDecimal("30.00").compareTo(cuentaConSlots.getSaldoActual()));
+        assertEquals(0, new BigDecimal("80.00").compareTo(reportes.get(0).getSaldoTotal()));
+    }
+
+    private Cuenta crearCuentaConMovimientos(Long clienteId, int cantidad) {
+        Cuenta guardada = cuentaRepository.save(CuentasDePrueba.nueva(clienteId));
+
+        List<Movimiento> movimientos = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            movimientos.add(new Movimiento("DEPOSITO", BigDecimal.ONE, BigDecimal.valueOf(i + 1), guardada));
+        }
+        movimientoRepository.saveAll(movimientos);
+        return guardada;
+    }
+}
@@ -6,17 +6,22 @@ import banco.jontuna.ms_banco_cuenta.model.Cuenta;
 import banco.jontuna.ms_banco_cuenta.model.Movimiento;
 import banco.jontuna.ms_banco_cuenta.repository.CuentaRepository;
 import banco.jontuna.ms_banco_cuenta.repository.MovimientoRepository;
+import banco.jontuna.ms_banco_cuenta.util.cache.CuentaCache;
+import banco.jontuna.ms_banco_cuenta.util.cache.CuentaMetadatos;
+import banco.jontuna.ms_banco_cuenta.util.concurrency.CuentaLockManager;
 import banco.jontuna.ms_banco_cuenta.util.exception.CuentaInactivaException;
 import banco.jontuna.ms_banco_cuenta.util.exception.CuentaNotFoundException;
 import banco.jontuna.ms_banco_cuenta.util.exception.MovimientoInvalidoException;
 import banco.jontuna.ms_banco_cuenta.util.exception.SaldoInsuficienteException;
 import banco.jontuna.ms_banco_cuenta.util.mapper.MovimientoMapper;
+import banco.jontuna.ms_banco_cuenta.util.validator.MovimientoValidator;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
@@ -41,6 +46,18 @@ class MovimientoServiceTest {
     @Mock
     private MovimientoMapper movimientoMapper;
 
+    @Mock
+    private CuentaLockManager cuentaLockManager;
+
+    @Mock
+    private SaldoSlotService saldoSlotService;
+
+    @Mock
+    private CuentaCache cuentaCache;
+
+    @Spy
+    private MovimientoValidator movimientoValidator;
+
     @InjectMocks
     private MovimientoService movimientoService;
 
@@ -87,14 +104,16 @@ class MovimientoServiceTest {
 
         movimientoRequestDeposito = new MovimientoRequestDTO(new BigDecimal("500.00"));
         movimientoRequestRetiro = new MovimientoRequestDTO(new BigDecimal("-200.00"));
+
+        // La caché ve todas las cuentas activas: el estado que decide es el de la fila bloqueada
+        lenient().when(cuentaCache.obtenerPorId(anyLong())).thenReturn(new CuentaMetadatos(
+                1L, "1234567890", "AHORROS", BigDecimal.ZERO, "ACTIVA", 1L, 0, 0L));
     }
 
     @Test
     void registrarMovimiento_WithPositiveValueAndActiveAccount_ShouldRegisterDeposit() {
         // Arrange
-        when(cuentaRepository.findById(1L)).thenReturn(Optional.of(cuentaActiva));
-        when(movimientoRepository.findTopByCuentaCuentaIdOrderByFechaDesc(1L))
-                .thenReturn(Optional.empty()); // Sin movimientos previos
+        when(cuentaRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(cuentaActiva)); // Sin movimientos previos
         when(movimientoRepository.save(any(Movimiento.class))).thenReturn(movimientoDeposito);
                 
         // Act
@@ -105,21 +124,19 @@ class MovimientoServiceTest {
         assertEquals("DEPOSITO", result.getTipoMovimiento());
         assertEquals(new BigDecimal("500.00"), result.getValor());
         assertEquals(new BigDecimal("500.00"), result.getSaldo());
+        assertEquals(new BigDecimal("500.00"), cuentaActiva.getSaldoActual());
+        assertEquals(1L, cuentaActiva.getUltimoMovimientoId());
         
-        verify(cuentaRepository, times(1)).findById(1L);
+        verify(cuentaRepository, times(1)).findByIdForUpdate(1L);
         verify(movimientoRepository, times(1)).save(any(Movimiento.class));
     }
 
     @Test
     void registrarMovimiento_WithNegativeValueAndSufficientBalance_ShouldRegisterWithdrawal() {
         // Arrange
-        when(cuentaRepository.findById(1L)).thenReturn(Optional.of(cuentaActiva));
-        
         // Configurar saldo actual de 1000.00
-        Movimiento ultimoMovimiento = new Movimiento();
-        ultimoMovimiento.setSaldo(new BigDecimal("1000.00"));
-        when(movimientoRepository.findTopByCuentaCuentaIdOrderByFechaDesc(1L))
-                .thenReturn(Optional.of(ultimoMovimiento));
+        cuentaActiva.setSaldoActual(new BigDecimal("1000.00"));
+        when(cuentaRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(cuentaActiva));
         
         when(movimientoRepository.save(any(Movimiento.class))).thenReturn(movimientoRetiro);
 
@@ -131,14 +148,14 @@ class MovimientoServiceTest {
         assertEquals("RETIRO", result.getTipoMovimiento());
         assertEquals(new BigDecimal("-200.00"), result.getValor());
         
-        verify(cuentaRepository, times(1)).findById(1L);
+        verify(cuentaRepository, times(1)).findByIdForUpdate(1L);
         verify(movimientoRepository, times(1)).save(any(Movimiento.class));
     }
 
     @Test
     void registrarMovimiento_WithNonExistentAccount_ShouldThrowCuentaNotFoundException() {
         // Arrange
-        when(cuentaRepository.findById(999L)).thenReturn(Optional.empty());
+        when(cuentaRepository.findByIdForUpdate(999L)).thenReturn(Optional.empty());
 
         // Act & Assert
         CuentaNotFoundException exception = assertThrows(
@@ -147,14 +164,14 @@ class MovimientoServiceTest {
         );
 
         assertEquals("Cuenta no encontrada con ID: 999", exception.getMessage());
-        verify(cuentaRepository, times(1)).findById(999L);
+        verify(cuentaRepository, times(1)).findByIdForUpdate(999L);
         verify(movimientoRepository, never()).save(any(Movimiento.class));
     }
 
     @Test
     void registrarMovimiento_WithInactiveAccount_ShouldThrowCuentaInactivaException() {
         // Arrange
-        when(cuentaRepository.findById(2L)).thenReturn(Optional.of(cuentaInactiva));
+        when(cuentaRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(cuentaInactiva));
 
         // Act & Assert
         CuentaInactivaException exception = assertThrows(
@@ -163,7 +180,7 @@ class MovimientoServiceTest {
         );
 
         assertTrue(exception.getMessage().contains("no está activa"));
-        verify(cuentaRepository, times(1)).findById(2L);
+        verify(cuentaRepository, times(1)).findByIdForUpdate(2L);
         verify(movimientoRepository, never()).save(any(Movimiento.class));
     }
 
@@ -179,20 +196,16 @@ class MovimientoServiceTest {
         );
 
         assertTrue(exception.getMessage().contains("no puede ser cero"));
-        verify(cuentaRepository, never()).findById(anyLong());
+        verify(cuentaRepository, never()).findByIdForUpdate(anyLong());
         verify(movimientoRepository, never()).save(any(Movimiento.class));
     }
 
     @Test
     void registrarMovimiento_WithNegativeValueAndInsufficientBalance_ShouldThrowSaldoInsuficienteException() {
         // Arrange
-        when(cuentaRepository.findById(1L)).thenReturn(Optional.of(cuentaActiva));
-        
         // Configurar saldo actual de 100.00 (insuficiente para retiro de 200.00)
-        Movimiento ultimoMovimiento = new Movimiento();
-        ultimoMovimiento.setSaldo(new BigDecimal("100.00"));
-        when(movimientoRepository.findTopByCuentaCuentaIdOrderByFechaDesc(1L))
-                .thenReturn(Optional.of(ultimoMovimiento));
+        cuentaActiva.setSaldoActual(new BigDecimal("100.00"));
+        when(cuentaRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(cuentaActiva));
 
         // Act & Assert
         SaldoInsuficienteException exception = assertThrows(
@@ -204,7 +217,7 @@ class MovimientoServiceTest {
         assertTrue(exception.getMessage().contains("100,00"));
         assertTrue(exception.getMessage().contains("200,00"));
         
-        verify(cuentaRepository, times(1)).findById(1L);
+        verify(cuentaRepository, times(1)).findByIdForUpdate(1L);
         verify(movimientoRepository, never()).save(any(Movimiento.class));
     }
 
@@ -220,7 +233,7 @@ class MovimientoServiceTest {
         );
 
         assertTrue(exception.getMessage().contains("El valor mínimo del movimiento es 0.01"));
-        verify(cuentaRepository, never()).findById(anyLong());
+        verify(cuentaRepository, never()).findByIdForUpdate(anyLong());
         verify(movimientoRepository, never()).save(any(Movimiento.class));
     }
 
@@ -236,15 +249,13 @@ class MovimientoServiceTest {
         );
 
         assertTrue(exception.getMessage().contains("El valor máximo del movimiento es 1,000,000.00"));
-        verify(cuentaRepository, never()).findById(anyLong());
+        verify(cuentaRepository, never()).findByIdForUpdate(anyLong());
         verify(movimientoRepository, never()).save(any(Movimiento.class));
     }
 
     @Test
     void obtenerMovimientosPorCuenta_WithExistingAccount_ShouldReturnMovementsList() {
         // Arrange
-        List<Movimiento> movimientos = Arrays.asList(movimientoDeposito, movimientoRetiro);
-        when(movimientoRepository.findByCuentaCuentaIdOrderByFechaDesc(1L)).thenReturn(movimientos);
         when(cuentaRepository.existsById(1L)).thenReturn(true);
         
         MovimientoResponseDTO response1 = new MovimientoResponseDTO(
@@ -255,9 +266,7 @@ class MovimientoServiceTest {
             2L, movimientoRetiro.getFecha(), "RETIRO", 
             new BigDecimal("-200.00"), new BigDecimal("300.00"), 1L, "1234567890"
         );
-        
-        when(movimientoMapper.toResponseDTO(movimientoDeposito)).thenReturn(response1);
-        when(movimientoMapper.toResponseDTO(movimientoRetiro)).thenReturn(response2);
+        when(movimientoRepository.findRespuestasPorCuenta(1L)).thenReturn(Arrays.asList(response1, response2));
 
         // Act
         List<MovimientoResponseDTO> result = movimientoService.obtenerMovimientosPorCuenta(1L);
@@ -268,7 +277,7 @@ class MovimientoServiceTest {
         assertEquals("DEPOSITO", result.get(0).getTipoMovimiento());
         assertEquals("RETIRO", result.get(1).getTipoMovimiento());
         
-        verify(movimientoRepository, times(1)).findByCuentaCuentaIdOrderByFechaDesc(1L);
+        verify(movimientoRepository, times(1)).findRespuestasPorCuenta(1L);
         verify(cuentaRepository, times(1)).existsById(1L);
     }
 
@@ -285,15 +294,12 @@ class MovimientoServiceTest {
 
         assertEquals("Cuenta no encontrada con ID: 999", exception.getMessage());
         verify(cuentaRepository, times(1)).existsById(999L);
-        verify(movimientoRepository, never()).findByCuentaCuentaIdOrderByFechaDesc(anyLong());
+        verify(movimientoRepository, never()).findRespuestasPorCuenta(anyLong());
     }
 
     @Test
     void obtenerMovimientosPorCliente_WithExistingClient_ShouldReturnMovementsList() {
         // Arrange
-        List<Movimiento> movimientos = Arrays.asList(movimientoDeposito, movimientoRetiro);
-        when(movimientoRepository.findByCuentaClienteId(1L)).thenReturn(movimientos);
-        
         MovimientoResponseDTO response1 = new MovimientoResponseDTO(
             1L, movimientoDeposito.getFecha(), "DEPOSITO", 
             new BigDecimal("500.00"), new BigDecimal("500.00"), 1L, "1234567890"
@@ -302,9 +308,7 @@ class MovimientoServiceTest {
             2L, movimientoRetiro.getFecha(), "RETIRO", 
             new BigDecimal("-200.00"), new BigDecimal("300.00"), 1L, "1234567890"
         );
-        
-        when(movimientoMapper.toResponseDTO(movimientoDeposito)).thenReturn(response1);
-        when(movimientoMapper.toResponseDTO(movimientoRetiro)).thenReturn(response2);
+        when(movimientoRepository.findRespuestasPorCliente(1L)).thenReturn(Arrays.asList(response1, response2));
 
         // Act
         List<MovimientoResponseDTO> result = movimientoService.obtenerMovimientosPorCliente(1L);
@@ -312,16 +316,14 @@ class MovimientoServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(2, result.size());
-        verify(movimientoRepository, times(1)).findByCuentaClienteId(1L);
+        verify(movimientoRepository, times(1)).findRespuestasPorCliente(1L);
     }
 
     @Test
     void calcularSaldoDisponible_WithExistingAccountAndMovements_ShouldReturnCurrentBalance() {
         // Arrange
-        Movimiento ultimoMovimiento = new Movimiento();
-        ultimoMovimiento.setSaldo(new BigDecimal("1500.00"));
-        when(movimientoRepository.findTopByCuentaCuentaIdOrderByFechaDesc(1L))
-                .thenReturn(Optional.of(ultimoMovimiento));
+        when(cuentaRepository.findSaldoActualByCuentaId(1L))
+                .thenReturn(Optional.of(new BigDecimal("1500.00")));
 
         // Act
         BigDecimal result = movimientoService.calcularSaldoDisponible(1L);
@@ -329,13 +331,13 @@ class MovimientoServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(new BigDecimal("1500.00"), result);
-        verify(movimientoRepository, times(1)).findTopByCuentaCuentaIdOrderByFechaDesc(1L);
+        verify(cuentaRepository, times(1)).findSaldoActualByCuentaId(1L);
     }
 
     @Test
     void calcularSaldoDisponible_WithExistingAccountAndNoMovements_ShouldReturnZero() {
         // Arrange
-        when(movimientoRepository.findTopByCuentaCuentaIdOrderByFechaDesc(1L))
+        when(cuentaRepository.findSaldoActualByCuentaId(1L))
                 .thenReturn(Optional.empty());
 
         // Act
@@ -344,13 +346,13 @@ class MovimientoServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(BigDecimal.ZERO, result);
-        verify(movimientoRepository, times(1)).findTopByCuentaCuentaIdOrderByFechaDesc(1L);
+        verify(cuentaRepository, times(1)).findSaldoActualByCuentaId(1L);
     }
 
     @Test
     void calcularSaldoDisponible_WithException_ShouldThrowRuntimeException() {
         // Arrange
-        when(movimientoRepository.findTopByCuentaCuentaIdOrderByFechaDesc(1L))
+        when(cuentaRepository.findSaldoActualByCuentaId(1L))
                 .thenThrow(new RuntimeException("Database error"));
 
         // Act & Assert
@@ -360,7 +362,7 @@ class MovimientoServiceTest {
         );
 
         assertTrue(exception.getMessage().contains("Error al calcular el saldo disponible"));
-        verify(movimientoRepository, times(1)).findTopByCuentaCuentaIdOrderByFechaDesc(1L);
+        verify(cuentaRepository, times(1)).findSaldoActualByCuentaId(1L);
     }
 
     @Test
@@ -396,13 +398,11 @@ class MovimientoServiceTest {
     @Test
     void obtenerMovimientoPorId_WithExistingMovement_ShouldReturnMovement() {
         // Arrange
-        when(movimientoRepository.findById(1L)).thenReturn(Optional.of(movimientoDeposito));
-        
         MovimientoResponseDTO expectedResponse = new MovimientoResponseDTO(
             1L, movimientoDeposito.getFecha(), "DEPOSITO", 
             new BigDecimal("500.00"), new BigDecimal("500.00"), 1L, "1234567890"
         );
-        when(movimientoMapper.toResponseDTO(movimientoDeposito)).thenReturn(expectedResponse);
+        when(movimientoRepository.findRespuestaPorId(1L)).thenReturn(Optional.of(expectedResponse));
 
         // Act
         MovimientoResponseDTO result = movimientoService.obtenerMovimientoPorId(1L);
@@ -411,13 +411,13 @@ class MovimientoServiceTest {
         assertNotNull(result);
         assertEquals(1L, result.getMovimientoId());
         assertEquals("DEPOSITO", result.getTipoMovimiento());
-        verify(movimientoRepository, times(1)).findById(1L);
+        verify(movimientoRepository, times(1)).findRespuestaPorId(1L);
     }
 
     @Test
     void obtenerMovimientoPorId_WithNonExistentMovement_ShouldThrowRuntimeException() {
         // Arrange
-        when(movimientoRepository.findById(999L)).thenReturn(Optional.empty());
+        when(movimientoRepository.findRespuestaPorId(999L)).thenReturn(Optional.empty());
 
         // Act & Assert
         RuntimeException exception = assertThrows(
@@ -426,15 +426,12 @@ class MovimientoServiceTest {
         );
 
         assertTrue(exception.getMessage().contains("Error al obtener el movimiento"));
-        verify(movimientoRepository, times(1)).findById(999L);
+        verify(movimientoRepository, times(1)).findRespuestaPorId(999L);
     }
 
     @Test
     void obtenerTodosLosMovimientos_WithMovements_ShouldReturnAllMovements() {
         // Arrange
-        List<Movimiento> movimientos = Arrays.asList(movimientoDeposito, movimientoRetiro);
-        when(movimientoRepository.findAll()).thenReturn(movimientos);
-        
         MovimientoResponseDTO response1 = new MovimientoResponseDTO(
             1L, movimientoDeposito.getFecha(), "DEPOSITO", 
             new BigDecimal("500.00"), new BigDecimal("500.00"), 1L, "1234567890"
@@ -443,9 +440,7 @@ class MovimientoServiceTest {
             2L, movimientoRetiro.getFecha(), "RETIRO", 
             new BigDecimal("-200.00"), new BigDecimal("300.00"), 1L, "1234567890"
         );
-        
-        when(movimientoMapper.toResponseDTO(movimientoDeposito)).thenReturn(response1);
-        when(movimientoMapper.toResponseDTO(movimientoRetiro)).thenReturn(response2);
+        when(movimientoRepository.findRespuestasTodas()).thenReturn(Arrays.asList(response1, response2));
 
         // Act
         List<MovimientoResponseDTO> result = movimientoService.obtenerTodosLosMovimientos();
@@ -453,6 +448,6 @@ class MovimientoServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(2, result.size());
-        verify(movimientoRepository, times(1)).findAll();
+        verify(movimientoRepository, times(1)).findRespuestasTodas();
     }
 }
\ No newline at end of file
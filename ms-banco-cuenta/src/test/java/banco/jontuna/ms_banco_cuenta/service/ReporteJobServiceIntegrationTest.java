@@ -0,0 +1,205 @@
+package banco.jontuna.ms_banco_cuenta.service;
+
+import banco.jontuna.ms_banco_cuenta.dto.MovimientoRequestDTO;
+import banco.jontuna.ms_banco_cuenta.dto.ReporteJobDTO;
+import banco.jontuna.ms_banco_cuenta.repository.CuentaRepository;
+import banco.jontuna.ms_banco_cuenta.util.CuentasDePrueba;
+import banco.jontuna.ms_banco_cuenta.util.exception.FechaInvalidaException;
+import banco.jontuna.ms_banco_cuenta.util.exception.LimiteSolicitudesException;
+import banco.jontuna.ms_banco_cuenta.util.exception.ServicioSaturadoException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+// Un hilo y cola de uno para poder llenar el executor con un reporte bloqueado
+@SpringBootTest(properties = {
+        "banco.reportes.jobs.hilos=1",
+        "banco.reportes.jobs.capacidad-cola=1",
+        "banco.reportes.jobs.max-por-cliente=2",
+        "banco.reportes.jobs.retencion-minutos=0",
+        "banco.reportes.jobs.purga.intervalo-ms=3600000"
+})
+@ActiveProfiles("test")
+class ReporteJobServiceIntegrationTest {
+
+    @Autowired
+    private ReporteJobService reporteJobService;
+
+    @SpyBean
+    private ReporteService reporteService;
+
+    @Autowired
+    private MovimientoService movimientoService;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final CountDownLatch desbloquear = new CountDownLatch(1);
+    private final CountDownLatch consultando = new CountDownLatch(1);
+    private final CountDownLatch consultaTerminada = new CountDownLatch(1);
+    private Long clienteBloqueado;
+    private Long clienteConsultaLenta;
+    private LocalDate hoy;
+
+    @BeforeEach
+    void setUp() {
+        hoy = LocalDate.now();
+        clienteBloqueado = CuentasDePrueba.clienteNuevo();
+        clienteConsultaLenta = CuentasDePrueba.clienteNuevo();
+        // Los reportes de clienteBloqueado quedan esperando hasta que se liberen o se interrumpa el hilo; los de
+        // clienteConsultaLenta ejecutan en la sesión del job una consulta que tarda minutos
+        doAnswer(invocacion -> {
+            if (clienteConsultaLenta.equals(invocacion.getArgument(0))) {
+                consultando.countDown();
+                try {
+                    return entityManager.createNativeQuery(
+                            "SELECT COUNT(*) FROM SYSTEM_RANGE(1, 100000000000) WHERE MOD(X, 7) = 8").getSingleResult();
+                } finally {
+                    consultaTerminada.countDown();
+                }
+            }
+            if (!clienteBloqueado.equals(invocacion.getArgument(0))) {
+                return invocacion.callRealMethod();
+            }
+            try {
+                desbloquear.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Reporte interrumpido", e);
+            }
+            return invocacion.callRealMethod();
+        }).when(reporteService).escribirReporteEstadoCuenta(any(), any(), any(), any(), any());
+    }
+
+    @AfterEach
+    void tearDown() {
+        desbloquear.countDown();
+    }
+
+    @Test
+    void crear_ClienteConMovimientos_DeberiaCompletarYExpirarElResultado() throws Exception {
+        // Arrange
+        Long clienteId = CuentasDePrueba.clienteNuevo();
+        Long cuentaId = crearCuenta(clienteId);
+        movimientoService.registrarMovimiento(cuentaId, new MovimientoRequestDTO(new BigDecimal("40.00")));
+
+        // Act
+        ReporteJobDTO creado = reporteJobService.crear(clienteId, hoy.minusDays(1), hoy);
+        ReporteJobDTO terminado = esperarEstado(clienteId, creado.getJobId(), "COMPLETADO");
+
+        // Assert: el resultado queda en un archivo, no en el job
+        Path archivo = reporteJobService.obtenerResultado(clienteId, creado.getJobId()).orElseThrow();
+        assertEquals(Files.size(archivo), terminado.getBytesResultado());
+        JsonNode resultado = objectMapper.readTree(archivo.toFile());
+        assertEquals(1, resultado.get("cuentas").size());
+        assertEquals(1, resultado.get("cuentas").get(0).get("movimientos").size());
+        assertNotNull(terminado.getFechaFinalizacion());
+        assertTrue(reporteJobService.obtener(clienteId + 1, creado.getJobId()).isEmpty());
+        assertTrue(reporteJobService.obtenerResultado(clienteId + 1, creado.getJobId()).isEmpty());
+
+        // Con retención de cero minutos el resultado y su archivo se eliminan en la siguiente purga
+        reporteJobService.purgarExpirados();
+        assertTrue(reporteJobService.obtener(clienteId, creado.getJobId()).isEmpty());
+        assertFalse(Files.exists(archivo));
+    }
+
+    @Test
+    void crear_ColaLlenaYLimitePorCliente_DeberiaRechazarYCancelarPendientesYEnProceso() throws Exception {
+        // Arrange: el primer reporte ocupa el único hilo y el segundo la cola
+        Long otroCliente = CuentasDePrueba.clienteNuevo();
+        ReporteJobDTO enProceso = reporteJobService.crear(clienteBloqueado, hoy.minusDays(1), hoy);
+        esperarEstado(clienteBloqueado, enProceso.getJobId(), "EN_PROCESO");
+        ReporteJobDTO pendiente = reporteJobService.crear(clienteBloqueado, hoy.minusDays(1), hoy);
+        assertEquals("PENDIENTE", pendiente.getEstado());
+
+        // Act & Assert: límite por cliente y cola llena
+        assertThrows(LimiteSolicitudesException.class,
+                () -> reporteJobService.crear(clienteBloqueado, hoy.minusDays(1), hoy));
+        assertThrows(ServicioSaturadoException.class,
+                () -> reporteJobService.crear(otroCliente, hoy.minusDays(1), hoy));
+
+        // Cancelar el pendiente lo saca de la cola y deja lugar a otro cliente
+        assertEquals("CANCELADO", reporteJobService.cancelar(clienteBloqueado, pendiente.getJobId())
+                .orElseThrow().getEstado());
+        ReporteJobDTO delOtroCliente = reporteJobService.crear(otroCliente, hoy.minusDays(1), hoy);
+
+        // Cancelar el que está en proceso interrumpe el hilo y descarta el resultado
+        assertEquals("CANCELADO", reporteJobService.cancelar(clienteBloqueado, enProceso.getJobId())
+                .orElseThrow().getEstado());
+
+        // El otro cliente no tiene cuentas: su reporte termina con error
+        ReporteJobDTO fallido = esperarEstado(otroCliente, delOtroCliente.getJobId(), "FALLIDO");
+        assertNotNull(fallido.getError());
+        ReporteJobDTO cancelado = reporteJobService.obtener(clienteBloqueado, enProceso.getJobId()).orElseThrow();
+        assertEquals("CANCELADO", cancelado.getEstado());
+        assertNull(cancelado.getBytesResultado());
+        assertTrue(reporteJobService.obtenerResultado(clienteBloqueado, enProceso.getJobId()).isEmpty());
+
+        // Los cupos del cliente se liberaron
+        assertNotNull(reporteJobService.crear(clienteBloqueado, hoy.minusDays(1), hoy).getJobId());
+    }
+
+    @Test
+    void cancelar_ConConsultaEnCurso_DeberiaCancelarLaConsulta() throws Exception {
+        // Arrange
+        ReporteJobDTO job = reporteJobService.crear(clienteConsultaLenta, hoy.minusDays(1), hoy);
+        assertTrue(consultando.await(10, TimeUnit.SECONDS));
+        Thread.sleep(200);
+
+        // Act
+        assertEquals("CANCELADO", reporteJobService.cancelar(clienteConsultaLenta, job.getJobId())
+                .orElseThrow().getEstado());
+
+        // Assert: la interrupción sola no detiene la consulta; Statement.cancel sí
+        assertTrue(consultaTerminada.await(10, TimeUnit.SECONDS), "La consulta del job siguió ejecutándose");
+        esperarEstado(clienteConsultaLenta, job.getJobId(), "CANCELADO");
+        assertTrue(reporteJobService.obtenerResultado(clienteConsultaLenta, job.getJobId()).isEmpty());
+    }
+
+    @Test
+    void validarRangoSincrono_RangoMayorAlMaximo_DeberiaPedirReporteEnSegundoPlano() {
+        assertThrows(FechaInvalidaException.class,
+                () -> reporteService.validarRangoSincrono(hoy.minusDays(200), hoy));
+        assertDoesNotThrow(() -> reporteService.validarRangoSincrono(hoy.minusDays(30), hoy));
+    }
+
+    private ReporteJobDTO esperarEstado(Long clienteId, String jobId, String estado) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 10_000;
+        ReporteJobDTO job = reporteJobService.obtener(clienteId, jobId).orElseThrow();
+        while (!estado.equals(job.getEstado()) && System.currentTimeMillis() < limite) {
+            Thread.sleep(20);
+            job = reporteJobService.obtener(clienteId, jobId).orElseThrow();
+        }
+        assertEquals(estado, job.getEstado());
+        return job;
+    }
+
+    private Long crearCuenta(Long clienteId) {
+        return cuentaRepository.save(CuentasDePrueba.nueva(clienteId)).getCuentaId();
+    }
+}
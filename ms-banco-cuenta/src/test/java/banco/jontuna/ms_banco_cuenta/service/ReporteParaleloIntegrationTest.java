@@ -0,0 +1,272 @@
+package banco.jontuna.ms_banco_cuenta.service;
+
+import banco.jontuna.ms_banco_cuenta.dto.EstadoCuentaReporteDTO;
+import banco.jontuna.ms_banco_cuenta.model.Cuenta;
+import banco.jontuna.ms_banco_cuenta.model.Movimiento;
+import banco.jontuna.ms_banco_cuenta.repository.CuentaRepository;
+import banco.jontuna.ms_banco_cuenta.repository.MovimientoRepository;
+import banco.jontuna.ms_banco_cuenta.repository.custom.CustomMovimientoRepository;
+import banco.jontuna.ms_banco_cuenta.util.CuentasDePrueba;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "banco.reportes.paralelo.enabled=true",
+        "banco.reportes.paralelo.min-cuentas=2",
+        "banco.reportes.paralelo.max-conexiones=2",
+        "banco.reportes.sincrono.hilos=1",
+        "banco.reportes.sincrono.capacidad-cola=1"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReporteParaleloIntegrationTest {
+
+    @Autowired
+    private ReporteService reporteService;
+
+    @SpyBean
+    private CustomMovimientoRepository customMovimientoRepository;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private MovimientoRepository movimientoRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private Long clienteId;
+    private LocalDate hoy;
+    private List<Cuenta> cuentas;
+    private CountDownLatch bloqueada;
+    private CountDownLatch interrumpida;
+    private CountDownLatch liberar;
+
+    @BeforeEach
+    void setUp() {
+        hoy = LocalDate.now();
+        clienteId = CuentasDePrueba.clienteNuevo();
+        cuentas = new ArrayList<>();
+        bloqueada = new CountDownLatch(1);
+        interrumpida = new CountDownLatch(1);
+        liberar = new CountDownLatch(1);
+        for (int i = 0; i < 5; i++) {
+            Cuenta cuenta = crearCuenta();
+            cuentas.add(cuenta);
+            // La primera cuenta queda sin movimientos en el rango
+            for (int dia = 1; dia <= i; dia++) {
+                crearMovimiento(cuenta, String.valueOf(dia * 10), dia);
+            }
+        }
+    }
+
+    @Test
+    void generarReporteEstadoCuenta_EnParalelo_DeberiaSerIgualAlSecuencial() throws Exception {
+        // Act
+        EstadoCuentaReporteDTO paralelo = reporteService.generarReporteEstadoCuenta(clienteId, hoy.minusDays(10), hoy);
+        EstadoCuentaReporteDTO secuencial;
+        ReflectionTestUtils.setField(reporteService, "paraleloHabilitado", false);
+        try {
+            secuencial = reporteService.generarReporteEstadoCuenta(clienteId, hoy.minusDays(10), hoy);
+        } finally {
+            ReflectionTestUtils.setField(reporteService, "paraleloHabilitado", true);
+        }
+
+        // Assert: mismo contenido y mismo orden de cuentas, con una lectura por grupo (max-conexiones=2)
+        assertEquals(objectMapper.writeValueAsString(secuencial), objectMapper.writeValueAsString(paralelo));
+        assertEquals(5, paralelo.getCuentas().size());
+        assertEquals(4, paralelo.getCuentas().get(4).getMovimientos().size());
+        verify(customMovimientoRepository, times(2)).findDetallesByCuentasAndFechaRange(any(), any(), any());
+    }
+
+    @Test
+    void generarReporteEstadoCuenta_HiloInterrumpido_DeberiaCancelarLasLecturasPendientes() throws Exception {
+        // Arrange: la lectura del grupo de una cuenta queda bloqueada hasta que la interrumpan
+        bloquearLecturaDelGrupo(cuentas.get(2).getCuentaId());
+
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread solicitud = new Thread(() -> {
+            try {
+                reporteService.generarReporteEstadoCuenta(clienteId, hoy.minusDays(10), hoy);
+            } catch (Throwable e) {
+                error.set(e);
+            }
+        });
+
+        // Act
+        solicitud.start();
+        assertTrue(bloqueada.await(10, TimeUnit.SECONDS));
+        solicitud.interrupt();
+        solicitud.join(10_000);
+
+        // Assert
+        assertFalse(solicitud.isAlive());
+        assertTrue(interrumpida.await(10, TimeUnit.SECONDS), "La lectura del grupo no fue interrumpida");
+        assertNotNull(error.get());
+        assertEquals("La generación del reporte fue cancelada", error.get().getMessage());
+    }
+
+    @Test
+    void generarReporteEstadoCuenta_ConEntityManagerDeLaSolicitud_NoDeberiaRetenerConexionMientrasEspera() throws Exception {
+        // Arrange: open-in-view deja un EntityManager ligado al hilo de la solicitud durante todo el request
+        bloquearLecturaDelGrupo(cuentas.get(2).getCuentaId());
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        AtomicReference<EstadoCuentaReporteDTO> reporte = new AtomicReference<>();
+        Thread solicitud = new Thread(() -> {
+            TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+            try {
+                reporte.set(reporteService.generarReporteEstadoCuenta(clienteId, hoy.minusDays(10), hoy));
+            } finally {
+                TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            }
+        });
+
+        try {
+            // Act
+            solicitud.start();
+            assertTrue(bloqueada.await(10, TimeUnit.SECONDS));
+
+            // Assert: mientras espera a los grupos, el hilo de la solicitud no tiene conexión tomada
+            assertFalse(entityManager.unwrap(SessionImplementor.class).getJdbcCoordinator()
+                    .getLogicalConnection().isPhysicallyConnected());
+            liberar.countDown();
+            solicitud.join(10_000);
+            assertEquals(5, reporte.get().getCuentas().size());
+        } finally {
+            liberar.countDown();
+            entityManager.close();
+        }
+    }
+
+    @Test
+    void generarReporteEstadoCuenta_GetConTimeout_DeberiaInterrumpirLasLecturasYResponder503() throws Exception {
+        // Arrange
+        bloquearLecturaDelGrupo(cuentas.get(2).getCuentaId());
+        MvcResult iniciada = mockMvc.perform(get("/api/reportes/{clienteId}", clienteId)
+                        .param("fechaInicio", hoy.minusDays(10).toString())
+                        .param("fechaFin", hoy.toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertTrue(bloqueada.await(10, TimeUnit.SECONDS));
+
+        // Act: el contenedor avisa que venció el tiempo de la solicitud
+        MockAsyncContext contexto = (MockAsyncContext) iniciada.getRequest().getAsyncContext();
+        for (AsyncListener listener : contexto.getListeners()) {
+            listener.onTimeout(new AsyncEvent(contexto));
+        }
+
+        // Assert
+        assertTrue(interrumpida.await(10, TimeUnit.SECONDS), "La lectura del grupo no fue interrumpida");
+        // La tarea termina poco después de la lectura interrumpida: asyncDispatch no espera su resultado
+        iniciada.getAsyncResult(10_000);
+        mockMvc.perform(asyncDispatch(iniciada))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.error").value("Tiempo de Espera Agotado"));
+    }
+
+    @Test
+    void generarReporteEstadoCuenta_GetConElPoolSincronoLleno_DeberiaRechazarSinEsperar() throws Exception {
+        // Arrange: un reporte ocupa el único hilo y otro llena la cola (sincrono.hilos=1, capacidad-cola=1)
+        bloquearLecturaDelGrupo(cuentas.get(2).getCuentaId());
+        MvcResult enProceso = iniciarReporte();
+        assertTrue(bloqueada.await(10, TimeUnit.SECONDS));
+        MvcResult enCola = iniciarReporte();
+
+        try {
+            // Act
+            MvcResult rechazado = iniciarReporte();
+
+            // Assert: el tercero se rechaza sin esperar el timeout (GlobalExceptionHandler lo responde con 503).
+            // MockMvc no registra como resultado una tarea que el executor rechaza, se lee del WebAsyncManager
+            WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(rechazado.getRequest());
+            assertTrue(asyncManager.hasConcurrentResult());
+            assertInstanceOf(TaskRejectedException.class, asyncManager.getConcurrentResult());
+        } finally {
+            liberar.countDown();
+        }
+
+        // Los que ya estaban en el pool terminan normalmente
+        mockMvc.perform(asyncDispatch(enProceso)).andExpect(status().isOk());
+        mockMvc.perform(asyncDispatch(enCola)).andExpect(status().isOk());
+    }
+
+    private MvcResult iniciarReporte() throws Exception {
+        return mockMvc.perform(get("/api/reportes/{clienteId}", clienteId)
+                        .param("fechaInicio", hoy.minusDays(10).toString())
+                        .param("fechaFin", hoy.toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    // La lectura del grupo que contiene la cuenta queda bloqueada hasta que se libere o la interrumpan
+    private void bloquearLecturaDelGrupo(Long cuentaId) {
+        doAnswer(invocacion -> {
+            bloqueada.countDown();
+            try {
+                liberar.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                interrumpida.countDown();
+                throw new RuntimeException("Lectura interrumpida", e);
+            }
+            return invocacion.callRealMethod();
+        }).when(customMovimientoRepository).findDetallesByCuentasAndFechaRange(
+                argThat(cuentaIds -> cuentaIds.contains(cuentaId)), any(), any());
+    }
+
+    private Cuenta crearCuenta() {
+        return cuentaRepository.save(CuentasDePrueba.nueva(clienteId));
+    }
+
+    private void crearMovimiento(Cuenta cuenta, String valor, int diasAtras) {
+        Movimiento movimiento = new Movimiento("DEPOSITO", new BigDecimal(valor), new BigDecimal(valor), cuenta);
+        movimiento.setFecha(hoy.minusDays(diasAtras).atTime(12, 0));
+        movimientoRepository.save(movimiento);
+    }
+}
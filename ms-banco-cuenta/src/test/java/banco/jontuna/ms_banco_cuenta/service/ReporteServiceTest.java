@@ -15,11 +15,14 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -113,10 +116,7 @@ class ReporteControllerIntegrationTest {
         String url = "/api/reportes/{clienteId}";
 
         // Act & Assert
-        mockMvc.perform(get(url, clienteIdExistente)
-                .param("fechaInicio", fechaInicio)
-                .param("fechaFin", fechaFin)
-                .contentType(MediaType.APPLICATION_JSON))
+        obtenerReporte(url, clienteIdExistente, fechaInicio, fechaFin)
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.clienteId").value(clienteIdExistente))
@@ -146,10 +146,7 @@ class ReporteControllerIntegrationTest {
         String url = "/api/reportes/{clienteId}";
 
         // Act
-        String response = mockMvc.perform(get(url, clienteIdExistente)
-                .param("fechaInicio", fechaInicio)
-                .param("fechaFin", fechaFin)
-                .contentType(MediaType.APPLICATION_JSON))
+        String response = obtenerReporte(url, clienteIdExistente, fechaInicio, fechaFin)
                 .andExpect(status().isOk())
                 .andReturn()
                 .getResponse()
@@ -176,10 +173,7 @@ class ReporteControllerIntegrationTest {
         String url = "/api/reportes/{clienteId}";
 
         // Act & Assert
-        mockMvc.perform(get(url, clienteIdSinCuentas)
-                .param("fechaInicio", fechaInicio)
-                .param("fechaFin", fechaFin)
-                .contentType(MediaType.APPLICATION_JSON))
+        obtenerReporte(url, clienteIdSinCuentas, fechaInicio, fechaFin)
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.error").value("Cuentas No Encontradas"))
                 .andExpect(jsonPath("$.message").value("No se encontraron cuentas activas para el cliente con ID: " + clienteIdSinCuentas));
@@ -244,10 +238,7 @@ class ReporteControllerIntegrationTest {
         String url = "/api/reportes/{clienteId}";
 
         // Act & Assert
-        mockMvc.perform(get(url, clienteIdExistente)
-                .param("fechaInicio", fechaInicio)
-                .param("fechaFin", fechaFin)
-                .contentType(MediaType.APPLICATION_JSON))
+        obtenerReporte(url, clienteIdExistente, fechaInicio, fechaFin)
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.error").value("Cuentas No Encontradas"))
                 .andExpect(jsonPath("$.message").value("No se encontraron movimientos para el cliente ID: " + clienteIdExistente + " en el rango 2023-09-01 a 2023-09-30"));
@@ -261,10 +252,7 @@ class ReporteControllerIntegrationTest {
         String url = "/api/reportes/{clienteId}";
 
         // Act
-        String response = mockMvc.perform(get(url, clienteIdExistente)
-                .param("fechaInicio", fechaInicio)
-                .param("fechaFin", fechaFin)
-                .contentType(MediaType.APPLICATION_JSON))
+        String response = obtenerReporte(url, clienteIdExistente, fechaInicio, fechaFin)
                 .andExpect(status().isOk())
                 .andReturn()
                 .getResponse()
@@ -294,10 +282,7 @@ class ReporteControllerIntegrationTest {
         String url = "/api/reportes/{clienteId}";
 
         // Act
-        String response = mockMvc.perform(get(url, clienteIdExistente)
-                .param("fechaInicio", fechaInicio)
-                .param("fechaFin", fechaFin)
-                .contentType(MediaType.APPLICATION_JSON))
+        String response = obtenerReporte(url, clienteIdExistente, fechaInicio, fechaFin)
                 .andExpect(status().isOk())
                 .andReturn()
                 .getResponse()
@@ -342,10 +327,7 @@ class ReporteControllerIntegrationTest {
         String url = "/api/reportes/{clienteId}";
 
         // Act
-        String response = mockMvc.perform(get(url, clienteIdExistente)
-                .param("fechaInicio", fechaInicio)
-                .param("fechaFin", fechaFin)
-                .contentType(MediaType.APPLICATION_JSON))
+        String response = obtenerReporte(url, clienteIdExistente, fechaInicio, fechaFin)
                 .andExpect(status().isOk())
                 .andReturn()
                 .getResponse()
@@ -391,10 +373,7 @@ class ReporteControllerIntegrationTest {
         String url = "/api/reportes/{clienteId}";
 
         // Act
-        String response = mockMvc.perform(get(url, clienteIdExistente)
-                .param("fechaInicio", fechaInicio)
-                .param("fechaFin", fechaFin)
-                .contentType(MediaType.APPLICATION_JSON))
+        String response = obtenerReporte(url, clienteIdExistente, fechaInicio, fechaFin)
                 .andExpect(status().isOk())
                 .andReturn()
                 .getResponse()
@@ -410,4 +389,16 @@ class ReporteControllerIntegrationTest {
         assertEquals(0, saldoTotalCalculado.compareTo(reporte.getSaldoTotal()), 
                 "El saldo total del reporte debe ser igual a la suma de los saldos de todas las cuentas");
     }
-}
\ No newline at end of file
+
+    // El reporte se arma fuera del hilo de la solicitud: la validación de fechas responde en el acto y el
+    // resultado llega con el despacho asíncrono
+    private ResultActions obtenerReporte(String url, Long clienteId, String fechaInicio, String fechaFin) throws Exception {
+        MvcResult iniciada = mockMvc.perform(get(url, clienteId)
+                .param("fechaInicio", fechaInicio)
+                .param("fechaFin", fechaFin)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(iniciada));
+    }
+}
@@ -0,0 +1,120 @@
+package banco.jontuna.ms_banco_cuenta.service;
+
+import banco.jontuna.ms_banco_cuenta.dto.EstadoCuentaReporteDTO;
+import banco.jontuna.ms_banco_cuenta.model.Cuenta;
+import banco.jontuna.ms_banco_cuenta.model.Movimiento;
+import banco.jontuna.ms_banco_cuenta.repository.CuentaRepository;
+import banco.jontuna.ms_banco_cuenta.repository.MovimientoRepository;
+import banco.jontuna.ms_banco_cuenta.util.CuentasDePrueba;
+import banco.jontuna.ms_banco_cuenta.util.exception.CuentasNoEncontradasException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// fetch-size pequeño para que el reporte se lea y se vacíe por varios bloques
+@SpringBootTest(properties = "banco.exportacion.fetch-size=2")
+@ActiveProfiles("test")
+class ReporteStreamingIntegrationTest {
+
+    @Autowired
+    private ReporteService reporteService;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private MovimientoRepository movimientoRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Long clienteId;
+    private LocalDate hoy;
+    private Cuenta conMovimientos;
+    private Cuenta sinMovimientos;
+
+    @BeforeEach
+    void setUp() {
+        hoy = LocalDate.now();
+        clienteId = CuentasDePrueba.clienteNuevo();
+        conMovimientos = crearCuenta("ACTIVA", "90.00");
+        sinMovimientos = crearCuenta("ACTIVA", "15.50");
+        Cuenta bloqueada = crearCuenta("BLOQUEADA", "7.00");
+
+        crearMovimiento(conMovimientos, "DEPOSITO", "100.00", "100.00", 5);
+        crearMovimiento(conMovimientos, "RETIRO", "30.00", "70.00", 4);
+        crearMovimiento(conMovimientos, "DEPOSITO", "20.00", "90.00", 3);
+        crearMovimiento(bloqueada, "DEPOSITO", "7.00", "7.00", 3);
+    }
+
+    @Test
+    void escribirReporteEstadoCuenta_Json_DeberiaSerIgualAlReporteEnMemoria() throws Exception {
+        // Arrange
+        EstadoCuentaReporteDTO enMemoria = reporteService.generarReporteEstadoCuenta(clienteId, hoy.minusDays(10), hoy);
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        // Act
+        BigDecimal saldoTotal = reporteService.escribirReporteEstadoCuenta(
+                clienteId, hoy.minusDays(10), hoy, salida, ReporteService.Formato.JSON);
+
+        // Assert
+        assertEquals(objectMapper.writeValueAsString(enMemoria), salida.toString(StandardCharsets.UTF_8));
+        JsonNode escrito = objectMapper.readTree(salida.toByteArray());
+        assertEquals(0, new BigDecimal("105.50").compareTo(saldoTotal));
+        assertEquals(3, escrito.get("cuentas").get(0).get("movimientos").size());
+        assertEquals(0, escrito.get("cuentas").get(1).get("movimientos").size());
+    }
+
+    @Test
+    void escribirReporteEstadoCuenta_Csv_DeberiaEscribirUnaFilaPorMovimientoYPorCuentaSinMovimientos() {
+        // Arrange
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        // Act: el rango deja fuera el primer depósito
+        reporteService.escribirReporteEstadoCuenta(clienteId, hoy.minusDays(4), hoy, salida, ReporteService.Formato.CSV);
+
+        // Assert
+        String[] lineas = salida.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(4, lineas.length);
+        assertTrue(lineas[0].startsWith("cuentaId,numeroCuenta,"));
+        assertTrue(lineas[1].startsWith(conMovimientos.getCuentaId() + "," + conMovimientos.getNumeroCuenta()
+                + ",AHORROS,ACTIVA,90.00,"));
+        assertTrue(lineas[1].endsWith(",DEPOSITO,20.00,Crédito de $20.00,90.00"));
+        assertTrue(lineas[2].endsWith(",RETIRO,30.00,Crédito de $30.00,70.00"));
+        assertEquals(sinMovimientos.getCuentaId() + "," + sinMovimientos.getNumeroCuenta() + ",AHORROS,ACTIVA,15.50,,,,,,",
+                lineas[3]);
+    }
+
+    @Test
+    void escribirReporteEstadoCuenta_ClienteSinCuentas_DeberiaLanzarExcepcionSinEscribir() {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        assertThrows(CuentasNoEncontradasException.class, () -> reporteService.escribirReporteEstadoCuenta(
+                clienteId + 1000, hoy.minusDays(4), hoy, salida, ReporteService.Formato.JSON));
+        assertEquals(0, salida.size());
+    }
+
+    private Cuenta crearCuenta(String estado, String saldo) {
+        Cuenta cuenta = CuentasDePrueba.nueva(clienteId);
+        cuenta.setEstado(estado);
+        cuenta.setSaldoActual(new BigDecimal(saldo));
+        return cuentaRepository.save(cuenta);
+    }
+
+    private void crearMovimiento(Cuenta cuenta, String tipo, String valor, String saldo, int diasAtras) {
+        Movimiento movimiento = new Movimiento(tipo, new BigDecimal(valor), new BigDecimal(saldo), cuenta);
+        movimiento.setFecha(hoy.minusDays(diasAtras).atTime(12, 0));
+        movimientoRepository.save(movimiento);
+    }
+}
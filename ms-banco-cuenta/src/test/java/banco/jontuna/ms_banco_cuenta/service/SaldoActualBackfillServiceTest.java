@@ -0,0 +1,72 @@
+package banco.jontuna.ms_banco_cuenta.service;
+
+import banco.jontuna.ms_banco_cuenta.model.Cuenta;
+import banco.jontuna.ms_banco_cuenta.model.Movimiento;
+import banco.jontuna.ms_banco_cuenta.repository.CuentaRepository;
+import banco.jontuna.ms_banco_cuenta.repository.MovimientoRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    "banco.saldo.backfill.enabled=true",
+    "banco.saldo.backfill.tamano-lote=2"
+})
+@ActiveProfiles("test")
+class SaldoActualBackfillServiceTest {
+
+    @Autowired
+    private SaldoActualBackfillService saldoActualBackfillService;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private MovimientoRepository movimientoRepository;
+
+    @Test
+    void ejecutarBackfill_CuentasConMovimientosPrevios_DeberiaTomarElSaldoDelUltimoMovimiento() {
+        // Arrange
+        Cuenta cuentaConMovimientos = crearCuenta("8800000001");
+        crearMovimiento(cuentaConMovimientos, LocalDateTime.of(2025, 1, 10, 9, 0), "DEPOSITO", "300.00", "300.00");
+        Movimiento ultimo = crearMovimiento(cuentaConMovimientos, LocalDateTime.of(2025, 1, 12, 9, 0), "RETIRO", "50.00", "250.00");
+
+        Cuenta cuentaSinMovimientos = crearCuenta("8800000002");
+
+        // Act
+        long procesadas = saldoActualBackfillService.ejecutarBackfill();
+
+        // Assert
+        assertTrue(procesadas >= 2);
+
+        Cuenta actualizada = cuentaRepository.findById(cuentaConMovimientos.getCuentaId()).orElseThrow();
+        assertEquals(0, new BigDecimal("250.00").compareTo(actualizada.getSaldoActual()));
+        assertEquals(ultimo.getMovimientoId(), actualizada.getUltimoMovimientoId());
+
+        Cuenta vacia = cuentaRepository.findById(cuentaSinMovimientos.getCuentaId()).orElseThrow();
+        assertEquals(0, BigDecimal.ZERO.compareTo(vacia.getSaldoActual()));
+        assertNull(vacia.getUltimoMovimientoId());
+    }
+
+    private Cuenta crearCuenta(String numeroCuenta) {
+        Cuenta cuenta = new Cuenta();
+        cuenta.setClienteId(8800L);
+        cuenta.setNumeroCuenta(numeroCuenta);
+        cuenta.setTipoCuenta("AHORROS");
+        cuenta.setEstado("ACTIVA");
+        cuenta.setSaldoInicial(BigDecimal.ZERO);
+        return cuentaRepository.save(cuenta);
+    }
+
+    private Movimiento crearMovimiento(Cuenta cuenta, LocalDateTime fecha, String tipo, String valor, String saldo) {
+        Movimiento movimiento = new Movimiento(tipo, new BigDecimal(valor), new BigDecimal(saldo), cuenta);
+        movimiento.setFecha(fecha);
+        return movimientoRepository.save(movimiento);
+    }
+}
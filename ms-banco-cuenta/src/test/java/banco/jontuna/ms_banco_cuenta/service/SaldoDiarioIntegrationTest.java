@@ -0,0 +1,281 @@
+package banco.jontuna.ms_banco_cuenta.service;
+
+import banco.jontuna.ms_banco_cuenta.dto.CuentaPeriodoDTO;
+import banco.jontuna.ms_banco_cuenta.dto.EstadoCuentaResumenDTO;
+import banco.jontuna.ms_banco_cuenta.dto.MovimientoPaginaDTO;
+import banco.jontuna.ms_banco_cuenta.dto.MovimientoRequestDTO;
+import banco.jontuna.ms_banco_cuenta.dto.MovimientoResponseDTO;
+import banco.jontuna.ms_banco_cuenta.dto.TransferenciaRequestDTO;
+import banco.jontuna.ms_banco_cuenta.model.Cuenta;
+import banco.jontuna.ms_banco_cuenta.model.Movimiento;
+import banco.jontuna.ms_banco_cuenta.model.SaldoDiario;
+import banco.jontuna.ms_banco_cuenta.repository.CuentaRepository;
+import banco.jontuna.ms_banco_cuenta.repository.MovimientoRepository;
+import banco.jontuna.ms_banco_cuenta.repository.SaldoDiarioRepository;
+import banco.jontuna.ms_banco_cuenta.util.ConteoSentencias;
+import banco.jontuna.ms_banco_cuenta.util.CuentasDePrueba;
+import banco.jontuna.ms_banco_cuenta.util.exception.CuentasNoEncontradasException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static banco.jontuna.ms_banco_cuenta.util.ConteoSentencias.contar;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "banco.reportes.saldo-diario.enabled=true")
+@ActiveProfiles("test")
+@Import(ConteoSentencias.Config.class)
+class SaldoDiarioIntegrationTest {
+
+    @Autowired
+    private MovimientoService movimientoService;
+
+    @Autowired
+    private TransferenciaService transferenciaService;
+
+    @Autowired
+    private SaldoSlotService saldoSlotService;
+
+    @Autowired
+    private ReporteService reporteService;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private MovimientoRepository movimientoRepository;
+
+    @Autowired
+    private SaldoDiarioRepository saldoDiarioRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private AutowireCapableBeanFactory beanFactory;
+
+    // El backfill no se activa por propiedad para no recorrer todas las cuentas de la base compartida al arrancar
+    private SaldoDiarioBackfillService backfillService;
+
+    private Long clienteId;
+
+    @BeforeEach
+    void setUp() {
+        backfillService = beanFactory.createBean(SaldoDiarioBackfillService.class);
+        clienteId = CuentasDePrueba.clienteNuevo();
+    }
+
+    @Test
+    void registrarMovimientos_DeberiaAcumularElDiaDeCadaCuentaIgualQueLaReconstruccion() {
+        // Arrange
+        Long cuentaId = crearCuenta();
+        Long destinoId = crearCuenta();
+
+        // Act: depósito, retiro, transferencia y depósito en slot
+        movimientoService.registrarMovimiento(cuentaId, new MovimientoRequestDTO(new BigDecimal("100.00")));
+        movimientoService.registrarMovimiento(cuentaId, new MovimientoRequestDTO(new BigDecimal("-30.00")));
+        transferenciaService.transferir(new TransferenciaRequestDTO(cuentaId, destinoId, new BigDecimal("20.00")));
+        saldoSlotService.ajustarSlots(cuentaId, 2);
+        movimientoService.registrarMovimiento(cuentaId, new MovimientoRequestDTO(new BigDecimal("5.00")));
+
+        // Assert: el depósito en slot queda en su propia fila y el día es la suma de las dos
+        SaldoDiario hoy = dia(cuentaId, LocalDate.now());
+        assertSaldoDiario(hoy, "0.00", "55.00", "105.00", "50.00", 4);
+        assertEquals(2, filas(cuentaId, LocalDate.now()).size());
+        assertSaldoDiario(dia(destinoId, LocalDate.now()), "0.00", "20.00", "20.00", "0.00", 1);
+
+        backfillService.reconstruirCuenta(cuentaId);
+        assertSaldoDiario(dia(cuentaId, LocalDate.now()), "0.00", "55.00", "105.00", "50.00", 4);
+        assertEquals(1, filas(cuentaId, LocalDate.now()).size());
+    }
+
+    @Test
+    void depositosEnSlots_DiaNuevo_DeberianCrearLaFilaBaseConLaAperturaYCerrarConLaSuma() {
+        // Arrange: el saldo anterior queda en SaldoActual y el día empieza con depósitos en slots
+        Long cuentaId = crearCuenta();
+        movimientoService.registrarMovimiento(cuentaId, new MovimientoRequestDTO(new BigDecimal("40.00")));
+        saldoDiarioRepository.deleteAll(filas(cuentaId, LocalDate.now()));
+        saldoSlotService.ajustarSlots(cuentaId, 4);
+
+        // Act
+        movimientoService.registrarMovimiento(cuentaId, new MovimientoRequestDTO(new BigDecimal("10.00")));
+        movimientoService.registrarMovimiento(cuentaId, new MovimientoRequestDTO(new BigDecimal("5.00")));
+
+        // Assert
+        List<SaldoDiario> filas = filas(cuentaId, LocalDate.now());
+        SaldoDiario base = filas.stream().filter(fila -> fila.getSlot() == SaldoDiario.FILA_BASE).findFirst().orElseThrow();
+        assertSaldoDiario(base, "40.00", "40.00", "0.00", "0.00", 0);
+        assertSaldoDiario(dia(cuentaId, LocalDate.now()), "40.00", "55.00", "15.00", "0.00", 2);
+        CuentaPeriodoDTO periodo = reporteService.generarResumenEstadoCuenta(clienteId, LocalDate.now(), LocalDate.now())
+                .getCuentas().get(0);
+        assertEquals(0, new BigDecimal("40.00").compareTo(periodo.getSaldoApertura()));
+        assertEquals(0, new BigDecimal("55.00").compareTo(periodo.getSaldoCierre()));
+    }
+
+    @Test
+    void acumular_EnSlotsDistintos_NoDeberiaEsperarLaTransaccionDelOtroSlot() throws Exception {
+        // Arrange: la fila base del día ya existe
+        Long cuentaId = crearCuenta();
+        movimientoService.registrarMovimiento(cuentaId, new MovimientoRequestDTO(new BigDecimal("1.00")));
+        LocalDate hoy = LocalDate.now();
+        CountDownLatch escrito = new CountDownLatch(1);
+        CountDownLatch confirmar = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            // Act: un depósito del slot 0 deja sus filas escritas y sin confirmar mientras llega otro del slot 1
+            Future<?> primero = executor.submit(() -> new TransactionTemplate(transactionManager).executeWithoutResult(estado -> {
+                acumularEnSlot(cuentaId, hoy, 0, "2.00");
+                escrito.countDown();
+                try {
+                    confirmar.await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertTrue(escrito.await(10, TimeUnit.SECONDS));
+            Future<?> segundo = executor.submit(() -> new TransactionTemplate(transactionManager).executeWithoutResult(
+                    estado -> acumularEnSlot(cuentaId, hoy, 1, "3.00")));
+
+            // Assert
+            segundo.get(5, TimeUnit.SECONDS);
+            confirmar.countDown();
+            primero.get(30, TimeUnit.SECONDS);
+        } finally {
+            confirmar.countDown();
+            executor.shutdownNow();
+        }
+        assertSaldoDiario(dia(cuentaId, hoy), "0.00", "6.00", "6.00", "0.00", 3);
+    }
+
+    // Las mismas sentencias que SaldoDiarioService escribe para un depósito en slot
+    private void acumularEnSlot(Long cuentaId, LocalDate fecha, int slot, String valor) {
+        saldoDiarioRepository.crearFilaBase(cuentaId, fecha, BigDecimal.ZERO);
+        saldoDiarioRepository.acumular(cuentaId, fecha, slot + 1, BigDecimal.ZERO, new BigDecimal(valor), BigDecimal.ZERO, 1);
+    }
+
+    @Test
+    void generarResumenEstadoCuenta_DeberiaArmarElPeriodoSoloConSaldoDiario() {
+        // Arrange: movimientos en cuatro días distintos
+        LocalDate hoy = LocalDate.now();
+        Cuenta cuenta = cuentaRepository.findById(crearCuenta()).orElseThrow();
+        crearMovimiento(cuenta, "DEPOSITO", "100.00", "100.00", hoy.minusDays(40));
+        crearMovimiento(cuenta, "RETIRO", "10.00", "90.00", hoy.minusDays(20));
+        crearMovimiento(cuenta, "DEPOSITO", "5.00", "95.00", hoy.minusDays(20));
+        crearMovimiento(cuenta, "RETIRO", "15.00", "80.00", hoy.minusDays(10));
+        crearMovimiento(cuenta, "DEPOSITO", "50.00", "130.00", hoy.minusDays(2));
+        backfillService.reconstruirCuenta(cuenta.getCuentaId());
+
+        // Act
+        List<EstadoCuentaResumenDTO> resumenes = new ArrayList<>();
+        int sentencias = contar(() -> resumenes.add(
+                reporteService.generarResumenEstadoCuenta(clienteId, hoy.minusDays(25), hoy.minusDays(5))));
+
+        // Assert
+        assertTrue(sentencias <= 3, "Sentencias del resumen: " + sentencias);
+        CuentaPeriodoDTO periodo = resumenes.get(0).getCuentas().get(0);
+        assertEquals(0, new BigDecimal("100.00").compareTo(periodo.getSaldoApertura()));
+        assertEquals(0, new BigDecimal("80.00").compareTo(periodo.getSaldoCierre()));
+        assertEquals(0, new BigDecimal("5.00").compareTo(periodo.getTotalCreditos()));
+        assertEquals(0, new BigDecimal("25.00").compareTo(periodo.getTotalDebitos()));
+        assertEquals(3, periodo.getCantidadMovimientos());
+
+        // Período sin movimientos: apertura y cierre iguales al último cierre anterior
+        CuentaPeriodoDTO sinMovimientos = reporteService
+                .generarResumenEstadoCuenta(clienteId, hoy.minusDays(9), hoy.minusDays(3)).getCuentas().get(0);
+        assertEquals(0, new BigDecimal("80.00").compareTo(sinMovimientos.getSaldoApertura()));
+        assertEquals(0, new BigDecimal("80.00").compareTo(sinMovimientos.getSaldoCierre()));
+        assertEquals(0, sinMovimientos.getCantidadMovimientos());
+    }
+
+    @Test
+    void obtenerDetalleMovimientos_DeberiaPaginarSoloElRangoDeLaCuentaDelCliente() {
+        // Arrange
+        LocalDate hoy = LocalDate.now();
+        Cuenta cuenta = cuentaRepository.findById(crearCuenta()).orElseThrow();
+        crearMovimiento(cuenta, "DEPOSITO", "10.00", "10.00", hoy.minusDays(30));
+        crearMovimiento(cuenta, "DEPOSITO", "1.00", "11.00", hoy.minusDays(6));
+        crearMovimiento(cuenta, "DEPOSITO", "2.00", "13.00", hoy.minusDays(5));
+        crearMovimiento(cuenta, "DEPOSITO", "3.00", "16.00", hoy.minusDays(4));
+        crearMovimiento(cuenta, "DEPOSITO", "4.00", "20.00", hoy);
+
+        // Act
+        MovimientoPaginaDTO primera = reporteService.obtenerDetalleMovimientos(
+                clienteId, cuenta.getCuentaId(), hoy.minusDays(7), hoy.minusDays(1), null, 2);
+        MovimientoPaginaDTO segunda = reporteService.obtenerDetalleMovimientos(
+                clienteId, cuenta.getCuentaId(), hoy.minusDays(7), hoy.minusDays(1), primera.getSiguienteCursor(), 2);
+
+        // Assert
+        assertEquals(List.of("3.00", "2.00"), valores(primera));
+        assertEquals(List.of("1.00"), valores(segunda));
+        assertNull(segunda.getSiguienteCursor());
+        assertThrows(CuentasNoEncontradasException.class, () -> reporteService.obtenerDetalleMovimientos(
+                clienteId + 1, cuenta.getCuentaId(), hoy.minusDays(7), hoy, null, 2));
+    }
+
+    private Long crearCuenta() {
+        return cuentaRepository.save(CuentasDePrueba.nueva(clienteId)).getCuentaId();
+    }
+
+    private void crearMovimiento(Cuenta cuenta, String tipo, String valor, String saldo, LocalDate fecha) {
+        Movimiento movimiento = new Movimiento(tipo, new BigDecimal(valor), new BigDecimal(saldo), cuenta);
+        movimiento.setFecha(fecha.atTime(12, 0));
+        movimientoRepository.save(movimiento);
+    }
+
+    private List<SaldoDiario> filas(Long cuentaId, LocalDate fecha) {
+        return saldoDiarioRepository.findAll().stream()
+                .filter(fila -> fila.getCuentaId().equals(cuentaId) && fila.getFecha().equals(fecha))
+                .collect(Collectors.toList());
+    }
+
+    // El día completo: la fila base más las de los slots
+    private SaldoDiario dia(Long cuentaId, LocalDate fecha) {
+        List<SaldoDiario> filas = filas(cuentaId, fecha);
+        assertFalse(filas.isEmpty());
+        SaldoDiario dia = new SaldoDiario();
+        dia.setSaldoApertura(BigDecimal.ZERO);
+        dia.setSaldoCierre(BigDecimal.ZERO);
+        for (SaldoDiario fila : filas) {
+            dia.setSaldoApertura(dia.getSaldoApertura().add(fila.getSaldoApertura()));
+            dia.setSaldoCierre(dia.getSaldoCierre().add(fila.getSaldoCierre()));
+            dia.setCreditos(dia.getCreditos().add(fila.getCreditos()));
+            dia.setDebitos(dia.getDebitos().add(fila.getDebitos()));
+            dia.setCantidadMovimientos(dia.getCantidadMovimientos() + fila.getCantidadMovimientos());
+        }
+        return dia;
+    }
+
+    private static void assertSaldoDiario(SaldoDiario dia, String apertura, String cierre, String creditos,
+                                          String debitos, int cantidad) {
+        assertEquals(0, new BigDecimal(apertura).compareTo(dia.getSaldoApertura()));
+        assertEquals(0, new BigDecimal(cierre).compareTo(dia.getSaldoCierre()));
+        assertEquals(0, new BigDecimal(creditos).compareTo(dia.getCreditos()));
+        assertEquals(0, new BigDecimal(debitos).compareTo(dia.getDebitos()));
+        assertEquals(cantidad, dia.getCantidadMovimientos());
+    }
+
+    private static List<String> valores(MovimientoPaginaDTO pagina) {
+        return pagina.getMovimientos().stream()
+                .map(MovimientoResponseDTO::getValor)
+                .map(BigDecimal::toPlainString)
+                .toList();
+    }
+}
@@ -0,0 +1,300 @@
+package banco.jontuna.ms_banco_cuenta.service;
+
+import banco.jontuna.ms_banco_cuenta.dto.EstadoCuentaReporteDTO;
+import banco.jontuna.ms_banco_cuenta.dto.MovimientoRequestDTO;
+import banco.jontuna.ms_banco_cuenta.dto.MovimientoResponseDTO;
+import banco.jontuna.ms_banco_cuenta.model.Cuenta;
+import banco.jontuna.ms_banco_cuenta.model.Movimiento;
+import banco.jontuna.ms_banco_cuenta.model.SaldoSlot;
+import banco.jontuna.ms_banco_cuenta.repository.CuentaRepository;
+import banco.jontuna.ms_banco_cuenta.repository.MovimientoRepository;
+import banco.jontuna.ms_banco_cuenta.repository.SaldoSlotRepository;
+import banco.jontuna.ms_banco_cuenta.util.CuentasDePrueba;
+import banco.jontuna.ms_banco_cuenta.util.exception.CuentaInactivaException;
+import banco.jontuna.ms_banco_cuenta.util.exception.SaldoInsuficienteException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.ValidationException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SaldoSlotServiceIntegrationTest {
+
+    @Autowired
+    private SaldoSlotService saldoSlotService;
+
+    @Autowired
+    private MovimientoService movimientoService;
+
+    @Autowired
+    private CuentaService cuentaService;
+
+    @Autowired
+    private ReporteService reporteService;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private MovimientoRepository movimientoRepository;
+
+    @Autowired
+    private SaldoSlotRepository saldoSlotRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void registrarMovimiento_DepositosConcurrentesEnSlots_DeberianSumarseSinPerderSaldo() throws Exception {
+        // Arrange
+        Long cuentaId = crearCuenta(new BigDecimal("100.00"));
+        saldoSlotService.ajustarSlots(cuentaId, 4);
+        int depositos = 80;
+        CountDownLatch inicio = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+
+        // Act
+        try {
+            List<Future<MovimientoResponseDTO>> futuros = new ArrayList<>();
+            for (int i = 0; i < depositos; i++) {
+                futuros.add(executor.submit(() -> {
+                    inicio.await();
+                    return movimientoService.registrarMovimiento(cuentaId, new MovimientoRequestDTO(new BigDecimal("2.50")));
+                }));
+            }
+            inicio.countDown();
+            for (Future<MovimientoResponseDTO> futuro : futuros) {
+                assertNotNull(futuro.get(30, TimeUnit.SECONDS).getMovimientoId());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        assertEquals(0, new BigDecimal("300.00").compareTo(cuentaService.consultarSaldo(cuentaId)));
+        assertEquals(0, new BigDecimal("100.00").compareTo(cuentaRepository.findById(cuentaId).orElseThrow().getSaldoActual()));
+        assertEquals(depositos, movimientoRepository.findByCuentaCuentaIdOrderByFechaDesc(cuentaId).size());
+    }
+
+    @Test
+    void registrarMovimiento_DepositoEnSlot_DeberiaInsertarElMovimientoUnaSolaVezConSuSaldo() {
+        // Arrange
+        Long cuentaId = crearCuenta(new BigDecimal("100.00"));
+        saldoSlotService.ajustarSlots(cuentaId, 4);
+        movimientoService.registrarMovimiento(cuentaId, new MovimientoRequestDTO(new BigDecimal("20.00")));
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+        estadisticas.setStatisticsEnabled(true);
+
+        MovimientoResponseDTO deposito;
+        try {
+            // Act
+            deposito = movimientoService.registrarMovimiento(cuentaId, new MovimientoRequestDTO(new BigDecimal("5.00")));
+
+            // Assert: un solo INSERT y ningún UPDATE del movimiento
+            EntityStatistics movimientos = estadisticas.getEntityStatistics(Movimiento.class.getName());
+            assertEquals(1, movimientos.getInsertCount());
+            assertEquals(0, movimientos.getUpdateCount());
+        } finally {
+            estadisticas.setStatisticsEnabled(false);
+        }
+
+        // Sin depósitos concurrentes el saldo calculado antes del INSERT es el exacto
+        assertEquals(0, new BigDecimal("125.00").compareTo(deposito.getSaldo()));
+        assertEquals(0, new BigDecimal("125.00").compareTo(
+                movimientoRepository.findById(deposito.getMovimientoId()).orElseThrow().getSaldo()));
+        assertEquals(0, new BigDecimal("125.00").compareTo(cuentaService.consultarSaldo(cuentaId)));
+    }
+
+    @Test
+    void registrarMovimiento_RetiroEnCuentaConSlots_DeberiaConsolidarAntesDeValidarElSaldo() {
+        // Arrange
+        Long cuentaId = crearCuenta(BigDecimal.ZERO);
+        saldoSlotService.ajustarSlots(cuentaId, 2);
+        movimientoService.registrarMovimiento(cuentaId, new MovimientoRequestDTO(new BigDecimal("40.00")));
+        movimientoService.registrarMovimiento(cuentaId, new MovimientoRequestDTO(new BigDecimal("60.00")));
+
+        // Act
+        MovimientoResponseDTO retiro = movimientoService.registrarMovimiento(
+                cuentaId, new MovimientoRequestDTO(new BigDecimal("-90.00")));
+
+        // Assert
+        assertEquals(0, new BigDecimal("10.00").compareTo(retiro.getSaldo()));
+        assertEquals(0, new BigDecimal("10.00").compareTo(cuentaRepository.findById(cuentaId).orElseThrow().getSaldoActual()));
+        slots(cuentaId).forEach(saldoSlot -> assertEquals(0, BigDecimal.ZERO.compareTo(saldoSlot.getSaldo())));
+        assertThrows(SaldoInsuficienteException.class, () -> movimientoService.registrarMovimiento(
+                cuentaId, new MovimientoRequestDTO(new BigDecimal("-10.01"))));
+    }
+
+    @Test
+    void actualizarEstadoCuenta_ConDepositoEnSlotEnCurso_DeberiaRechazarElDeposito() throws Exception {
+        // Arrange
+        Long cuentaId = crearCuenta(new BigDecimal("100.00"));
+        saldoSlotService.ajustarSlots(cuentaId, 4);
+        movimientoService.registrarMovimiento(cuentaId, new MovimientoRequestDTO(new BigDecimal("20.00")));
+
+        // Act
+        ExecutionException error = assertThrows(ExecutionException.class, () -> conDepositoEnSlotEsperando(cuentaId,
+                () -> cuentaService.actualizarEstadoCuenta(cuentaId, "BLOQUEADA")));
+
+        // Assert: el depósito no entra en la cuenta bloqueada y lo acumulado en los slots pasó a SaldoActual
+        assertInstanceOf(CuentaInactivaException.class, error.getCause());
+        Cuenta cuenta = cuentaRepository.findById(cuentaId).orElseThrow();
+        assertEquals("BLOQUEADA", cuenta.getEstado());
+        assertEquals(0, cuenta.getSaldoSlots());
+        assertEquals(0, new BigDecimal("120.00").compareTo(cuenta.getSaldoActual()));
+        assertTrue(slots(cuentaId).isEmpty());
+        assertFalse(saldoSlotService.tieneSlots(cuentaId));
+        assertEquals(0, new BigDecimal("120.00").compareTo(cuentaService.consultarSaldo(cuentaId)));
+        assertEquals(1, movimientoRepository.findByCuentaCuentaIdOrderByFechaDesc(cuentaId).size());
+    }
+
+    @Test
+    void eliminarCuentaLogicamente_ConDepositoEnSlotEnCurso_DeberiaRechazarElDeposito() throws Exception {
+        // Arrange
+        Long cuentaId = crearCuenta(BigDecimal.ZERO);
+        saldoSlotService.ajustarSlots(cuentaId, 4);
+
+        // Act
+        ExecutionException error = assertThrows(ExecutionException.class, () -> conDepositoEnSlotEsperando(cuentaId,
+                () -> cuentaService.eliminarCuentaLogicamente(cuentaId)));
+
+        // Assert: la cuenta eliminada queda sin saldo y sin el movimiento
+        assertInstanceOf(CuentaInactivaException.class, error.getCause());
+        Cuenta cuenta = cuentaRepository.findById(cuentaId).orElseThrow();
+        assertEquals("ELIMINADA", cuenta.getEstado());
+        assertEquals(0, BigDecimal.ZERO.compareTo(cuentaService.consultarSaldo(cuentaId)));
+        assertTrue(slots(cuentaId).isEmpty());
+        assertTrue(movimientoRepository.findByCuentaCuentaIdOrderByFechaDesc(cuentaId).isEmpty());
+    }
+
+    @Test
+    void ajustarSlots_AumentarYReducir_DeberiaConservarElSaldoTotal() {
+        // Arrange
+        Long cuentaId = crearCuenta(new BigDecimal("5.00"));
+        saldoSlotService.ajustarSlots(cuentaId, 4);
+        for (int i = 0; i < 12; i++) {
+            movimientoService.registrarMovimiento(cuentaId, new MovimientoRequestDTO(new BigDecimal("1.00")));
+        }
+
+        // Act & Assert
+        saldoSlotService.ajustarSlots(cuentaId, 2);
+        assertEquals(2, slots(cuentaId).size());
+        assertEquals(0, new BigDecimal("17.00").compareTo(cuentaService.consultarSaldo(cuentaId)));
+
+        movimientoService.registrarMovimiento(cuentaId, new MovimientoRequestDTO(new BigDecimal("3.00")));
+        saldoSlotService.ajustarSlots(cuentaId, 0);
+        assertTrue(slots(cuentaId).isEmpty());
+        assertFalse(saldoSlotService.tieneSlots(cuentaId));
+        assertEquals(0, new BigDecimal("20.00").compareTo(cuentaRepository.findById(cuentaId).orElseThrow().getSaldoActual()));
+        assertEquals(0, new BigDecimal("20.00").compareTo(cuentaService.consultarSaldo(cuentaId)));
+    }
+
+    @Test
+    void ajustarSlots_CantidadFueraDeRango_DeberiaLanzarValidationException() {
+        // Arrange
+        Long cuentaId = crearCuenta(BigDecimal.ZERO);
+
+        // Act & Assert
+        assertThrows(ValidationException.class, () -> saldoSlotService.ajustarSlots(cuentaId, -1));
+        assertThrows(ValidationException.class, () -> saldoSlotService.ajustarSlots(cuentaId, 1000));
+    }
+
+    @Test
+    void generarReporteEstadoCuenta_CuentaConSlots_DeberiaIncluirLoAcumuladoEnLosSlots() {
+        // Arrange
+        Long clienteId = CuentasDePrueba.clienteNuevo();
+        Long cuentaId = crearCuenta(clienteId, new BigDecimal("10.00"));
+        saldoSlotService.ajustarSlots(cuentaId, 3);
+        movimientoService.registrarMovimiento(cuentaId, new MovimientoRequestDTO(new BigDecimal("15.00")));
+        movimientoService.registrarMovimiento(cuentaId, new MovimientoRequestDTO(new BigDecimal("25.00")));
+
+        // Act
+        EstadoCuentaReporteDTO reporte = reporteService.generarReporteEstadoCuenta(
+                clienteId, LocalDate.now().minusDays(1), LocalDate.now());
+
+        // Assert
+        assertEquals(0, new BigDecimal("50.00").compareTo(reporte.getCuentas().get(0).getSaldoActual()));
+        assertEquals(0, new BigDecimal("50.00").compareTo(reporte.getSaldoTotal()));
+    }
+
+    // El cambio de estado queda abierto con la cuenta y sus slots bloqueados mientras otro hilo deposita en un slot:
+    // el depósito leyó la cuenta ACTIVA sin bloquearla y debe quedar esperando su slot hasta que el cambio confirme.
+    // Devuelve el resultado del depósito; su error llega como ExecutionException.
+    private MovimientoResponseDTO conDepositoEnSlotEsperando(Long cuentaId, Runnable cambioDeEstado) throws Exception {
+        CountDownLatch cambioHecho = new CountDownLatch(1);
+        CountDownLatch confirmar = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<?> cambio = executor.submit(() -> new TransactionTemplate(transactionManager).executeWithoutResult(estado -> {
+                cambioDeEstado.run();
+                entityManager.flush();
+                cambioHecho.countDown();
+                try {
+                    confirmar.await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertTrue(cambioHecho.await(10, TimeUnit.SECONDS));
+
+            Future<MovimientoResponseDTO> deposito = executor.submit(() -> movimientoService.registrarMovimiento(
+                    cuentaId, new MovimientoRequestDTO(new BigDecimal("10.00"))));
+            Thread.sleep(300);
+            assertFalse(deposito.isDone(), "El depósito no esperó al cambio de estado en curso");
+
+            confirmar.countDown();
+            cambio.get(30, TimeUnit.SECONDS);
+            return deposito.get(30, TimeUnit.SECONDS);
+        } finally {
+            confirmar.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private List<SaldoSlot> slots(Long cuentaId) {
+        return saldoSlotRepository.findAll().stream()
+                .filter(saldoSlot -> saldoSlot.getCuentaId().equals(cuentaId))
+                .toList();
+    }
+
+    private Long crearCuenta(BigDecimal saldo) {
+        return crearCuenta(CuentasDePrueba.clienteNuevo(), saldo);
+    }
+
+    private Long crearCuenta(Long clienteId, BigDecimal saldo) {
+        Cuenta cuenta = CuentasDePrueba.nueva(clienteId);
+        cuenta.setSaldoInicial(saldo);
+        cuenta.setSaldoActual(saldo);
+        return cuentaRepository.save(cuenta).getCuentaId();
+    }
+}
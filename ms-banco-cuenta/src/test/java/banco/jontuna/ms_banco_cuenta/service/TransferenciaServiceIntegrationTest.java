@@ -0,0 +1,138 @@
+package banco.jontuna.ms_banco_cuenta.service;
+
+import banco.jontuna.ms_banco_cuenta.dto.TransferenciaRequestDTO;
+import banco.jontuna.ms_banco_cuenta.dto.TransferenciaResponseDTO;
+import banco.jontuna.ms_banco_cuenta.model.Cuenta;
+import banco.jontuna.ms_banco_cuenta.model.Movimiento;
+import banco.jontuna.ms_banco_cuenta.repository.CuentaRepository;
+import banco.jontuna.ms_banco_cuenta.repository.MovimientoRepository;
+import banco.jontuna.ms_banco_cuenta.util.CuentasDePrueba;
+import banco.jontuna.ms_banco_cuenta.util.exception.MovimientoInvalidoException;
+import banco.jontuna.ms_banco_cuenta.util.exception.SaldoInsuficienteException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TransferenciaServiceIntegrationTest {
+
+    @Autowired
+    private TransferenciaService transferenciaService;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private MovimientoRepository movimientoRepository;
+
+    @Test
+    void transferir_SaldoSuficiente_DeberiaRegistrarAmbosMovimientosEnlazados() {
+        // Arrange
+        Long origenId = crearCuenta(new BigDecimal("100.00"));
+        Long destinoId = crearCuenta(BigDecimal.ZERO);
+
+        // Act
+        TransferenciaResponseDTO transferencia = transferenciaService.transferir(
+                new TransferenciaRequestDTO(origenId, destinoId, new BigDecimal("30.00")));
+
+        // Assert
+        assertNotNull(transferencia.getTransferenciaId());
+        assertEquals(0, new BigDecimal("-30.00").compareTo(transferencia.getDebito().getValor()));
+        assertEquals(0, new BigDecimal("30.00").compareTo(transferencia.getCredito().getValor()));
+        assertEquals(0, new BigDecimal("70.00").compareTo(saldo(origenId)));
+        assertEquals(0, new BigDecimal("30.00").compareTo(saldo(destinoId)));
+
+        Movimiento debito = movimientoRepository.findByCuentaCuentaIdOrderByFechaDesc(origenId).get(0);
+        Movimiento credito = movimientoRepository.findByCuentaCuentaIdOrderByFechaDesc(destinoId).get(0);
+        assertEquals("RETIRO", debito.getTipoMovimiento());
+        assertEquals("DEPOSITO", credito.getTipoMovimiento());
+        assertEquals(transferencia.getTransferenciaId(), debito.getTransferenciaId());
+        assertEquals(transferencia.getTransferenciaId(), credito.getTransferenciaId());
+    }
+
+    @Test
+    void transferir_SaldoInsuficiente_NoDeberiaRegistrarNingunMovimiento() {
+        // Arrange
+        Long origenId = crearCuenta(new BigDecimal("10.00"));
+        Long destinoId = crearCuenta(BigDecimal.ZERO);
+
+        // Act & Assert
+        assertThrows(SaldoInsuficienteException.class, () -> transferenciaService.transferir(
+                new TransferenciaRequestDTO(origenId, destinoId, new BigDecimal("50.00"))));
+        assertEquals(0, new BigDecimal("10.00").compareTo(saldo(origenId)));
+        assertEquals(0, BigDecimal.ZERO.compareTo(saldo(destinoId)));
+        assertTrue(movimientoRepository.findByCuentaCuentaIdOrderByFechaDesc(destinoId).isEmpty());
+    }
+
+    @Test
+    void transferir_MismaCuenta_DeberiaLanzarMovimientoInvalidoException() {
+        // Arrange
+        Long cuentaId = crearCuenta(new BigDecimal("10.00"));
+
+        // Act & Assert
+        assertThrows(MovimientoInvalidoException.class, () -> transferenciaService.transferir(
+                new TransferenciaRequestDTO(cuentaId, cuentaId, new BigDecimal("5.00"))));
+    }
+
+    @Test
+    void transferir_SentidosOpuestosConcurrentes_NoDeberiaBloquearseNiPerderSaldo() throws Exception {
+        // Arrange
+        Long cuentaA = crearCuenta(new BigDecimal("1000.00"));
+        Long cuentaB = crearCuenta(new BigDecimal("1000.00"));
+        int transferenciasPorSentido = 50;
+        CountDownLatch inicio = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+
+        // Act
+        try {
+            List<Future<TransferenciaResponseDTO>> futuros = new ArrayList<>();
+            for (int i = 0; i < transferenciasPorSentido; i++) {
+                futuros.add(executor.submit(() -> {
+                    inicio.await();
+                    return transferenciaService.transferir(
+                            new TransferenciaRequestDTO(cuentaA, cuentaB, new BigDecimal("3.00")));
+                }));
+                futuros.add(executor.submit(() -> {
+                    inicio.await();
+                    return transferenciaService.transferir(
+                            new TransferenciaRequestDTO(cuentaB, cuentaA, new BigDecimal("1.00")));
+                }));
+            }
+            inicio.countDown();
+            for (Future<TransferenciaResponseDTO> futuro : futuros) {
+                assertNotNull(futuro.get(30, TimeUnit.SECONDS).getTransferenciaId());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        assertEquals(0, new BigDecimal("900.00").compareTo(saldo(cuentaA)));
+        assertEquals(0, new BigDecimal("1100.00").compareTo(saldo(cuentaB)));
+        assertEquals(transferenciasPorSentido * 2, movimientoRepository.findByCuentaCuentaIdOrderByFechaDesc(cuentaA).size());
+    }
+
+    private BigDecimal saldo(Long cuentaId) {
+        return cuentaRepository.findSaldoActualByCuentaId(cuentaId).orElseThrow();
+    }
+
+    private Long crearCuenta(BigDecimal saldo) {
+        Cuenta cuenta = CuentasDePrueba.nueva();
+        cuenta.setSaldoInicial(saldo);
+        cuenta.setSaldoActual(saldo);
+        return cuentaRepository.save(cuenta).getCuentaId();
+    }
+}
@@ -0,0 +1,71 @@
+package banco.jontuna.ms_banco_cuenta.util;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.function.Supplier;
+
+// Cuenta las sentencias SQL que ejecuta una operación. Los tests lo activan con @Import(ConteoSentencias.Config.class).
+// Solo se cuentan las del hilo que mide (el refresco de slots y otros procesos corren en otros hilos).
+public final class ConteoSentencias {
+
+    private static final ThreadLocal<int[]> SENTENCIAS = new ThreadLocal<>();
+
+    private ConteoSentencias() {
+    }
+
+    public static int contar(Supplier<?> operacion) {
+        SENTENCIAS.set(new int[1]);
+        try {
+            operacion.get();
+            return SENTENCIAS.get()[0];
+        } finally {
+            SENTENCIAS.remove();
+        }
+    }
+
+    @TestConfiguration
+    public static class Config {
+
+        @Bean
+        static BeanPostProcessor conteoSqlPostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource ? contar(bean, DataSource.class) : bean;
+                }
+            };
+        }
+
+        // Envuelve conexiones y sentencias para contar cada execute* del hilo que está midiendo
+        private static Object contar(Object destino, Class<?> tipo) {
+            return Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[] { tipo }, (proxy, metodo, args) -> {
+                int[] contador = SENTENCIAS.get();
+                if (contador != null && Statement.class.isAssignableFrom(tipo) && metodo.getName().startsWith("execute")) {
+                    contador[0]++;
+                }
+
+                Object resultado;
+                try {
+                    resultado = metodo.invoke(destino, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getTargetException();
+                }
+
+                if (resultado instanceof Connection) {
+                    return contar(resultado, Connection.class);
+                }
+                if (resultado instanceof Statement && metodo.getName().startsWith("prepare")) {
+                    return contar(resultado, metodo.getReturnType());
+                }
+                return resultado;
+            });
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package banco.jontuna.ms_banco_cuenta.util;
+
+import banco.jontuna.ms_banco_cuenta.model.Cuenta;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Cuentas para los tests de integración. Todos los contextos de la JVM de tests comparten la misma base H2:
+// el número de cuenta (único en CUENTA) y el clienteId salen de un contador, nunca se repiten entre tests.
+// Los benchmarks usan sus propios rangos (9xxxxx) y los tests de reportes con datos fijos, el cliente 1001.
+public final class CuentasDePrueba {
+
+    private static final AtomicLong SECUENCIA = new AtomicLong();
+
+    private CuentasDePrueba() {
+    }
+
+    // Cliente sin cuentas de otros tests: las consultas y reportes por cliente solo ven las cuentas del test
+    public static Long clienteNuevo() {
+        return 600_000_000L + SECUENCIA.incrementAndGet();
+    }
+
+    public static String numeroCuenta() {
+        return String.format("60%08d", SECUENCIA.incrementAndGet());
+    }
+
+    // Cuenta de ahorros ACTIVA y sin saldo, de un cliente propio; sin guardar
+    public static Cuenta nueva() {
+        return nueva(clienteNuevo());
+    }
+
+    public static Cuenta nueva(Long clienteId) {
+        Cuenta cuenta = new Cuenta();
+        cuenta.setClienteId(clienteId);
+        cuenta.setNumeroCuenta(numeroCuenta());
+        cuenta.setTipoCuenta("AHORROS");
+        cuenta.setEstado("ACTIVA");
+        cuenta.setSaldoInicial(BigDecimal.ZERO);
+        return cuenta;
+    }
+}
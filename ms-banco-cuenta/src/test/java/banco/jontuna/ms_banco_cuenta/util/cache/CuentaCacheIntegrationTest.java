@@ -0,0 +1,120 @@
+package banco.jontuna.ms_banco_cuenta.util.cache;
+
+import banco.jontuna.ms_banco_cuenta.dto.MovimientoRequestDTO;
+import banco.jontuna.ms_banco_cuenta.model.Cuenta;
+import banco.jontuna.ms_banco_cuenta.repository.CuentaRepository;
+import banco.jontuna.ms_banco_cuenta.service.CuentaService;
+import banco.jontuna.ms_banco_cuenta.service.MovimientoService;
+import banco.jontuna.ms_banco_cuenta.util.CuentasDePrueba;
+import banco.jontuna.ms_banco_cuenta.util.exception.CuentaInactivaException;
+import banco.jontuna.ms_banco_cuenta.util.exception.CuentaNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CuentaCacheIntegrationTest {
+
+    @Autowired
+    private CuentaCache cuentaCache;
+
+    @Autowired
+    private CuentaService cuentaService;
+
+    @Autowired
+    private MovimientoService movimientoService;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void obtenerPorIdYPorNumero_SegundaLectura_DeberiaSalirDeLaCache() {
+        // Arrange
+        Cuenta cuenta = crearCuenta();
+        double aciertosAntes = aciertos("cuentas-por-id");
+
+        // Act
+        cuentaService.obtenerCuentaPorId(cuenta.getCuentaId());
+        cuentaService.obtenerCuentaPorId(cuenta.getCuentaId());
+        CuentaMetadatos porNumero = cuentaCache.obtenerPorNumero(cuenta.getNumeroCuenta());
+
+        // Assert
+        assertEquals(cuenta.getCuentaId(), porNumero.cuentaId());
+        assertTrue(aciertos("cuentas-por-id") - aciertosAntes >= 2);
+        assertThrows(CuentaNotFoundException.class, () -> cuentaCache.obtenerPorId(-1L));
+        assertThrows(CuentaNotFoundException.class, () -> cuentaService.obtenerCuentaPorNumero("no-existe"));
+    }
+
+    @Test
+    void actualizarEstadoCuenta_ABloqueada_DeberiaInvalidarYRechazarMovimientos() {
+        // Arrange
+        Cuenta cuenta = crearCuenta();
+        assertEquals("ACTIVA", cuentaService.obtenerCuentaPorNumero(cuenta.getNumeroCuenta()).getEstado());
+
+        // Act
+        cuentaService.actualizarEstadoCuenta(cuenta.getCuentaId(), "BLOQUEADA");
+
+        // Assert
+        assertEquals("BLOQUEADA", cuentaService.obtenerCuentaPorId(cuenta.getCuentaId()).getEstado());
+        assertEquals("BLOQUEADA", cuentaService.obtenerCuentaPorNumero(cuenta.getNumeroCuenta()).getEstado());
+        assertThrows(CuentaInactivaException.class, () -> movimientoService.registrarMovimiento(
+                cuenta.getCuentaId(), new MovimientoRequestDTO(new BigDecimal("10.00"))));
+    }
+
+    @Test
+    void registrarMovimiento_EntradaDesactualizadaComoActiva_NoDeberiaAceptarElMovimiento() {
+        // Arrange: la cuenta se bloquea sin pasar por el servicio (otra instancia), la caché sigue viéndola ACTIVA
+        Cuenta cuenta = crearCuenta();
+        assertTrue(cuentaCache.obtenerPorId(cuenta.getCuentaId()).activa());
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                "UPDATE CUENTA SET Estado = 'BLOQUEADA' WHERE CuentaId = ?", cuenta.getCuentaId()));
+        assertTrue(cuentaCache.obtenerPorId(cuenta.getCuentaId()).activa());
+
+        // Act & Assert
+        assertThrows(CuentaInactivaException.class, () -> movimientoService.registrarMovimiento(
+                cuenta.getCuentaId(), new MovimientoRequestDTO(new BigDecimal("10.00"))));
+        assertEquals(0, BigDecimal.ZERO.compareTo(cuentaRepository.findById(cuenta.getCuentaId()).orElseThrow().getSaldoActual()));
+    }
+
+    @Test
+    void eliminarYReactivarCuenta_DeberianVerseDeInmediato() {
+        // Arrange
+        Cuenta cuenta = crearCuenta();
+        cuentaService.obtenerCuentaPorId(cuenta.getCuentaId());
+
+        // Act & Assert
+        cuentaService.eliminarCuentaLogicamente(cuenta.getCuentaId());
+        assertEquals("ELIMINADA", cuentaService.obtenerCuentaPorId(cuenta.getCuentaId()).getEstado());
+
+        cuentaService.reactivarCuenta(cuenta.getCuentaId());
+        assertEquals("ACTIVA", cuentaService.obtenerCuentaPorId(cuenta.getCuentaId()).getEstado());
+        assertNotNull(movimientoService.registrarMovimiento(
+                cuenta.getCuentaId(), new MovimientoRequestDTO(new BigDecimal("5.00"))).getMovimientoId());
+    }
+
+    private double aciertos(String cache) {
+        return meterRegistry.get("cache.gets").tag("cache", cache).tag("result", "hit").functionCounter().count();
+    }
+
+    private Cuenta crearCuenta() {
+        return cuentaRepository.save(CuentasDePrueba.nueva());
+    }
+}
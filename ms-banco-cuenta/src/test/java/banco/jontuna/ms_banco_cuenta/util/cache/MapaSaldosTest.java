@@ -0,0 +1,75 @@
+package banco.jontuna.ms_banco_cuenta.util.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MapaSaldosTest {
+
+    @Test
+    void ponerObtenerEliminar_OperacionesAleatorias_DeberianCoincidirConHashMap() {
+        // Arrange: pocas claves distintas para forzar colisiones, reemplazos y borrados en medio de sondeos
+        MapaSaldos mapa = new MapaSaldos(8);
+        Map<Long, Long> esperado = new HashMap<>();
+        Random random = new Random(42);
+
+        // Act & Assert
+        for (int i = 0; i < 200_000; i++) {
+            long clave = 1 + random.nextInt(5_000);
+            int operacion = random.nextInt(3);
+            if (operacion == 0) {
+                long valor = random.nextLong(-1_000_000, 1_000_000);
+                mapa.poner(clave, valor);
+                esperado.put(clave, valor);
+            } else if (operacion == 1) {
+                assertEquals(esperado.remove(clave) != null, mapa.eliminar(clave));
+            } else {
+                assertEquals(esperado.getOrDefault(clave, MapaSaldos.SIN_VALOR), mapa.obtener(clave));
+            }
+        }
+        assertEquals(esperado.size(), mapa.tamano());
+        esperado.forEach((clave, valor) -> assertEquals(valor, mapa.obtener(clave)));
+    }
+
+    @Test
+    void poner_MasAllaDelUmbral_DeberiaCrecerYConservarLosValores() {
+        // Arrange
+        MapaSaldos mapa = new MapaSaldos(8);
+
+        // Act
+        for (long cuentaId = 1; cuentaId <= 10_000; cuentaId++) {
+            mapa.poner(cuentaId, cuentaId * 100);
+        }
+
+        // Assert
+        assertEquals(10_000, mapa.tamano());
+        assertEquals(16_384, mapa.capacidad());
+        assertEquals(16L * 16_384, mapa.bytesReservados());
+        for (long cuentaId = 1; cuentaId <= 10_000; cuentaId++) {
+            assertEquals(cuentaId * 100, mapa.obtener(cuentaId));
+        }
+        assertEquals(MapaSaldos.SIN_VALOR, mapa.obtener(10_001));
+    }
+
+    @Test
+    void poner_ClaveCero_DeberiaLanzarExcepcion() {
+        MapaSaldos mapa = new MapaSaldos(8);
+
+        assertThrows(IllegalArgumentException.class, () -> mapa.poner(0, 1));
+    }
+
+    @Test
+    void limpiar_DeberiaVaciarElMapa() {
+        MapaSaldos mapa = new MapaSaldos(8);
+        mapa.poner(7, 700);
+
+        mapa.limpiar();
+
+        assertEquals(0, mapa.tamano());
+        assertEquals(MapaSaldos.SIN_VALOR, mapa.obtener(7));
+    }
+}
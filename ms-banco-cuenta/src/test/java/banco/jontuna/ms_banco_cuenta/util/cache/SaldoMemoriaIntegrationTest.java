@@ -0,0 +1,180 @@
+package banco.jontuna.ms_banco_cuenta.util.cache;
+
+import banco.jontuna.ms_banco_cuenta.dto.MovimientoRequestDTO;
+import banco.jontuna.ms_banco_cuenta.dto.TransferenciaRequestDTO;
+import banco.jontuna.ms_banco_cuenta.repository.CuentaRepository;
+import banco.jontuna.ms_banco_cuenta.service.CuentaService;
+import banco.jontuna.ms_banco_cuenta.service.MovimientoService;
+import banco.jontuna.ms_banco_cuenta.service.SaldoSlotService;
+import banco.jontuna.ms_banco_cuenta.service.TransferenciaService;
+import banco.jontuna.ms_banco_cuenta.util.CuentasDePrueba;
+import banco.jontuna.ms_banco_cuenta.util.exception.SaldoInsuficienteException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "banco.saldos.memoria.enabled=true")
+@ActiveProfiles("test")
+class SaldoMemoriaIntegrationTest {
+
+    @Autowired
+    private SaldoMemoria saldoMemoria;
+
+    @Autowired
+    private CuentaService cuentaService;
+
+    @Autowired
+    private MovimientoService movimientoService;
+
+    @Autowired
+    private TransferenciaService transferenciaService;
+
+    @Autowired
+    private SaldoSlotService saldoSlotService;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void registrarMovimiento_DeberiaPublicarElSaldoAlConfirmar() {
+        // Arrange
+        Long cuentaId = crearCuenta(new BigDecimal("100.00"));
+
+        // Act
+        movimientoService.registrarMovimiento(cuentaId, new MovimientoRequestDTO(new BigDecimal("25.50")));
+        movimientoService.registrarMovimiento(cuentaId, new MovimientoRequestDTO(new BigDecimal("-10.25")));
+
+        // Assert
+        assertEquals(Optional.of(new BigDecimal("115.25")), saldoMemoria.saldoEnMemoria(cuentaId));
+        assertEquals(0, new BigDecimal("115.25").compareTo(cuentaService.consultarSaldo(cuentaId)));
+    }
+
+    @Test
+    void registrarTransferencia_DeberiaPublicarAmbosSaldos() {
+        // Arrange
+        Long origenId = crearCuenta(new BigDecimal("80.00"));
+        Long destinoId = crearCuenta(new BigDecimal("5.00"));
+
+        // Act
+        transferenciaService.transferir(new TransferenciaRequestDTO(origenId, destinoId, new BigDecimal("30.00")));
+
+        // Assert
+        assertEquals(Optional.of(new BigDecimal("50.00")), saldoMemoria.saldoEnMemoria(origenId));
+        assertEquals(Optional.of(new BigDecimal("35.00")), saldoMemoria.saldoEnMemoria(destinoId));
+    }
+
+    @Test
+    void registrarMovimiento_TransaccionRevertida_NoDeberiaCambiarElSaldoEnMemoria() {
+        // Arrange
+        Long cuentaId = crearCuenta(new BigDecimal("40.00"));
+        assertEquals(0, new BigDecimal("40.00").compareTo(cuentaService.consultarSaldo(cuentaId)));
+
+        // Act
+        transactionTemplate.executeWithoutResult(status -> {
+            movimientoService.registrarMovimiento(cuentaId, new MovimientoRequestDTO(new BigDecimal("60.00")));
+            status.setRollbackOnly();
+        });
+
+        // Assert
+        assertEquals(Optional.of(new BigDecimal("40.00")), saldoMemoria.saldoEnMemoria(cuentaId));
+    }
+
+    @Test
+    void consultarSaldo_CuentaSinMovimientosEnMemoria_DeberiaCargarlaDesdeLaBase() {
+        // Arrange: la cuenta se crea sin movimientos, fuera de los servicios
+        Long cuentaId = crearCuenta(null);
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                "UPDATE CUENTA SET SaldoActual = 12.34 WHERE CuentaId = ?", cuentaId));
+        assertTrue(saldoMemoria.saldoEnMemoria(cuentaId).isEmpty());
+
+        // Act
+        BigDecimal saldo = cuentaService.consultarSaldo(cuentaId);
+
+        // Assert
+        assertEquals(0, new BigDecimal("12.34").compareTo(saldo));
+        assertEquals(Optional.of(new BigDecimal("12.34")), saldoMemoria.saldoEnMemoria(cuentaId));
+    }
+
+    @Test
+    void registrarMovimiento_RetiroMayorAlSaldoEnMemoria_DeberiaRechazarseSinTocarLaCuenta() {
+        // Arrange
+        Long cuentaId = crearCuenta(new BigDecimal("20.00"));
+
+        // Act & Assert
+        assertThrows(SaldoInsuficienteException.class, () -> movimientoService.registrarMovimiento(
+                cuentaId, new MovimientoRequestDTO(new BigDecimal("-20.01"))));
+        assertEquals(0, new BigDecimal("20.00").compareTo(cuentaRepository.findById(cuentaId).orElseThrow().getSaldoActual()));
+    }
+
+    @Test
+    void registrarMovimiento_DepositoEnSlot_DeberiaInvalidarYRecargarElSaldoTotal() {
+        // Arrange
+        Long cuentaId = crearCuenta(new BigDecimal("100.00"));
+        saldoSlotService.ajustarSlots(cuentaId, 2);
+
+        // Act
+        movimientoService.registrarMovimiento(cuentaId, new MovimientoRequestDTO(new BigDecimal("7.00")));
+
+        // Assert
+        assertTrue(saldoMemoria.saldoEnMemoria(cuentaId).isEmpty());
+        assertEquals(0, new BigDecimal("107.00").compareTo(cuentaService.consultarSaldo(cuentaId)));
+        assertEquals(Optional.of(new BigDecimal("107.00")), saldoMemoria.saldoEnMemoria(cuentaId));
+    }
+
+    @Test
+    void consultarSaldos_CuentasEnMemoriaYFaltantes_DeberiaCargarLasFaltantes() {
+        // Arrange
+        Long enMemoria = crearCuenta(new BigDecimal("9.00"));
+        Long faltante = crearCuenta(null);
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                "UPDATE CUENTA SET SaldoActual = 4.25 WHERE CuentaId = ?", faltante));
+
+        // Act
+        Map<Long, BigDecimal> saldos = cuentaService.consultarSaldos(List.of(enMemoria, faltante, -1L));
+
+        // Assert
+        assertEquals(Map.of(enMemoria, new BigDecimal("9.00"), faltante, new BigDecimal("4.25")), saldos);
+        assertEquals(Optional.of(new BigDecimal("4.25")), saldoMemoria.saldoEnMemoria(faltante));
+    }
+
+    @Test
+    void precargar_DeberiaCargarLasCuentasSinSlots() {
+        // Arrange
+        Long cuentaId = crearCuenta(null);
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                "UPDATE CUENTA SET SaldoActual = 3.50 WHERE CuentaId = ?", cuentaId));
+
+        // Act
+        saldoMemoria.precargar();
+
+        // Assert
+        assertEquals(Optional.of(new BigDecimal("3.50")), saldoMemoria.saldoEnMemoria(cuentaId));
+        assertTrue(saldoMemoria.cantidadCuentas() >= 1);
+        assertTrue(saldoMemoria.bytesReservados() >= 16L * saldoMemoria.cantidadCuentas());
+    }
+
+    // Con saldo, la cuenta recibe un depósito inicial por MovimientoService; con null queda sin movimientos
+    private Long crearCuenta(BigDecimal saldoInicial) {
+        Long cuentaId = cuentaRepository.save(CuentasDePrueba.nueva()).getCuentaId();
+        if (saldoInicial != null) {
+            movimientoService.registrarMovimiento(cuentaId, new MovimientoRequestDTO(saldoInicial));
+        }
+        return cuentaId;
+    }
+}
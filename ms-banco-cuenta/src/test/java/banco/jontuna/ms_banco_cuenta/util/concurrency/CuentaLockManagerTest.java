@@ -0,0 +1,119 @@
+package banco.jontuna.ms_banco_cuenta.util.concurrency;
+
+import banco.jontuna.ms_banco_cuenta.util.exception.CuentaOcupadaException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CuentaLockManagerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private CuentaLockManager cuentaLockManager;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cuentaLockManager = new CuentaLockManager(meterRegistry, 16, 200);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void indiceStripe_MismaCuenta_DeberiaRetornarSiempreElMismoStripe() {
+        int indice = cuentaLockManager.indiceStripe(42L);
+
+        assertEquals(indice, cuentaLockManager.indiceStripe(42L));
+        assertTrue(indice >= 0 && indice < cuentaLockManager.getCantidadStripes());
+    }
+
+    @Test
+    void constructor_CantidadNoPotenciaDeDos_DeberiaRedondearHaciaArriba() {
+        CuentaLockManager manager = new CuentaLockManager(new SimpleMeterRegistry(), 100, 200);
+
+        assertEquals(128, manager.getCantidadStripes());
+    }
+
+    @Test
+    void bloquearHastaFinDeTransaccion_SinTransaccion_DeberiaLanzarIllegalStateException() {
+        assertThrows(IllegalStateException.class, () -> cuentaLockManager.bloquearHastaFinDeTransaccion(1L));
+    }
+
+    @Test
+    void bloquearHastaFinDeTransaccion_LockOcupado_DeberiaEsperarYRegistrarContencion() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        cuentaLockManager.bloquearHastaFinDeTransaccion(7L);
+        int stripe = cuentaLockManager.indiceStripe(7L);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CompletableFuture<Void> segundo = CompletableFuture.runAsync(() -> {
+                TransactionSynchronizationManager.initSynchronization();
+                try {
+                    cuentaLockManager.bloquearHastaFinDeTransaccion(7L);
+                    finalizarTransaccion();
+                } finally {
+                    TransactionSynchronizationManager.clearSynchronization();
+                }
+            }, executor);
+
+            Thread.sleep(50);
+            assertFalse(segundo.isDone());
+
+            finalizarTransaccion();
+            segundo.get(1, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        double contenciones = meterRegistry.get("banco.cuenta.lock.contencion")
+                .tag("stripe", String.valueOf(stripe))
+                .counter()
+                .count();
+        assertEquals(1.0, contenciones);
+    }
+
+    @Test
+    void bloquearHastaFinDeTransaccion_TimeoutSuperado_DeberiaLanzarCuentaOcupadaException() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        cuentaLockManager.bloquearHastaFinDeTransaccion(9L);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CompletableFuture<Void> segundo = CompletableFuture.runAsync(() -> {
+                TransactionSynchronizationManager.initSynchronization();
+                try {
+                    cuentaLockManager.bloquearHastaFinDeTransaccion(9L);
+                } finally {
+                    TransactionSynchronizationManager.clearSynchronization();
+                }
+            }, executor);
+
+            Exception exception = assertThrows(Exception.class, () -> segundo.get(2, TimeUnit.SECONDS));
+            assertInstanceOf(CuentaOcupadaException.class, exception.getCause());
+        } finally {
+            executor.shutdownNow();
+            finalizarTransaccion();
+        }
+    }
+
+    private void finalizarTransaccion() {
+        for (TransactionSynchronization sincronizacion : TransactionSynchronizationManager.getSynchronizations()) {
+            sincronizacion.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+    }
+}
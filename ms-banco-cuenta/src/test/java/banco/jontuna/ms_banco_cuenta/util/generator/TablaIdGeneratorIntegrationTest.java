@@ -0,0 +1,133 @@
+package banco.jontuna.ms_banco_cuenta.util.generator;
+
+import banco.jontuna.ms_banco_cuenta.model.Cuenta;
+import banco.jontuna.ms_banco_cuenta.model.Movimiento;
+import banco.jontuna.ms_banco_cuenta.repository.CuentaRepository;
+import banco.jontuna.ms_banco_cuenta.util.CuentasDePrueba;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+    "spring.jpa.properties.banco.id.tamano-asignacion=50"
+})
+@ActiveProfiles("test")
+class TablaIdGeneratorIntegrationTest {
+
+    private static final int CANTIDAD_INSERTS = 1000;
+
+    // Cuenta cada execute/executeQuery/executeUpdate/executeBatch: una ida y vuelta a la base de datos.
+    private static final AtomicLong IDAS_Y_VUELTAS = new AtomicLong();
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void insertarMilMovimientos_ConIdsPorBloqueYBatching_DeberiaReducirLasIdasYVueltasJdbc() {
+        // Arrange
+        Cuenta cuenta = crearCuenta();
+
+        // Act
+        // Sin batching: un INSERT por entidad, igual que con GenerationType.IDENTITY
+        long sinBatching = insertarMovimientos(cuenta.getCuentaId(), 1);
+        long conBatching = insertarMovimientos(cuenta.getCuentaId(), 50);
+
+        // Assert
+        assertTrue(sinBatching >= CANTIDAD_INSERTS, "Idas y vueltas sin batching: " + sinBatching);
+        // 20 batches de INSERT + SELECT/UPDATE de ID_GENERADOR por cada bloque de 50 IDs
+        assertTrue(conBatching <= 70, "Idas y vueltas con batching: " + conBatching);
+    }
+
+    @Test
+    void insertarCuentas_VariasCuentas_DeberiaAsignarIdsUnicosCrecientes() {
+        // Act
+        Cuenta primera = crearCuenta();
+        Cuenta segunda = crearCuenta();
+
+        // Assert
+        assertNotNull(primera.getCuentaId());
+        assertTrue(segunda.getCuentaId() > primera.getCuentaId());
+    }
+
+    private long insertarMovimientos(Long cuentaId, int tamanoBatch) {
+        IDAS_Y_VUELTAS.set(0);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Session session = entityManager.unwrap(Session.class);
+            session.setJdbcBatchSize(tamanoBatch);
+
+            Cuenta cuenta = session.getReference(Cuenta.class, cuentaId);
+            for (int i = 0; i < CANTIDAD_INSERTS; i++) {
+                session.persist(new Movimiento("DEPOSITO", BigDecimal.ONE, BigDecimal.ONE, cuenta));
+            }
+            session.flush();
+            session.clear();
+        });
+
+        return IDAS_Y_VUELTAS.get();
+    }
+
+    private Cuenta crearCuenta() {
+        return cuentaRepository.save(CuentasDePrueba.nueva());
+    }
+
+    @TestConfiguration
+    static class ContadorJdbcConfig {
+
+        @Bean
+        static BeanPostProcessor contadorJdbcPostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource ? contar(bean, DataSource.class) : bean;
+                }
+            };
+        }
+
+        private static Object contar(Object destino, Class<?> tipo) {
+            return Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[] { tipo }, (proxy, metodo, args) -> {
+                Object resultado;
+                try {
+                    resultado = metodo.invoke(destino, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getTargetException();
+                }
+
+                if (metodo.getName().startsWith("execute")) {
+                    IDAS_Y_VUELTAS.incrementAndGet();
+                }
+
+                Class<?> retorno = metodo.getReturnType();
+                if (resultado != null && (retorno == Connection.class || Statement.class.isAssignableFrom(retorno))) {
+                    return contar(resultado, retorno);
+                }
+                return resultado;
+            });
+        }
+    }
+}